@@ -0,0 +1,48 @@
+package com.ecomarket.inventoryservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Binary formats for service-to-service traffic (cart availability checks, reservations).
+// Besides JSON, endpoints read and write CBOR (application/cbor) and Smile
+// (application/x-jackson-smile) based on Accept / Content-Type. Without Accept, or with Accept: */*,
+// responses are still JSON.
+// The ObjectMappers come from Spring Boot's Jackson2ObjectMapperBuilder and carry the HAL module,
+// so resources keep their _links in all three formats.
+@Configuration
+public class BinaryFormatsConfig {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder, ObjectProvider<HalMediaTypeConfiguration> hal) {
+        return new MappingJackson2CborHttpMessageConverter(withHal(isoDates(builder.cbor()).build(), hal));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder, ObjectProvider<HalMediaTypeConfiguration> hal) {
+        return new MappingJackson2SmileHttpMessageConverter(withHal(isoDates(builder.smile()).build(), hal));
+    }
+
+    // Switching the factory brings back dates as arrays: repeat what Boot applies to JSON
+    private static Jackson2ObjectMapperBuilder isoDates(Jackson2ObjectMapperBuilder builder) {
+        return builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+    }
+
+    // Same registration Spring HATEOAS applies to the application/hal+json ObjectMapper
+    private static ObjectMapper withHal(ObjectMapper mapper, ObjectProvider<HalMediaTypeConfiguration> hal) {
+        HalMediaTypeConfiguration configuration = hal.getIfAvailable();
+        return configuration != null ? configuration.configureObjectMapper(mapper) : mapper;
+    }
+}
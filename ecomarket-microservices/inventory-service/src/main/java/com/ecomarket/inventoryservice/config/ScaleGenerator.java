@@ -0,0 +1,81 @@
+package com.ecomarket.inventoryservice.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic stock rows for performance tests, by scale factor: SF=1 is 10k products with
+ * ids "1".."10000", the same products that product-service generates and that the orders of
+ * order-service reference with the same scale.
+ *
+ * Enabled with ecomarket.generator.scale (pass the same value as ecomarket.generador.escala in
+ * the other services) and requires an empty product table. The ids are assigned here and no
+ * sequence has to be moved afterwards, so plain batched INSERTs work on MySQL as well as H2.
+ * Ten thousand rows per SF fit in one batch loop; a thread pool would not pay off.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "ecomarket.generator.scale")
+public class ScaleGenerator implements CommandLineRunner {
+
+    static final int PRODUCTS_PER_SCALE = 10_000;
+    static final int MAX_QUANTITY = 500;
+
+    private static final String INSERT_PRODUCT = "INSERT INTO product (id, name, quantity) VALUES (?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${ecomarket.generator.scale}")
+    private double scale;
+
+    @Value("${ecomarket.generator.seed:42}")
+    private long seed = 42;
+
+    @Value("${ecomarket.generator.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Override
+    public void run(String... args) {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product", Long.class) > 0) {
+            throw new IllegalStateException("The scale generator requires an empty product table");
+        }
+
+        long start = System.currentTimeMillis();
+        int products = Math.max(1, (int) Math.round(PRODUCTS_PER_SCALE * scale));
+        List<Integer> ids = new ArrayList<>(products);
+        for (int productId = 1; productId <= products; productId++) {
+            ids.add(productId);
+        }
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, ids, batchSize, (ps, productId) -> {
+            ps.setString(1, String.valueOf(productId));
+            // Same code as codigo_sku in product-service
+            ps.setString(2, String.format("ECO-%06d", productId));
+            ps.setInt(3, quantity(seed, productId));
+        });
+        System.out.printf("📦 Scale generator %.2f: %d products in %d ms%n",
+                scale, products, System.currentTimeMillis() - start);
+    }
+
+    // Stock between 0 and MAX_QUANTITY - 1, from the id alone so it does not depend on insert order
+    static int quantity(long seed, int productId) {
+        return (int) Math.floorMod(mix(seed, productId), (long) MAX_QUANTITY);
+    }
+
+    // SplitMix64, as in the generators of the other services
+    static long mix(long seed, long value) {
+        long z = seed * 0x9E3779B97F4A7C15L + value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
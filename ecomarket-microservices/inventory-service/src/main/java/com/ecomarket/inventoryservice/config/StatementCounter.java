@@ -0,0 +1,37 @@
+package com.ecomarket.inventoryservice.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// StatementInspector that counts the SQL statements Hibernate prepares on the current thread
+// between start() and stop() (one HTTP request, see MetricsConfig).
+// An inspector that was already configured keeps being called.
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> STATEMENTS = new ThreadLocal<>();
+
+    private final StatementInspector next;
+
+    public StatementCounter(StatementInspector next) {
+        this.next = next;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] statements = STATEMENTS.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+        return next != null ? next.inspect(sql) : sql;
+    }
+
+    static void start() {
+        STATEMENTS.set(new int[1]);
+    }
+
+    // Statements counted since start() on this thread; stops counting
+    static int stop() {
+        int[] statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return statements != null ? statements[0] : 0;
+    }
+}
@@ -1,31 +1,50 @@
 package com.ecomarket.inventoryservice.controller;
 
+import com.ecomarket.inventoryservice.dto.AvailabilityRequest;
+import com.ecomarket.inventoryservice.dto.AvailabilityResponse;
+import com.ecomarket.inventoryservice.dto.ReservationRequest;
 import com.ecomarket.inventoryservice.model.Product;
+import com.ecomarket.inventoryservice.model.Reservation;
 import com.ecomarket.inventoryservice.repository.ProductRepository;
+import com.ecomarket.inventoryservice.service.InventoryService;
+import jakarta.validation.Valid;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @RestController
 @RequestMapping("/inventory")
 public class InventoryController {
 
+    // Link templates resolved once per request base (see LinkTemplate)
+    private static final LinkTemplate PRODUCT = LinkTemplate.of(methodOn(InventoryController.class).getProduct(null));
+    private static final LinkTemplate IN_STOCK = LinkTemplate.of(methodOn(InventoryController.class).isInStock(null));
+    private static final LinkTemplate COMMIT = LinkTemplate.of(methodOn(InventoryController.class).commit(null));
+    private static final LinkTemplate RELEASE = LinkTemplate.of(methodOn(InventoryController.class).release(null));
+
     private final ProductRepository repo;
+    private final InventoryService inventoryService;
 
-    public InventoryController(ProductRepository repo) {
+    public InventoryController(ProductRepository repo, InventoryService inventoryService) {
         this.repo = repo;
+        this.inventoryService = inventoryService;
     }
 
     @PostMapping("/add")
     public EntityModel<Product> addProduct(@RequestBody Product product) {
         Product saved = repo.save(product);
         return EntityModel.of(saved,
-                linkTo(methodOn(InventoryController.class).getProduct(saved.getId())).withSelfRel(),
-                linkTo(methodOn(InventoryController.class).isInStock(saved.getId())).withRel("isInStock")
+                PRODUCT.expand(saved.getId()).withSelfRel(),
+                IN_STOCK.expand(saved.getId()).withRel("isInStock")
         );
     }
 
@@ -37,8 +56,8 @@ public class InventoryController {
         }
         Product product = productOpt.get();
         EntityModel<Product> resource = EntityModel.of(product,
-                linkTo(methodOn(InventoryController.class).getProduct(id)).withSelfRel(),
-                linkTo(methodOn(InventoryController.class).isInStock(id)).withRel("isInStock")
+                PRODUCT.expand(id).withSelfRel(),
+                IN_STOCK.expand(id).withRel("isInStock")
         );
         return ResponseEntity.ok(resource);
     }
@@ -48,4 +67,62 @@ public class InventoryController {
         boolean inStock = repo.findById(id).map(p -> p.getQuantity() > 0).orElse(false);
         return ResponseEntity.ok(inStock);
     }
-}
\ No newline at end of file
+
+    // Whole-cart check in one round trip instead of one isInStock call per line
+    @PostMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(@Valid @RequestBody AvailabilityRequest request) {
+        return ResponseEntity.ok(inventoryService.checkAvailability(request));
+    }
+
+    // Reserve -> (commit | release). 404 unknown product/reservation, 409 no stock or already closed,
+    // 503 + Retry-After when the row lock could not be acquired in time (nothing was reserved)
+    @PostMapping("/{id}/reserve")
+    public ResponseEntity<EntityModel<Reservation>> reserve(@PathVariable String id,
+                                                            @Valid @RequestBody ReservationRequest request) {
+        Reservation reservation = inventoryService.reserve(id, request.quantity());
+        return ResponseEntity.status(HttpStatus.CREATED).body(toModel(reservation));
+    }
+
+    @PostMapping("/reservations/{reservationId}/release")
+    public ResponseEntity<EntityModel<Reservation>> release(@PathVariable String reservationId) {
+        return ResponseEntity.ok(toModel(inventoryService.release(reservationId)));
+    }
+
+    @PostMapping("/reservations/{reservationId}/commit")
+    public ResponseEntity<EntityModel<Reservation>> commit(@PathVariable String reservationId) {
+        return ResponseEntity.ok(toModel(inventoryService.commit(reservationId)));
+    }
+
+    private EntityModel<Reservation> toModel(Reservation reservation) {
+        EntityModel<Reservation> resource = EntityModel.of(reservation,
+                PRODUCT.expand(reservation.getProductId()).withRel("product"));
+        if (reservation.getStatus() == Reservation.Status.RESERVED) {
+            resource.add(COMMIT.expand(reservation.getId()).withRel("commit"));
+            resource.add(RELEASE.expand(reservation.getId()).withRel("release"));
+        }
+        return resource;
+    }
+
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<Map<String, String>> handleNotFound(NoSuchElementException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+
+    // Lock wait timeout / deadlock victim: the transaction rolled back, so the request is safe to retry
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleLockTimeout(PessimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Inventory is busy, retry the request"));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+}
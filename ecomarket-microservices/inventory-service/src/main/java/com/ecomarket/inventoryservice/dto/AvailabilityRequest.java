@@ -0,0 +1,18 @@
+package com.ecomarket.inventoryservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Cart lines to check in one call. Repeated product ids are added together.
+ */
+public record AvailabilityRequest(@NotEmpty @Size(max = 500) @Valid List<Item> items) {
+
+    public record Item(@NotBlank String productId, @Min(1) int quantity) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecomarket.inventoryservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Compact availability answer: productId -> {available, shortBy}. shortBy is omitted when available.
+ */
+public record AvailabilityResponse(boolean allAvailable, Map<String, Line> items) {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Line(boolean available, Integer shortBy) {
+
+        public static Line of(int requested, int inStock) {
+            return requested <= inStock ? new Line(true, null) : new Line(false, requested - inStock);
+        }
+    }
+}
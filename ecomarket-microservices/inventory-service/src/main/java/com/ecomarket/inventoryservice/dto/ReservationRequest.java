@@ -0,0 +1,6 @@
+package com.ecomarket.inventoryservice.dto;
+
+import jakarta.validation.constraints.Min;
+
+public record ReservationRequest(@Min(1) int quantity) {
+}
@@ -0,0 +1,49 @@
+package com.ecomarket.inventoryservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+
+import java.time.Instant;
+
+/**
+ * Stock held for a checkout. The units are taken from Product.quantity when the
+ * reservation is created; release gives them back, commit makes the sale final.
+ */
+@Entity
+public class Reservation {
+
+    public enum Status { RESERVED, RELEASED, COMMITTED }
+
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String productId;
+
+    private int quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    private Instant createdAt;
+
+    // Getters y Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getProductId() { return productId; }
+    public void setProductId(String productId) { this.productId = productId; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
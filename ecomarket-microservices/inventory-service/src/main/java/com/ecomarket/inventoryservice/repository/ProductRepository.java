@@ -2,6 +2,31 @@ package com.ecomarket.inventoryservice.repository;
 
 import com.ecomarket.inventoryservice.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, String> {
+
+    // Conditional atomic decrement: the row lock taken by the UPDATE serializes concurrent
+    // checkouts and the WHERE clause makes it a no-op (0 rows) when stock is insufficient
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity WHERE p.id = :id AND p.quantity >= :quantity")
+    int decrementStock(@Param("id") String id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :quantity WHERE p.id = :id")
+    int incrementStock(@Param("id") String id, @Param("quantity") int quantity);
+
+    // Stock levels for many products in one IN query, without loading full entities
+    @Query("SELECT p.id AS id, p.quantity AS quantity FROM Product p WHERE p.id IN :ids")
+    List<StockLevel> findStockLevels(@Param("ids") Collection<String> ids);
+
+    interface StockLevel {
+        String getId();
+        int getQuantity();
+    }
 }
@@ -0,0 +1,17 @@
+package com.ecomarket.inventoryservice.repository;
+
+import com.ecomarket.inventoryservice.model.Reservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ReservationRepository extends JpaRepository<Reservation, String> {
+
+    // Moves a reservation out of "from" only if it is still there; returns 0 when another request won the race
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") String id,
+                   @Param("from") Reservation.Status from,
+                   @Param("to") Reservation.Status to);
+}
@@ -1,18 +1,31 @@
 package com.ecomarket.inventoryservice.service;
 
+import com.ecomarket.inventoryservice.dto.AvailabilityRequest;
+import com.ecomarket.inventoryservice.dto.AvailabilityResponse;
 import com.ecomarket.inventoryservice.model.Product;
+import com.ecomarket.inventoryservice.model.Reservation;
 import com.ecomarket.inventoryservice.repository.ProductRepository;
+import com.ecomarket.inventoryservice.repository.ReservationRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class InventoryService {
 
     private final ProductRepository repo;
+    private final ReservationRepository reservationRepo;
 
-    public InventoryService(ProductRepository repo) {
+    public InventoryService(ProductRepository repo, ReservationRepository reservationRepo) {
         this.repo = repo;
+        this.reservationRepo = reservationRepo;
     }
 
     public Product addProduct(Product product) {
@@ -23,4 +36,100 @@ public class InventoryService {
         Optional<Product> product = repo.findById(id);
         return product.map(p -> p.getQuantity() > 0).orElse(false);
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks every cart line with a single query. Unknown products count as 0 in stock.
+     *
+     * @throws IllegalArgumentException if the repeated lines of a product add up to more than Integer.MAX_VALUE
+     */
+    @Transactional(readOnly = true)
+    public AvailabilityResponse checkAvailability(AvailabilityRequest request) {
+        Map<String, Integer> requested = new LinkedHashMap<>();
+        for (AvailabilityRequest.Item item : request.items()) {
+            try {
+                requested.merge(item.productId(), item.quantity(), Math::addExact);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Requested quantity too large for product " + item.productId());
+            }
+        }
+
+        Map<String, Integer> inStock = new HashMap<>();
+        for (ProductRepository.StockLevel level : repo.findStockLevels(requested.keySet())) {
+            inStock.put(level.getId(), level.getQuantity());
+        }
+
+        Map<String, AvailabilityResponse.Line> lines = new LinkedHashMap<>();
+        boolean allAvailable = true;
+        for (Map.Entry<String, Integer> entry : requested.entrySet()) {
+            AvailabilityResponse.Line line = AvailabilityResponse.Line.of(entry.getValue(), inStock.getOrDefault(entry.getKey(), 0));
+            allAvailable &= line.available();
+            lines.put(entry.getKey(), line);
+        }
+        return new AvailabilityResponse(allAvailable, lines);
+    }
+
+    /**
+     * Takes quantity units out of stock and records the hold.
+     * The stock check and the decrement are a single conditional UPDATE, so concurrent
+     * reservations can never drive quantity below zero.
+     *
+     * @throws IllegalArgumentException if quantity is not positive
+     * @throws NoSuchElementException   if the product does not exist
+     * @throws IllegalStateException    if there is not enough stock
+     */
+    @Transactional
+    public Reservation reserve(String productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        if (repo.decrementStock(productId, quantity) == 0) {
+            if (!repo.existsById(productId)) {
+                throw new NoSuchElementException("Product not found: " + productId);
+            }
+            throw new IllegalStateException("Insufficient stock for product " + productId);
+        }
+        Reservation reservation = new Reservation();
+        reservation.setId(UUID.randomUUID().toString());
+        reservation.setProductId(productId);
+        reservation.setQuantity(quantity);
+        reservation.setStatus(Reservation.Status.RESERVED);
+        reservation.setCreatedAt(Instant.now());
+        return reservationRepo.save(reservation);
+    }
+
+    /**
+     * Cancels a pending reservation and returns its units to stock.
+     *
+     * @throws NoSuchElementException if the reservation does not exist
+     * @throws IllegalStateException  if it was already released or committed
+     */
+    @Transactional
+    public Reservation release(String reservationId) {
+        Reservation reservation = transition(reservationId, Reservation.Status.RELEASED);
+        repo.incrementStock(reservation.getProductId(), reservation.getQuantity());
+        return reservation;
+    }
+
+    /**
+     * Confirms a pending reservation; its units stay out of stock for good.
+     *
+     * @throws NoSuchElementException if the reservation does not exist
+     * @throws IllegalStateException  if it was already released or committed
+     */
+    @Transactional
+    public Reservation commit(String reservationId) {
+        return transition(reservationId, Reservation.Status.COMMITTED);
+    }
+
+    // Only one caller can move a reservation out of RESERVED, so a release can never be applied twice
+    private Reservation transition(String reservationId, Reservation.Status to) {
+        if (reservationRepo.transition(reservationId, Reservation.Status.RESERVED, to) == 0) {
+            Reservation existing = reservationRepo.findById(reservationId)
+                    .orElseThrow(() -> new NoSuchElementException("Reservation not found: " + reservationId));
+            throw new IllegalStateException("Reservation " + reservationId + " is already " + existing.getStatus());
+        }
+        Reservation reservation = reservationRepo.findById(reservationId).orElseThrow();
+        reservation.setStatus(to);
+        return reservation;
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecomarket.inventoryservice.config;
+
+import com.ecomarket.inventoryservice.model.Product;
+import com.ecomarket.inventoryservice.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Full context with the embedded H2 instead of MySQL, so the interceptor, the statement
+ * inspector and the repository advice all run as in production.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory-metrics;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        Product product = new Product();
+        product.setId("PROD-1");
+        product.setName("Test");
+        product.setQuantity(10);
+        productRepository.save(product);
+    }
+
+    @Test
+    void testHistogramsTaggedByUriTemplate() throws Exception {
+        mockMvc.perform(get("/inventory/PROD-1")).andExpect(status().isOk());
+
+        String prometheus = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Buckets per template, never per path with the id
+        assertTrue(prometheus.contains("http_server_requests_seconds_bucket{application=\"inventory-service\""));
+        assertTrue(prometheus.contains("uri=\"/inventory/{id}\""));
+        assertFalse(prometheus.contains("uri=\"/inventory/PROD-1\""));
+        assertTrue(prometheus.contains("spring_data_repository_invocations_seconds_bucket{"));
+        assertTrue(prometheus.contains("ecomarket_http_server_sql_statements_bucket{"));
+        assertTrue(prometheus.contains("ecomarket_repository_rows_bucket{"));
+
+        assertTrue(meterRegistry.get(MetricsConfig.SQL_STATEMENTS_PER_REQUEST)
+                .tags("method", "GET", "uri", "/inventory/{id}").summary().max() >= 1);
+        assertEquals(1, meterRegistry.get(MetricsConfig.ROWS_PER_METHOD)
+                .tags("repository", "ProductRepository", "method", "findById").summary().max());
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecomarket.inventoryservice.config;
+
+import com.ecomarket.inventoryservice.model.Product;
+import com.ecomarket.inventoryservice.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SF=0.01 is 100 products with ids "1".."100", loaded into the embedded H2 instead of MySQL.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory-generator;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "ecomarket.generator.scale=0.01",
+        "ecomarket.generator.batch-size=30"
+})
+class ScaleGeneratorTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void testGeneratedProducts() {
+        List<Product> products = productRepository.findAll();
+
+        assertEquals(100, products.size());
+        for (Product product : products) {
+            int productId = Integer.parseInt(product.getId());
+            assertTrue(productId >= 1 && productId <= 100);
+            assertEquals(String.format("ECO-%06d", productId), product.getName());
+            assertEquals(ScaleGenerator.quantity(42, productId), product.getQuantity());
+            assertTrue(product.getQuantity() >= 0 && product.getQuantity() < ScaleGenerator.MAX_QUANTITY);
+        }
+    }
+}
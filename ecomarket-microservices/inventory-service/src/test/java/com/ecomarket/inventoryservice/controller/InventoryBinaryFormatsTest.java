@@ -0,0 +1,106 @@
+package com.ecomarket.inventoryservice.controller;
+
+import com.ecomarket.inventoryservice.config.BinaryFormatsConfig;
+import com.ecomarket.inventoryservice.dto.AvailabilityRequest;
+import com.ecomarket.inventoryservice.dto.AvailabilityResponse;
+import com.ecomarket.inventoryservice.model.Product;
+import com.ecomarket.inventoryservice.repository.ProductRepository;
+import com.ecomarket.inventoryservice.service.InventoryService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(InventoryController.class)
+@Import(BinaryFormatsConfig.class)
+class InventoryBinaryFormatsTest {
+
+    private static final MediaType APPLICATION_CBOR = MediaType.valueOf("application/cbor");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ProductRepository repo;
+
+    @MockBean
+    private InventoryService inventoryService;
+
+    @Test
+    void testProductInJsonCborAndSmile() throws Exception {
+        Product product = new Product();
+        product.setId("1");
+        product.setName("Test");
+        product.setQuantity(10);
+        when(repo.findById("1")).thenReturn(Optional.of(product));
+
+        byte[] json = mockMvc.perform(get("/inventory/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaTypes.HAL_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] cbor = mockMvc.perform(get("/inventory/1").accept(APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get("/inventory/1").accept(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Same tree, _links included
+        JsonNode expected = objectMapper.readTree(json);
+        assertTrue(expected.path("_links").has("self"));
+        assertEquals(expected, new CBORMapper().readTree(cbor));
+        assertEquals(expected, new SmileMapper().readTree(smile));
+    }
+
+    @Test
+    void testAvailabilityWithCborBody() throws Exception {
+        when(inventoryService.checkAvailability(any(AvailabilityRequest.class))).thenReturn(
+                new AvailabilityResponse(false, Map.of("1", new AvailabilityResponse.Line(false, 3))));
+        byte[] body = new CBORMapper().writeValueAsBytes(
+                new AvailabilityRequest(List.of(new AvailabilityRequest.Item("1", 5))));
+
+        byte[] response = mockMvc.perform(post("/inventory/availability")
+                        .contentType(APPLICATION_CBOR)
+                        .accept(APPLICATION_CBOR)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        AvailabilityResponse availability = new CBORMapper().readValue(response, AvailabilityResponse.class);
+        assertFalse(availability.allAvailable());
+        assertEquals(3, availability.items().get("1").shortBy());
+    }
+
+    @Test
+    void testJsonStillDefaultForWildcardAccept() throws Exception {
+        when(repo.findById("1")).thenReturn(Optional.of(new Product()));
+
+        mockMvc.perform(get("/inventory/1").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaTypes.HAL_JSON));
+    }
+}
@@ -1,20 +1,28 @@
 package com.ecomarket.inventoryservice.controller;
 
+import com.ecomarket.inventoryservice.dto.AvailabilityResponse;
 import com.ecomarket.inventoryservice.model.Product;
+import com.ecomarket.inventoryservice.model.Reservation;
 import com.ecomarket.inventoryservice.repository.ProductRepository;
+import com.ecomarket.inventoryservice.service.InventoryService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @WebMvcTest(InventoryController.class)
@@ -26,6 +34,9 @@ public class InventoryControllerTest {
     @MockBean
     private ProductRepository repo;
 
+    @MockBean
+    private InventoryService inventoryService;
+
     @Test
     void testAddProduct() throws Exception {
         Product product = new Product();
@@ -56,8 +67,8 @@ void testIsInStockTrue() throws Exception {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.id").value("1"))
             .andExpect(jsonPath("$.quantity").value(5))
-            .andExpect(jsonPath("$._links.self.href").exists())
-            .andExpect(jsonPath("$._links.isInStock.href").exists());
+            .andExpect(jsonPath("$._links.self.href").value("http://localhost/inventory/1"))
+            .andExpect(jsonPath("$._links.isInStock.href").value("http://localhost/inventory/1/isInStock"));
 }
 
 @Test
@@ -83,4 +94,95 @@ void testIsInStockNotFound() throws Exception {
     mockMvc.perform(get("/inventory/3"))
             .andExpect(status().isNotFound());
 }
-}
\ No newline at end of file
+
+@Test
+void testReserve() throws Exception {
+    Reservation reservation = new Reservation();
+    reservation.setId("r1");
+    reservation.setProductId("1");
+    reservation.setQuantity(2);
+    reservation.setStatus(Reservation.Status.RESERVED);
+
+    when(inventoryService.reserve("1", 2)).thenReturn(reservation);
+
+    mockMvc.perform(post("/inventory/1/reserve")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"quantity\":2}"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").value("r1"))
+            .andExpect(jsonPath("$.status").value("RESERVED"))
+            .andExpect(jsonPath("$._links.product.href").value("http://localhost/inventory/1"))
+            .andExpect(jsonPath("$._links.commit.href").value("http://localhost/inventory/reservations/r1/commit"))
+            .andExpect(jsonPath("$._links.release.href").value("http://localhost/inventory/reservations/r1/release"));
+}
+
+@Test
+void testReserveErrors() throws Exception {
+    when(inventoryService.reserve("1", 50)).thenThrow(new IllegalStateException("Insufficient stock for product 1"));
+    when(inventoryService.reserve("9", 1)).thenThrow(new NoSuchElementException("Product not found: 9"));
+
+    mockMvc.perform(post("/inventory/1/reserve")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"quantity\":50}"))
+            .andExpect(status().isConflict());
+
+    mockMvc.perform(post("/inventory/9/reserve")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"quantity\":1}"))
+            .andExpect(status().isNotFound());
+
+    mockMvc.perform(post("/inventory/1/reserve")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"quantity\":0}"))
+            .andExpect(status().isBadRequest());
+}
+
+@Test
+void testReserveLockTimeout() throws Exception {
+    when(inventoryService.reserve("1", 1)).thenThrow(new PessimisticLockingFailureException("Timeout trying to lock table PRODUCT"));
+
+    mockMvc.perform(post("/inventory/1/reserve")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"quantity\":1}"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string("Retry-After", "1"));
+}
+
+@Test
+void testCommitAlreadyReleased() throws Exception {
+    when(inventoryService.commit("r1")).thenThrow(new IllegalStateException("Reservation r1 is already RELEASED"));
+
+    mockMvc.perform(post("/inventory/reservations/r1/commit"))
+            .andExpect(status().isConflict());
+}
+
+@Test
+void testCheckAvailability() throws Exception {
+    Map<String, AvailabilityResponse.Line> lines = new LinkedHashMap<>();
+    lines.put("1", new AvailabilityResponse.Line(true, null));
+    lines.put("2", new AvailabilityResponse.Line(false, 3));
+    when(inventoryService.checkAvailability(any())).thenReturn(new AvailabilityResponse(false, lines));
+
+    mockMvc.perform(post("/inventory/availability")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"items\":[{\"productId\":\"1\",\"quantity\":1},{\"productId\":\"2\",\"quantity\":4}]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.allAvailable").value(false))
+            .andExpect(jsonPath("$.items.1.available").value(true))
+            .andExpect(jsonPath("$.items.1.shortBy").doesNotExist())
+            .andExpect(jsonPath("$.items.2.shortBy").value(3));
+
+    mockMvc.perform(post("/inventory/availability")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"items\":[]}"))
+            .andExpect(status().isBadRequest());
+
+    when(inventoryService.checkAvailability(argThat(r -> r.items().size() == 2 && r.items().get(0).quantity() == Integer.MAX_VALUE)))
+            .thenThrow(new IllegalArgumentException("Requested quantity too large for product 1"));
+    mockMvc.perform(post("/inventory/availability")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"items\":[{\"productId\":\"1\",\"quantity\":2147483647},{\"productId\":\"1\",\"quantity\":1}]}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Requested quantity too large for product 1"));
+}
+}
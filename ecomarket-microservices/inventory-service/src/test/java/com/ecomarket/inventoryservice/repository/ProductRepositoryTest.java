@@ -0,0 +1,45 @@
+package com.ecomarket.inventoryservice.repository;
+
+import com.ecomarket.inventoryservice.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+public class ProductRepositoryTest {
+
+    @Autowired
+    private ProductRepository repo;
+
+    @Test
+    void testFindStockLevels() {
+        repo.saveAll(List.of(product("1", 5), product("2", 0), product("3", 9)));
+
+        Map<String, Integer> levels = repo.findStockLevels(List.of("1", "2", "404")).stream()
+                .collect(Collectors.toMap(ProductRepository.StockLevel::getId, ProductRepository.StockLevel::getQuantity));
+
+        assertEquals(Map.of("1", 5, "2", 0), levels);
+    }
+
+    @Test
+    void testDecrementStockIsConditional() {
+        repo.save(product("1", 2));
+
+        assertEquals(1, repo.decrementStock("1", 2));
+        assertEquals(0, repo.decrementStock("1", 1));
+    }
+
+    private Product product(String id, int quantity) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setQuantity(quantity);
+        return product;
+    }
+}
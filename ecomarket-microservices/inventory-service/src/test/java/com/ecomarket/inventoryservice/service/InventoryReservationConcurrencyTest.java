@@ -0,0 +1,143 @@
+package com.ecomarket.inventoryservice.service;
+
+import com.ecomarket.inventoryservice.model.Product;
+import com.ecomarket.inventoryservice.model.Reservation;
+import com.ecomarket.inventoryservice.repository.ProductRepository;
+import com.ecomarket.inventoryservice.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress test for the reservation API against a real (embedded H2) database:
+ * thousands of concurrent checkouts on the same product must never oversell.
+ * Runs outside a test transaction so every reservation commits on its own connection.
+ * H2 gives up on a row lock after 1 s by default; with THREADS writers queued on the same row
+ * a slow machine can exceed that, so the datasource allows LOCK_TIMEOUT ms per wait.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory-concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=" + InventoryReservationConcurrencyTest.LOCK_TIMEOUT,
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(InventoryService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class InventoryReservationConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 4000;
+    private static final int STOCK = 1000;
+    static final int LOCK_TIMEOUT = 10_000;
+
+    @Autowired
+    private InventoryService service;
+
+    @Autowired
+    private ProductRepository repo;
+
+    @Autowired
+    private ReservationRepository reservationRepo;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepo.deleteAll();
+        repo.deleteAll();
+        Product product = new Product();
+        product.setId("flash");
+        product.setName("Flash sale item");
+        product.setQuantity(STOCK);
+        repo.save(product);
+    }
+
+    @Test
+    void testConcurrentReservationsNeverOversell() throws Exception {
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            futures.add(pool.submit(() -> {
+                try {
+                    start.await();
+                    service.reserve("flash", 1);
+                    reserved.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                } catch (Throwable t) {
+                    unexpected.add(t);
+                }
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected errors: " + unexpected);
+        assertEquals(STOCK, reserved.get());
+        assertEquals(ATTEMPTS - STOCK, rejected.get());
+        assertEquals(0, repo.findById("flash").orElseThrow().getQuantity());
+        assertEquals(STOCK, reservationRepo.count());
+    }
+
+    @Test
+    void testConcurrentReleaseAndCommitApplyOnce() throws Exception {
+        Reservation reservation = service.reserve("flash", 10);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            boolean release = i % 2 == 0;
+            futures.add(pool.submit(() -> {
+                try {
+                    start.await();
+                    if (release) {
+                        service.release(reservation.getId());
+                    } else {
+                        service.commit(reservation.getId());
+                    }
+                    winners.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    // already closed by another request
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(1, winners.get());
+        Reservation closed = reservationRepo.findById(reservation.getId()).orElseThrow();
+        int expectedStock = closed.getStatus() == Reservation.Status.RELEASED ? STOCK : STOCK - 10;
+        assertEquals(expectedStock, repo.findById("flash").orElseThrow().getQuantity());
+    }
+}
@@ -1,10 +1,17 @@
 package com.ecomarket.inventoryservice.service;
 
+import com.ecomarket.inventoryservice.dto.AvailabilityRequest;
+import com.ecomarket.inventoryservice.dto.AvailabilityResponse;
 import com.ecomarket.inventoryservice.model.Product;
+import com.ecomarket.inventoryservice.model.Reservation;
 import com.ecomarket.inventoryservice.repository.ProductRepository;
+import com.ecomarket.inventoryservice.repository.ReservationRepository;
 import org.junit.jupiter.api.Test;
 
 
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -15,7 +22,7 @@ public class InventoryServiceTest {
     @Test
     void testAddProduct() {
         ProductRepository repo = mock(ProductRepository.class);
-        InventoryService service = new InventoryService(repo);
+        InventoryService service = new InventoryService(repo, mock(ReservationRepository.class));
 
         Product product = new Product();
         product.setId("1");
@@ -35,7 +42,7 @@ public class InventoryServiceTest {
     @Test
     void testIsInStockTrue() {
         ProductRepository repo = mock(ProductRepository.class);
-        InventoryService service = new InventoryService(repo);
+        InventoryService service = new InventoryService(repo, mock(ReservationRepository.class));
 
         Product product = new Product();
         product.setId("1");
@@ -49,7 +56,7 @@ public class InventoryServiceTest {
     @Test
     void testIsInStockFalse() {
         ProductRepository repo = mock(ProductRepository.class);
-        InventoryService service = new InventoryService(repo);
+        InventoryService service = new InventoryService(repo, mock(ReservationRepository.class));
 
         Product product = new Product();
         product.setId("2");
@@ -63,10 +70,111 @@ public class InventoryServiceTest {
     @Test
     void testIsInStockNotFound() {
         ProductRepository repo = mock(ProductRepository.class);
-        InventoryService service = new InventoryService(repo);
+        InventoryService service = new InventoryService(repo, mock(ReservationRepository.class));
 
         when(repo.findById("3")).thenReturn(Optional.empty());
 
         assertFalse(service.isInStock("3"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testReserveDecrementsStock() {
+        ProductRepository repo = mock(ProductRepository.class);
+        ReservationRepository reservationRepo = mock(ReservationRepository.class);
+        InventoryService service = new InventoryService(repo, reservationRepo);
+
+        when(repo.decrementStock("1", 3)).thenReturn(1);
+        when(reservationRepo.save(any(Reservation.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Reservation reservation = service.reserve("1", 3);
+
+        assertNotNull(reservation.getId());
+        assertEquals("1", reservation.getProductId());
+        assertEquals(3, reservation.getQuantity());
+        assertEquals(Reservation.Status.RESERVED, reservation.getStatus());
+    }
+
+    @Test
+    void testReserveInsufficientStock() {
+        ProductRepository repo = mock(ProductRepository.class);
+        ReservationRepository reservationRepo = mock(ReservationRepository.class);
+        InventoryService service = new InventoryService(repo, reservationRepo);
+
+        when(repo.decrementStock("1", 3)).thenReturn(0);
+        when(repo.existsById("1")).thenReturn(true);
+        when(repo.existsById("9")).thenReturn(false);
+
+        assertThrows(IllegalStateException.class, () -> service.reserve("1", 3));
+        assertThrows(NoSuchElementException.class, () -> service.reserve("9", 3));
+        assertThrows(IllegalArgumentException.class, () -> service.reserve("1", 0));
+        verify(reservationRepo, never()).save(any());
+    }
+
+    @Test
+    void testReleaseReturnsStockOnlyOnce() {
+        ProductRepository repo = mock(ProductRepository.class);
+        ReservationRepository reservationRepo = mock(ReservationRepository.class);
+        InventoryService service = new InventoryService(repo, reservationRepo);
+
+        Reservation reservation = new Reservation();
+        reservation.setId("r1");
+        reservation.setProductId("1");
+        reservation.setQuantity(2);
+        reservation.setStatus(Reservation.Status.RELEASED);
+
+        when(reservationRepo.transition("r1", Reservation.Status.RESERVED, Reservation.Status.RELEASED))
+                .thenReturn(1, 0);
+        when(reservationRepo.findById("r1")).thenReturn(Optional.of(reservation));
+
+        service.release("r1");
+        assertThrows(IllegalStateException.class, () -> service.release("r1"));
+
+        verify(repo, times(1)).incrementStock("1", 2);
+    }
+
+    @Test
+    void testCheckAvailabilityUsesOneQuery() {
+        ProductRepository repo = mock(ProductRepository.class);
+        InventoryService service = new InventoryService(repo, mock(ReservationRepository.class));
+
+        when(repo.findStockLevels(Set.of("1", "2", "3"))).thenReturn(List.of(stock("1", 5), stock("2", 1)));
+
+        AvailabilityResponse response = service.checkAvailability(new AvailabilityRequest(List.of(
+                new AvailabilityRequest.Item("1", 2),
+                new AvailabilityRequest.Item("2", 1),
+                new AvailabilityRequest.Item("2", 2),
+                new AvailabilityRequest.Item("3", 4))));
+
+        assertFalse(response.allAvailable());
+        assertEquals(new AvailabilityResponse.Line(true, null), response.items().get("1"));
+        // Repeated lines are added together: 3 requested, 1 in stock
+        assertEquals(new AvailabilityResponse.Line(false, 2), response.items().get("2"));
+        // Unknown product: nothing in stock
+        assertEquals(new AvailabilityResponse.Line(false, 4), response.items().get("3"));
+        verify(repo, times(1)).findStockLevels(any());
+        verify(repo, never()).findById(any());
+    }
+
+    @Test
+    void testCheckAvailabilityRejectsOverflowingTotal() {
+        ProductRepository repo = mock(ProductRepository.class);
+        InventoryService service = new InventoryService(repo, mock(ReservationRepository.class));
+
+        AvailabilityRequest request = new AvailabilityRequest(List.of(
+                new AvailabilityRequest.Item("1", Integer.MAX_VALUE),
+                new AvailabilityRequest.Item("1", 1)));
+
+        assertThrows(IllegalArgumentException.class, () -> service.checkAvailability(request));
+        verify(repo, never()).findStockLevels(any());
+    }
+
+    private ProductRepository.StockLevel stock(String id, int quantity) {
+        return new ProductRepository.StockLevel() {
+            @Override
+            public String getId() { return id; }
+
+            @Override
+            public int getQuantity() { return quantity; }
+        };
+    }
+}
@@ -0,0 +1,211 @@
+package com.ecomarket.notificationservice.assemblers;
+
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.core.DummyInvocationUtils;
+import org.springframework.hateoas.server.core.MethodInvocation;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Precomputed HATEOAS link for a controller method.
+ *
+ * linkTo(methodOn(...)) creates a proxy, reads the method annotations and builds the URI from
+ * the request on every call. LinkTemplate does that once per request base (scheme, host, port
+ * and context path) and afterwards only substitutes the variables, producing the same href
+ * linkTo would.
+ * <pre>
+ *   LinkTemplate BY_ID = LinkTemplate.of(methodOn(NotificationController.class).getById(null));
+ *   BY_ID.expand(notification.getId()).withSelfRel();
+ * </pre>
+ * Arguments follow the order of the method parameters and are converted with String.valueOf.
+ */
+public final class LinkTemplate {
+
+    private static final String BASE_ATTRIBUTE = LinkTemplate.class.getName() + ".base";
+
+    // Bounds memory when requests arrive with many different Host headers: the rest resolve without caching
+    private static final int MAX_BASES = 16;
+
+    private final Class<?> controller;
+    private final Method method;
+    private final List<String> parameters;
+    private final ConcurrentMap<String, Template> byBase = new ConcurrentHashMap<>();
+
+    private LinkTemplate(Class<?> controller, Method method) {
+        this.controller = controller;
+        this.method = method;
+        this.parameters = method != null ? variableNames(method) : List.of();
+    }
+
+    /**
+     * Template for the method invoked on methodOn(...). The arguments of that invocation are ignored.
+     */
+    public static LinkTemplate of(Object invocation) {
+        MethodInvocation last = DummyInvocationUtils.getLastInvocationAware(invocation).getLastInvocation();
+        return new LinkTemplate(last.getTargetType(), last.getMethod());
+    }
+
+    /**
+     * Template for the controller mapping, equivalent to linkTo(Controller.class).
+     */
+    public static LinkTemplate of(Class<?> controller) {
+        return new LinkTemplate(controller, null);
+    }
+
+    /**
+     * Builds the link (with rel self) substituting the variables with the arguments. A null
+     * argument leaves the variable in the template, as linkTo does.
+     */
+    public Link expand(Object... arguments) {
+        String base = currentBase();
+        Template template = byBase.get(base);
+        if (template == null) {
+            template = resolve();
+            if (byBase.size() < MAX_BASES) {
+                byBase.putIfAbsent(base, template);
+            }
+        }
+        return Link.of(template.expand(arguments));
+    }
+
+    // linkTo with all arguments null leaves each variable as {name} or {?name,...}
+    private Template resolve() {
+        String href = method != null
+                ? linkTo(controller, method, new Object[method.getParameterCount()]).withSelfRel().getHref()
+                : linkTo(controller).withSelfRel().getHref();
+        return new Template(href, parameters);
+    }
+
+    // Base computed once per request, the same one WebMvcLinkBuilder uses
+    private static String currentBase() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return "";
+        }
+        Object base = attributes.getAttribute(BASE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (base == null) {
+            base = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+            attributes.setAttribute(BASE_ATTRIBUTE, base, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (String) base;
+    }
+
+    // Template variable name of each parameter (null when it is not part of the URI, e.g. @RequestBody)
+    private static List<String> variableNames(Method method) {
+        List<String> names = new ArrayList<>(method.getParameterCount());
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            MethodParameter parameter = new MethodParameter(method, i);
+            parameter.initParameterNameDiscovery(new DefaultParameterNameDiscoverer());
+            PathVariable pathVariable = parameter.getParameterAnnotation(PathVariable.class);
+            RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+            String name = null;
+            if (pathVariable != null) {
+                name = !pathVariable.name().isEmpty() ? pathVariable.name() : pathVariable.value();
+            } else if (requestParam != null) {
+                name = !requestParam.name().isEmpty() ? requestParam.name() : requestParam.value();
+            }
+            if (name != null && name.isEmpty()) {
+                name = parameter.getParameterName();
+            }
+            names.add(name);
+        }
+        return names;
+    }
+
+    /**
+     * linkTo href split into literal text, path variables ({id}) and query variables
+     * ({?a,b}), with the index of the argument that fills each variable.
+     */
+    private static final class Template {
+
+        private final List<String> literals = new ArrayList<>();
+        private final List<Integer> pathArguments = new ArrayList<>();
+        private final List<String> pathNames = new ArrayList<>();
+        private final List<String> queryNames = new ArrayList<>();
+        private final List<Integer> queryArguments = new ArrayList<>();
+        private final boolean queryInLiteral;
+
+        Template(String href, List<String> parameters) {
+            int from = 0;
+            StringBuilder literal = new StringBuilder();
+            while (from < href.length()) {
+                int open = href.indexOf('{', from);
+                if (open < 0) {
+                    literal.append(href, from, href.length());
+                    break;
+                }
+                int close = href.indexOf('}', open);
+                literal.append(href, from, open);
+                String expression = href.substring(open + 1, close);
+                if (expression.startsWith("?") || expression.startsWith("&")) {
+                    for (String name : expression.substring(1).split(",")) {
+                        queryNames.add(name);
+                        queryArguments.add(parameters.indexOf(name));
+                    }
+                } else {
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    pathNames.add(expression);
+                    pathArguments.add(parameters.indexOf(expression));
+                }
+                from = close + 1;
+            }
+            literals.add(literal.toString());
+            queryInLiteral = String.join("", literals).contains("?");
+        }
+
+        String expand(Object[] arguments) {
+            StringBuilder href = new StringBuilder(literals.get(0));
+            for (int i = 0; i < pathArguments.size(); i++) {
+                Object value = value(arguments, pathArguments.get(i));
+                if (value != null) {
+                    href.append(UriUtils.encode(String.valueOf(value), StandardCharsets.UTF_8));
+                } else {
+                    href.append('{').append(pathNames.get(i)).append('}');
+                }
+                href.append(literals.get(i + 1));
+            }
+            if (queryNames.isEmpty()) {
+                return href.toString();
+            }
+            boolean hasQuery = queryInLiteral;
+            List<String> pending = null;
+            for (int i = 0; i < queryNames.size(); i++) {
+                Object value = value(arguments, queryArguments.get(i));
+                if (value != null) {
+                    href.append(hasQuery ? '&' : '?').append(queryNames.get(i)).append('=')
+                        .append(UriUtils.encode(String.valueOf(value), StandardCharsets.UTF_8));
+                    hasQuery = true;
+                } else {
+                    if (pending == null) {
+                        pending = new ArrayList<>(queryNames.size());
+                    }
+                    pending.add(queryNames.get(i));
+                }
+            }
+            if (pending != null) {
+                href.append(hasQuery ? "{&" : "{?").append(String.join(",", pending)).append('}');
+            }
+            return href.toString();
+        }
+
+        private static Object value(Object[] arguments, int index) {
+            return index >= 0 && index < arguments.length ? arguments[index] : null;
+        }
+    }
+}
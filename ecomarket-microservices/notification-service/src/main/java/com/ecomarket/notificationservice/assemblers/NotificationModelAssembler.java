@@ -4,17 +4,23 @@ import com.ecomarket.notificationservice.controller.NotificationController;
 import com.ecomarket.notificationservice.model.Notification;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Component
+@Lazy
 public class NotificationModelAssembler implements RepresentationModelAssembler<Notification, EntityModel<Notification>> {
 
+    // Link templates resolved once per request base (see LinkTemplate)
+    private static final LinkTemplate BY_ID = LinkTemplate.of(methodOn(NotificationController.class).getById(null));
+    private static final LinkTemplate ALL = LinkTemplate.of(methodOn(NotificationController.class).getAllNotifications());
+
     @Override
     public EntityModel<Notification> toModel(Notification notification) {
         return EntityModel.of(notification,
-                linkTo(methodOn(NotificationController.class).getById(notification.getId())).withSelfRel(),
-                linkTo(methodOn(NotificationController.class).getAllNotifications()).withRel("all-notifications"));
+                BY_ID.expand(notification.getId()).withSelfRel(),
+                ALL.expand().withRel("all-notifications"));
     }
 }
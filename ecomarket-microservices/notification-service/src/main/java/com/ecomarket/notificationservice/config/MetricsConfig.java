@@ -0,0 +1,159 @@
+package com.ecomarket.notificationservice.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.BaseStream;
+
+// Per-endpoint and per-repository-method performance metrics, published at
+// /actuator/prometheus.
+// Spring Boot already times every endpoint (http.server.requests) and every repository
+// method (spring.data.repository.invocations); application.properties turns on their
+// percentile histograms. This class adds:
+// - ecomarket.http.server.sql.statements: SQL statements per request (StatementCounter).
+// - ecomarket.repository.rows: rows returned by each repository method.
+// Tags are the URI template (/api/v2/notifications/{id}, never the path with the id), the
+// HTTP method and the repository interface/method, so their number does not grow with traffic.
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    public static final String SQL_STATEMENTS_PER_REQUEST = "ecomarket.http.server.sql.statements";
+    public static final String ROWS_PER_METHOD = "ecomarket.repository.rows";
+
+    // Optional: @WebMvcTest slices load this class without a meter registry
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new StatementCounter(configuredInspector(properties)));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        MeterRegistry meters = meterRegistry.getIfAvailable();
+        if (meters == null) {
+            return;
+        }
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                StatementCounter.start();
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                        Object handler, Exception ex) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                DistributionSummary.builder(SQL_STATEMENTS_PER_REQUEST)
+                        .description("Hibernate SQL statements per HTTP request")
+                        .tag("method", request.getMethod())
+                        .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                        .register(meters)
+                        .record(StatementCounter.stop());
+            }
+        });
+    }
+
+    // static: the post-processor must exist before the repositories
+    @Bean
+    public static BeanPostProcessor repositoryRowsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxy, repository) -> proxy.addAdvice(
+                                    rowsReturned(meterRegistry, repository.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor rowsReturned(ObjectProvider<MeterRegistry> meterRegistry, Class<?> repository) {
+        Map<Method, DistributionSummary> byMethod = new ConcurrentHashMap<>();
+        return invocation -> {
+            Object result = invocation.proceed();
+            Method method = invocation.getMethod();
+            int rows = method.getReturnType() == void.class ? -1 : rows(result);
+            MeterRegistry meters = meterRegistry.getIfAvailable();
+            if (rows >= 0 && meters != null) {
+                byMethod.computeIfAbsent(method, m -> DistributionSummary.builder(ROWS_PER_METHOD)
+                        .description("Rows returned per repository method")
+                        .tag("repository", repository.getSimpleName())
+                        .tag("method", m.getName())
+                        .register(meters))
+                        .record(rows);
+            }
+            return result;
+        };
+    }
+
+    // -1 when the result is not rows: counts, sums, booleans or an unconsumed Stream
+    private static int rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        if (result instanceof Slice<?> page) {
+            return page.getNumberOfElements();
+        }
+        if (result instanceof Collection<?> list) {
+            return list.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Iterable<?> iterable) {
+            int rows = 0;
+            for (Object ignored : iterable) {
+                rows++;
+            }
+            return rows;
+        }
+        return 1;
+    }
+
+    private static StatementInspector configuredInspector(Map<String, Object> properties) {
+        Object configured = properties.get(AvailableSettings.STATEMENT_INSPECTOR);
+        if (configured instanceof StatementInspector inspector) {
+            return inspector;
+        }
+        if (configured instanceof Class<?> type) {
+            return (StatementInspector) BeanUtils.instantiateClass(type);
+        }
+        if (configured instanceof String name && !name.isBlank()) {
+            return (StatementInspector) BeanUtils.instantiateClass(ClassUtils.resolveClassName(name.trim(), null));
+        }
+        return null;
+    }
+}
@@ -3,10 +3,14 @@ package com.ecomarket.notificationservice.controller;
 import com.ecomarket.notificationservice.model.StockRequest;
 import com.ecomarket.notificationservice.model.DeliveryStatusRequest;
 import com.ecomarket.notificationservice.model.Notification;
+import com.ecomarket.notificationservice.service.NotificationQueueFullException;
 import com.ecomarket.notificationservice.service.NotificationService;
 import com.ecomarket.notificationservice.assemblers.NotificationModelAssembler;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,8 +29,9 @@ public class NotificationController {
     private final NotificationService notificationService;
     private final NotificationModelAssembler assembler;
 
+    // Lazy assembler (@Lazy): created by the first request that uses it, not at startup
     @Autowired
-    public NotificationController(NotificationService notificationService, NotificationModelAssembler assembler) {
+    public NotificationController(NotificationService notificationService, @Lazy NotificationModelAssembler assembler) {
         this.notificationService = notificationService;
         this.assembler = assembler;
     }
@@ -85,4 +90,12 @@ public class NotificationController {
     public List<Notification> getByType(@PathVariable String type) {
         return notificationService.getByType(type.toUpperCase());
     }
+
+    // Back-pressure: the write queue is full, the client should retry
+    @ExceptionHandler(NotificationQueueFullException.class)
+    public ResponseEntity<String> handleQueueFull(NotificationQueueFullException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
 }
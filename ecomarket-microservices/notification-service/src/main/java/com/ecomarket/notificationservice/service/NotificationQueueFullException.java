@@ -0,0 +1,11 @@
+package com.ecomarket.notificationservice.service;
+
+/**
+ * The write-behind queue is full: the caller should retry later (HTTP 429).
+ */
+public class NotificationQueueFullException extends RuntimeException {
+
+    public NotificationQueueFullException(int capacity) {
+        super("Cola de notificaciones llena (" + capacity + "), reintente más tarde");
+    }
+}
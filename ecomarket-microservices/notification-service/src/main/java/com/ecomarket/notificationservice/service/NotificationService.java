@@ -15,6 +15,9 @@ public class NotificationService {
     @Autowired
     private NotificationRepository repository;
 
+    @Autowired
+    private NotificationWriter writer;
+
     public String checkStock(String productId, String productName, int stock) {
         String msg;
         if (stock < 100) {
@@ -44,13 +47,15 @@ public class NotificationService {
         return msg;
     }
 
+    // Asynchronous persistence: the notification is inserted in NotificationWriter's next batch,
+    // so reads right afterwards may take a few milliseconds to see it.
     public void saveNotification(String type, String message, String productId) {
         Notification n = new Notification();
         n.setType(type);
         n.setMessage(message);
         n.setTimestamp(LocalDateTime.now());
         n.setProductId(productId);
-        repository.save(n);
+        writer.enqueue(n);
     }
 
     public List<Notification> getAllNotifications() {
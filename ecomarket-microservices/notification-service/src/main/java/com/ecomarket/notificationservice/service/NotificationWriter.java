@@ -0,0 +1,185 @@
+package com.ecomarket.notificationservice.service;
+
+import com.ecomarket.notificationservice.model.Notification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind for notifications: HTTP requests only enqueue and a background thread
+ * inserts in JDBC batches. The queue is bounded; if it is still full after offer-timeout-ms
+ * the notification is dropped and the caller gets NotificationQueueFullException (429).
+ *
+ * It stops after the web server (lower phase), so on shutdown no more requests come in and
+ * the thread drains the queue before the DataSource is closed.
+ */
+@Component
+public class NotificationWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notification (type, message, timestamp, product_id) VALUES (?, ?, ?, ?)";
+
+    // End marker: stop() enqueues it to wake the thread without waiting flush-interval-ms
+    private static final Notification STOP = new Notification();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<Notification> queue;
+    private final int capacity;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final long flushIntervalMs;
+    private final long drainTimeoutMs;
+
+    private final Counter dropped;
+    private final Counter persisted;
+    private final Counter failed;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public NotificationWriter(JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${notifications.writer.queue-capacity:10000}") int capacity,
+                              @Value("${notifications.writer.batch-size:200}") int batchSize,
+                              @Value("${notifications.writer.offer-timeout-ms:50}") long offerTimeoutMs,
+                              @Value("${notifications.writer.flush-interval-ms:100}") long flushIntervalMs,
+                              @Value("${notifications.writer.drain-timeout-ms:10000}") long drainTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.flushIntervalMs = flushIntervalMs;
+        this.drainTimeoutMs = drainTimeoutMs;
+
+        Gauge.builder("notifications.queue.depth", queue, BlockingQueue::size)
+                .description("Notifications waiting to be persisted")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("notifications.dropped")
+                .description("Notifications rejected because the queue was full")
+                .register(meterRegistry);
+        this.persisted = Counter.builder("notifications.persisted")
+                .description("Notifications inserted")
+                .register(meterRegistry);
+        this.failed = Counter.builder("notifications.failed")
+                .description("Notifications lost because their batch insert failed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("notifications.flush")
+                .description("Duration of each batch insert")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enqueues the notification, waiting at most offer-timeout-ms while the queue is full.
+     *
+     * @throws NotificationQueueFullException if no slot became free in time
+     */
+    public void enqueue(Notification notification) {
+        boolean accepted;
+        try {
+            accepted = queue.offer(notification, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            dropped.increment();
+            throw new NotificationQueueFullException(capacity);
+        }
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "notification-writer");
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            queue.offer(STOP, drainTimeoutMs, TimeUnit.MILLISECONDS);
+            worker.join(drainTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            log.warn("Notification drain exceeded {} ms; {} left unpersisted", drainTimeoutMs, queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Below the web server phase: stops after it no longer accepts requests
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private void run() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        boolean stopping = false;
+        // After STOP it keeps draining until the queue is empty
+        while (!stopping || !queue.isEmpty()) {
+            try {
+                Notification first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                stopping |= batch.remove(STOP);
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            } catch (InterruptedException e) {
+                // The interrupt is not restored here: poll() would fail on every pass without draining the queue
+                stopping = true;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Notification> batch) {
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, n) -> {
+                ps.setString(1, n.getType());
+                ps.setString(2, n.getMessage());
+                ps.setTimestamp(3, n.getTimestamp() != null ? Timestamp.valueOf(n.getTimestamp()) : null);
+                ps.setString(4, n.getProductId());
+            }));
+            persisted.increment(batch.size());
+        } catch (DataAccessException e) {
+            // A failed batch must not stop the writer
+            failed.increment(batch.size());
+            log.error("Could not persist a batch of {} notifications", batch.size(), e);
+        }
+    }
+}
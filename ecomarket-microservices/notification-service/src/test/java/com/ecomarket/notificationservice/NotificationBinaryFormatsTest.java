@@ -0,0 +1,91 @@
+package com.ecomarket.notificationservice;
+
+import com.ecomarket.notificationservice.config.BinaryFormatsConfig;
+import com.ecomarket.notificationservice.model.Notification;
+import com.ecomarket.notificationservice.repository.NotificationRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:notifications_formats;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class NotificationBinaryFormatsTest {
+
+    private static final MediaType APPLICATION_CBOR = MediaType.valueOf("application/cbor");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository.deleteAll();
+        for (int i = 1; i <= 20; i++) {
+            Notification notification = new Notification();
+            notification.setType("STOCK_ALERT");
+            notification.setMessage("Stock bajo para el producto PROD-" + i);
+            notification.setProductId("PROD-" + i);
+            notification.setTimestamp(LocalDateTime.of(2025, 6, 1, 10, 0));
+            notificationRepository.save(notification);
+        }
+    }
+
+    @Test
+    void shouldReturnSameCollectionInJsonCborAndSmile() throws Exception {
+        byte[] json = mockMvc.perform(get("/api/v2/notifications"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] cbor = mockMvc.perform(get("/api/v2/notifications").accept(APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get("/api/v2/notifications").accept(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Same tree (including _links and ISO dates) in fewer bytes
+        JsonNode expected = objectMapper.readTree(json);
+        assertEquals(20, expected.path("_embedded").path("notificationList").size());
+        assertEquals("2025-06-01T10:00:00", expected.path("_embedded").path("notificationList").get(0).path("timestamp").asText());
+        assertEquals(expected, new CBORMapper().readTree(cbor));
+        assertEquals(expected, new SmileMapper().readTree(smile));
+        assertTrue(cbor.length < json.length, "CBOR: " + cbor.length + " bytes, JSON: " + json.length);
+        assertTrue(smile.length < json.length, "Smile: " + smile.length + " bytes, JSON: " + json.length);
+    }
+
+    @Test
+    void shouldAcceptCborStockAlert() throws Exception {
+        byte[] body = new CBORMapper().writeValueAsBytes(Map.of(
+                "productId", "PROD-100",
+                "productName", "Jabón de lavanda",
+                "stock", 10));
+
+        mockMvc.perform(post("/api/v2/notifications/stock-alert")
+                        .contentType(APPLICATION_CBOR)
+                        .content(body))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,139 @@
+package com.ecomarket.notificationservice;
+
+import com.ecomarket.notificationservice.controller.NotificationController;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares HAL JSON, CBOR and Smile on GET /api/v2/notifications with 100 notifications.
+ *
+ * serialization measures only writing the collection (already built, with its links) through
+ * the converter Spring MVC picks for each Accept; latency measures the full HTTP request against
+ * the application on a random port (H2 query, links, serialization and transport). The size of
+ * each response is printed during setup.
+ *
+ * Run from notification-service:
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *        com.ecomarket.notificationservice.NotificationFormatsBenchmark
+ * or together with the other benchmarks, with JSON results: mvn -Pbenchmark verify
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationFormatsBenchmark {
+
+    private static final int NOTIFICATIONS = 100;
+
+    @Param({"application/hal+json", "application/cbor", "application/x-jackson-smile"})
+    private String format;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+    private CollectionModel<?> collection;
+    private HttpMessageConverter<Object> converter;
+    private MediaType mediaType;
+
+    @Setup
+    public void setUp() throws Exception {
+        // As command line arguments so they win over application-test.properties
+        context = new SpringApplicationBuilder(NotificationServiceApplication.class)
+                .run("--spring.profiles.active=test", "--server.port=0",
+                     "--spring.datasource.url=jdbc:h2:mem:notifications_formats_benchmark;DB_CLOSE_DELAY=-1",
+                     "--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                     "--logging.level.org.hibernate.SQL=WARN");
+        seed(context.getBean(JdbcTemplate.class));
+
+        // Same collection NotificationController.getAllNotifications builds, inside a mock request
+        MockHttpServletRequest mockRequest = new MockHttpServletRequest("GET", "/api/v2/notifications");
+        mockRequest.setServerName("api.ecomarket.cl");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(mockRequest));
+        try {
+            collection = context.getBean(NotificationController.class).getAllNotifications();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        mediaType = MediaType.valueOf(format);
+        converter = converterFor(mediaType);
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newHttpClient();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v2/notifications"))
+                .header("Accept", format)
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        System.out.printf("%n%s: %d bytes for %d notifications (HTTP %d)%n",
+                format, response.body().length, NOTIFICATIONS, response.statusCode());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serialization() throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(collection, mediaType, output);
+        return output.getBodyAsBytes();
+    }
+
+    @Benchmark
+    public byte[] latency() throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    // First Spring MVC converter that writes the collection in the format, as content negotiation does
+    @SuppressWarnings("unchecked")
+    private HttpMessageConverter<Object> converterFor(MediaType mediaType) {
+        for (HttpMessageConverter<?> candidate : context.getBean(RequestMappingHandlerAdapter.class).getMessageConverters()) {
+            if (candidate.canWrite(collection.getClass(), mediaType)) {
+                return (HttpMessageConverter<Object>) candidate;
+            }
+        }
+        throw new IllegalStateException("No converter for " + mediaType);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= NOTIFICATIONS; i++) {
+            rows.add(new Object[] {i % 4 == 0 ? "DELIVERY" : "STOCK_ALERT", "Stock bajo para el producto PROD-" + i,
+                    LocalDateTime.of(2025, 6, 1, 10, 0).plusMinutes(i), "PROD-" + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO notification (type, message, timestamp, product_id) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(NotificationFormatsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
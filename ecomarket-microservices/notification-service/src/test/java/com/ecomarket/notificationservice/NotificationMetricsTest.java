@@ -0,0 +1,69 @@
+package com.ecomarket.notificationservice;
+
+import com.ecomarket.notificationservice.config.MetricsConfig;
+import com.ecomarket.notificationservice.model.Notification;
+import com.ecomarket.notificationservice.repository.NotificationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:notifications_metrics;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class NotificationMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository.deleteAll();
+        for (int i = 1; i <= 3; i++) {
+            Notification notification = new Notification();
+            notification.setType("STOCK_ALERT");
+            notification.setMessage("Stock bajo para el producto PROD-" + i);
+            notification.setProductId("PROD-" + i);
+            notification.setTimestamp(LocalDateTime.of(2025, 6, 1, 10, 0));
+            notificationRepository.save(notification);
+        }
+    }
+
+    @Test
+    void shouldPublishHistogramsTaggedByUriTemplate() throws Exception {
+        mockMvc.perform(get("/api/v2/notifications/type/STOCK_ALERT")).andExpect(status().isOk());
+
+        String prometheus = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Buckets per template, never per path with the value
+        assertTrue(prometheus.contains("http_server_requests_seconds_bucket{application=\"notification-service\""));
+        assertTrue(prometheus.contains("uri=\"/api/v2/notifications/type/{type}\""));
+        assertFalse(prometheus.contains("uri=\"/api/v2/notifications/type/STOCK_ALERT\""));
+        assertTrue(prometheus.contains("spring_data_repository_invocations_seconds_bucket{"));
+        assertTrue(prometheus.contains("ecomarket_http_server_sql_statements_bucket{"));
+        assertTrue(prometheus.contains("ecomarket_repository_rows_bucket{"));
+
+        assertTrue(meterRegistry.get(MetricsConfig.SQL_STATEMENTS_PER_REQUEST)
+                .tags("method", "GET", "uri", "/api/v2/notifications/type/{type}").summary().max() >= 1);
+        assertEquals(3, meterRegistry.get(MetricsConfig.ROWS_PER_METHOD)
+                .tags("repository", "NotificationRepository", "method", "findByType").summary().max());
+    }
+}
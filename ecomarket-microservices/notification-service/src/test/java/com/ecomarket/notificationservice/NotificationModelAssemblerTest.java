@@ -0,0 +1,43 @@
+package com.ecomarket.notificationservice;
+
+import com.ecomarket.notificationservice.assemblers.NotificationModelAssembler;
+import com.ecomarket.notificationservice.controller.NotificationController;
+import com.ecomarket.notificationservice.model.Notification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Links;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+class NotificationModelAssemblerTest {
+
+    private final NotificationModelAssembler assembler = new NotificationModelAssembler();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldBuildSameLinksAsLinkTo() {
+        Notification notification = new Notification();
+        notification.setId(42L);
+
+        for (String host : List.of("localhost", "api.ecomarket.cl")) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/notifications");
+            request.setServerName(host);
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+            Links expected = Links.of(
+                    linkTo(methodOn(NotificationController.class).getById(42L)).withSelfRel(),
+                    linkTo(methodOn(NotificationController.class).getAllNotifications()).withRel("all-notifications"));
+            assertEquals(expected.toString(), assembler.toModel(notification).getLinks().toString());
+        }
+    }
+}
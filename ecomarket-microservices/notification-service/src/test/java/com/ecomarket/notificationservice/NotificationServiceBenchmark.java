@@ -0,0 +1,95 @@
+package com.ecomarket.notificationservice;
+
+import com.ecomarket.notificationservice.service.NotificationQueueFullException;
+import com.ecomarket.notificationservice.service.NotificationService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures NotificationService.checkStock on in-memory H2.
+ *
+ * With stock 50 every call builds the alert and enqueues it in NotificationWriter, which inserts
+ * it in batches from its own thread; with stock 500 only the message is built. If the writer
+ * thread cannot keep up with the benchmark the queue fills up: those calls are counted as
+ * rejected instead of aborting the measurement.
+ *
+ * Run from notification-service:
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *        com.ecomarket.notificationservice.NotificationServiceBenchmark
+ * or together with the other benchmarks, with JSON results: mvn -Pbenchmark verify
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationServiceBenchmark {
+
+    @Param({"50", "500"})
+    private int stock;
+
+    private ConfigurableApplicationContext context;
+    private NotificationService notificationService;
+
+    /**
+     * Calls accepted and rejected because of a full queue, reported next to the throughput.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Result {
+        public long accepted;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            accepted = 0;
+            rejected = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        // As command line arguments so they win over application-test.properties
+        context = new SpringApplicationBuilder(NotificationServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                     "--spring.datasource.url=jdbc:h2:mem:notifications_benchmark;DB_CLOSE_DELAY=-1",
+                     "--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                     "--logging.level.org.hibernate.SQL=WARN");
+        notificationService = context.getBean(NotificationService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String checkStock(Result result) {
+        try {
+            String msg = notificationService.checkStock("PROD-1", "Bolsa reutilizable", stock);
+            result.accepted++;
+            return msg;
+        } catch (NotificationQueueFullException e) {
+            result.rejected++;
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(NotificationServiceBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
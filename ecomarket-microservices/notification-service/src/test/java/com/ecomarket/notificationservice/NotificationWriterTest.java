@@ -0,0 +1,91 @@
+package com.ecomarket.notificationservice;
+
+import com.ecomarket.notificationservice.model.Notification;
+import com.ecomarket.notificationservice.repository.NotificationRepository;
+import com.ecomarket.notificationservice.service.NotificationQueueFullException;
+import com.ecomarket.notificationservice.service.NotificationWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class NotificationWriterTest {
+
+    @Autowired
+    private NotificationWriter writer;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository.deleteAll();
+    }
+
+    @Test
+    void shouldPersistQueuedNotificationsInBatches() throws Exception {
+        for (int i = 0; i < 450; i++) {
+            writer.enqueue(notification("PROD-" + i));
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (notificationRepository.count() < 450 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(450, notificationRepository.count());
+        assertEquals(0, writer.pending());
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // Not started: nobody consumes the queue
+        NotificationWriter full = new NotificationWriter(jdbcTemplate, registry, 2, 10, 0, 10, 1000);
+
+        full.enqueue(notification("PROD-1"));
+        full.enqueue(notification("PROD-2"));
+
+        assertThrows(NotificationQueueFullException.class, () -> full.enqueue(notification("PROD-3")));
+        assertEquals(1.0, registry.get("notifications.dropped").counter().count());
+        assertEquals(2.0, registry.get("notifications.queue.depth").gauge().value());
+    }
+
+    @Test
+    void shouldDrainPendingNotificationsOnStop() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // Long interval: only the stop() drain can persist the queued items in time
+        NotificationWriter draining = new NotificationWriter(jdbcTemplate, registry, 1000, 50, 0, 60_000, 5000);
+        for (int i = 0; i < 120; i++) {
+            draining.enqueue(notification("PROD-" + i));
+        }
+
+        draining.start();
+        draining.stop();
+
+        assertFalse(draining.isRunning());
+        assertEquals(0, draining.pending());
+        assertEquals(120, notificationRepository.count());
+        assertEquals(120.0, registry.get("notifications.persisted").counter().count());
+        assertTrue(registry.get("notifications.flush").timer().count() >= 3);
+    }
+
+    private Notification notification(String productId) {
+        Notification n = new Notification();
+        n.setType("STOCK_ALERT");
+        n.setMessage("Stock bajo para " + productId);
+        n.setTimestamp(LocalDateTime.now());
+        n.setProductId(productId);
+        return n;
+    }
+}
@@ -5,6 +5,8 @@ import com.ecomarket.orderservice.model.Pedido;
 import com.ecomarket.orderservice.model.DetallePedido;
 import com.ecomarket.orderservice.repository.PedidoRepository;
 import com.ecomarket.orderservice.repository.DetallePedidoRepository;
+import com.ecomarket.orderservice.service.ClienteResumenService;
+import com.ecomarket.orderservice.service.RankingVentasService;
 import net.datafaker.Faker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
@@ -12,7 +14,6 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
@@ -31,6 +32,12 @@ public class DataLoader implements CommandLineRunner {
     @Autowired
     private DetallePedidoRepository detallePedidoRepository;
     
+    @Autowired
+    private RankingVentasService rankingVentasService;
+    
+    @Autowired
+    private ClienteResumenService clienteResumenService;
+    
     private final Faker faker = new Faker();
     private final Random random = new Random();
     
@@ -55,6 +62,10 @@ public class DataLoader implements CommandLineRunner {
         // Generar pedidos con sus detalles
         generarPedidosConDetalles();
         
+        // Los pedidos se guardan directo en los repositorios: recalcular los modelos de lectura
+        rankingVentasService.reconstruir();
+        clienteResumenService.verificar(true);
+        
         System.out.println("✅ Carga de datos completada exitosamente!");
         mostrarEstadisticas();
     }
@@ -83,12 +94,15 @@ public class DataLoader implements CommandLineRunner {
         }
     }
     
-    private Pedido crearPedidoFalso() {
+    /**
+     * Pedido con datos falsos realistas, sin guardar (también lo usa el generador de carga HTTP)
+     */
+    public Pedido crearPedidoFalso() {
         Pedido pedido = new Pedido();
         
         // Fecha de pedido (últimos 30 días)
         LocalDate fechaPedido = LocalDate.now().minusDays(random.nextInt(30));
-        pedido.setFechaDePedido(fechaPedido.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+        pedido.setFechaDePedido(fechaPedido);
         
         // Cliente ID (simulamos 20 clientes diferentes)
         pedido.setClienteId(random.nextInt(20) + 1);
@@ -122,7 +136,10 @@ public class DataLoader implements CommandLineRunner {
         return pedido;
     }
     
-    private DetallePedido crearDetallePedidoFalso(Integer pedidoId) {
+    /**
+     * Línea de pedido con datos falsos realistas, sin guardar
+     */
+    public DetallePedido crearDetallePedidoFalso(Integer pedidoId) {
         DetallePedido detalle = new DetallePedido();
         
         detalle.setPedidoId(pedidoId);
@@ -0,0 +1,265 @@
+package com.ecomarket.orderservice;
+
+import com.ecomarket.orderservice.service.ClienteResumenService;
+import com.ecomarket.orderservice.service.RankingVentasService;
+import net.datafaker.Faker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generador determinista de pedidos para pruebas de rendimiento, por factor de escala:
+ * SF=1 son 1M pedidos y ~5M líneas sobre 10k productos y 100k usuarios (los mismos que
+ * generan product-service y user-service con igual escala y semilla).
+ *
+ * Se activa con ecomarket.generador.escala (solo H2, tablas vacías) y corre antes que el
+ * DataLoader de dev, que entonces no carga nada. Los pedidos se reparten en bloques de
+ * PEDIDOS_POR_BLOQUE; cada bloque usa su propio Random derivado de la semilla y se inserta
+ * con lotes JDBC desde un pool de hilos, así el resultado no depende de cuántos hilos haya.
+ * Los IDs son explícitos: al terminar se adelantan las secuencias y se reconstruyen
+ * venta_producto y cliente_resumen.
+ *
+ * Relaciones: cliente_id en [1, usuarios], producto_id en [1, productos] (sesgado hacia los
+ * primeros, como un catálogo con productos más vendidos) y precio_unitario igual al precio
+ * del producto en product-service (misma fórmula, ver precioProducto).
+ *
+ * Tiempos medidos con 1 CPU y JDK 17: SF=1 tarda ~4 minutos (220 s de INSERT, 23 s de
+ * venta_producto y 15 s de cliente_resumen) y necesita -Xmx4g, porque H2 en memoria guarda las
+ * 6M filas en el heap. Casi todo el INSERT es mantener los índices de H2 fila por fila: sin
+ * índices baja a ~40%, pero crearlos después cuesta lo mismo que se ahorró. El tamaño de lote
+ * (100 a 10000) y el tamaño de la transacción no cambian el resultado. Con más núcleos escala
+ * el pool de hilos; SF=0.1 (~25 s) sirve para iterar.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "ecomarket.generador.escala")
+public class GeneradorEscala implements CommandLineRunner {
+
+    static final int PRODUCTOS_POR_ESCALA = 10_000;
+    static final int USUARIOS_POR_ESCALA = 100_000;
+    static final int PEDIDOS_POR_ESCALA = 1_000_000;
+    // Líneas por pedido entre 1 y MAX_LINEAS (promedio 5); el ID de la línea reserva MAX_LINEAS por pedido
+    static final int MAX_LINEAS = 9;
+    private static final int PEDIDOS_POR_BLOQUE = 10_000;
+    private static final int VENDEDORES = 10;
+    private static final LocalDate FECHA_INICIAL = LocalDate.of(2024, 1, 1);
+    private static final int DIAS = 730;
+
+    private static final String[] ESTADOS = {"COMPLETADO", "PENDIENTE", "EN_PROCESO", "ENVIADO", "CANCELADO"};
+    // Misma distribución que DataLoader: 40% / 25% / 20% / 10% / 5%
+    private static final int[] PROBABILIDAD_ACUMULADA = {40, 65, 85, 95, 100};
+    private static final double[] DESCUENTOS = {0.0, 5.0, 10.0, 15.0, 20.0};
+    private static final String[] CIUDADES = {"Santiago", "Valparaíso", "Concepción", "La Serena", "Antofagasta",
+            "Temuco", "Rancagua", "Talca", "Arica", "Iquique"};
+
+    private static final String INSERT_PEDIDO = "INSERT INTO pedido (pedido_id, fecha_de_pedido, cliente_id, estado, " +
+            "descuento, metodo_pago_id, usuario_id, subtotal, total, direccion_envio, ciudad_envio, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_DETALLE = "INSERT INTO detalle_de_pedido (detalle_id, pedido_id, producto_id, " +
+            "precio_unitario, cantidad, sub_total) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RankingVentasService rankingVentasService;
+
+    @Autowired
+    private ClienteResumenService clienteResumenService;
+
+    @Value("${ecomarket.generador.escala}")
+    private double escala;
+
+    @Value("${ecomarket.generador.semilla:42}")
+    private long semilla = 42;
+
+    // 0: un hilo por procesador
+    @Value("${ecomarket.generador.hilos:0}")
+    private int hilos;
+
+    @Value("${ecomarket.generador.tamanio-lote:1000}")
+    private int tamanioLote = 1000;
+
+    private record FilaPedido(int pedidoId, LocalDate fecha, int clienteId, String estado, double descuento,
+                              int metodoPagoId, int usuarioId, double subtotal, double total,
+                              String direccionEnvio, String ciudadEnvio) {
+    }
+
+    private record FilaDetalle(long detalleId, int pedidoId, int productoId, double precioUnitario,
+                               int cantidad, double subTotal) {
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        String baseDeDatos = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(baseDeDatos)) {
+            throw new IllegalStateException("El generador de escala solo admite H2, no " + baseDeDatos);
+        }
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pedido", Long.class) > 0) {
+            throw new IllegalStateException("El generador de escala requiere la tabla pedido vacía");
+        }
+
+        long inicio = System.currentTimeMillis();
+        int pedidos = escalar(PEDIDOS_POR_ESCALA);
+        int productos = escalar(PRODUCTOS_POR_ESCALA);
+        int usuarios = escalar(USUARIOS_POR_ESCALA);
+        String[] calles = calles();
+        int bloques = (pedidos + PEDIDOS_POR_BLOQUE - 1) / PEDIDOS_POR_BLOQUE;
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors());
+        long lineas = 0;
+        try {
+            List<Future<Integer>> resultados = new ArrayList<>(bloques);
+            for (int bloque = 0; bloque < bloques; bloque++) {
+                int desde = bloque * PEDIDOS_POR_BLOQUE + 1;
+                int hasta = Math.min(pedidos, desde + PEDIDOS_POR_BLOQUE - 1);
+                SplittableRandom random = new SplittableRandom(mezclar(semilla, bloque));
+                resultados.add(ejecutor.submit(() -> insertarBloque(random, desde, hasta, productos, usuarios, calles)));
+            }
+            for (Future<Integer> resultado : resultados) {
+                lineas += resultado.get();
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+
+        // IDs explícitos: las secuencias deben continuar después de los generados
+        jdbcTemplate.execute("ALTER SEQUENCE pedido_seq RESTART WITH " + (pedidos + 1));
+        jdbcTemplate.execute("ALTER SEQUENCE detalle_de_pedido_seq RESTART WITH " + ((long) pedidos * MAX_LINEAS + 1));
+        long insertados = System.currentTimeMillis();
+        rankingVentasService.reconstruir();
+        long ranking = System.currentTimeMillis();
+        clienteResumenService.verificar(true);
+        long resumen = System.currentTimeMillis();
+        System.out.printf("📦 Generador de escala %.2f: %d pedidos y %d líneas en %d ms " +
+                        "(+%d ms venta_producto, +%d ms cliente_resumen)%n", escala, pedidos, lineas,
+                insertados - inicio, ranking - insertados, resumen - ranking);
+    }
+
+    // Retorna la cantidad de líneas insertadas
+    private int insertarBloque(SplittableRandom random, int desde, int hasta, int productos, int usuarios, String[] calles) {
+        List<FilaPedido> pedidos = new ArrayList<>(hasta - desde + 1);
+        List<FilaDetalle> detalles = new ArrayList<>((hasta - desde + 1) * (MAX_LINEAS + 1) / 2);
+        for (int pedidoId = desde; pedidoId <= hasta; pedidoId++) {
+            pedidos.add(pedido(random, pedidoId, productos, usuarios, calles, detalles));
+        }
+        // Setters tipados: setObject obliga al driver a inferir el tipo en cada valor
+        jdbcTemplate.batchUpdate(INSERT_PEDIDO, pedidos, tamanioLote, (ps, pedido) -> {
+            ps.setInt(1, pedido.pedidoId());
+            ps.setDate(2, Date.valueOf(pedido.fecha()));
+            ps.setInt(3, pedido.clienteId());
+            ps.setString(4, pedido.estado());
+            ps.setDouble(5, pedido.descuento());
+            ps.setInt(6, pedido.metodoPagoId());
+            ps.setInt(7, pedido.usuarioId());
+            ps.setDouble(8, pedido.subtotal());
+            ps.setDouble(9, pedido.total());
+            ps.setString(10, pedido.direccionEnvio());
+            ps.setString(11, pedido.ciudadEnvio());
+        });
+        jdbcTemplate.batchUpdate(INSERT_DETALLE, detalles, tamanioLote, (ps, detalle) -> {
+            ps.setLong(1, detalle.detalleId());
+            ps.setInt(2, detalle.pedidoId());
+            ps.setInt(3, detalle.productoId());
+            ps.setDouble(4, detalle.precioUnitario());
+            ps.setInt(5, detalle.cantidad());
+            ps.setDouble(6, detalle.subTotal());
+        });
+        return detalles.size();
+    }
+
+    // Agrega las líneas del pedido a detalles y retorna el pedido con sus totales
+    private FilaPedido pedido(SplittableRandom random, int pedidoId, int productos, int usuarios, String[] calles,
+                              List<FilaDetalle> detalles) {
+        int cantidadLineas = 1 + random.nextInt(MAX_LINEAS);
+        double subtotal = 0;
+        for (int linea = 0; linea < cantidadLineas; linea++) {
+            // u² concentra las ventas en los productos de ID bajo
+            double u = random.nextDouble();
+            int productoId = 1 + (int) (productos * u * u);
+            int cantidad = 1 + random.nextInt(5);
+            double precio = precioProducto(semilla, productoId);
+            double subTotal = redondear(precio * cantidad);
+            subtotal += subTotal;
+            detalles.add(new FilaDetalle((long) (pedidoId - 1) * MAX_LINEAS + linea + 1, pedidoId, productoId,
+                    precio, cantidad, subTotal));
+        }
+        double descuento = DESCUENTOS[random.nextInt(DESCUENTOS.length)];
+        subtotal = redondear(subtotal);
+        return new FilaPedido(
+                pedidoId,
+                FECHA_INICIAL.plusDays(random.nextInt(DIAS)),
+                1 + random.nextInt(usuarios),
+                estado(random),
+                descuento,
+                1 + random.nextInt(5),
+                1 + random.nextInt(Math.min(VENDEDORES, usuarios)),
+                subtotal,
+                redondear(subtotal - subtotal * descuento / 100),
+                calles[random.nextInt(calles.length)] + " " + (100 + random.nextInt(9900)),
+                CIUDADES[random.nextInt(CIUDADES.length)]);
+    }
+
+    private static String estado(SplittableRandom random) {
+        int probabilidad = random.nextInt(100);
+        for (int i = 0; i < PROBABILIDAD_ACUMULADA.length; i++) {
+            if (probabilidad < PROBABILIDAD_ACUMULADA[i]) {
+                return ESTADOS[i];
+            }
+        }
+        return ESTADOS[ESTADOS.length - 1];
+    }
+
+    // Datafaker es lento por fila: se arma un conjunto fijo de calles con la semilla y se sortea desde ahí
+    private String[] calles() {
+        Faker faker = new Faker(new Locale("es"), new Random(semilla));
+        String[] calles = new String[500];
+        for (int i = 0; i < calles.length; i++) {
+            calles[i] = faker.address().streetName();
+        }
+        return calles;
+    }
+
+    private int escalar(int porEscala) {
+        return Math.max(1, (int) Math.round(porEscala * escala));
+    }
+
+    /**
+     * Precio unitario del producto productoId. Misma fórmula que GeneradorEscala de
+     * product-service: con igual semilla, las líneas usan el precio del catálogo generado.
+     */
+    static double precioProducto(long semilla, int productoId) {
+        long h = mezclar(semilla, productoId);
+        double precioCompra = 1 + Math.floorMod(h, 4900) / 100.0;
+        double margen = 0.3 + Math.floorMod(h >>> 20, 5000) / 10000.0;
+        return redondear(precioCompra * (1 + margen));
+    }
+
+    // SplitMix64: valores bien repartidos para semillas e IDs consecutivos
+    static long mezclar(long semilla, long valor) {
+        long z = semilla * 0x9E3779B97F4A7C15L + valor;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100.0) / 100.0;
+    }
+}
@@ -2,8 +2,10 @@ package com.ecomarket.orderservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // Limpieza de claves Idempotency-Key vencidas y recarga del ranking de más vendidos
 public class OrderServiceApplication {
 
 	public static void main(String[] args) {
@@ -4,9 +4,10 @@ import com.ecomarket.orderservice.controller.PedidoControllerV2;
 import com.ecomarket.orderservice.model.DetallePedido;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 /**
  * Assembler para convertir entidades DetallePedido en modelos HATEOAS
@@ -15,24 +16,26 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
  * facilitando la navegación entre detalles, pedidos y productos relacionados.
  */
 @Component
+@Lazy
 public class DetallePedidoModelAssembler implements RepresentationModelAssembler<DetallePedido, EntityModel<DetallePedido>> {
 
+    // Plantillas de enlace resueltas una vez por base de la solicitud (ver PlantillaEnlace)
+    private static final PlantillaEnlace DETALLES = PlantillaEnlace.de(methodOn(PedidoControllerV2.class).obtenerDetalles(null));
+    private static final PlantillaEnlace PEDIDO = PlantillaEnlace.de(methodOn(PedidoControllerV2.class).obtenerPorId(null, null, null));
+
     @Override
     public EntityModel<DetallePedido> toModel(DetallePedido detalle) {
         // Crear el modelo de entidad con enlaces HATEOAS
         EntityModel<DetallePedido> detalleModel = EntityModel.of(detalle);
         
         // 🔗 Enlace a los detalles del pedido (self, ya que no hay endpoint individual)
-        detalleModel.add(linkTo(methodOn(PedidoControllerV2.class)
-            .obtenerDetalles(detalle.getPedidoId())).withSelfRel());
+        detalleModel.add(DETALLES.expandir(detalle.getPedidoId()).withSelfRel());
         
         // 🔗 Enlace al pedido padre
-        detalleModel.add(linkTo(methodOn(PedidoControllerV2.class)
-            .obtenerPorId(detalle.getPedidoId())).withRel("pedido"));
+        detalleModel.add(PEDIDO.expandir(detalle.getPedidoId(), null).withRel("pedido"));
         
         // 🔗 Enlace a todos los detalles del mismo pedido
-        detalleModel.add(linkTo(methodOn(PedidoControllerV2.class)
-            .obtenerDetalles(detalle.getPedidoId())).withRel("detalles-pedido"));
+        detalleModel.add(DETALLES.expandir(detalle.getPedidoId()).withRel("detalles-pedido"));
         
         // 🔗 Enlaces relacionados con el producto
         // Si existe un ProductoControllerV2, se recomienda crear el enlace así:
@@ -61,8 +64,7 @@ public class DetallePedidoModelAssembler implements RepresentationModelAssembler
         EntityModel<DetallePedido> detalleModel = EntityModel.of(detalle);
         
         // Solo enlaces básicos para listas
-        detalleModel.add(linkTo(methodOn(PedidoControllerV2.class)
-            .obtenerPorId(detalle.getPedidoId())).withRel("pedido"));
+        detalleModel.add(PEDIDO.expandir(detalle.getPedidoId(), null).withRel("pedido"));
         // Enlace al producto: solo si existe el endpoint real
         // detalleModel.add(linkTo(methodOn(ProductoControllerV2.class)
         //     .obtenerPorId(detalle.getProductoId())).withRel("producto"));
@@ -1,12 +1,20 @@
 package com.ecomarket.orderservice.assembler;
 
 import com.ecomarket.orderservice.controller.PedidoControllerV2;
+import com.ecomarket.orderservice.model.PaginaPedidos;
 import com.ecomarket.orderservice.model.Pedido;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 /**
  * Assembler para convertir entidades Pedido en modelos HATEOAS
@@ -15,66 +23,71 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
  * permitiendo la navegación dinámica a través de la API REST.
  */
 @Component
+@Lazy
 public class PedidoModelAssembler implements RepresentationModelAssembler<Pedido, EntityModel<Pedido>> {
 
+    // Plantillas de enlace resueltas una vez por base de la solicitud (ver PlantillaEnlace)
+    private static final PlantillaEnlace PEDIDOS = PlantillaEnlace.de(PedidoControllerV2.class);
+    private static final PlantillaEnlace POR_ID = PlantillaEnlace.de(methodOn(PedidoControllerV2.class).obtenerPorId(null, null, null));
+    private static final PlantillaEnlace DETALLES = PlantillaEnlace.de(methodOn(PedidoControllerV2.class).obtenerDetalles(null));
+    private static final PlantillaEnlace ACTUALIZAR = PlantillaEnlace.de(methodOn(PedidoControllerV2.class).actualizar(null, null, null));
+    private static final PlantillaEnlace CAMBIAR_ESTADO = PlantillaEnlace.de(methodOn(PedidoControllerV2.class).actualizarEstado(null, null, null));
+    private static final PlantillaEnlace ELIMINAR = PlantillaEnlace.de(methodOn(PedidoControllerV2.class).eliminar(null, null));
+    private static final PlantillaEnlace POR_CLIENTE = PlantillaEnlace.de(methodOn(PedidoControllerV2.class).obtenerPorCliente(null));
+    private static final PlantillaEnlace POR_ESTADO = PlantillaEnlace.de(methodOn(PedidoControllerV2.class).obtenerPorEstado(null));
+    private static final PlantillaEnlace POR_CIUDAD = PlantillaEnlace.de(methodOn(PedidoControllerV2.class).obtenerPorCiudad(null));
+    private static final PlantillaEnlace TOTAL_COMPRAS = PlantillaEnlace.de(methodOn(PedidoControllerV2.class).totalComprasPorCliente(null));
+    private static final PlantillaEnlace CANTIDAD_PEDIDOS = PlantillaEnlace.de(methodOn(PedidoControllerV2.class).cantidadPedidosPorCliente(null));
+    private static final PlantillaEnlace PAGINA = PlantillaEnlace.de(methodOn(PedidoControllerV2.class).obtenerTodos(null, null, null, null, null));
+
     @Override
     public EntityModel<Pedido> toModel(Pedido pedido) {
         // Crear el modelo de entidad con enlaces HATEOAS
         EntityModel<Pedido> pedidoModel = EntityModel.of(pedido);
         
         // 🔗 Enlace a sí mismo (self)
-        pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class)
-            .obtenerPorId(pedido.getPedidoId())).withSelfRel());
+        pedidoModel.add(POR_ID.expandir(pedido.getPedidoId(), null).withSelfRel());
         
         // 🔗 Enlace a la colección de todos los pedidos
-        pedidoModel.add(linkTo(PedidoControllerV2.class).withRel("pedidos"));
+        pedidoModel.add(PEDIDOS.expandir().withRel("pedidos"));
         
         // 🔗 Enlace a los detalles del pedido
-        pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class)
-            .obtenerDetalles(pedido.getPedidoId())).withRel("detalles"));
+        pedidoModel.add(DETALLES.expandir(pedido.getPedidoId()).withRel("detalles"));
         
         // 🔗 Enlaces condicionales según el estado del pedido
         if ("PENDIENTE".equals(pedido.getEstado())) {
             // Solo agregar enlace de actualización si está pendiente
-            pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class)
-                .actualizar(pedido.getPedidoId(), null)).withRel("actualizar"));
+            pedidoModel.add(ACTUALIZAR.expandir(pedido.getPedidoId(), null).withRel("actualizar"));
             
             // Enlace para cambiar estado
-            pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class)
-                .actualizarEstado(pedido.getPedidoId(), null)).withRel("cambiar-estado"));
+            pedidoModel.add(CAMBIAR_ESTADO.expandir(pedido.getPedidoId(), null).withRel("cambiar-estado"));
         }
         
         if ("PENDIENTE".equals(pedido.getEstado()) || "EN_PROCESO".equals(pedido.getEstado())) {
             // Solo permitir cancelar si no está completado
-            pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class)
-                .eliminar(pedido.getPedidoId())).withRel("cancelar"));
+            pedidoModel.add(ELIMINAR.expandir(pedido.getPedidoId()).withRel("cancelar"));
         }
         
         // 🔗 Enlaces a recursos relacionados
         
         // Enlace a pedidos del mismo cliente
-        pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class)
-            .obtenerPorCliente(pedido.getClienteId())).withRel("pedidos-cliente"));
+        pedidoModel.add(POR_CLIENTE.expandir(pedido.getClienteId()).withRel("pedidos-cliente"));
         
         // Enlace a pedidos del mismo estado
-        pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class)
-            .obtenerPorEstado(pedido.getEstado())).withRel("pedidos-mismo-estado"));
+        pedidoModel.add(POR_ESTADO.expandir(pedido.getEstado()).withRel("pedidos-mismo-estado"));
         
         // Enlace a pedidos de la misma ciudad
         if (pedido.getCiudadEnvio() != null) {
-            pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class)
-                .obtenerPorCiudad(pedido.getCiudadEnvio())).withRel("pedidos-misma-ciudad"));
+            pedidoModel.add(POR_CIUDAD.expandir(pedido.getCiudadEnvio()).withRel("pedidos-misma-ciudad"));
         }
         
         // 🔗 Enlaces a estadísticas relacionadas
         
         // Total de compras del cliente
-        pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class)
-            .totalComprasPorCliente(pedido.getClienteId())).withRel("total-compras-cliente"));
+        pedidoModel.add(TOTAL_COMPRAS.expandir(pedido.getClienteId()).withRel("total-compras-cliente"));
         
         // Cantidad de pedidos del cliente
-        pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class)
-            .cantidadPedidosPorCliente(pedido.getClienteId())).withRel("cantidad-pedidos-cliente"));
+        pedidoModel.add(CANTIDAD_PEDIDOS.expandir(pedido.getClienteId()).withRel("cantidad-pedidos-cliente"));
         
         return pedidoModel;
     }
@@ -87,12 +100,41 @@ public class PedidoModelAssembler implements RepresentationModelAssembler<Pedido
         // Versión simplificada con solo enlaces básicos (para listas)
         EntityModel<Pedido> pedidoModel = EntityModel.of(pedido);
         
-        pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class)
-            .obtenerPorId(pedido.getPedidoId())).withSelfRel());
+        pedidoModel.add(POR_ID.expandir(pedido.getPedidoId(), null).withSelfRel());
         
-        pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class)
-            .obtenerDetalles(pedido.getPedidoId())).withRel("detalles"));
+        pedidoModel.add(DETALLES.expandir(pedido.getPedidoId()).withRel("detalles"));
         
         return pedidoModel;
     }
+    
+    /**
+     * Convierte una página de pedidos (paginación por cursor) en una colección HATEOAS
+     * con enlaces self, first, next y prev. Los enlaces conservan el rango de fechas (desde/hasta)
+     * y el parámetro expand si los hay.
+     */
+    public CollectionModel<EntityModel<Pedido>> toPaginaModel(PaginaPedidos pagina, String cursorActual,
+                                                              LocalDate desde, LocalDate hasta, String expand) {
+        List<EntityModel<Pedido>> pedidos = pagina.getPedidos().stream()
+                .map(this::toModelSimple)
+                .collect(Collectors.toList());
+        
+        CollectionModel<EntityModel<Pedido>> collectionModel = CollectionModel.of(pedidos);
+        int tamanio = pagina.getTamanio();
+        
+        // 🔗 Enlace a la página actual y a la primera página
+        collectionModel.add(PAGINA.expandir(cursorActual, tamanio, desde, hasta, expand).withSelfRel());
+        collectionModel.add(PAGINA.expandir(null, tamanio, desde, hasta, expand).withRel(IanaLinkRelations.FIRST));
+        
+        // 🔗 Enlaces de navegación solo cuando existe la página correspondiente
+        if (pagina.getCursorSiguiente() != null) {
+            collectionModel.add(PAGINA.expandir(pagina.getCursorSiguiente(), tamanio, desde, hasta, expand)
+                .withRel(IanaLinkRelations.NEXT));
+        }
+        if (pagina.getCursorAnterior() != null) {
+            collectionModel.add(PAGINA.expandir(pagina.getCursorAnterior(), tamanio, desde, hasta, expand)
+                .withRel(IanaLinkRelations.PREV));
+        }
+        
+        return collectionModel;
+    }
 }
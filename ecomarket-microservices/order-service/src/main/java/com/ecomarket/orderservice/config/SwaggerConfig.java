@@ -7,6 +7,7 @@ import io.swagger.v3.oas.models.info.License;
 import io.swagger.v3.oas.models.servers.Server;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 import java.util.List;
 
@@ -15,8 +16,10 @@ import java.util.List;
  * 
  * Esta clase configura la documentación automática de la API REST
  * proporcionando información detallada sobre el microservicio de pedidos.
+ * Perezosa: el OpenAPI se arma con la primera solicitud a /v3/api-docs, no al arrancar.
  */
 @Configuration
+@Lazy
 public class SwaggerConfig {
 
     @Bean
@@ -0,0 +1,43 @@
+package com.ecomarket.orderservice.controller;
+
+import com.ecomarket.orderservice.dto.CrearPedidoRequest;
+import com.ecomarket.orderservice.model.Pedido;
+import com.ecomarket.orderservice.service.ClaveIdempotenciaReutilizadaException;
+import com.ecomarket.orderservice.service.IdempotenciaPedidoService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Function;
+
+/**
+ * Respuesta HTTP de POST /pedidos con Idempotency-Key (ver IdempotenciaPedidoService).
+ *
+ * La primera solicitud y sus repeticiones responden 201 con el mismo pedido; las repeticiones
+ * llevan Idempotent-Replayed: true. Una clave inválida responde 400 y una clave ya usada con
+ * otro cuerpo responde 422.
+ */
+final class IdempotenciaHttp {
+
+    static final String CLAVE = "Idempotency-Key";
+    static final String REPETIDA = "Idempotent-Replayed";
+
+    private IdempotenciaHttp() {
+    }
+
+    static <T> ResponseEntity<T> crear(IdempotenciaPedidoService servicio, String clave,
+                                       CrearPedidoRequest request, Function<Pedido, T> cuerpo) {
+        IdempotenciaPedidoService.Resultado resultado;
+        try {
+            resultado = servicio.crearPedido(clave, request);
+        } catch (ClaveIdempotenciaReutilizadaException e) {
+            return ResponseEntity.unprocessableEntity().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.status(HttpStatus.CREATED);
+        if (resultado.repetido()) {
+            respuesta.header(REPETIDA, "true");
+        }
+        return respuesta.body(cuerpo.apply(resultado.pedido()));
+    }
+}
@@ -1,7 +1,13 @@
 package com.ecomarket.orderservice.controller;
 
+import com.ecomarket.orderservice.dto.CrearPedidoRequest;
+import com.ecomarket.orderservice.model.ClienteResumen;
 import com.ecomarket.orderservice.model.Pedido;
 import com.ecomarket.orderservice.model.DetallePedido;
+import com.ecomarket.orderservice.model.PaginaPedidos;
+import com.ecomarket.orderservice.model.ProductoVendido;
+import com.ecomarket.orderservice.model.VerificacionResumen;
+import com.ecomarket.orderservice.service.IdempotenciaPedidoService;
 import com.ecomarket.orderservice.service.PedidoService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,10 +20,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import jakarta.validation.Valid;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -28,34 +41,74 @@ public class PedidoController {
     
     @Autowired
     private PedidoService pedidoService;
+
+    @Autowired
+    private IdempotenciaPedidoService idempotenciaPedidoService;
     
     @Operation(
-        summary = "Obtener todos los pedidos",
-        description = "Retorna una lista completa de todos los pedidos registrados en el sistema"
+        summary = "Obtener pedidos paginados",
+        description = "Retorna una página de pedidos ordenada por ID. La continuación se indica con un " +
+                      "cursor opaco en el header Link (rel=\"next\" / rel=\"prev\")"
     )
     @ApiResponses(value = {
         @ApiResponse(
             responseCode = "200", 
-            description = "Lista de pedidos obtenida exitosamente",
+            description = "Página de pedidos obtenida exitosamente",
             content = @Content(
                 mediaType = "application/json",
                 schema = @Schema(implementation = Pedido.class)
             )
         ),
+        @ApiResponse(
+            responseCode = "400", 
+            description = "Cursor inválido"
+        ),
         @ApiResponse(
             responseCode = "500", 
             description = "Error interno del servidor"
         )
     })
     @GetMapping
-    public ResponseEntity<List<Pedido>> obtenerTodos() {
-        List<Pedido> pedidos = pedidoService.obtenerTodos();
-        return ResponseEntity.ok(pedidos);
+    public ResponseEntity<List<Pedido>> obtenerTodos(
+            @Parameter(description = "Cursor opaco de continuación (tomado del header Link)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de pedidos por página", example = "50")
+            @RequestParam(required = false) Integer size) {
+        PaginaPedidos pagina;
+        try {
+            pagina = pedidoService.obtenerPagina(cursor, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<String> links = new ArrayList<>();
+        if (pagina.getCursorSiguiente() != null) {
+            links.add(enlacePagina(pagina.getCursorSiguiente(), pagina.getTamanio(), "next"));
+        }
+        if (pagina.getCursorAnterior() != null) {
+            links.add(enlacePagina(pagina.getCursorAnterior(), pagina.getTamanio(), "prev"));
+        }
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (!links.isEmpty()) {
+            respuesta.header(HttpHeaders.LINK, String.join(", ", links));
+        }
+        return respuesta.body(pagina.getPedidos());
+    }
+
+    // Construye una entrada del header Link (RFC 8288) conservando la URL de la petición actual
+    private String enlacePagina(String cursor, int tamanio, String rel) {
+        String url = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", cursor)
+                .replaceQueryParam("size", tamanio)
+                .toUriString();
+        return "<" + url + ">; rel=\"" + rel + "\"";
     }
     
     @Operation(
         summary = "Obtener pedido por ID",
-        description = "Busca y retorna un pedido específico utilizando su identificador único"
+        description = "Busca y retorna un pedido específico utilizando su identificador único. " +
+                      "Responde con ETag; con If-None-Match igual a la versión actual responde 304 sin cuerpo"
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -66,6 +119,10 @@ public class PedidoController {
                 schema = @Schema(implementation = Pedido.class)
             )
         ),
+        @ApiResponse(
+            responseCode = "304", 
+            description = "El pedido no cambió desde el ETag de If-None-Match"
+        ),
         @ApiResponse(
             responseCode = "404", 
             description = "Pedido no encontrado"
@@ -74,10 +131,14 @@ public class PedidoController {
     @GetMapping("/{id}")
     public ResponseEntity<Pedido> obtenerPorId(
             @Parameter(description = "ID único del pedido", example = "1", required = true)
-            @PathVariable Integer id) {
+            @PathVariable Integer id,
+            WebRequest webRequest) {
+        if (EtagVersion.noModificado(webRequest, () -> pedidoService.obtenerVersion(id))) {
+            return null;
+        }
         Pedido pedido = pedidoService.buscarPorId(id);
         if (pedido != null) {
-            return ResponseEntity.ok(pedido);
+            return ResponseEntity.ok().eTag(EtagVersion.de(pedido.getVersion())).body(pedido);
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -85,7 +146,9 @@ public class PedidoController {
     
     @Operation(
         summary = "Crear nuevo pedido",
-        description = "Crea un nuevo pedido con sus detalles asociados. Calcula automáticamente subtotales y totales."
+        description = "Crea un nuevo pedido con sus detalles asociados. Calcula automáticamente subtotales y totales. " +
+                      "Con Idempotency-Key, un reintento con la misma clave repite la respuesta del primero " +
+                      "(Idempotent-Replayed: true) en vez de crear otro pedido"
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -99,6 +162,10 @@ public class PedidoController {
         @ApiResponse(
             responseCode = "400", 
             description = "Datos de entrada inválidos"
+        ),
+        @ApiResponse(
+            responseCode = "422", 
+            description = "La Idempotency-Key ya se usó con otro pedido"
         )
     })
     @PostMapping
@@ -138,37 +205,16 @@ public class PedidoController {
                     )
                 )
             )
-            @RequestBody Map<String, Object> request) {
-        try {
-            // Extraer pedido del request
-            Pedido pedido = new Pedido();
-            pedido.setFechaDePedido((String) request.get("fechaDePedido"));
-            pedido.setClienteId((Integer) request.get("clienteId"));
-            pedido.setEstado((String) request.get("estado"));
-            pedido.setDescuento(request.get("descuento") != null ? 
-                Double.valueOf(request.get("descuento").toString()) : 0.0);
-            pedido.setMetodoPagoId((Integer) request.get("metodoPagoId"));
-            pedido.setUsuarioId((Integer) request.get("usuarioId"));
-            pedido.setDireccionEnvio((String) request.get("direccionEnvio"));
-            pedido.setCiudadEnvio((String) request.get("ciudadEnvio"));
-            pedido.setNotas((String) request.get("notas"));
-            
-            // Extraer detalles del request
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> detallesData = (List<Map<String, Object>>) request.get("detalles");
-            List<DetallePedido> detalles = detallesData.stream().map(detalleData -> {
-                DetallePedido detalle = new DetallePedido();
-                detalle.setProductoId((Integer) detalleData.get("productoId"));
-                detalle.setPrecioUnitario(Double.valueOf(detalleData.get("precioUnitario").toString()));
-                detalle.setCantidad((Integer) detalleData.get("cantidad"));
-                return detalle;
-            }).toList();
-            
-            Pedido nuevoPedido = pedidoService.crearPedido(pedido, detalles);
-            return ResponseEntity.status(HttpStatus.CREATED).body(nuevoPedido);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+            @Valid @RequestBody CrearPedidoRequest request,
+            @Parameter(description = "Clave única del intento de compra; los reintentos con la misma clave no duplican el pedido",
+                       example = "3f1c2a9e-8d4b-4c57-9a0e-6b1d2f7c5e10")
+            @RequestHeader(name = IdempotenciaHttp.CLAVE, required = false) String claveIdempotencia) {
+        if (claveIdempotencia != null) {
+            return IdempotenciaHttp.crear(idempotenciaPedidoService, claveIdempotencia, request, pedido -> pedido);
         }
+        // Jackson enlaza y valida el DTO; los datos inválidos responden 400 antes de llegar aquí
+        Pedido nuevoPedido = pedidoService.crearPedido(request.toPedido(), request.toDetalles());
+        return ResponseEntity.status(HttpStatus.CREATED).body(nuevoPedido);
     }
     
     @Operation(
@@ -183,18 +229,32 @@ public class PedidoController {
         @ApiResponse(
             responseCode = "404", 
             description = "Pedido no encontrado"
+        ),
+        @ApiResponse(
+            responseCode = "412", 
+            description = "If-Match no coincide con la versión actual del pedido"
         )
     })
     @PutMapping("/{id}")
     public ResponseEntity<Pedido> actualizar(
             @Parameter(description = "ID del pedido a actualizar", example = "1")
             @PathVariable Integer id, 
-            @RequestBody Pedido pedido) {
-        Pedido pedidoActualizado = pedidoService.actualizar(id, pedido);
-        if (pedidoActualizado != null) {
-            return ResponseEntity.ok(pedidoActualizado);
-        } else {
-            return ResponseEntity.notFound().build();
+            @RequestBody Pedido pedido,
+            WebRequest webRequest) {
+        EtagVersion.Precondicion precondicion = EtagVersion.precondicion(webRequest, () -> pedidoService.obtenerVersion(id));
+        if (precondicion.fallida()) {
+            return precondicion.respuesta();
+        }
+        Long versionEsperada = precondicion.versionEsperada();
+        try {
+            Pedido pedidoActualizado = pedidoService.actualizar(id, pedido, versionEsperada);
+            if (pedidoActualizado != null) {
+                return ResponseEntity.ok().eTag(EtagVersion.de(pedidoActualizado.getVersion())).body(pedidoActualizado);
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
     }
     
@@ -210,6 +270,10 @@ public class PedidoController {
         @ApiResponse(
             responseCode = "404", 
             description = "Pedido no encontrado"
+        ),
+        @ApiResponse(
+            responseCode = "412", 
+            description = "If-Match no coincide con la versión actual del pedido"
         )
     })
     @PatchMapping("/{id}/estado")
@@ -228,13 +292,23 @@ public class PedidoController {
                     )
                 )
             )
-            @RequestBody Map<String, String> request) {
+            @RequestBody Map<String, String> request,
+            WebRequest webRequest) {
         String nuevoEstado = request.get("estado");
-        Pedido pedidoActualizado = pedidoService.actualizarEstado(id, nuevoEstado);
-        if (pedidoActualizado != null) {
-            return ResponseEntity.ok(pedidoActualizado);
-        } else {
-            return ResponseEntity.notFound().build();
+        EtagVersion.Precondicion precondicion = EtagVersion.precondicion(webRequest, () -> pedidoService.obtenerVersion(id));
+        if (precondicion.fallida()) {
+            return precondicion.respuesta();
+        }
+        Long versionEsperada = precondicion.versionEsperada();
+        try {
+            Pedido pedidoActualizado = pedidoService.actualizarEstado(id, nuevoEstado, versionEsperada);
+            if (pedidoActualizado != null) {
+                return ResponseEntity.ok().eTag(EtagVersion.de(pedidoActualizado.getVersion())).body(pedidoActualizado);
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
     }
     
@@ -250,17 +324,31 @@ public class PedidoController {
         @ApiResponse(
             responseCode = "404", 
             description = "Pedido no encontrado"
+        ),
+        @ApiResponse(
+            responseCode = "412", 
+            description = "If-Match no coincide con la versión actual del pedido"
         )
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> eliminar(
             @Parameter(description = "ID del pedido a eliminar", example = "1")
-            @PathVariable Integer id) {
-        boolean eliminado = pedidoService.eliminar(id);
-        if (eliminado) {
-            return ResponseEntity.noContent().build();
-        } else {
-            return ResponseEntity.notFound().build();
+            @PathVariable Integer id,
+            WebRequest webRequest) {
+        EtagVersion.Precondicion precondicion = EtagVersion.precondicion(webRequest, () -> pedidoService.obtenerVersion(id));
+        if (precondicion.fallida()) {
+            return precondicion.respuesta();
+        }
+        Long versionEsperada = precondicion.versionEsperada();
+        try {
+            boolean eliminado = pedidoService.eliminar(id, versionEsperada);
+            if (eliminado) {
+                return ResponseEntity.noContent().build();
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
     }
     
@@ -368,13 +456,48 @@ public class PedidoController {
         return ResponseEntity.ok(cantidad);
     }
     
+    @Operation(
+        summary = "Obtener resumen de compras por cliente",
+        description = "Cantidad de pedidos, total en pedidos completados y fecha del último pedido del cliente"
+    )
+    @GetMapping("/cliente/{clienteId}/resumen")
+    public ResponseEntity<ClienteResumen> obtenerResumenCliente(
+            @Parameter(description = "ID del cliente", example = "1")
+            @PathVariable Integer clienteId) {
+        return ResponseEntity.ok(pedidoService.obtenerResumenCliente(clienteId));
+    }
+    
+    @Operation(
+        summary = "Verificar resumen de clientes",
+        description = "Compara cliente_resumen con los pedidos por bloques de clientes en paralelo. " +
+                      "Con reparar=true corrige las diferencias encontradas"
+    )
+    @PostMapping("/clientes/resumen/verificar")
+    public ResponseEntity<VerificacionResumen> verificarResumenClientes(
+            @Parameter(description = "Corregir las diferencias encontradas", example = "false")
+            @RequestParam(defaultValue = "false") boolean reparar) {
+        return ResponseEntity.ok(pedidoService.verificarResumenClientes(reparar));
+    }
+    
     @Operation(
         summary = "Obtener productos más vendidos",
-        description = "Retorna una lista de productos ordenados por cantidad vendida (mayor a menor)"
+        description = "Retorna los N productos con más unidades vendidas (mayor a menor), " +
+                      "servidos desde un ranking en memoria que se actualiza al crear y eliminar pedidos"
     )
     @GetMapping("/productos-mas-vendidos")
-    public ResponseEntity<List<Object[]>> obtenerProductosMasVendidos() {
-        List<Object[]> productos = pedidoService.obtenerProductosMasVendidos();
+    public ResponseEntity<List<ProductoVendido>> obtenerProductosMasVendidos(
+            @Parameter(description = "Cantidad de productos a retornar (máximo 100)", example = "10")
+            @RequestParam(required = false) Integer limit) {
+        List<ProductoVendido> productos = pedidoService.obtenerProductosMasVendidos(limit);
         return ResponseEntity.ok(productos);
     }
+    
+    @Operation(
+        summary = "Reconstruir ranking de productos más vendidos",
+        description = "Recalcula los contadores de ventas desde los detalles de pedido y recarga el ranking en memoria"
+    )
+    @PostMapping("/productos-mas-vendidos/reconstruir")
+    public ResponseEntity<List<ProductoVendido>> reconstruirProductosMasVendidos() {
+        return ResponseEntity.ok(pedidoService.reconstruirProductosMasVendidos());
+    }
 }
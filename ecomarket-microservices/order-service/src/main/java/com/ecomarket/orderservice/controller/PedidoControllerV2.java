@@ -2,8 +2,14 @@ package com.ecomarket.orderservice.controller;
 
 import com.ecomarket.orderservice.assembler.DetallePedidoModelAssembler;
 import com.ecomarket.orderservice.assembler.PedidoModelAssembler;
+import com.ecomarket.orderservice.dto.CrearPedidoRequest;
 import com.ecomarket.orderservice.model.Pedido;
 import com.ecomarket.orderservice.model.DetallePedido;
+import com.ecomarket.orderservice.model.IngresoPeriodo;
+import com.ecomarket.orderservice.model.PaginaPedidos;
+import com.ecomarket.orderservice.model.ProductoVendido;
+import com.ecomarket.orderservice.service.PedidoCargaMasivaService;
+import com.ecomarket.orderservice.service.IdempotenciaPedidoService;
 import com.ecomarket.orderservice.service.PedidoService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,12 +22,24 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import jakarta.validation.Valid;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -37,59 +55,119 @@ public class PedidoControllerV2 {
     private PedidoService pedidoService;
     
     @Autowired
+    private IdempotenciaPedidoService idempotenciaPedidoService;
+    
+    // Perezosos (@Lazy): los assemblers se crean con la primera solicitud que los usa, no al arrancar
+    @Autowired
+    @Lazy
     private PedidoModelAssembler pedidoAssembler;
     
     @Autowired
+    @Lazy
     private DetallePedidoModelAssembler detalleAssembler;
     
+    @Autowired
+    private PedidoCargaMasivaService cargaMasivaService;
+    
     @Operation(
-        summary = "Obtener todos los pedidos (HATEOAS)",
-        description = "Retorna una colección completa de pedidos con enlaces hipermedia para navegación dinámica"
+        summary = "Obtener pedidos paginados (HATEOAS)",
+        description = "Retorna una página de pedidos con enlaces hipermedia next/prev basados en un cursor opaco. " +
+                      "Con desde y/o hasta filtra por fecha de pedido (ambas inclusive) y ordena por fecha. " +
+                      "Con expand=detalles incluye las líneas de cada pedido"
     )
     @ApiResponses(value = {
         @ApiResponse(
             responseCode = "200", 
-            description = "Colección de pedidos con enlaces HATEOAS obtenida exitosamente"
+            description = "Página de pedidos con enlaces HATEOAS obtenida exitosamente"
+        ),
+        @ApiResponse(
+            responseCode = "400", 
+            description = "Cursor, rango de fechas o expand inválido"
         )
     })
     @GetMapping
-    public ResponseEntity<CollectionModel<EntityModel<Pedido>>> obtenerTodos() {
-        List<EntityModel<Pedido>> pedidos = pedidoService.obtenerTodos().stream()
-                .map(pedidoAssembler::toModelSimple)
-                .collect(Collectors.toList());
-        
-        // Crear colección con enlaces
-        CollectionModel<EntityModel<Pedido>> collectionModel = CollectionModel.of(pedidos);
+    public ResponseEntity<CollectionModel<EntityModel<Pedido>>> obtenerTodos(
+            @Parameter(description = "Cursor opaco de continuación (tomado de los enlaces next/prev)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de pedidos por página", example = "50")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Fecha de pedido mínima (ISO-8601, inclusive)", example = "2025-06-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha de pedido máxima (ISO-8601, inclusive)", example = "2025-06-30")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @Parameter(description = "Recursos relacionados a incluir en la respuesta (solo \"detalles\")", example = "detalles")
+            @RequestParam(required = false) String expand) {
+        PaginaPedidos pagina;
+        try {
+            // Con detalles: dos consultas por página (pedidos + líneas), sin importar el tamaño
+            pagina = expandirDetalles(expand)
+                    ? pedidoService.obtenerPaginaPorFechaConDetalles(desde, hasta, cursor, size)
+                    : pedidoService.obtenerPaginaPorFecha(desde, hasta, cursor, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
         
-        // Agregar enlace a sí mismo
-        collectionModel.add(linkTo(PedidoControllerV2.class).withSelfRel());
+        // Colección con enlaces self/first/next/prev (conservan el rango de fechas y expand)
+        CollectionModel<EntityModel<Pedido>> collectionModel = pedidoAssembler.toPaginaModel(pagina, cursor, desde, hasta, expand);
         
         // Agregar enlaces relacionados
         collectionModel.add(linkTo(methodOn(PedidoControllerV2.class).totalPedidos()).withRel("total"));
-        collectionModel.add(linkTo(methodOn(PedidoControllerV2.class).obtenerProductosMasVendidos()).withRel("productos-mas-vendidos"));
+        collectionModel.add(linkTo(methodOn(PedidoControllerV2.class).obtenerProductosMasVendidos(null)).withRel("productos-mas-vendidos"));
         
         return ResponseEntity.ok(collectionModel);
     }
     
     @Operation(
         summary = "Obtener pedido por ID (HATEOAS)",
-        description = "Busca un pedido específico y retorna todos sus enlaces hipermedia relacionados"
+        description = "Busca un pedido específico y retorna todos sus enlaces hipermedia relacionados. " +
+                      "Con expand=detalles incluye sus líneas en la misma consulta. Responde con ETag; " +
+                      "con If-None-Match igual a la versión actual responde 304 sin armar el modelo"
     )
     @GetMapping("/{id}")
     public ResponseEntity<EntityModel<Pedido>> obtenerPorId(
             @Parameter(description = "ID único del pedido", example = "1")
-            @PathVariable Integer id) {
-        Pedido pedido = pedidoService.buscarPorId(id);
+            @PathVariable Integer id,
+            @Parameter(description = "Recursos relacionados a incluir en la respuesta (solo \"detalles\")", example = "detalles")
+            @RequestParam(required = false) String expand,
+            WebRequest webRequest) {
+        boolean conDetalles;
+        try {
+            conDetalles = expandirDetalles(expand);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        // La versión se compara antes de cargar el pedido y sus líneas
+        if (EtagVersion.noModificado(webRequest, () -> pedidoService.obtenerVersion(id))) {
+            return null;
+        }
+        Pedido pedido = conDetalles
+                ? pedidoService.buscarPorIdConDetalles(id)
+                : pedidoService.buscarPorId(id);
         if (pedido != null) {
-            return ResponseEntity.ok(pedidoAssembler.toModel(pedido));
+            return ResponseEntity.ok().eTag(EtagVersion.de(pedido.getVersion())).body(pedidoAssembler.toModel(pedido));
         } else {
             return ResponseEntity.notFound().build();
         }
     }
     
+    // ?expand=detalles es el único recurso relacionado que se puede incluir por ahora
+    private static boolean expandirDetalles(String expand) {
+        if (expand == null || expand.isBlank()) {
+            return false;
+        }
+        for (String valor : expand.split(",")) {
+            if (!"detalles".equals(valor.trim())) {
+                throw new IllegalArgumentException("Valor de expand no soportado: " + valor);
+            }
+        }
+        return true;
+    }
+    
     @Operation(
         summary = "Crear nuevo pedido (HATEOAS)",
-        description = "Crea un pedido y retorna el recurso con todos sus enlaces hipermedia"
+        description = "Crea un pedido y retorna el recurso con todos sus enlaces hipermedia. " +
+                      "Con Idempotency-Key, un reintento con la misma clave repite la respuesta del primero " +
+                      "(Idempotent-Replayed: true); la misma clave con otro pedido responde 422"
     )
     @PostMapping
     public ResponseEntity<EntityModel<Pedido>> crear(
@@ -120,75 +198,124 @@ public class PedidoControllerV2 {
                     )
                 )
             )
-            @RequestBody Map<String, Object> request) {
-        try {
-            // Lógica de creación (mismo que V1)
-            Pedido pedido = new Pedido();
-            pedido.setFechaDePedido((String) request.get("fechaDePedido"));
-            pedido.setClienteId((Integer) request.get("clienteId"));
-            pedido.setEstado((String) request.get("estado"));
-            pedido.setDescuento(request.get("descuento") != null ? 
-                Double.valueOf(request.get("descuento").toString()) : 0.0);
-            pedido.setMetodoPagoId((Integer) request.get("metodoPagoId"));
-            pedido.setUsuarioId((Integer) request.get("usuarioId"));
-            pedido.setDireccionEnvio((String) request.get("direccionEnvio"));
-            pedido.setCiudadEnvio((String) request.get("ciudadEnvio"));
-            pedido.setNotas((String) request.get("notas"));
-            
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> detallesData = (List<Map<String, Object>>) request.get("detalles");
-            List<DetallePedido> detalles = detallesData.stream().map(detalleData -> {
-                DetallePedido detalle = new DetallePedido();
-                detalle.setProductoId((Integer) detalleData.get("productoId"));
-                detalle.setPrecioUnitario(Double.valueOf(detalleData.get("precioUnitario").toString()));
-                detalle.setCantidad((Integer) detalleData.get("cantidad"));
-                return detalle;
-            }).toList();
-            
-            Pedido nuevoPedido = pedidoService.crearPedido(pedido, detalles);
-            
-            // Retornar con enlaces HATEOAS
-            return ResponseEntity.status(HttpStatus.CREATED).body(pedidoAssembler.toModel(nuevoPedido));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+            @Valid @RequestBody CrearPedidoRequest request,
+            @Parameter(description = "Clave única del intento de compra; los reintentos con la misma clave no duplican el pedido",
+                       example = "3f1c2a9e-8d4b-4c57-9a0e-6b1d2f7c5e10")
+            @RequestHeader(name = IdempotenciaHttp.CLAVE, required = false) String claveIdempotencia) {
+        if (claveIdempotencia != null) {
+            return IdempotenciaHttp.crear(idempotenciaPedidoService, claveIdempotencia, request, pedidoAssembler::toModel);
         }
+        Pedido nuevoPedido = pedidoService.crearPedido(request.toPedido(), request.toDetalles());
+        
+        // Retornar con enlaces HATEOAS
+        return ResponseEntity.status(HttpStatus.CREATED).body(pedidoAssembler.toModel(nuevoPedido));
+    }
+    
+    @Operation(
+        summary = "Carga masiva de pedidos",
+        description = "Recibe un arreglo JSON o NDJSON (un pedido por línea) y crea los pedidos válidos en lotes " +
+                      "transaccionales. Retorna el resultado de cada elemento (CREADO, RECHAZADO o ERROR) y los totales. " +
+                      "El cuerpo se procesa en streaming, por lo que no hay límite práctico de elementos.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "Pedidos a crear, con el mismo formato que POST /api/v2/pedidos",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                examples = @ExampleObject(
+                    value = """
+                    [
+                      {\"clienteId\": 1, \"estado\": \"PENDIENTE\", \"detalles\": [{\"productoId\": 1, \"precioUnitario\": 15.99, \"cantidad\": 2}]},
+                      {\"clienteId\": 2, \"estado\": \"PENDIENTE\", \"detalles\": [{\"productoId\": 3, \"precioUnitario\": 4.95, \"cantidad\": 1}]}
+                    ]
+                    """
+                )
+            )
+        )
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200", 
+            description = "Carga procesada; revisar el estado de cada elemento"
+        )
+    })
+    @PostMapping(
+        value = "/bulk",
+        consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public void crearEnLote(
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        // Se escribe directo en la respuesta para no acumular los resultados en memoria
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        cargaMasivaService.procesar(request.getInputStream(), response.getOutputStream());
     }
     
-    @Operation(summary = "Actualizar pedido (HATEOAS)")
+    @Operation(summary = "Actualizar pedido (HATEOAS)", description = "Con If-Match solo se aplica si coincide con la versión actual (412 si no)")
     @PutMapping("/{id}")
     public ResponseEntity<EntityModel<Pedido>> actualizar(
             @PathVariable Integer id, 
-            @RequestBody Pedido pedido) {
-        Pedido pedidoActualizado = pedidoService.actualizar(id, pedido);
-        if (pedidoActualizado != null) {
-            return ResponseEntity.ok(pedidoAssembler.toModel(pedidoActualizado));
-        } else {
-            return ResponseEntity.notFound().build();
+            @RequestBody Pedido pedido,
+            WebRequest webRequest) {
+        EtagVersion.Precondicion precondicion = EtagVersion.precondicion(webRequest, () -> pedidoService.obtenerVersion(id));
+        if (precondicion.fallida()) {
+            return precondicion.respuesta();
+        }
+        Long versionEsperada = precondicion.versionEsperada();
+        try {
+            Pedido pedidoActualizado = pedidoService.actualizar(id, pedido, versionEsperada);
+            if (pedidoActualizado != null) {
+                return ResponseEntity.ok().eTag(EtagVersion.de(pedidoActualizado.getVersion())).body(pedidoAssembler.toModel(pedidoActualizado));
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
     }
     
-    @Operation(summary = "Actualizar estado del pedido (HATEOAS)")
+    @Operation(summary = "Actualizar estado del pedido (HATEOAS)", description = "Con If-Match solo se aplica si coincide con la versión actual (412 si no)")
     @PatchMapping("/{id}/estado")
     public ResponseEntity<EntityModel<Pedido>> actualizarEstado(
             @PathVariable Integer id,
-            @RequestBody Map<String, String> request) {
+            @RequestBody Map<String, String> request,
+            WebRequest webRequest) {
         String nuevoEstado = request.get("estado");
-        Pedido pedidoActualizado = pedidoService.actualizarEstado(id, nuevoEstado);
-        if (pedidoActualizado != null) {
-            return ResponseEntity.ok(pedidoAssembler.toModel(pedidoActualizado));
-        } else {
-            return ResponseEntity.notFound().build();
+        EtagVersion.Precondicion precondicion = EtagVersion.precondicion(webRequest, () -> pedidoService.obtenerVersion(id));
+        if (precondicion.fallida()) {
+            return precondicion.respuesta();
+        }
+        Long versionEsperada = precondicion.versionEsperada();
+        try {
+            Pedido pedidoActualizado = pedidoService.actualizarEstado(id, nuevoEstado, versionEsperada);
+            if (pedidoActualizado != null) {
+                return ResponseEntity.ok().eTag(EtagVersion.de(pedidoActualizado.getVersion())).body(pedidoAssembler.toModel(pedidoActualizado));
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
     }
     
-    @Operation(summary = "Eliminar pedido (HATEOAS)")
+    @Operation(summary = "Eliminar pedido (HATEOAS)", description = "Con If-Match solo se aplica si coincide con la versión actual (412 si no)")
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> eliminar(@PathVariable Integer id) {
-        boolean eliminado = pedidoService.eliminar(id);
-        if (eliminado) {
-            return ResponseEntity.noContent().build();
-        } else {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<Void> eliminar(@PathVariable Integer id, WebRequest webRequest) {
+        EtagVersion.Precondicion precondicion = EtagVersion.precondicion(webRequest, () -> pedidoService.obtenerVersion(id));
+        if (precondicion.fallida()) {
+            return precondicion.respuesta();
+        }
+        Long versionEsperada = precondicion.versionEsperada();
+        try {
+            boolean eliminado = pedidoService.eliminar(id, versionEsperada);
+            if (eliminado) {
+                return ResponseEntity.noContent().build();
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
     }
     
@@ -207,7 +334,7 @@ public class PedidoControllerV2 {
         
         // Enlaces de la colección
         collectionModel.add(linkTo(methodOn(PedidoControllerV2.class).obtenerDetalles(id)).withSelfRel());
-        collectionModel.add(linkTo(methodOn(PedidoControllerV2.class).obtenerPorId(id)).withRel("pedido"));
+        collectionModel.add(linkTo(methodOn(PedidoControllerV2.class).obtenerPorId(id, null, null)).withRel("pedido"));
         
         return ResponseEntity.ok(collectionModel);
     }
@@ -318,17 +445,109 @@ public class PedidoControllerV2 {
     
     @Operation(summary = "Productos más vendidos (HATEOAS)")
     @GetMapping("/productos-mas-vendidos")
-    public ResponseEntity<Map<String, Object>> obtenerProductosMasVendidos() {
-        List<Object[]> productos = pedidoService.obtenerProductosMasVendidos();
+    public ResponseEntity<Map<String, Object>> obtenerProductosMasVendidos(
+            @Parameter(description = "Cantidad de productos a retornar (máximo 100)", example = "10")
+            @RequestParam(required = false) Integer limit) {
+        List<ProductoVendido> productos = pedidoService.obtenerProductosMasVendidos(limit);
         
         Map<String, Object> response = Map.of(
             "productos", productos,
             "_links", Map.of(
-                "self", Map.of("href", linkTo(methodOn(PedidoControllerV2.class).obtenerProductosMasVendidos()).toString()),
+                "self", Map.of("href", linkTo(methodOn(PedidoControllerV2.class).obtenerProductosMasVendidos(limit)).toString()),
                 "pedidos", Map.of("href", linkTo(PedidoControllerV2.class).toString())
             )
         );
         
         return ResponseEntity.ok(response);
     }
+    
+    // ======================================================================
+    // INGRESOS POR PERÍODO (agregados en la base de datos)
+    // ======================================================================
+    
+    @Operation(
+        summary = "Ingresos diarios (HATEOAS)",
+        description = "Cantidad de pedidos y suma de totales por día entre desde y hasta (inclusive), sin pedidos CANCELADO"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ingresos por día, ordenados por fecha"),
+        @ApiResponse(responseCode = "400", description = "Rango de fechas inválido")
+    })
+    @GetMapping("/ingresos/diarios")
+    public ResponseEntity<Map<String, Object>> ingresosDiarios(
+            @Parameter(description = "Fecha inicial (ISO-8601, inclusive)", example = "2025-06-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha final (ISO-8601, inclusive)", example = "2025-06-30")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        List<IngresoPeriodo> ingresos;
+        try {
+            ingresos = pedidoService.obtenerIngresosDiarios(desde, hasta);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(respuestaIngresos(ingresos,
+            linkTo(methodOn(PedidoControllerV2.class).ingresosDiarios(desde, hasta)).toString(), desde, hasta));
+    }
+    
+    @Operation(
+        summary = "Ingresos semanales (HATEOAS)",
+        description = "Cantidad de pedidos y suma de totales por semana (lunes a domingo) entre desde y hasta (inclusive), " +
+                      "sin pedidos CANCELADO. Las semanas de los extremos solo suman los días dentro del rango"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ingresos por semana, identificadas por su lunes"),
+        @ApiResponse(responseCode = "400", description = "Rango de fechas inválido")
+    })
+    @GetMapping("/ingresos/semanales")
+    public ResponseEntity<Map<String, Object>> ingresosSemanales(
+            @Parameter(description = "Fecha inicial (ISO-8601, inclusive)", example = "2025-06-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha final (ISO-8601, inclusive)", example = "2025-06-30")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        List<IngresoPeriodo> ingresos;
+        try {
+            ingresos = pedidoService.obtenerIngresosSemanales(desde, hasta);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(respuestaIngresos(ingresos,
+            linkTo(methodOn(PedidoControllerV2.class).ingresosSemanales(desde, hasta)).toString(), desde, hasta));
+    }
+    
+    @Operation(
+        summary = "Ingresos mensuales (HATEOAS)",
+        description = "Cantidad de pedidos y suma de totales por mes entre desde y hasta (inclusive), sin pedidos CANCELADO. " +
+                      "Los meses de los extremos solo suman los días dentro del rango"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ingresos por mes, identificados por su primer día"),
+        @ApiResponse(responseCode = "400", description = "Rango de fechas inválido")
+    })
+    @GetMapping("/ingresos/mensuales")
+    public ResponseEntity<Map<String, Object>> ingresosMensuales(
+            @Parameter(description = "Fecha inicial (ISO-8601, inclusive)", example = "2025-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha final (ISO-8601, inclusive)", example = "2025-12-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        List<IngresoPeriodo> ingresos;
+        try {
+            ingresos = pedidoService.obtenerIngresosMensuales(desde, hasta);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(respuestaIngresos(ingresos,
+            linkTo(methodOn(PedidoControllerV2.class).ingresosMensuales(desde, hasta)).toString(), desde, hasta));
+    }
+    
+    private Map<String, Object> respuestaIngresos(List<IngresoPeriodo> ingresos, String self, LocalDate desde, LocalDate hasta) {
+        return Map.of(
+            "desde", desde,
+            "hasta", hasta,
+            "ingresos", ingresos,
+            "_links", Map.of(
+                "self", Map.of("href", self),
+                "pedidos", Map.of("href", linkTo(methodOn(PedidoControllerV2.class).obtenerTodos(null, null, desde, hasta, null)).toString())
+            )
+        );
+    }
 }
@@ -0,0 +1,81 @@
+package com.ecomarket.orderservice.dto;
+
+import com.ecomarket.orderservice.model.DetallePedido;
+import com.ecomarket.orderservice.model.Pedido;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos de entrada para crear un pedido con sus detalles (inmutable)
+ *
+ * Jackson lo enlaza directamente desde el JSON; los subtotales y totales
+ * los calcula PedidoService, por eso no forman parte de la solicitud.
+ */
+@Schema(description = "Datos del pedido a crear con sus detalles")
+public record CrearPedidoRequest(
+
+        @Schema(description = "Fecha en que se realizó el pedido", example = "2025-06-23")
+        LocalDate fechaDePedido,
+
+        @NotNull
+        @Schema(description = "Identificador del cliente", example = "1", required = true)
+        Integer clienteId,
+
+        @Schema(description = "Estado inicial del pedido", example = "PENDIENTE")
+        String estado,
+
+        @PositiveOrZero
+        @Max(100)
+        @Schema(description = "Porcentaje de descuento", example = "10.0")
+        Double descuento,
+
+        @Schema(description = "Identificador del método de pago", example = "1")
+        Integer metodoPagoId,
+
+        @Schema(description = "Identificador del usuario/vendedor", example = "1")
+        Integer usuarioId,
+
+        @Schema(description = "Dirección de entrega", example = "Av. Las Condes 123")
+        String direccionEnvio,
+
+        @Schema(description = "Ciudad de destino", example = "Santiago")
+        String ciudadEnvio,
+
+        @Schema(description = "Notas adicionales", example = "Entrega en horario de oficina")
+        String notas,
+
+        @NotEmpty
+        @Valid
+        @Schema(description = "Líneas del pedido", required = true)
+        List<DetalleRequest> detalles) {
+
+    public Pedido toPedido() {
+        Pedido pedido = new Pedido();
+        pedido.setFechaDePedido(fechaDePedido);
+        pedido.setClienteId(clienteId);
+        pedido.setEstado(estado);
+        pedido.setDescuento(descuento != null ? descuento : 0.0);
+        pedido.setMetodoPagoId(metodoPagoId);
+        pedido.setUsuarioId(usuarioId);
+        pedido.setDireccionEnvio(direccionEnvio);
+        pedido.setCiudadEnvio(ciudadEnvio);
+        pedido.setNotas(notas);
+        return pedido;
+    }
+
+    public List<DetallePedido> toDetalles() {
+        List<DetallePedido> lineas = new ArrayList<>(detalles.size());
+        for (DetalleRequest detalle : detalles) {
+            lineas.add(detalle.toDetallePedido());
+        }
+        return lineas;
+    }
+}
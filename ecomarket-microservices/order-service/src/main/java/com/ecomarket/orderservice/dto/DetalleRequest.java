@@ -0,0 +1,36 @@
+package com.ecomarket.orderservice.dto;
+
+import com.ecomarket.orderservice.model.DetallePedido;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+/**
+ * Línea de un pedido recibida en la API (inmutable)
+ */
+@Schema(description = "Producto y cantidad de una línea del pedido")
+public record DetalleRequest(
+
+        @NotNull
+        @Schema(description = "Identificador del producto en el catálogo", example = "1", required = true)
+        Integer productoId,
+
+        @NotNull
+        @PositiveOrZero
+        @Schema(description = "Precio unitario del producto al momento de la compra", example = "5.99", required = true)
+        Double precioUnitario,
+
+        @NotNull
+        @Min(1)
+        @Schema(description = "Cantidad de unidades", example = "2", required = true)
+        Integer cantidad) {
+
+    public DetallePedido toDetallePedido() {
+        DetallePedido detalle = new DetallePedido();
+        detalle.setProductoId(productoId);
+        detalle.setPrecioUnitario(precioUnitario);
+        detalle.setCantidad(cantidad);
+        return detalle;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecomarket.orderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Resultado de un elemento de la carga masiva de pedidos
+ *
+ * @param indice   posición del elemento en el cuerpo recibido (desde 0)
+ * @param estado   CREADO, RECHAZADO (validación) o ERROR (fallo al persistir)
+ * @param pedidoId ID asignado cuando el pedido se creó
+ * @param error    motivo del rechazo o del error
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Resultado por elemento de la carga masiva")
+public record ResultadoCargaPedido(int indice, String estado, Integer pedidoId, String error) {
+
+    public static final String CREADO = "CREADO";
+    public static final String RECHAZADO = "RECHAZADO";
+    public static final String ERROR = "ERROR";
+
+    public static ResultadoCargaPedido creado(int indice, Integer pedidoId) {
+        return new ResultadoCargaPedido(indice, CREADO, pedidoId, null);
+    }
+
+    public static ResultadoCargaPedido rechazado(int indice, String error) {
+        return new ResultadoCargaPedido(indice, RECHAZADO, null, error);
+    }
+
+    public static ResultadoCargaPedido fallido(int indice, String error) {
+        return new ResultadoCargaPedido(indice, ERROR, null, error);
+    }
+}
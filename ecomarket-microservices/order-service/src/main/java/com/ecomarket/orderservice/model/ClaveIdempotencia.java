@@ -0,0 +1,74 @@
+package com.ecomarket.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clave Idempotency-Key de un POST de pedido con la respuesta que produjo.
+ *
+ * Se inserta en la misma transacción que crea el pedido, antes de crearlo: un reintento con
+ * la misma clave choca con la clave primaria (incluso desde otra instancia) y repite la
+ * respuesta guardada en vez de crear otro pedido. huella es el SHA-256 del cuerpo, para
+ * rechazar la misma clave con otro pedido. Las filas vencidas (expiraEn) las borra
+ * IdempotenciaPedidoService periódicamente.
+ */
+@Entity
+@Table(name = "clave_idempotencia", indexes = {
+    @Index(name = "idx_clave_idempotencia_expira", columnList = "expira_en")
+})
+@Data
+@NoArgsConstructor
+public class ClaveIdempotencia implements Persistable<String> {
+
+    @Id
+    @Column(length = 255)
+    private String clave;
+
+    @Column(nullable = false, length = 64)
+    private String huella;
+
+    // Pedido creado, serializado como JSON; null mientras la transacción que lo crea no termina
+    @Lob
+    private String respuesta;
+
+    @Column(name = "creada_en", nullable = false)
+    private LocalDateTime creadaEn;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+
+    // Clave asignada por el cliente: sin esto save() haría merge (SELECT + UPDATE) en vez de INSERT
+    @Transient
+    private boolean nueva = true;
+
+    public ClaveIdempotencia(String clave, String huella, LocalDateTime creadaEn, LocalDateTime expiraEn) {
+        this.clave = clave;
+        this.huella = huella;
+        this.creadaEn = creadaEn;
+        this.expiraEn = expiraEn;
+    }
+
+    @Override
+    public String getId() {
+        return clave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nueva;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarGuardada() {
+        nueva = false;
+    }
+
+    public boolean vigente(LocalDateTime ahora) {
+        return respuesta != null && expiraEn.isAfter(ahora);
+    }
+}
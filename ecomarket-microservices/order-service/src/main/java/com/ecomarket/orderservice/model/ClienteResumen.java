@@ -0,0 +1,42 @@
+package com.ecomarket.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+/**
+ * Resumen de compras por cliente (modelo de lectura).
+ *
+ * Se recalcula desde pedido al confirmar cada transacción que crea, actualiza o elimina
+ * pedidos del cliente (ver ClienteResumenService), para que los endpoints de cliente
+ * lean una fila por clave primaria en vez de agregar la tabla pedido.
+ */
+@Entity
+@Table(name = "cliente_resumen")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Resumen de compras de un cliente")
+public class ClienteResumen {
+
+    @Id
+    @Column(name = "cliente_id")
+    @Schema(description = "Identificador del cliente", example = "1")
+    private Integer clienteId;
+
+    @Column(name = "cantidad_pedidos", nullable = false)
+    @Schema(description = "Cantidad de pedidos del cliente (todos los estados)", example = "12")
+    private Long cantidadPedidos;
+
+    @Column(name = "total_completado", nullable = false)
+    @Schema(description = "Suma del total de los pedidos COMPLETADO", example = "154990.0")
+    private Double totalCompletado;
+
+    @Column(name = "ultima_fecha_pedido")
+    @Schema(description = "Fecha del pedido más reciente", example = "2025-06-23")
+    private LocalDate ultimaFechaPedido;
+}
@@ -1,13 +1,19 @@
 package com.ecomarket.orderservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 @Entity
-@Table(name = "detalle_de_pedido")
+@Table(name = "detalle_de_pedido", indexes = {
+    @Index(name = "idx_detalle_pedido", columnList = "pedido_id"),
+    @Index(name = "idx_detalle_producto", columnList = "producto_id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -15,7 +21,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 public class DetallePedido {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Igual que en Pedido: IDs reservados en bloques para insertar todas las líneas de un pedido en lote
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detalle_de_pedido_seq")
+    @SequenceGenerator(name = "detalle_de_pedido_seq", sequenceName = "detalle_de_pedido_seq", allocationSize = 50)
     @Schema(description = "Identificador único del detalle", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Integer detalleId;
 
@@ -23,6 +31,15 @@ public class DetallePedido {
     @Schema(description = "ID del pedido al que pertenece este detalle", example = "1", required = true)
     private Integer pedidoId;
 
+    // Lado dueño de Pedido.detalles, solo lectura: la columna se escribe siempre a través de pedidoId
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pedido_id", insertable = false, updatable = false)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Schema(hidden = true)
+    private Pedido pedido;
+
     @Column(name = "producto_id")
     @Schema(description = "Identificador del producto en el catálogo", example = "101", required = true)
     private Integer productoId;
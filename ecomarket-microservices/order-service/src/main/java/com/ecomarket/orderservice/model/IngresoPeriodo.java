@@ -0,0 +1,20 @@
+package com.ecomarket.orderservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+/**
+ * Ingresos agregados de un período (día, semana o mes), calculados con GROUP BY
+ * en la base de datos. Excluye los pedidos CANCELADO.
+ *
+ * @param inicio  primer día del período (lunes para las semanas, día 1 para los meses)
+ * @param pedidos cantidad de pedidos del período
+ * @param total   suma de los totales de los pedidos del período
+ */
+@Schema(description = "Ingresos de un período: fecha de inicio, cantidad de pedidos y total")
+public record IngresoPeriodo(
+        @Schema(description = "Primer día del período", example = "2025-06-02") LocalDate inicio,
+        @Schema(description = "Pedidos no cancelados del período", example = "37") Long pedidos,
+        @Schema(description = "Suma de los totales del período", example = "1520.75") Double total) {
+}
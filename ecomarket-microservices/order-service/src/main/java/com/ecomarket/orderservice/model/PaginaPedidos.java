@@ -0,0 +1,33 @@
+package com.ecomarket.orderservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de pedidos obtenida por paginación de cursor (keyset sobre pedidoId).
+ *
+ * Los cursores son tokens opacos: el cliente solo debe reenviarlos tal cual
+ * en el parámetro "cursor" para avanzar o retroceder.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Página de pedidos con cursores de continuación")
+public class PaginaPedidos {
+
+    @Schema(description = "Pedidos de la página, ordenados por pedidoId ascendente")
+    private List<Pedido> pedidos;
+
+    @Schema(description = "Cursor para la página siguiente (null si es la última)", example = "YTo1MA")
+    private String cursorSiguiente;
+
+    @Schema(description = "Cursor para la página anterior (null si es la primera)", example = "Yjo1MQ")
+    private String cursorAnterior;
+
+    @Schema(description = "Tamaño de página aplicado", example = "50")
+    private int tamanio;
+}
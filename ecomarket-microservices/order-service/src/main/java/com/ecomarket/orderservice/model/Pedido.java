@@ -1,13 +1,33 @@
 package com.ecomarket.orderservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import io.swagger.v3.oas.annotations.media.Schema;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDate;
+import java.util.List;
 
 @Entity
-@Table(name = "pedido")
+// Un índice por cada filtro de PedidoRepository (ver PlanesDeConsultaTest)
+@Table(name = "pedido", indexes = {
+    @Index(name = "idx_pedido_cliente", columnList = "cliente_id"),
+    @Index(name = "idx_pedido_usuario", columnList = "usuario_id"),
+    @Index(name = "idx_pedido_estado", columnList = "estado"),
+    @Index(name = "idx_pedido_metodo_pago", columnList = "metodo_pago_id"),
+    @Index(name = "idx_pedido_ciudad", columnList = "ciudad_envio"),
+    @Index(name = "idx_pedido_total", columnList = "total"),
+    @Index(name = "idx_pedido_fecha", columnList = "fecha_de_pedido, pedido_id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -15,13 +35,16 @@ import io.swagger.v3.oas.annotations.media.Schema;
 public class Pedido {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia con asignación en bloques (pooled-lo): permite agrupar los INSERT en lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_seq")
+    @SequenceGenerator(name = "pedido_seq", sequenceName = "pedido_seq", allocationSize = 50)
     @Schema(description = "Identificador único del pedido", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Integer pedidoId;
 
+    // DATE (antes VARCHAR): ver db/migracion/fecha_de_pedido_a_date.sql para bases existentes
     @Column(name = "fecha_de_pedido")
-    @Schema(description = "Fecha en que se realizó el pedido", example = "2025-06-23", required = true)
-    private String fechaDePedido;
+    @Schema(description = "Fecha en que se realizó el pedido", example = "2025-06-23", type = "string", format = "date", required = true)
+    private LocalDate fechaDePedido;
 
     @Column(name = "cliente_id")
     @Schema(description = "Identificador del cliente que realizó el pedido", example = "1", required = true)
@@ -75,5 +98,43 @@ public class Pedido {
 
     @Schema(description = "Notas adicionales o instrucciones especiales para el pedido", example = "Entrega en horario de oficina")
     private String notas;
+
+    // Control de concurrencia optimista: Hibernate la incrementa en cada UPDATE y la incluye en el WHERE.
+    // La API la expone como ETag (no en el cuerpo); el DEFAULT cubre las filas insertadas sin la columna.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonIgnore
+    @Schema(hidden = true)
+    private Long version;
+
+    // Líneas del pedido (lado inverso, no escribe): PedidoService.*ConDetalles las trae con un JOIN FETCH.
+    // Solo se serializan si ya están cargadas (?expand=detalles en la API V2), así el JSON no dispara
+    // consultas; si se recorren sin JOIN FETCH, @BatchSize las inicializa de a 100 pedidos por consulta.
+    @OneToMany(mappedBy = "pedido", fetch = FetchType.LAZY)
+    @OrderBy("detalleId")
+    @BatchSize(size = 100)
+    @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = SinCargar.class)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Schema(description = "Líneas del pedido, solo presentes con ?expand=detalles", accessMode = Schema.AccessMode.READ_ONLY)
+    private List<DetallePedido> detalles;
+
+    /**
+     * Filtro de @JsonInclude: excluye la colección de detalles si es null o
+     * si Hibernate todavía no la inicializó.
+     */
+    public static class SinCargar {
+        @Override
+        public boolean equals(Object valor) {
+            return valor == null || !Hibernate.isInitialized(valor);
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
 }
 
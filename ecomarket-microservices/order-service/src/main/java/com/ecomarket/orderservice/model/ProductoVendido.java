@@ -0,0 +1,15 @@
+package com.ecomarket.orderservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Entrada del ranking de productos más vendidos.
+ *
+ * @param productoId      identificador del producto
+ * @param cantidadVendida unidades vendidas acumuladas
+ */
+@Schema(description = "Producto y unidades vendidas, en orden de ranking")
+public record ProductoVendido(
+        @Schema(description = "Identificador del producto en el catálogo", example = "101") Integer productoId,
+        @Schema(description = "Unidades vendidas acumuladas", example = "42") Long cantidadVendida) {
+}
@@ -0,0 +1,31 @@
+package com.ecomarket.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Contador de unidades vendidas por producto.
+ *
+ * Se mantiene en la misma transacción que crea o elimina los pedidos (ver RankingVentasService),
+ * de modo que el ranking de más vendidos no necesita agregar detalle_de_pedido en cada consulta.
+ */
+@Entity
+@Table(name = "venta_producto")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Unidades vendidas acumuladas de un producto")
+public class VentaProducto {
+
+    @Id
+    @Column(name = "producto_id")
+    @Schema(description = "Identificador del producto en el catálogo", example = "101")
+    private Integer productoId;
+
+    @Column(name = "cantidad_vendida", nullable = false)
+    @Schema(description = "Unidades vendidas en pedidos vigentes", example = "42")
+    private Long cantidadVendida;
+}
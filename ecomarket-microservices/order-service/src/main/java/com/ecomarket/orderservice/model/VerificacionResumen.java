@@ -0,0 +1,16 @@
+package com.ecomarket.orderservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Resultado de comparar cliente_resumen con los pedidos.
+ *
+ * @param bloques     rangos de clienteId procesados
+ * @param clientes    clientes revisados (con pedidos o con resumen)
+ * @param diferencias resúmenes faltantes, sobrantes o con valores distintos
+ * @param reparado    si las diferencias se corrigieron
+ * @param duracionMs  tiempo total de la verificación
+ */
+@Schema(description = "Resultado de la verificación de consistencia de cliente_resumen")
+public record VerificacionResumen(int bloques, int clientes, int diferencias, boolean reparado, long duracionMs) {
+}
@@ -0,0 +1,19 @@
+package com.ecomarket.orderservice.repository;
+
+import com.ecomarket.orderservice.model.ClaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ClaveIdempotenciaRepository extends JpaRepository<ClaveIdempotencia, String> {
+
+    // Limpieza por TTL en un solo DELETE (índice idx_clave_idempotencia_expira)
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.expiraEn < :limite")
+    int eliminarVencidas(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,32 @@
+package com.ecomarket.orderservice.repository;
+
+import com.ecomarket.orderservice.model.ClienteResumen;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ClienteResumenRepository extends JpaRepository<ClienteResumen, Integer> {
+
+    // Bloquea los resúmenes en orden de clienteId antes de recalcularlos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ClienteResumen r WHERE r.clienteId IN :clienteIds ORDER BY r.clienteId")
+    List<ClienteResumen> findParaActualizar(@Param("clienteIds") Collection<Integer> clienteIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ClienteResumen r WHERE r.clienteId BETWEEN :desde AND :hasta ORDER BY r.clienteId")
+    List<ClienteResumen> findRangoParaActualizar(@Param("desde") Integer desde, @Param("hasta") Integer hasta);
+
+    // Lectura sin bloqueo para verificar sin reparar
+    @Query("SELECT r FROM ClienteResumen r WHERE r.clienteId BETWEEN :desde AND :hasta ORDER BY r.clienteId")
+    List<ClienteResumen> findRango(@Param("desde") Integer desde, @Param("hasta") Integer hasta);
+
+    @Query("SELECT r.clienteId FROM ClienteResumen r ORDER BY r.clienteId")
+    List<Integer> findClienteIds();
+}
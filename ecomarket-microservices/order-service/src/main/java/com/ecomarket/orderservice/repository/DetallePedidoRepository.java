@@ -18,7 +18,4 @@ public interface DetallePedidoRepository extends JpaRepository<DetallePedido, In
     
     @Query("SELECT SUM(d.cantidad) FROM DetallePedido d WHERE d.productoId = :productoId")
     Long getTotalCantidadByProducto(@Param("productoId") Integer productoId);
-    
-    @Query("SELECT d.productoId, SUM(d.cantidad) FROM DetallePedido d GROUP BY d.productoId ORDER BY SUM(d.cantidad) DESC")
-    List<Object[]> getProductosMasVendidos();
 }
\ No newline at end of file
@@ -1,12 +1,19 @@
 package com.ecomarket.orderservice.repository;
 
+import com.ecomarket.orderservice.model.ClienteResumen;
+import com.ecomarket.orderservice.model.IngresoPeriodo;
 import com.ecomarket.orderservice.model.Pedido;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PedidoRepository extends JpaRepository<Pedido, Integer> {
@@ -37,5 +44,76 @@ public interface PedidoRepository extends JpaRepository<Pedido, Integer> {
     
     @Query("SELECT p.estado, COUNT(p) FROM Pedido p GROUP BY p.estado")
     List<Object[]> estadisticasPorEstado();
-}
 
+    // ✅ PAGINACIÓN POR CURSOR (keyset sobre pedidoId): usa la PK, nunca OFFSET
+    @Query("SELECT p FROM Pedido p WHERE p.pedidoId > :despuesDe ORDER BY p.pedidoId ASC")
+    List<Pedido> findPaginaSiguiente(@Param("despuesDe") Integer despuesDe, Limit limit);
+
+    @Query("SELECT p FROM Pedido p WHERE p.pedidoId < :antesDe ORDER BY p.pedidoId DESC")
+    List<Pedido> findPaginaAnterior(@Param("antesDe") Integer antesDe, Limit limit);
+
+    // ✅ RESUMEN POR CLIENTE (cliente_resumen): agregados calculados con el índice idx_pedido_cliente
+    @Query("SELECT p.clienteId FROM Pedido p WHERE p.pedidoId = :pedidoId")
+    Integer findClienteIdByPedidoId(@Param("pedidoId") Integer pedidoId);
+
+    @Query("SELECT new com.ecomarket.orderservice.model.ClienteResumen(p.clienteId, COUNT(p), " +
+           "COALESCE(SUM(CASE WHEN p.estado = 'COMPLETADO' THEN p.total ELSE 0.0 END), 0.0), MAX(p.fechaDePedido)) " +
+           "FROM Pedido p WHERE p.clienteId IN :clienteIds GROUP BY p.clienteId")
+    List<ClienteResumen> calcularResumenes(@Param("clienteIds") Collection<Integer> clienteIds);
+
+    @Query("SELECT new com.ecomarket.orderservice.model.ClienteResumen(p.clienteId, COUNT(p), " +
+           "COALESCE(SUM(CASE WHEN p.estado = 'COMPLETADO' THEN p.total ELSE 0.0 END), 0.0), MAX(p.fechaDePedido)) " +
+           "FROM Pedido p WHERE p.clienteId BETWEEN :desde AND :hasta GROUP BY p.clienteId")
+    List<ClienteResumen> calcularResumenesEnRango(@Param("desde") Integer desde, @Param("hasta") Integer hasta);
+
+    // ✅ VERSIÓN (@Version) para ETag / If-Match, sin cargar la entidad
+    @Query("SELECT p.version FROM Pedido p WHERE p.pedidoId = :pedidoId")
+    Optional<Long> findVersionById(@Param("pedidoId") Integer pedidoId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Pedido p WHERE p.pedidoId = :pedidoId AND p.version = :version")
+    int deleteByIdAndVersion(@Param("pedidoId") Integer pedidoId, @Param("version") Long version);
+
+    // Clientes con pedidos, en orden, para armar los bloques del verificador de cliente_resumen
+    @Query("SELECT DISTINCT p.clienteId FROM Pedido p WHERE p.clienteId IS NOT NULL ORDER BY p.clienteId")
+    List<Integer> findClienteIds();
+
+    // ✅ PEDIDOS CON SUS LÍNEAS en una sola consulta (JOIN FETCH por idx_detalle_pedido)
+    @Query("SELECT DISTINCT p FROM Pedido p LEFT JOIN FETCH p.detalles WHERE p.pedidoId IN :pedidoIds")
+    List<Pedido> findConDetalles(@Param("pedidoIds") Collection<Integer> pedidoIds);
+
+    @Query("SELECT p FROM Pedido p LEFT JOIN FETCH p.detalles WHERE p.pedidoId = :pedidoId")
+    Optional<Pedido> findConDetallesById(@Param("pedidoId") Integer pedidoId);
+
+    // ✅ RANGO DE FECHAS con paginación por cursor (keyset sobre fechaDePedido, pedidoId): índice idx_pedido_fecha
+    @Query("SELECT p FROM Pedido p WHERE p.fechaDePedido BETWEEN :desde AND :hasta " +
+           "AND (p.fechaDePedido > :fecha OR (p.fechaDePedido = :fecha AND p.pedidoId > :despuesDe)) " +
+           "ORDER BY p.fechaDePedido ASC, p.pedidoId ASC")
+    List<Pedido> findPaginaSiguienteEnRango(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta,
+                                            @Param("fecha") LocalDate fecha, @Param("despuesDe") Integer despuesDe,
+                                            Limit limit);
+
+    @Query("SELECT p FROM Pedido p WHERE p.fechaDePedido BETWEEN :desde AND :hasta " +
+           "AND (p.fechaDePedido < :fecha OR (p.fechaDePedido = :fecha AND p.pedidoId < :antesDe)) " +
+           "ORDER BY p.fechaDePedido DESC, p.pedidoId DESC")
+    List<Pedido> findPaginaAnteriorEnRango(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta,
+                                           @Param("fecha") LocalDate fecha, @Param("antesDe") Integer antesDe,
+                                           Limit limit);
+
+    // ✅ INGRESOS POR PERÍODO: agregados en la base de datos, sin cargar los pedidos
+    @Query("SELECT new com.ecomarket.orderservice.model.IngresoPeriodo(p.fechaDePedido, COUNT(p), COALESCE(SUM(p.total), 0.0)) " +
+           "FROM Pedido p WHERE p.fechaDePedido BETWEEN :desde AND :hasta AND p.estado <> 'CANCELADO' " +
+           "GROUP BY p.fechaDePedido ORDER BY p.fechaDePedido")
+    List<IngresoPeriodo> ingresosDiarios(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    // truncate(..., week) corta al lunes de la semana (ISO-8601)
+    @Query("SELECT new com.ecomarket.orderservice.model.IngresoPeriodo(truncate(p.fechaDePedido, week), COUNT(p), COALESCE(SUM(p.total), 0.0)) " +
+           "FROM Pedido p WHERE p.fechaDePedido BETWEEN :desde AND :hasta AND p.estado <> 'CANCELADO' " +
+           "GROUP BY truncate(p.fechaDePedido, week) ORDER BY truncate(p.fechaDePedido, week)")
+    List<IngresoPeriodo> ingresosSemanales(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Query("SELECT new com.ecomarket.orderservice.model.IngresoPeriodo(truncate(p.fechaDePedido, month), COUNT(p), COALESCE(SUM(p.total), 0.0)) " +
+           "FROM Pedido p WHERE p.fechaDePedido BETWEEN :desde AND :hasta AND p.estado <> 'CANCELADO' " +
+           "GROUP BY truncate(p.fechaDePedido, month) ORDER BY truncate(p.fechaDePedido, month)")
+    List<IngresoPeriodo> ingresosMensuales(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+}
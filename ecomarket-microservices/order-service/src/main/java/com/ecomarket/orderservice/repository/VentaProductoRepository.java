@@ -0,0 +1,30 @@
+package com.ecomarket.orderservice.repository;
+
+import com.ecomarket.orderservice.model.VentaProducto;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface VentaProductoRepository extends JpaRepository<VentaProducto, Integer> {
+
+    // Bloquea los contadores en orden de productoId para que transacciones concurrentes no se interbloqueen
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM VentaProducto v WHERE v.productoId IN :productoIds ORDER BY v.productoId")
+    List<VentaProducto> findParaActualizar(@Param("productoIds") Collection<Integer> productoIds);
+
+    // Recalcula todos los contadores desde detalle_de_pedido (usar tras deleteAllInBatch)
+    @Modifying
+    @Query(value = "INSERT INTO venta_producto (producto_id, cantidad_vendida) " +
+                   "SELECT producto_id, SUM(cantidad) FROM detalle_de_pedido " +
+                   "WHERE producto_id IS NOT NULL AND cantidad IS NOT NULL GROUP BY producto_id",
+           nativeQuery = true)
+    int reconstruirDesdeDetalles();
+}
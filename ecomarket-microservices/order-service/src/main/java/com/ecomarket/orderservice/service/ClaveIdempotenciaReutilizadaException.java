@@ -0,0 +1,11 @@
+package com.ecomarket.orderservice.service;
+
+/**
+ * La clave Idempotency-Key ya se usó con un cuerpo de pedido distinto.
+ */
+public class ClaveIdempotenciaReutilizadaException extends RuntimeException {
+
+    public ClaveIdempotenciaReutilizadaException(String clave) {
+        super("La clave Idempotency-Key '" + clave + "' ya se usó con otro pedido");
+    }
+}
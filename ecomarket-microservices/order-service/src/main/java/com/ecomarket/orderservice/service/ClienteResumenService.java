@@ -0,0 +1,237 @@
+package com.ecomarket.orderservice.service;
+
+import com.ecomarket.orderservice.model.ClienteResumen;
+import com.ecomarket.orderservice.model.VerificacionResumen;
+import com.ecomarket.orderservice.repository.ClienteResumenRepository;
+import com.ecomarket.orderservice.repository.PedidoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene cliente_resumen, el modelo de lectura de los endpoints por cliente.
+ *
+ * PedidoService marca los clientes afectados en cada transacción; antes del commit sus
+ * resúmenes se bloquean y se recalculan desde pedido con una sola consulta agrupada
+ * (índice idx_pedido_cliente). Así cualquier cambio (estado, total, cliente) queda
+ * reflejado sin llevar deltas por tipo de operación.
+ *
+ * verificar() compara el resumen con los pedidos por bloques de clientes existentes en
+ * paralelo, cada bloque en su propia transacción, y opcionalmente corrige las diferencias.
+ */
+@Service
+public class ClienteResumenService {
+
+    // Tolerancia al comparar totales: el orden de la suma puede variar en los últimos decimales
+    private static final double TOLERANCIA_TOTAL = 0.005;
+
+    private static final String INSERT_RESUMEN = "INSERT INTO cliente_resumen " +
+            "(cliente_id, cantidad_pedidos, total_completado, ultima_fecha_pedido) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private ClienteResumenRepository clienteResumenRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${ecomarket.pedidos.resumen.tamanio-bloque:1000}")
+    private int tamanioBloque = 1000;
+
+    @Value("${ecomarket.pedidos.resumen.paralelismo:4}")
+    private int paralelismo = 4;
+
+    // Resumen del cliente; sin pedidos retorna un resumen vacío
+    public ClienteResumen obtener(Integer clienteId) {
+        return clienteResumenRepository.findById(clienteId)
+                .orElseGet(() -> new ClienteResumen(clienteId, 0L, 0.0, null));
+    }
+
+    /**
+     * Marca un cliente para recalcular su resumen al confirmar la transacción actual.
+     * Ignora clienteId nulo.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void marcarCliente(Integer clienteId) {
+        if (clienteId != null) {
+            clientesDeLaTransaccion().add(clienteId);
+        }
+    }
+
+    private Set<Integer> clientesDeLaTransaccion() {
+        @SuppressWarnings("unchecked")
+        Set<Integer> clientes = (Set<Integer>) TransactionSynchronizationManager.getResource(this);
+        if (clientes == null) {
+            Set<Integer> nuevos = new TreeSet<>();
+            TransactionSynchronizationManager.bindResource(this, nuevos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    recalcular(nuevos);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ClienteResumenService.this);
+                }
+            });
+            clientes = nuevos;
+        }
+        return clientes;
+    }
+
+    private void recalcular(Collection<Integer> clienteIds) {
+        if (clienteIds.isEmpty()) {
+            return;
+        }
+        // Primero el bloqueo, después el agregado: un recálculo concurrente espera y ve datos confirmados
+        List<ClienteResumen> actuales = clienteResumenRepository.findParaActualizar(clienteIds);
+        List<ClienteResumen> calculados = pedidoRepository.calcularResumenes(clienteIds);
+        sincronizar(actuales, calculados, true);
+    }
+
+    /**
+     * Compara cliente_resumen con pedido en bloques de tamanio-bloque clientes, procesados
+     * en paralelo (paralelismo hilos). Los bloques se arman con los clienteId que existen en
+     * pedido o en cliente_resumen, así los huecos de la numeración no cuestan consultas.
+     * Con reparar=false solo lee; con reparar=true bloquea cada bloque, reescribe los
+     * resúmenes distintos, crea los faltantes y borra los de clientes sin pedidos.
+     */
+    public VerificacionResumen verificar(boolean reparar) {
+        long inicio = System.currentTimeMillis();
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(!reparar);
+        Set<Integer> clienteIds = new TreeSet<>(pedidoRepository.findClienteIds());
+        clienteIds.addAll(clienteResumenRepository.findClienteIds());
+
+        // Cada bloque es el rango [primero, último] de tamanio-bloque clientes consecutivos
+        List<int[]> bloques = new ArrayList<>();
+        Integer desde = null;
+        int enBloque = 0;
+        int anterior = 0;
+        for (Integer clienteId : clienteIds) {
+            if (desde == null) {
+                desde = clienteId;
+            }
+            anterior = clienteId;
+            if (++enBloque == tamanioBloque) {
+                bloques.add(new int[] {desde, clienteId});
+                desde = null;
+                enBloque = 0;
+            }
+        }
+        if (desde != null) {
+            bloques.add(new int[] {desde, anterior});
+        }
+
+        int clientes = 0;
+        int diferencias = 0;
+        ExecutorService ejecutor = Executors.newFixedThreadPool(Math.max(1, Math.min(paralelismo, bloques.size())));
+        try {
+            List<Future<int[]>> resultados = new ArrayList<>(bloques.size());
+            for (int[] bloque : bloques) {
+                resultados.add(ejecutor.submit(() -> transaccion.execute(status -> {
+                    List<ClienteResumen> actuales = reparar
+                            ? clienteResumenRepository.findRangoParaActualizar(bloque[0], bloque[1])
+                            : clienteResumenRepository.findRango(bloque[0], bloque[1]);
+                    List<ClienteResumen> calculados = pedidoRepository.calcularResumenesEnRango(bloque[0], bloque[1]);
+                    Set<Integer> revisados = new TreeSet<>();
+                    actuales.forEach(r -> revisados.add(r.getClienteId()));
+                    calculados.forEach(r -> revisados.add(r.getClienteId()));
+                    return new int[] {revisados.size(), sincronizar(actuales, calculados, reparar)};
+                })));
+            }
+            for (Future<int[]> resultado : resultados) {
+                int[] conteo = resultado.get();
+                clientes += conteo[0];
+                diferencias += conteo[1];
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verificación de cliente_resumen interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al verificar cliente_resumen", e.getCause());
+        } finally {
+            ejecutor.shutdownNow();
+        }
+        return new VerificacionResumen(bloques.size(), clientes, diferencias, reparar,
+                System.currentTimeMillis() - inicio);
+    }
+
+    // Aplica los valores calculados sobre los resúmenes bloqueados; retorna la cantidad de diferencias
+    private int sincronizar(List<ClienteResumen> actuales, List<ClienteResumen> calculados, boolean reparar) {
+        Map<Integer, ClienteResumen> porCliente = actuales.stream()
+                .collect(Collectors.toMap(ClienteResumen::getClienteId, Function.identity()));
+        int diferencias = 0;
+        List<ClienteResumen> faltantes = new ArrayList<>();
+        for (ClienteResumen calculado : calculados) {
+            ClienteResumen actual = porCliente.remove(calculado.getClienteId());
+            if (actual == null) {
+                diferencias++;
+                faltantes.add(calculado);
+            } else if (!iguales(actual, calculado)) {
+                diferencias++;
+                if (reparar) {
+                    actual.setCantidadPedidos(calculado.getCantidadPedidos());
+                    actual.setTotalCompletado(calculado.getTotalCompletado());
+                    actual.setUltimaFechaPedido(calculado.getUltimaFechaPedido());
+                }
+            }
+        }
+        // Quedan los resúmenes de clientes que ya no tienen pedidos
+        diferencias += porCliente.size();
+        if (reparar) {
+            porCliente.values().forEach(entityManager::remove);
+            crear(faltantes);
+        }
+        return diferencias;
+    }
+
+    // Primer pedido del cliente: si otra transacción creó su resumen después del SELECT con bloqueo,
+    // se vuelve a bloquear y recalcular, ahora con los pedidos que esa transacción confirmó
+    private void crear(List<ClienteResumen> faltantes) {
+        Set<Integer> creadosPorOtra = InsercionConcurrente.insertar(entityManager, INSERT_RESUMEN, faltantes,
+                ClienteResumen::getClienteId, (sentencia, resumen) -> {
+                    sentencia.setInt(1, resumen.getClienteId());
+                    sentencia.setLong(2, resumen.getCantidadPedidos());
+                    sentencia.setDouble(3, resumen.getTotalCompletado());
+                    sentencia.setObject(4, resumen.getUltimaFechaPedido());
+                });
+        if (!creadosPorOtra.isEmpty()) {
+            recalcular(creadosPorOtra);
+        }
+    }
+
+    private boolean iguales(ClienteResumen a, ClienteResumen b) {
+        return Objects.equals(a.getCantidadPedidos(), b.getCantidadPedidos())
+                && Math.abs(a.getTotalCompletado() - b.getTotalCompletado()) < TOLERANCIA_TOTAL
+                && Objects.equals(a.getUltimaFechaPedido(), b.getUltimaFechaPedido());
+    }
+}
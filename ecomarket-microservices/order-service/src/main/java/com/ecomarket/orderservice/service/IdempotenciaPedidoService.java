@@ -0,0 +1,209 @@
+package com.ecomarket.orderservice.service;
+
+import com.ecomarket.orderservice.dto.CrearPedidoRequest;
+import com.ecomarket.orderservice.model.ClaveIdempotencia;
+import com.ecomarket.orderservice.model.Pedido;
+import com.ecomarket.orderservice.repository.ClaveIdempotenciaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creación de pedidos con Idempotency-Key: un reintento con la misma clave recibe la
+ * respuesta del primer POST en vez de crear otro pedido.
+ *
+ * Tres niveles, del más barato al más seguro:
+ * <ul>
+ *   <li>Caché en memoria (Caffeine) de las claves recientes: los reintentos repetidos no consultan la base.</li>
+ *   <li>Solicitudes concurrentes con la misma clave en esta instancia: solo la primera se ejecuta,
+ *       las demás esperan su resultado.</li>
+ *   <li>clave_idempotencia en la base de datos: la clave se inserta en la misma transacción que el
+ *       pedido, antes de crearlo, así un duplicado desde otra instancia choca con la clave primaria
+ *       y repite la respuesta confirmada.</li>
+ * </ul>
+ * Las claves vencen tras ecomarket.pedidos.idempotencia.ttl y se borran periódicamente.
+ */
+@Service
+public class IdempotenciaPedidoService {
+
+    private static final int LARGO_MAXIMO_CLAVE = 255;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ClaveIdempotenciaRepository claveIdempotenciaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${ecomarket.pedidos.idempotencia.ttl:PT24H}")
+    private Duration ttl = Duration.ofHours(24);
+
+    @Value("${ecomarket.pedidos.idempotencia.cache-maxima:10000}")
+    private int cacheMaxima = 10_000;
+
+    private Cache<String, ClaveIdempotencia> recientes;
+
+    // Ejecución en curso por clave; se completa con null si falló, para que quien espera reintente
+    private final ConcurrentMap<String, CompletableFuture<ClaveIdempotencia>> enCurso = new ConcurrentHashMap<>();
+
+    /**
+     * Pedido creado (o repetido) para una clave, y si la respuesta es una repetición.
+     */
+    public record Resultado(Pedido pedido, boolean repetido) {
+    }
+
+    private record Ejecucion(ClaveIdempotencia registro, boolean creado) {
+    }
+
+    @PostConstruct
+    void crearCache() {
+        recientes = Caffeine.newBuilder()
+                .maximumSize(cacheMaxima)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Crea el pedido una sola vez por clave. Con una clave ya usada y el mismo cuerpo retorna el
+     * pedido de la primera respuesta (repetido = true).
+     *
+     * @throws IllegalArgumentException si la clave está vacía o supera 255 caracteres
+     * @throws ClaveIdempotenciaReutilizadaException si la clave ya se usó con otro cuerpo
+     */
+    public Resultado crearPedido(String clave, CrearPedidoRequest request) {
+        if (clave == null || clave.isBlank() || clave.length() > LARGO_MAXIMO_CLAVE) {
+            throw new IllegalArgumentException("Idempotency-Key debe tener entre 1 y " + LARGO_MAXIMO_CLAVE + " caracteres");
+        }
+        String huella = huella(request);
+        while (true) {
+            ClaveIdempotencia registro = recientes.getIfPresent(clave);
+            if (registro != null && registro.vigente(LocalDateTime.now())) {
+                return repetir(registro, huella);
+            }
+
+            CompletableFuture<ClaveIdempotencia> propia = new CompletableFuture<>();
+            CompletableFuture<ClaveIdempotencia> otra = enCurso.putIfAbsent(clave, propia);
+            if (otra == null) {
+                Ejecucion ejecucion = ejecutar(clave, huella, request, propia);
+                return ejecucion.creado()
+                        ? new Resultado(leer(ejecucion.registro()), false)
+                        : repetir(ejecucion.registro(), huella);
+            }
+            // Misma clave en curso en esta instancia: se espera su resultado; si falló, se intenta de nuevo
+            registro = otra.join();
+            if (registro != null) {
+                return repetir(registro, huella);
+            }
+        }
+    }
+
+    private Ejecucion ejecutar(String clave, String huella, CrearPedidoRequest request,
+                               CompletableFuture<ClaveIdempotencia> propia) {
+        ClaveIdempotencia registro = null;
+        try {
+            Ejecucion ejecucion;
+            try {
+                ejecucion = new TransactionTemplate(transactionManager)
+                        .execute(status -> registrarYCrear(clave, huella, request));
+            } catch (DataIntegrityViolationException e) {
+                // Otra instancia insertó la clave primero: su transacción ya confirmó el pedido
+                ejecucion = new Ejecucion(claveIdempotenciaRepository.findById(clave)
+                        .filter(existente -> existente.getRespuesta() != null)
+                        .orElseThrow(() -> e), false);
+            }
+            registro = ejecucion.registro();
+            recientes.put(clave, registro);
+            return ejecucion;
+        } finally {
+            enCurso.remove(clave, propia);
+            propia.complete(registro);
+        }
+    }
+
+    private Ejecucion registrarYCrear(String clave, String huella, CrearPedidoRequest request) {
+        LocalDateTime ahora = LocalDateTime.now();
+        ClaveIdempotencia existente = claveIdempotenciaRepository.findById(clave).orElse(null);
+        if (existente != null) {
+            if (existente.vigente(ahora)) {
+                return new Ejecucion(existente, false);
+            }
+            // Vencida y todavía sin limpiar: se reemplaza (el DELETE debe ir antes del INSERT)
+            claveIdempotenciaRepository.delete(existente);
+            claveIdempotenciaRepository.flush();
+        }
+
+        // Primero la clave: un duplicado concurrente espera este INSERT y falla sin crear otro pedido
+        ClaveIdempotencia registro = claveIdempotenciaRepository.saveAndFlush(
+                new ClaveIdempotencia(clave, huella, ahora, ahora.plus(ttl)));
+        Pedido pedido = pedidoService.crearPedido(request.toPedido(), request.toDetalles());
+        registro.setRespuesta(escribir(pedido));
+        return new Ejecucion(registro, true);
+    }
+
+    private Resultado repetir(ClaveIdempotencia registro, String huella) {
+        if (!registro.getHuella().equals(huella)) {
+            throw new ClaveIdempotenciaReutilizadaException(registro.getClave());
+        }
+        return new Resultado(leer(registro), true);
+    }
+
+    /**
+     * Borra las claves vencidas. Corre cada ecomarket.pedidos.idempotencia.limpieza.
+     */
+    @Scheduled(fixedDelayString = "${ecomarket.pedidos.idempotencia.limpieza:PT1H}",
+               initialDelayString = "${ecomarket.pedidos.idempotencia.limpieza:PT1H}")
+    @Transactional
+    public int limpiarVencidas() {
+        return claveIdempotenciaRepository.eliminarVencidas(LocalDateTime.now());
+    }
+
+    // SHA-256 del cuerpo ya enlazado: el orden de los componentes del record es fijo
+    private String huella(CrearPedidoRequest request) {
+        try {
+            byte[] cuerpo = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(cuerpo));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular la huella del pedido", e);
+        }
+    }
+
+    private String escribir(Pedido pedido) {
+        try {
+            return objectMapper.writeValueAsString(pedido);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar la respuesta del pedido " + pedido.getPedidoId(), e);
+        }
+    }
+
+    private Pedido leer(ClaveIdempotencia registro) {
+        try {
+            return objectMapper.readValue(registro.getRespuesta(), Pedido.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta guardada ilegible para la clave " + registro.getClave(), e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecomarket.orderservice.service;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Savepoint;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * INSERT de filas con clave asignada (la primera venta de un producto, el primer pedido de un
+ * cliente) que tolera que otra transacción cree la misma fila al mismo tiempo.
+ *
+ * Corre en la conexión de la transacción actual, fuera de Hibernate y bajo un savepoint: una
+ * clave duplicada deshace solo ese INSERT y no marca la transacción para rollback. Primero se
+ * intenta el lote completo; si falla se repite fila por fila. Las claves que ya existían se
+ * devuelven para aplicarlas por la ruta de UPDATE con bloqueo.
+ */
+final class InsercionConcurrente {
+
+    private InsercionConcurrente() {
+    }
+
+    /**
+     * Inserta las filas con sql y retorna las claves que otra transacción ya había creado.
+     */
+    static <T> Set<Integer> insertar(EntityManager entityManager, String sql, Collection<T> filas,
+                                     Function<T, Integer> clave, ParameterizedPreparedStatementSetter<T> parametros) {
+        if (filas.isEmpty()) {
+            return Set.of();
+        }
+        return entityManager.unwrap(Session.class).doReturningWork(conexion -> {
+            try (PreparedStatement sentencia = conexion.prepareStatement(sql)) {
+                try {
+                    conSavepoint(conexion, () -> {
+                        for (T fila : filas) {
+                            parametros.setValues(sentencia, fila);
+                            sentencia.addBatch();
+                        }
+                        sentencia.executeBatch();
+                    });
+                    return Set.of();
+                } catch (SQLException e) {
+                    // El lote no dice qué fila falló: se repite una por una y solo se toleran duplicados
+                    sentencia.clearBatch();
+                }
+                Set<Integer> existentes = new TreeSet<>();
+                for (T fila : filas) {
+                    try {
+                        conSavepoint(conexion, () -> {
+                            parametros.setValues(sentencia, fila);
+                            sentencia.executeUpdate();
+                        });
+                    } catch (SQLIntegrityConstraintViolationException e) {
+                        existentes.add(clave.apply(fila));
+                    }
+                }
+                return existentes;
+            }
+        });
+    }
+
+    private static void conSavepoint(Connection conexion, Escritura escritura) throws SQLException {
+        Savepoint savepoint = conexion.setSavepoint();
+        try {
+            escritura.ejecutar();
+        } catch (SQLException e) {
+            conexion.rollback(savepoint);
+            throw e;
+        }
+        conexion.releaseSavepoint(savepoint);
+    }
+
+    @FunctionalInterface
+    private interface Escritura {
+        void ejecutar() throws SQLException;
+    }
+}
@@ -0,0 +1,241 @@
+package com.ecomarket.orderservice.service;
+
+import com.ecomarket.orderservice.dto.CrearPedidoRequest;
+import com.ecomarket.orderservice.dto.ResultadoCargaPedido;
+import com.ecomarket.orderservice.model.Pedido;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Carga masiva de pedidos (POST /api/v2/pedidos/bulk)
+ *
+ * Lee el cuerpo con el parser streaming de Jackson, ya sea un arreglo JSON o
+ * NDJSON (un objeto por línea), y persiste los pedidos válidos en lotes de
+ * tamaño fijo, cada uno en su propia transacción. Los resultados se escriben
+ * en la respuesta a medida que se procesa cada lote, así que la memoria usada
+ * depende del tamaño del lote y no del tamaño del cuerpo.
+ */
+@Service
+public class PedidoCargaMasivaService {
+
+    private static final Logger log = LoggerFactory.getLogger(PedidoCargaMasivaService.class);
+
+    // Mensajes estables para el cliente: el detalle de la excepción queda solo en el log
+    public static final String ERROR_CONCURRENCIA = "Conflicto de concurrencia al guardar el pedido, reintente el elemento";
+    public static final String ERROR_INTEGRIDAD = "El pedido viola una restricción de datos (largo o valor de un campo)";
+    public static final String ERROR_INTERNO = "Error interno al guardar el pedido";
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${ecomarket.pedidos.carga-masiva.tamanio-lote:200}")
+    private int tamanioLote = 200;
+
+    /**
+     * Procesa el cuerpo completo y escribe en la salida un objeto JSON con los
+     * resultados por elemento y los totales de creados/rechazados/errores.
+     */
+    public void procesar(InputStream entrada, OutputStream salida) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(entrada);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(salida)) {
+
+            Lote lote = new Lote(generator);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("resultados");
+
+            int indice = 0;
+            try {
+                JsonToken token = parser.nextToken();
+                boolean esArreglo = token == JsonToken.START_ARRAY;
+                if (esArreglo) {
+                    token = parser.nextToken();
+                }
+                // NDJSON: el parser lee valores raíz consecutivos separados por saltos de línea
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    // El índice avanza solo tras leer el elemento: un error de sintaxis se reporta en el elemento que lo contiene
+                    leerElemento(parser, indice, lote);
+                    indice++;
+                    if (lote.tamanio() >= tamanioLote) {
+                        lote.persistir();
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                // JSON mal formado: no se puede seguir leyendo, se informa y se cierra el resultado
+                lote.rechazar(indice, "JSON mal formado: " + e.getOriginalMessage());
+            }
+            lote.persistir();
+
+            generator.writeEndArray();
+            generator.writeNumberField("total", lote.creados + lote.rechazados + lote.errores);
+            generator.writeNumberField("creados", lote.creados);
+            generator.writeNumberField("rechazados", lote.rechazados);
+            generator.writeNumberField("errores", lote.errores);
+            generator.writeEndObject();
+        }
+    }
+
+    // Lee un solo elemento como árbol: un error de tipos solo afecta a ese elemento
+    private void leerElemento(JsonParser parser, int indice, Lote lote) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            lote.rechazar(indice, "Se esperaba un objeto JSON");
+            return;
+        }
+        JsonNode nodo = parser.readValueAsTree();
+        CrearPedidoRequest solicitud;
+        try {
+            solicitud = objectMapper.treeToValue(nodo, CrearPedidoRequest.class);
+        } catch (JsonProcessingException e) {
+            lote.rechazar(indice, "Tipo de dato inválido: " + e.getOriginalMessage());
+            return;
+        }
+        Set<ConstraintViolation<CrearPedidoRequest>> violaciones = validator.validate(solicitud);
+        if (!violaciones.isEmpty()) {
+            lote.rechazar(indice, describir(violaciones));
+            return;
+        }
+        lote.agregar(indice, solicitud);
+    }
+
+    private static String describir(Set<ConstraintViolation<CrearPedidoRequest>> violaciones) {
+        return violaciones.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Ventana de hasta tamanioLote elementos consecutivos. Los válidos se crean en una
+     * transacción y los resultados se escriben en el mismo orden del cuerpo recibido.
+     */
+    private class Lote {
+
+        private final JsonGenerator generator;
+        private final List<Integer> indices = new ArrayList<>();
+        // Por posición: la solicitud pendiente de crear o el resultado ya conocido (rechazo)
+        private final List<CrearPedidoRequest> solicitudes = new ArrayList<>();
+        private final List<ResultadoCargaPedido> resultados = new ArrayList<>();
+        private int creados;
+        private int rechazados;
+        private int errores;
+
+        Lote(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        int tamanio() {
+            return indices.size();
+        }
+
+        void agregar(int indice, CrearPedidoRequest solicitud) {
+            indices.add(indice);
+            solicitudes.add(solicitud);
+            resultados.add(null);
+        }
+
+        void rechazar(int indice, String error) {
+            indices.add(indice);
+            solicitudes.add(null);
+            resultados.add(ResultadoCargaPedido.rechazado(indice, error));
+        }
+
+        void persistir() throws IOException {
+            if (indices.isEmpty()) {
+                return;
+            }
+            List<Integer> posiciones = new ArrayList<>();
+            List<CrearPedidoRequest> pendientes = new ArrayList<>();
+            for (int i = 0; i < solicitudes.size(); i++) {
+                if (solicitudes.get(i) != null) {
+                    posiciones.add(i);
+                    pendientes.add(solicitudes.get(i));
+                }
+            }
+            if (!pendientes.isEmpty()) {
+                crear(posiciones, pendientes);
+            }
+            for (ResultadoCargaPedido resultado : resultados) {
+                escribir(resultado);
+            }
+            indices.clear();
+            solicitudes.clear();
+            resultados.clear();
+            // Entregar al cliente los resultados del lote sin esperar al final del cuerpo
+            generator.flush();
+        }
+
+        private void crear(List<Integer> posiciones, List<CrearPedidoRequest> pendientes) {
+            try {
+                List<Pedido> guardados = pedidoService.crearPedidos(pendientes);
+                for (int i = 0; i < guardados.size(); i++) {
+                    int posicion = posiciones.get(i);
+                    resultados.set(posicion, ResultadoCargaPedido.creado(indices.get(posicion), guardados.get(i).getPedidoId()));
+                }
+            } catch (RuntimeException e) {
+                // El lote completo hizo rollback: se reintenta uno por uno para aislar el elemento fallido
+                for (int i = 0; i < pendientes.size(); i++) {
+                    int posicion = posiciones.get(i);
+                    CrearPedidoRequest solicitud = pendientes.get(i);
+                    try {
+                        Integer id = pedidoService.crearPedido(solicitud.toPedido(), solicitud.toDetalles()).getPedidoId();
+                        resultados.set(posicion, ResultadoCargaPedido.creado(indices.get(posicion), id));
+                    } catch (RuntimeException individual) {
+                        log.warn("Carga masiva: no se pudo guardar el elemento {}", indices.get(posicion), individual);
+                        resultados.set(posicion, ResultadoCargaPedido.fallido(indices.get(posicion), motivo(individual)));
+                    }
+                }
+            }
+        }
+
+        private String motivo(RuntimeException e) {
+            if (e instanceof ObjectOptimisticLockingFailureException) {
+                return ERROR_CONCURRENCIA;
+            }
+            if (e instanceof DataIntegrityViolationException) {
+                return ERROR_INTEGRIDAD;
+            }
+            return ERROR_INTERNO;
+        }
+
+        void escribir(ResultadoCargaPedido resultado) throws IOException {
+            switch (resultado.estado()) {
+                case ResultadoCargaPedido.CREADO -> creados++;
+                case ResultadoCargaPedido.RECHAZADO -> rechazados++;
+                default -> errores++;
+            }
+            // Sin flush por elemento: se vacía el buffer una vez por lote
+            objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .writeValue(generator, resultado);
+        }
+    }
+}
@@ -1,13 +1,30 @@
 package com.ecomarket.orderservice.service;
 
+import com.ecomarket.orderservice.dto.CrearPedidoRequest;
+import com.ecomarket.orderservice.model.ClienteResumen;
 import com.ecomarket.orderservice.model.Pedido;
 import com.ecomarket.orderservice.model.DetallePedido;
+import com.ecomarket.orderservice.model.IngresoPeriodo;
+import com.ecomarket.orderservice.model.PaginaPedidos;
+import com.ecomarket.orderservice.model.ProductoVendido;
+import com.ecomarket.orderservice.model.VerificacionResumen;
 import com.ecomarket.orderservice.repository.PedidoRepository;
 import com.ecomarket.orderservice.repository.DetallePedidoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,17 +37,191 @@ public class PedidoService {
     @Autowired
     private DetallePedidoRepository detallePedidoRepository;
 
+    @Autowired
+    private RankingVentasService rankingVentasService;
+
+    @Autowired
+    private ClienteResumenService clienteResumenService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Tamaño de página para los listados paginados por cursor
+    @Value("${ecomarket.pedidos.pagina.tamanio-por-defecto:50}")
+    private int tamanioPaginaPorDefecto = 50;
+
+    @Value("${ecomarket.pedidos.pagina.tamanio-maximo:500}")
+    private int tamanioPaginaMaximo = 500;
+
+    // Límites usados cuando el rango de fechas viene abierto por un extremo (rango válido de DATE en MySQL)
+    private static final LocalDate FECHA_MINIMA = LocalDate.of(1000, 1, 1);
+    private static final LocalDate FECHA_MAXIMA = LocalDate.of(9999, 12, 31);
+
     // Obtener todos los pedidos
     public List<Pedido> obtenerTodos() {
         return pedidoRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de pedidos usando paginación por cursor (keyset sobre pedidoId).
+     * Sin cursor retorna la primera página. Lanza IllegalArgumentException si el cursor
+     * no es válido.
+     */
+    public PaginaPedidos obtenerPagina(String cursor, Integer tamanio) {
+        int limite = normalizarTamanio(tamanio);
+        if (cursor == null || cursor.isBlank()) {
+            return paginaHaciaAdelante(0, limite);
+        }
+        Cursor c = Cursor.decodificar(cursor);
+        return c.haciaAdelante()
+                ? paginaHaciaAdelante(c.pedidoId(), limite)
+                : paginaHaciaAtras(c.pedidoId(), limite);
+    }
+
+    private int normalizarTamanio(Integer tamanio) {
+        if (tamanio == null || tamanio < 1) {
+            return tamanioPaginaPorDefecto;
+        }
+        return Math.min(tamanio, tamanioPaginaMaximo);
+    }
+
+    // Se pide un registro extra para saber si existe una página siguiente sin hacer COUNT
+    private PaginaPedidos paginaHaciaAdelante(int despuesDe, int limite) {
+        List<Pedido> filas = pedidoRepository.findPaginaSiguiente(despuesDe, Limit.of(limite + 1));
+        boolean haySiguiente = filas.size() > limite;
+        List<Pedido> pedidos = new ArrayList<>(haySiguiente ? filas.subList(0, limite) : filas);
+
+        String siguiente = haySiguiente
+                ? new Cursor(true, pedidos.get(pedidos.size() - 1).getPedidoId()).codificar()
+                : null;
+        String anterior = null;
+        if (despuesDe > 0) {
+            int antesDe = pedidos.isEmpty() ? despuesDe + 1 : pedidos.get(0).getPedidoId();
+            anterior = new Cursor(false, antesDe).codificar();
+        }
+        return new PaginaPedidos(pedidos, siguiente, anterior, limite);
+    }
+
+    private PaginaPedidos paginaHaciaAtras(int antesDe, int limite) {
+        List<Pedido> filas = pedidoRepository.findPaginaAnterior(antesDe, Limit.of(limite + 1));
+        boolean hayAnterior = filas.size() > limite;
+        List<Pedido> pedidos = new ArrayList<>(hayAnterior ? filas.subList(0, limite) : filas);
+        Collections.reverse(pedidos);
+
+        String anterior = hayAnterior
+                ? new Cursor(false, pedidos.get(0).getPedidoId()).codificar()
+                : null;
+        int despuesDe = pedidos.isEmpty() ? antesDe - 1 : pedidos.get(pedidos.size() - 1).getPedidoId();
+        String siguiente = new Cursor(true, despuesDe).codificar();
+        return new PaginaPedidos(pedidos, siguiente, anterior, limite);
+    }
+
+    /**
+     * Obtiene una página de pedidos con fechaDePedido entre desde y hasta (ambas inclusive),
+     * paginando por cursor sobre (fechaDePedido, pedidoId). Sin desde ni hasta equivale a
+     * obtenerPagina. Lanza IllegalArgumentException si el cursor o el rango no son válidos.
+     */
+    public PaginaPedidos obtenerPaginaPorFecha(LocalDate desde, LocalDate hasta, String cursor, Integer tamanio) {
+        if (desde == null && hasta == null) {
+            return obtenerPagina(cursor, tamanio);
+        }
+        LocalDate inicio = desde != null ? desde : FECHA_MINIMA;
+        LocalDate fin = hasta != null ? hasta : FECHA_MAXIMA;
+        validarRango(inicio, fin);
+        int limite = normalizarTamanio(tamanio);
+        if (cursor == null || cursor.isBlank()) {
+            return paginaEnRangoHaciaAdelante(inicio, fin, null, limite);
+        }
+        CursorFecha c = CursorFecha.decodificar(cursor);
+        return c.haciaAdelante()
+                ? paginaEnRangoHaciaAdelante(inicio, fin, c, limite)
+                : paginaEnRangoHaciaAtras(inicio, fin, c, limite);
+    }
+
+    private void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("Rango de fechas inválido: " + desde + " es posterior a " + hasta);
+        }
+    }
+
+    // La primera página parte del inicio del rango con pedidoId > 0, que incluye a todos los pedidos de ese día
+    private PaginaPedidos paginaEnRangoHaciaAdelante(LocalDate desde, LocalDate hasta, CursorFecha despuesDe, int limite) {
+        LocalDate fecha = despuesDe != null ? despuesDe.fecha() : desde;
+        int pedidoId = despuesDe != null ? despuesDe.pedidoId() : 0;
+        List<Pedido> filas = pedidoRepository.findPaginaSiguienteEnRango(desde, hasta, fecha, pedidoId, Limit.of(limite + 1));
+        boolean haySiguiente = filas.size() > limite;
+        List<Pedido> pedidos = new ArrayList<>(haySiguiente ? filas.subList(0, limite) : filas);
+
+        String siguiente = haySiguiente
+                ? CursorFecha.de(true, pedidos.get(pedidos.size() - 1)).codificar()
+                : null;
+        String anterior = null;
+        if (despuesDe != null) {
+            anterior = pedidos.isEmpty()
+                    ? new CursorFecha(false, fecha, pedidoId + 1).codificar()
+                    : CursorFecha.de(false, pedidos.get(0)).codificar();
+        }
+        return new PaginaPedidos(pedidos, siguiente, anterior, limite);
+    }
+
+    private PaginaPedidos paginaEnRangoHaciaAtras(LocalDate desde, LocalDate hasta, CursorFecha antesDe, int limite) {
+        List<Pedido> filas = pedidoRepository.findPaginaAnteriorEnRango(
+                desde, hasta, antesDe.fecha(), antesDe.pedidoId(), Limit.of(limite + 1));
+        boolean hayAnterior = filas.size() > limite;
+        List<Pedido> pedidos = new ArrayList<>(hayAnterior ? filas.subList(0, limite) : filas);
+        Collections.reverse(pedidos);
+
+        String anterior = hayAnterior
+                ? CursorFecha.de(false, pedidos.get(0)).codificar()
+                : null;
+        String siguiente = pedidos.isEmpty()
+                ? new CursorFecha(true, antesDe.fecha(), antesDe.pedidoId() - 1).codificar()
+                : CursorFecha.de(true, pedidos.get(pedidos.size() - 1)).codificar();
+        return new PaginaPedidos(pedidos, siguiente, anterior, limite);
+    }
+
+    // Ingresos por día, semana (lunes a domingo) o mes, agregados en la base de datos.
+    // Los períodos de los extremos solo suman los pedidos que caen dentro del rango.
+    public List<IngresoPeriodo> obtenerIngresosDiarios(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+        return pedidoRepository.ingresosDiarios(desde, hasta);
+    }
+
+    public List<IngresoPeriodo> obtenerIngresosSemanales(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+        return pedidoRepository.ingresosSemanales(desde, hasta);
+    }
+
+    public List<IngresoPeriodo> obtenerIngresosMensuales(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+        return pedidoRepository.ingresosMensuales(desde, hasta);
+    }
+
+    /**
+     * Igual que obtenerPaginaPorFecha, con las líneas de cada pedido cargadas: una consulta para la
+     * página y otra (JOIN FETCH) para sus detalles, sin importar el tamaño de página. La transacción
+     * mantiene el contexto de persistencia, así la segunda consulta inicializa las mismas instancias.
+     */
+    @Transactional(readOnly = true)
+    public PaginaPedidos obtenerPaginaPorFechaConDetalles(LocalDate desde, LocalDate hasta, String cursor, Integer tamanio) {
+        PaginaPedidos pagina = obtenerPaginaPorFecha(desde, hasta, cursor, tamanio);
+        if (!pagina.getPedidos().isEmpty()) {
+            pedidoRepository.findConDetalles(pagina.getPedidos().stream().map(Pedido::getPedidoId).toList());
+        }
+        return pagina;
+    }
+
     // Buscar pedido por ID
     public Pedido buscarPorId(Integer id) {
         Optional<Pedido> pedido = pedidoRepository.findById(id);
         return pedido.orElse(null);
     }
 
+    // Buscar pedido por ID junto con sus líneas, en una sola consulta
+    public Pedido buscarPorIdConDetalles(Integer id) {
+        return pedidoRepository.findConDetallesById(id).orElse(null);
+    }
+
     // Crear nuevo pedido
     @Transactional
     public Pedido crearPedido(Pedido pedido, List<DetallePedido> detalles) {
@@ -48,31 +239,87 @@ public class PedidoService {
         // Guardar pedido
         Pedido pedidoGuardado = pedidoRepository.save(pedido);
         
-        // Guardar detalles
+        // Guardar detalles en un solo saveAll: con IDs por secuencia Hibernate los envía como lote JDBC
         detalles.forEach(detalle -> {
             detalle.setPedidoId(pedidoGuardado.getPedidoId());
             detalle.setSubTotal(detalle.getPrecioUnitario() * detalle.getCantidad());
-            detallePedidoRepository.save(detalle);
         });
+        detallePedidoRepository.saveAll(detalles);
+        rankingVentasService.registrarVenta(detalles);
+        clienteResumenService.marcarCliente(pedidoGuardado.getClienteId());
         
         return pedidoGuardado;
     }
 
+    /**
+     * Crea un lote de pedidos en una sola transacción (carga masiva).
+     * Al terminar vacía el contexto de persistencia para que la memoria usada
+     * no crezca con el número de lotes procesados en la misma petición.
+     */
+    @Transactional
+    public List<Pedido> crearPedidos(List<CrearPedidoRequest> solicitudes) {
+        List<Pedido> creados = new ArrayList<>(solicitudes.size());
+        for (CrearPedidoRequest solicitud : solicitudes) {
+            creados.add(crearPedido(solicitud.toPedido(), solicitud.toDetalles()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return creados;
+    }
+
+    /**
+     * Versión actual del pedido (null si no existe), sin cargar la entidad.
+     * Los controladores la usan para responder 304 / 412 antes de armar la respuesta.
+     */
+    public Long obtenerVersion(Integer id) {
+        return pedidoRepository.findVersionById(id).orElse(null);
+    }
+
     // Actualizar pedido
+    @Transactional
     public Pedido actualizar(Integer id, Pedido pedidoActualizado) {
-        if (pedidoRepository.existsById(id)) {
-            pedidoActualizado.setPedidoId(id);
-            return pedidoRepository.save(pedidoActualizado);
+        return actualizar(id, pedidoActualizado, null);
+    }
+
+    /**
+     * Igual que actualizar(id, pedido), pero solo si el pedido sigue en versionEsperada (If-Match).
+     * Con versionEsperada null se toma la versión actual. En ambos casos el UPDATE lleva la versión
+     * en el WHERE, así que una escritura concurrente lanza ObjectOptimisticLockingFailureException
+     * en lugar de pisarse en silencio.
+     */
+    @Transactional
+    public Pedido actualizar(Integer id, Pedido pedidoActualizado, Long versionEsperada) {
+        Long versionActual = obtenerVersion(id);
+        if (versionActual == null) {
+            return null;
         }
-        return null;
+        verificarVersion(id, versionEsperada, versionActual);
+        // El pedido puede cambiar de cliente: se recalculan el anterior y el nuevo
+        clienteResumenService.marcarCliente(pedidoRepository.findClienteIdByPedidoId(id));
+        pedidoActualizado.setPedidoId(id);
+        pedidoActualizado.setVersion(versionActual);
+        Pedido guardado = pedidoRepository.save(pedidoActualizado);
+        clienteResumenService.marcarCliente(pedidoActualizado.getClienteId());
+        return guardado;
     }
 
     // Actualizar estado del pedido
+    @Transactional
     public Pedido actualizarEstado(Integer id, String nuevoEstado) {
+        return actualizarEstado(id, nuevoEstado, null);
+    }
+
+    /**
+     * Cambia el estado solo si el pedido sigue en versionEsperada (If-Match); con null no se compara.
+     */
+    @Transactional
+    public Pedido actualizarEstado(Integer id, String nuevoEstado, Long versionEsperada) {
         Optional<Pedido> pedidoOpt = pedidoRepository.findById(id);
         if (pedidoOpt.isPresent()) {
             Pedido pedido = pedidoOpt.get();
+            verificarVersion(id, versionEsperada, pedido.getVersion());
             pedido.setEstado(nuevoEstado);
+            clienteResumenService.marcarCliente(pedido.getClienteId());
             return pedidoRepository.save(pedido);
         }
         return null;
@@ -81,16 +328,39 @@ public class PedidoService {
     // Eliminar pedido
     @Transactional
     public boolean eliminar(Integer id) {
-        if (pedidoRepository.existsById(id)) {
-            // Primero eliminar detalles
-            List<DetallePedido> detalles = detallePedidoRepository.findByPedidoId(id);
-            detallePedidoRepository.deleteAll(detalles);
-            
-            // Luego eliminar pedido
-            pedidoRepository.deleteById(id);
-            return true;
+        return eliminar(id, null);
+    }
+
+    /**
+     * Elimina el pedido y sus detalles solo si sigue en versionEsperada (If-Match); con null no se compara.
+     * El DELETE del pedido lleva la versión en el WHERE: si otra transacción lo modificó entre medio
+     * se lanza ObjectOptimisticLockingFailureException y se revierten también los detalles y el ranking.
+     */
+    @Transactional
+    public boolean eliminar(Integer id, Long versionEsperada) {
+        Long versionActual = obtenerVersion(id);
+        if (versionActual == null) {
+            return false;
+        }
+        verificarVersion(id, versionEsperada, versionActual);
+        clienteResumenService.marcarCliente(pedidoRepository.findClienteIdByPedidoId(id));
+
+        // Primero eliminar detalles
+        List<DetallePedido> detalles = detallePedidoRepository.findByPedidoId(id);
+        detallePedidoRepository.deleteAll(detalles);
+        rankingVentasService.registrarEliminacion(detalles);
+
+        // Luego eliminar pedido
+        if (pedidoRepository.deleteByIdAndVersion(id, versionActual) != 1) {
+            throw new ObjectOptimisticLockingFailureException(Pedido.class, id);
+        }
+        return true;
+    }
+
+    private static void verificarVersion(Integer id, Long versionEsperada, Long versionActual) {
+        if (versionEsperada != null && !versionEsperada.equals(versionActual)) {
+            throw new ObjectOptimisticLockingFailureException(Pedido.class, id);
         }
-        return false;
     }
 
     // Obtener pedidos por cliente
@@ -123,15 +393,24 @@ public class PedidoService {
         return (int) pedidoRepository.count();
     }
 
-    // Total de compras por cliente
+    // Total de compras (pedidos COMPLETADO) por cliente, desde cliente_resumen
     public Double totalComprasPorCliente(Integer clienteId) {
-        Double total = pedidoRepository.sumTotalByClienteId(clienteId);
-        return total != null ? total : 0.0;
+        return clienteResumenService.obtener(clienteId).getTotalCompletado();
     }
 
-    // Cantidad de pedidos por cliente
+    // Cantidad de pedidos por cliente, desde cliente_resumen
     public Long cantidadPedidosPorCliente(Integer clienteId) {
-        return pedidoRepository.countByClienteId(clienteId);
+        return clienteResumenService.obtener(clienteId).getCantidadPedidos();
+    }
+
+    // Resumen de compras del cliente
+    public ClienteResumen obtenerResumenCliente(Integer clienteId) {
+        return clienteResumenService.obtener(clienteId);
+    }
+
+    // Compara cliente_resumen con los pedidos y opcionalmente lo repara
+    public VerificacionResumen verificarResumenClientes(boolean reparar) {
+        return clienteResumenService.verificar(reparar);
     }
 
     // Obtener detalles de un pedido
@@ -139,8 +418,76 @@ public class PedidoService {
         return detallePedidoRepository.findByPedidoId(pedidoId);
     }
 
-    // Productos más vendidos
-    public List<Object[]> obtenerProductosMasVendidos() {
-        return detallePedidoRepository.getProductosMasVendidos();
+    // Productos más vendidos, servidos desde el ranking en memoria
+    public List<ProductoVendido> obtenerProductosMasVendidos(Integer limite) {
+        return rankingVentasService.obtenerTop(limite);
+    }
+
+    // Recalcula el ranking de más vendidos desde los detalles de pedido
+    public List<ProductoVendido> reconstruirProductosMasVendidos() {
+        return rankingVentasService.reconstruir();
+    }
+
+    /**
+     * Cursor opaco: "a:{id}" (pedidos después de id) o "b:{id}" (pedidos antes de id),
+     * codificado en Base64 URL-safe para que los clientes no dependan de su formato.
+     */
+    private record Cursor(boolean haciaAdelante, int pedidoId) {
+
+        String codificar() {
+            String valor = (haciaAdelante ? "a:" : "b:") + pedidoId;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decodificar(String token) {
+            String valor;
+            int id;
+            try {
+                valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                id = Integer.parseInt(valor.substring(2));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Cursor inválido: " + token, e);
+            }
+            char direccion = valor.charAt(0);
+            if (valor.charAt(1) != ':' || (direccion != 'a' && direccion != 'b') || id < 0) {
+                throw new IllegalArgumentException("Cursor inválido: " + token);
+            }
+            return new Cursor(direccion == 'a', id);
+        }
+    }
+
+    /**
+     * Cursor opaco de los listados por rango de fechas: "a:{fecha}:{id}" o "b:{fecha}:{id}",
+     * con la misma codificación que Cursor. Los dos formatos no se aceptan entre sí.
+     */
+    private record CursorFecha(boolean haciaAdelante, LocalDate fecha, int pedidoId) {
+
+        static CursorFecha de(boolean haciaAdelante, Pedido pedido) {
+            return new CursorFecha(haciaAdelante, pedido.getFechaDePedido(), pedido.getPedidoId());
+        }
+
+        String codificar() {
+            String valor = (haciaAdelante ? "a:" : "b:") + fecha + ":" + pedidoId;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static CursorFecha decodificar(String token) {
+            String[] partes;
+            LocalDate fecha;
+            int id;
+            try {
+                partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+                fecha = LocalDate.parse(partes[1]);
+                id = Integer.parseInt(partes[2]);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Cursor inválido: " + token, e);
+            }
+            if (partes.length != 3 || (!partes[0].equals("a") && !partes[0].equals("b")) || id < 0) {
+                throw new IllegalArgumentException("Cursor inválido: " + token);
+            }
+            return new CursorFecha(partes[0].equals("a"), fecha, id);
+        }
     }
 }
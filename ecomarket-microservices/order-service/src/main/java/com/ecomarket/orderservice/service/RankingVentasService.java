@@ -0,0 +1,259 @@
+package com.ecomarket.orderservice.service;
+
+import com.ecomarket.orderservice.model.DetallePedido;
+import com.ecomarket.orderservice.model.ProductoVendido;
+import com.ecomarket.orderservice.model.VentaProducto;
+import com.ecomarket.orderservice.repository.VentaProductoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranking de productos más vendidos mantenido de forma incremental.
+ *
+ * Cada pedido creado o eliminado registra la variación de unidades por producto. Las variaciones
+ * de una transacción se acumulan y se escriben en venta_producto una sola vez antes del commit
+ * (un SELECT ... FOR UPDATE, un lote de UPDATE y otro de INSERT para los productos sin ventas), y
+ * solo después del commit se aplican al ranking en memoria, así un rollback no lo deja desalineado
+ * con la base de datos.
+ *
+ * Las lecturas devuelven una sublista de un top precalculado, sin consultar la base de datos.
+ *
+ * Cada instancia solo aplica en memoria los commits que hace ella misma: con varias instancias,
+ * las ventas de las demás aparecen en la siguiente recarga desde venta_producto, que corre cada
+ * ecomarket.pedidos.ranking.recarga. Una recarga espera a que terminen las transacciones que ya
+ * escribieron venta_producto y detiene las nuevas mientras lee, así su lectura no queda a medio
+ * camino entre el commit de una transacción y la aplicación de sus variaciones.
+ */
+@Service
+public class RankingVentasService {
+
+    private static final Comparator<ProductoVendido> ORDEN_RANKING =
+            Comparator.comparing(ProductoVendido::cantidadVendida).reversed()
+                    .thenComparing(ProductoVendido::productoId);
+
+    private static final String INSERT_VENTA =
+            "INSERT INTO venta_producto (producto_id, cantidad_vendida) VALUES (?, ?)";
+
+    @Autowired
+    private VentaProductoRepository ventaProductoRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${ecomarket.pedidos.ranking.limite-por-defecto:10}")
+    private int limitePorDefecto = 10;
+
+    @Value("${ecomarket.pedidos.ranking.limite-maximo:100}")
+    private int limiteMaximo = 100;
+
+    // Estado completo del ranking, protegido por "this"
+    private final Map<Integer, ProductoVendido> porProducto = new HashMap<>();
+    private final TreeSet<ProductoVendido> ordenados = new TreeSet<>(ORDEN_RANKING);
+
+    // Copia inmutable de los primeros limiteMaximo productos, la única estructura que leen las consultas
+    private volatile List<ProductoVendido> top = List.of();
+
+    // Compartido: transacciones entre la escritura de venta_producto y la aplicación de sus variaciones.
+    // Exclusivo: recarga del ranking desde venta_producto
+    private final ReadWriteLock escrituras = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        escrituras.writeLock().lock();
+        try {
+            reemplazar(leerVentas());
+        } finally {
+            escrituras.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recarga el ranking desde venta_producto para incorporar las ventas de otras instancias.
+     * Corre cada ecomarket.pedidos.ranking.recarga.
+     */
+    @Scheduled(fixedDelayString = "${ecomarket.pedidos.ranking.recarga:PT1M}",
+               initialDelayString = "${ecomarket.pedidos.ranking.recarga:PT1M}")
+    public void recargar() {
+        cargar();
+    }
+
+    private List<ProductoVendido> leerVentas() {
+        return ventaProductoRepository.findAll().stream()
+                .map(v -> new ProductoVendido(v.getProductoId(), v.getCantidadVendida()))
+                .toList();
+    }
+
+    /**
+     * Los primeros productos del ranking. Sin límite (o menor que 1) usa el límite por defecto;
+     * nunca devuelve más de ecomarket.pedidos.ranking.limite-maximo.
+     */
+    public List<ProductoVendido> obtenerTop(Integer limite) {
+        int n = limite == null || limite < 1 ? limitePorDefecto : Math.min(limite, limiteMaximo);
+        List<ProductoVendido> actual = top;
+        return actual.subList(0, Math.min(n, actual.size()));
+    }
+
+    /**
+     * Recalcula venta_producto desde detalle_de_pedido y recarga el ranking en memoria después
+     * del commit. Para reparar el contador si se modificaron detalles fuera de PedidoService.
+     * Retorna los primeros limite-maximo productos recalculados.
+     */
+    @Transactional
+    public List<ProductoVendido> reconstruir() {
+        ventaProductoRepository.deleteAllInBatch();
+        ventaProductoRepository.reconstruirDesdeDetalles();
+        // Recargar antes del commit publicaría un ranking que un rollback dejaría sin respaldo
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cargar();
+            }
+        });
+        return leerVentas().stream()
+                .filter(venta -> venta.cantidadVendida() != null && venta.cantidadVendida() > 0)
+                .sorted(ORDEN_RANKING)
+                .limit(limiteMaximo)
+                .toList();
+    }
+
+    // Suma las unidades de los detalles de un pedido creado
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarVenta(List<DetallePedido> detalles) {
+        registrar(detalles, 1);
+    }
+
+    // Resta las unidades de los detalles de un pedido eliminado
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarEliminacion(List<DetallePedido> detalles) {
+        registrar(detalles, -1);
+    }
+
+    private void registrar(List<DetallePedido> detalles, int signo) {
+        Map<Integer, Long> variaciones = variacionesDeLaTransaccion();
+        for (DetallePedido detalle : detalles) {
+            if (detalle.getProductoId() != null && detalle.getCantidad() != null) {
+                variaciones.merge(detalle.getProductoId(), (long) signo * detalle.getCantidad(), Long::sum);
+            }
+        }
+    }
+
+    private Map<Integer, Long> variacionesDeLaTransaccion() {
+        @SuppressWarnings("unchecked")
+        Map<Integer, Long> variaciones = (Map<Integer, Long>) TransactionSynchronizationManager.getResource(this);
+        if (variaciones == null) {
+            Map<Integer, Long> nuevas = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(this, nuevas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean escribio;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Se libera en afterCompletion, en el mismo hilo, haya commit o rollback
+                    escrituras.readLock().lock();
+                    escribio = true;
+                    persistir(nuevas);
+                }
+
+                @Override
+                public void afterCommit() {
+                    aplicar(nuevas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (escribio) {
+                        escrituras.readLock().unlock();
+                    }
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RankingVentasService.this);
+                }
+            });
+            variaciones = nuevas;
+        }
+        return variaciones;
+    }
+
+    private void persistir(Map<Integer, Long> variaciones) {
+        variaciones.values().removeIf(delta -> delta == 0);
+        if (variaciones.isEmpty()) {
+            return;
+        }
+        Map<Integer, Long> pendientes = new TreeMap<>(variaciones);
+        for (VentaProducto venta : ventaProductoRepository.findParaActualizar(variaciones.keySet())) {
+            venta.setCantidadVendida(venta.getCantidadVendida() + pendientes.remove(venta.getProductoId()));
+        }
+        // Primera venta del producto: si otra transacción creó la fila entre el SELECT y el INSERT,
+        // la variación se suma sobre esa fila por la misma ruta con bloqueo
+        Set<Integer> creadosPorOtra = InsercionConcurrente.insertar(entityManager, INSERT_VENTA, pendientes.entrySet(),
+                Map.Entry::getKey, (sentencia, variacion) -> {
+                    sentencia.setInt(1, variacion.getKey());
+                    sentencia.setLong(2, variacion.getValue());
+                });
+        if (!creadosPorOtra.isEmpty()) {
+            for (VentaProducto venta : ventaProductoRepository.findParaActualizar(creadosPorOtra)) {
+                venta.setCantidadVendida(venta.getCantidadVendida() + pendientes.get(venta.getProductoId()));
+            }
+        }
+    }
+
+    // synchronized solo cubre trabajo en memoria: con hilos virtuales el pinning es breve (ver hilos-virtuales.md)
+    private synchronized void aplicar(Map<Integer, Long> variaciones) {
+        variaciones.forEach((productoId, delta) -> {
+            ProductoVendido anterior = porProducto.remove(productoId);
+            long cantidad = delta;
+            if (anterior != null) {
+                ordenados.remove(anterior);
+                cantidad += anterior.cantidadVendida();
+            }
+            if (cantidad > 0) {
+                ProductoVendido actual = new ProductoVendido(productoId, cantidad);
+                porProducto.put(productoId, actual);
+                ordenados.add(actual);
+            }
+        });
+        publicarTop();
+    }
+
+    private synchronized void reemplazar(List<ProductoVendido> ventas) {
+        porProducto.clear();
+        ordenados.clear();
+        for (ProductoVendido venta : ventas) {
+            if (venta.cantidadVendida() != null && venta.cantidadVendida() > 0) {
+                porProducto.put(venta.productoId(), venta);
+                ordenados.add(venta);
+            }
+        }
+        publicarTop();
+    }
+
+    private void publicarTop() {
+        List<ProductoVendido> nuevo = new ArrayList<>(Math.min(limiteMaximo, ordenados.size()));
+        for (ProductoVendido venta : ordenados) {
+            if (nuevo.size() == limiteMaximo) {
+                break;
+            }
+            nuevo.add(venta);
+        }
+        top = List.copyOf(nuevo);
+    }
+}
@@ -0,0 +1,37 @@
+-- Migración de pedido.fecha_de_pedido y cliente_resumen.ultima_fecha_pedido de VARCHAR a DATE
+--
+-- Solo hace falta en bases persistentes creadas antes del cambio: con ddl-auto=create-drop
+-- (perfiles dev y test) Hibernate ya crea las columnas como DATE.
+--
+-- Se valida en H2 (MigracionFechaPedidoTest) y la sintaxis también es válida en MySQL 8.
+-- Ejecutar con la aplicación detenida, por ejemplo desde la consola H2 o con:
+--   java -cp h2.jar org.h2.tools.RunScript -url <url> -user sa -script fecha_de_pedido_a_date.sql
+--
+-- Los valores que no empiezan con una fecha ISO (yyyy-MM-dd) quedan en NULL en la columna nueva
+-- y se conservan en fecha_de_pedido_texto para revisarlos antes del paso final. Una fecha con formato
+-- válido pero inexistente (ej. 2025-02-30) hace fallar el UPDATE del paso 1: corregirla y volver a ejecutar.
+
+-- 1. Columna temporal y copia de los valores válidos (se ignora una hora al final, ej. "2025-06-23 10:00")
+ALTER TABLE pedido ADD COLUMN fecha_de_pedido_fecha DATE;
+
+UPDATE pedido
+   SET fecha_de_pedido_fecha = CAST(SUBSTRING(fecha_de_pedido, 1, 10) AS DATE)
+ WHERE REGEXP_LIKE(fecha_de_pedido, '^[0-9]{4}-[0-9]{2}-[0-9]{2}');
+
+-- 2. La columna de texto se conserva con otro nombre y la nueva toma su lugar
+ALTER TABLE pedido RENAME COLUMN fecha_de_pedido TO fecha_de_pedido_texto;
+ALTER TABLE pedido RENAME COLUMN fecha_de_pedido_fecha TO fecha_de_pedido;
+
+-- 3. Índice para los listados por rango de fechas y los ingresos por período (ver Pedido)
+CREATE INDEX idx_pedido_fecha ON pedido (fecha_de_pedido, pedido_id);
+
+-- 4. cliente_resumen es derivado de pedido: la última fecha se recalcula desde la columna nueva
+ALTER TABLE cliente_resumen DROP COLUMN ultima_fecha_pedido;
+ALTER TABLE cliente_resumen ADD COLUMN ultima_fecha_pedido DATE;
+
+UPDATE cliente_resumen
+   SET ultima_fecha_pedido = (SELECT MAX(p.fecha_de_pedido) FROM pedido p
+                               WHERE p.cliente_id = cliente_resumen.cliente_id);
+
+-- 5. Paso final, una vez revisadas las filas con fecha_de_pedido NULL y fecha_de_pedido_texto no NULL:
+-- ALTER TABLE pedido DROP COLUMN fecha_de_pedido_texto;
@@ -0,0 +1,96 @@
+package com.ecomarket.orderservice;
+
+import com.ecomarket.orderservice.model.DetallePedido;
+import com.ecomarket.orderservice.model.Pedido;
+import com.ecomarket.orderservice.service.PedidoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing del generador de escala: SF=0.001 son 1000 pedidos, 10 productos y 100 usuarios.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orderdb_generador;DB_CLOSE_DELAY=-1",
+        "ecomarket.generador.escala=0.001",
+        "ecomarket.generador.hilos=3",
+        "ecomarket.generador.tamanio-lote=100"
+})
+@ActiveProfiles("test")
+@DisplayName("GeneradorEscala - Carga masiva determinista por factor de escala")
+class GeneradorEscalaTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Test
+    @DisplayName("Relaciones - Debe generar pedidos y líneas con clientes, productos y precios válidos")
+    void testRelaciones() {
+        // Assert: cantidades según la escala
+        assertEquals(1000, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pedido", Integer.class));
+        int lineas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM detalle_de_pedido", Integer.class);
+        assertTrue(lineas >= 1000 && lineas <= 1000 * GeneradorEscala.MAX_LINEAS);
+
+        // Clientes y productos dentro de los generados por user-service y product-service
+        Map<String, Object> rangos = jdbcTemplate.queryForMap("SELECT MIN(cliente_id) AS min_cliente, " +
+                "MAX(cliente_id) AS max_cliente FROM pedido");
+        assertTrue(((Number) rangos.get("MIN_CLIENTE")).intValue() >= 1);
+        assertTrue(((Number) rangos.get("MAX_CLIENTE")).intValue() <= 100);
+        List<Map<String, Object>> precios = jdbcTemplate.queryForList(
+                "SELECT DISTINCT producto_id, precio_unitario FROM detalle_de_pedido");
+        for (Map<String, Object> precio : precios) {
+            int productoId = ((Number) precio.get("PRODUCTO_ID")).intValue();
+            assertTrue(productoId >= 1 && productoId <= 10);
+            assertEquals(GeneradorEscala.precioProducto(42, productoId), ((Number) precio.get("PRECIO_UNITARIO")).doubleValue());
+        }
+
+        // Ninguna línea huérfana y el subtotal de cada pedido es la suma de sus líneas
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM detalle_de_pedido d " +
+                "WHERE NOT EXISTS (SELECT 1 FROM pedido p WHERE p.pedido_id = d.pedido_id)", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pedido p WHERE ABS(p.subtotal - " +
+                "(SELECT SUM(d.sub_total) FROM detalle_de_pedido d WHERE d.pedido_id = p.pedido_id)) > 0.01", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Modelos de lectura - Debe reconstruir ranking y resumen por cliente")
+    void testModelosDeLectura() {
+        // Assert
+        assertEquals(jdbcTemplate.queryForObject("SELECT SUM(cantidad) FROM detalle_de_pedido", Long.class),
+                jdbcTemplate.queryForObject("SELECT SUM(cantidad_vendida) FROM venta_producto", Long.class));
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT cliente_id) FROM pedido", Integer.class),
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cliente_resumen", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Secuencias - Los pedidos nuevos deben continuar después de los generados")
+    void testSecuencias() {
+        // Arrange
+        Pedido pedido = new Pedido();
+        pedido.setFechaDePedido(LocalDate.of(2025, 6, 23));
+        pedido.setClienteId(1);
+        pedido.setEstado("PENDIENTE");
+        DetallePedido detalle = new DetallePedido();
+        detalle.setProductoId(1);
+        detalle.setPrecioUnitario(5.99);
+        detalle.setCantidad(1);
+
+        // Act
+        Pedido creado = pedidoService.crearPedido(pedido, List.of(detalle));
+
+        // Assert
+        assertTrue(creado.getPedidoId() > 1000);
+        assertTrue(detalle.getDetalleId() > 1000 * GeneradorEscala.MAX_LINEAS);
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecomarket.orderservice.assembler;
+
+import com.ecomarket.orderservice.controller.PedidoControllerV2;
+import com.ecomarket.orderservice.model.DetallePedido;
+import com.ecomarket.orderservice.model.PaginaPedidos;
+import com.ecomarket.orderservice.model.Pedido;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Links;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+/**
+ * Verifica que los assemblers con PlantillaEnlace produzcan exactamente los mismos
+ * enlaces (rel, href y plantilla) que linkTo(methodOn(...)), que es lo que reemplazan.
+ */
+@DisplayName("PlantillaEnlace - Mismos enlaces que WebMvcLinkBuilder")
+class PlantillaEnlaceTest {
+
+    private final PedidoModelAssembler pedidoAssembler = new PedidoModelAssembler();
+    private final DetallePedidoModelAssembler detalleAssembler = new DetallePedidoModelAssembler();
+
+    @AfterEach
+    void limpiar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Debe generar los enlaces de cada pedido igual que linkTo, para distintas bases de solicitud")
+    void testEnlacesPedido() {
+        Pedido pendiente = pedido(7, "PENDIENTE", "Santiago");
+        Pedido completado = pedido(8, "COMPLETADO", "Viña del Mar/Quinta Región?&=+");
+        Pedido sinCiudad = pedido(9, "EN_PROCESO", null);
+
+        for (String host : List.of("localhost", "api.ecomarket.cl", "otro.ecomarket.cl")) {
+            solicitud(host);
+            for (Pedido pedido : List.of(pendiente, completado, sinCiudad)) {
+                assertMismosEnlaces(esperados(pedido), pedidoAssembler.toModel(pedido).getLinks());
+                assertMismosEnlaces(Links.of(
+                        linkTo(methodOn(PedidoControllerV2.class).obtenerPorId(pedido.getPedidoId(), null, null)).withSelfRel(),
+                        linkTo(methodOn(PedidoControllerV2.class).obtenerDetalles(pedido.getPedidoId())).withRel("detalles")),
+                    pedidoAssembler.toModelSimple(pedido).getLinks());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Debe generar los enlaces de paginación y de detalles igual que linkTo")
+    void testEnlacesPaginaYDetalle() {
+        solicitud("localhost");
+        PaginaPedidos pagina = new PaginaPedidos(List.of(pedido(1, "PENDIENTE", "Talca")), "YTox b&c", "Yjox", 50);
+        LocalDate desde = LocalDate.of(2025, 6, 1);
+
+        assertMismosEnlaces(Links.of(
+                linkTo(methodOn(PedidoControllerV2.class).obtenerTodos("actual", 50, desde, null, "detalles")).withSelfRel(),
+                linkTo(methodOn(PedidoControllerV2.class).obtenerTodos(null, 50, desde, null, "detalles")).withRel(IanaLinkRelations.FIRST),
+                linkTo(methodOn(PedidoControllerV2.class).obtenerTodos("YTox b&c", 50, desde, null, "detalles")).withRel(IanaLinkRelations.NEXT),
+                linkTo(methodOn(PedidoControllerV2.class).obtenerTodos("Yjox", 50, desde, null, "detalles")).withRel(IanaLinkRelations.PREV)),
+            pedidoAssembler.toPaginaModel(pagina, "actual", desde, null, "detalles").getLinks());
+
+        DetallePedido detalle = new DetallePedido();
+        detalle.setPedidoId(12);
+        assertMismosEnlaces(Links.of(
+                linkTo(methodOn(PedidoControllerV2.class).obtenerDetalles(12)).withSelfRel(),
+                linkTo(methodOn(PedidoControllerV2.class).obtenerPorId(12, null, null)).withRel("pedido"),
+                linkTo(methodOn(PedidoControllerV2.class).obtenerDetalles(12)).withRel("detalles-pedido")),
+            detalleAssembler.toModel(detalle).getLinks());
+    }
+
+    @Test
+    @DisplayName("Fuera de una solicitud HTTP debe generar enlaces relativos, igual que linkTo")
+    void testSinSolicitud() {
+        Pedido pedido = pedido(3, "PENDIENTE", "Arica");
+        assertMismosEnlaces(esperados(pedido), pedidoAssembler.toModel(pedido).getLinks());
+        assertTrue(pedidoAssembler.toModel(pedido).getRequiredLink(IanaLinkRelations.SELF).getHref().startsWith("/api/v2/pedidos/3"));
+    }
+
+    // Implementación anterior de PedidoModelAssembler.toModel
+    private Links esperados(Pedido pedido) {
+        Links links = Links.of(
+            linkTo(methodOn(PedidoControllerV2.class).obtenerPorId(pedido.getPedidoId(), null, null)).withSelfRel(),
+            linkTo(PedidoControllerV2.class).withRel("pedidos"),
+            linkTo(methodOn(PedidoControllerV2.class).obtenerDetalles(pedido.getPedidoId())).withRel("detalles"));
+        if ("PENDIENTE".equals(pedido.getEstado())) {
+            links = links.and(
+                linkTo(methodOn(PedidoControllerV2.class).actualizar(pedido.getPedidoId(), null, null)).withRel("actualizar"),
+                linkTo(methodOn(PedidoControllerV2.class).actualizarEstado(pedido.getPedidoId(), null, null)).withRel("cambiar-estado"));
+        }
+        if ("PENDIENTE".equals(pedido.getEstado()) || "EN_PROCESO".equals(pedido.getEstado())) {
+            links = links.and(linkTo(methodOn(PedidoControllerV2.class).eliminar(pedido.getPedidoId(), null)).withRel("cancelar"));
+        }
+        links = links.and(
+            linkTo(methodOn(PedidoControllerV2.class).obtenerPorCliente(pedido.getClienteId())).withRel("pedidos-cliente"),
+            linkTo(methodOn(PedidoControllerV2.class).obtenerPorEstado(pedido.getEstado())).withRel("pedidos-mismo-estado"));
+        if (pedido.getCiudadEnvio() != null) {
+            links = links.and(linkTo(methodOn(PedidoControllerV2.class).obtenerPorCiudad(pedido.getCiudadEnvio())).withRel("pedidos-misma-ciudad"));
+        }
+        return links.and(
+            linkTo(methodOn(PedidoControllerV2.class).totalComprasPorCliente(pedido.getClienteId())).withRel("total-compras-cliente"),
+            linkTo(methodOn(PedidoControllerV2.class).cantidadPedidosPorCliente(pedido.getClienteId())).withRel("cantidad-pedidos-cliente"));
+    }
+
+    // Se comparan rel, href y plantilla: las affordances de linkTo solo se publican con HAL-FORMS, que no está habilitado
+    private static void assertMismosEnlaces(Links esperados, Links obtenidos) {
+        assertEquals(resumen(esperados), resumen(obtenidos));
+    }
+
+    private static List<String> resumen(Links links) {
+        return links.stream()
+            .map(l -> l.getRel().value() + " " + l.getHref() + (l.isTemplated() ? " (plantilla)" : ""))
+            .toList();
+    }
+
+    private static void solicitud(String host) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/pedidos");
+        request.setServerName(host);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static Pedido pedido(int id, String estado, String ciudad) {
+        Pedido pedido = new Pedido();
+        pedido.setPedidoId(id);
+        pedido.setClienteId(id * 10);
+        pedido.setEstado(estado);
+        pedido.setCiudadEnvio(ciudad);
+        return pedido;
+    }
+}
@@ -0,0 +1,217 @@
+package com.ecomarket.orderservice.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tiempo hasta la primera solicitud exitosa (2xx) de cada servicio, desde que se lanza la JVM.
+ *
+ * Cada servicio corre en su propio proceso, en un puerto libre, una vez por modo y repetición:
+ * <ul>
+ *   <li>actual: el jar empaquetado con el perfil por defecto (dev, con DataLoader).</li>
+ *   <li>perfil: el jar extraído con el perfil arranque, sin AOT ni CDS.</li>
+ *   <li>aot: lo anterior con los beans generados por Spring AOT (-Dspring.aot.enabled=true).</li>
+ *   <li>rapido: lo anterior con el archivo AppCDS del entrenamiento (-XX:SharedArchiveFile).</li>
+ * </ul>
+ * Los modos perfil, aot y rapido requieren el build del perfil Maven arranque-rapido en cada
+ * servicio, y el modo actual el jar de mvn package. La salida de cada proceso queda en
+ * target/arranque-&lt;modo&gt;.log del servicio. Ver ../arranque-rapido.md.
+ *
+ * Parámetros (propiedades del sistema):
+ * <pre>
+ *   arranque.raiz          directorio con los servicios (..)
+ *   arranque.servicios     servicio=ruta de la primera solicitud, separados por coma
+ *   arranque.modos         actual,perfil,aot,rapido
+ *   arranque.repeticiones  arranques por servicio y modo (3)
+ *   arranque.limite        segundos máximos por arranque (300)
+ * </pre>
+ *
+ * Ejecutar desde order-service, con los servicios ya construidos:
+ *   mvn -q test-compile
+ *   java -cp target/test-classes com.ecomarket.orderservice.benchmark.ArranqueServicios
+ */
+public class ArranqueServicios {
+
+    private static final String SERVICIOS = "order-service=/api/v2/pedidos?size=1,product-service=/api/v2/productos," +
+            "user-service=/api/v2/usuarios/activos,notification-service=/api/v2/notifications/type/STOCK";
+    private static final String MODOS = "actual,perfil,aot,rapido";
+    private static final Duration SONDEO = Duration.ofMillis(20);
+
+    /**
+     * Tiempos de un servicio en un modo, en milisegundos y en orden de ejecución; -1 es un arranque fallido.
+     */
+    public record Resultado(String servicio, String modo, List<Long> milisegundos) {
+
+        public long fallidos() {
+            return milisegundos.stream().filter(ms -> ms < 0).count();
+        }
+
+        // Estadísticos sobre los arranques exitosos; -1 si ninguno lo fue
+        public long minimo() {
+            return exitosos().isEmpty() ? -1 : exitosos().get(0);
+        }
+
+        public long mediana() {
+            List<Long> exitosos = exitosos();
+            return exitosos.isEmpty() ? -1 : exitosos.get(exitosos.size() / 2);
+        }
+
+        public long maximo() {
+            List<Long> exitosos = exitosos();
+            return exitosos.isEmpty() ? -1 : exitosos.get(exitosos.size() - 1);
+        }
+
+        private List<Long> exitosos() {
+            return milisegundos.stream().filter(ms -> ms >= 0).sorted().toList();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path raiz = Path.of(System.getProperty("arranque.raiz", "..")).toAbsolutePath().normalize();
+        int repeticiones = Integer.getInteger("arranque.repeticiones", 3);
+        Duration limite = Duration.ofSeconds(Integer.getInteger("arranque.limite", 300));
+        List<String> modos = Arrays.asList(System.getProperty("arranque.modos", MODOS).split(","));
+        Map<String, String> servicios = new LinkedHashMap<>();
+        for (String entrada : System.getProperty("arranque.servicios", SERVICIOS).split(",")) {
+            String[] partes = entrada.trim().split("=", 2);
+            servicios.put(partes[0], partes[1]);
+        }
+
+        HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        List<Resultado> resultados = new ArrayList<>();
+        for (Map.Entry<String, String> servicio : servicios.entrySet()) {
+            Path directorio = raiz.resolve(servicio.getKey());
+            for (String modo : modos) {
+                List<String> comando;
+                try {
+                    comando = comando(directorio, modo.trim());
+                } catch (IllegalStateException e) {
+                    System.out.printf("Se omite %s en modo %s: %s%n", servicio.getKey(), modo, e.getMessage());
+                    continue;
+                }
+                List<Long> tiempos = new ArrayList<>(repeticiones);
+                for (int i = 0; i < repeticiones; i++) {
+                    long ms = medir(cliente, directorio, modo.trim(), comando, servicio.getValue(), limite);
+                    System.out.printf("%s %s #%d: %d ms%n", servicio.getKey(), modo, i + 1, ms);
+                    tiempos.add(ms);
+                }
+                resultados.add(new Resultado(servicio.getKey(), modo.trim(), tiempos));
+            }
+        }
+        imprimir(System.out, resultados);
+    }
+
+    // Comando sin el puerto: el jar empaquetado o el extraído en target/arranque con las opciones del modo
+    static List<String> comando(Path directorio, String modo) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Path empaquetado = jar(directorio.resolve("target"));
+        if ("actual".equals(modo)) {
+            return List.of(java, "-jar", empaquetado.toString());
+        }
+        Path arranque = directorio.resolve("target").resolve("arranque");
+        Path extraido = arranque.resolve(empaquetado.getFileName());
+        if (!Files.exists(extraido)) {
+            throw new IllegalStateException("falta " + extraido + " (mvn -Parranque-rapido -DskipTests verify)");
+        }
+        List<String> comando = new ArrayList<>(List.of(java));
+        switch (modo) {
+            case "perfil" -> {
+            }
+            case "aot" -> comando.add("-Dspring.aot.enabled=true");
+            case "rapido" -> {
+                comando.add("-XX:SharedArchiveFile=" + arranque.resolve("app.jsa"));
+                comando.add("-Xlog:cds=error");
+                comando.add("-Dspring.aot.enabled=true");
+            }
+            default -> throw new IllegalArgumentException("Modo desconocido: " + modo);
+        }
+        comando.addAll(List.of("-jar", extraido.toString(), "--spring.profiles.active=arranque"));
+        return comando;
+    }
+
+    private static Path jar(Path target) throws IOException {
+        if (!Files.isDirectory(target)) {
+            throw new IllegalStateException("falta " + target + " (mvn package)");
+        }
+        try (Stream<Path> archivos = Files.list(target)) {
+            return archivos.filter(archivo -> archivo.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("no hay jar en " + target + " (mvn package)"));
+        }
+    }
+
+    // Lanza el proceso y sondea la ruta hasta la primera respuesta 2xx; -1 si el proceso termina o vence el límite
+    private static long medir(HttpClient cliente, Path directorio, String modo, List<String> comando, String ruta,
+                              Duration limite) throws IOException, InterruptedException {
+        int puerto = puertoLibre();
+        List<String> conPuerto = new ArrayList<>(comando);
+        conPuerto.add("--server.port=" + puerto);
+        File log = directorio.resolve("target").resolve("arranque-" + modo + ".log").toFile();
+        HttpRequest solicitud = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                .timeout(limite)
+                .build();
+
+        long inicio = System.nanoTime();
+        Process proceso = new ProcessBuilder(conPuerto)
+                .directory(directorio.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        try {
+            long fin = inicio + limite.toNanos();
+            while (System.nanoTime() < fin && proceso.isAlive()) {
+                try {
+                    HttpResponse<Void> respuesta = cliente.send(solicitud, HttpResponse.BodyHandlers.discarding());
+                    if (respuesta.statusCode() / 100 == 2) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                    }
+                } catch (ConnectException e) {
+                    // Tomcat todavía no escucha
+                }
+                Thread.sleep(SONDEO.toMillis());
+            }
+            return -1;
+        } finally {
+            proceso.destroy();
+            if (!proceso.waitFor(30, TimeUnit.SECONDS)) {
+                proceso.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Imprime mínimo, mediana y máximo de los arranques exitosos por servicio y modo, y cuántos
+     * fallaron (el proceso terminó o venció el límite: ver target/arranque-<modo>.log).
+     */
+    public static void imprimir(PrintStream salida, List<Resultado> resultados) {
+        salida.printf("%nTiempo hasta la primera solicitud exitosa (ms)%n");
+        salida.printf("%-22s %-8s %9s %9s %9s %9s%n", "servicio", "modo", "mín", "mediana", "máx", "fallidos");
+        for (Resultado resultado : resultados) {
+            salida.printf("%-22s %-8s %9d %9d %9d %9d%n", resultado.servicio(), resultado.modo(),
+                    resultado.minimo(), resultado.mediana(), resultado.maximo(), resultado.fallidos());
+        }
+    }
+}
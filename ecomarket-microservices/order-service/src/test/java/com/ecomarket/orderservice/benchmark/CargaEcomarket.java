@@ -0,0 +1,191 @@
+package com.ecomarket.orderservice.benchmark;
+
+import com.ecomarket.orderservice.DataLoader;
+import com.ecomarket.orderservice.OrderServiceApplication;
+import com.ecomarket.orderservice.dto.CrearPedidoRequest;
+import com.ecomarket.orderservice.dto.DetalleRequest;
+import com.ecomarket.orderservice.model.DetallePedido;
+import com.ecomarket.orderservice.model.Pedido;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.datafaker.Faker;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Carga HTTP con una mezcla de tráfico realista (ver CargaHttp) contra order-service en un
+ * puerto aleatorio con H2.
+ *
+ * Los datos iniciales los carga el DataLoader del perfil dev, y los cuerpos de crear-pedido se
+ * arman con sus mismos generadores Datafaker. Los escenarios de catálogo, stock y
+ * notificaciones apuntan a product-service y notification-service, que no comparten classpath
+ * con este servicio: se incluyen solo si se indica la URL de cada uno (levantados aparte, por
+ * ejemplo con mvn spring-boot:run -Dspring-boot.run.profiles=dev).
+ *
+ * Parámetros (propiedades del sistema):
+ * <pre>
+ *   carga.modelo          cerrado | abierto (cerrado)
+ *   carga.clientes        clientes concurrentes del modelo cerrado (50)
+ *   carga.tasa            llegadas por segundo del modelo abierto (200)
+ *   carga.max-en-vuelo    solicitudes pendientes antes de descartar en el modelo abierto (2000)
+ *   carga.segundos        duración de la medición (30); antes se calienta con carga.calentamiento (5)
+ *   carga.mezcla          pesos por escenario, p. ej. ver-pedido=60,crear-pedido=40
+ *   carga.productos       URL base de product-service, p. ej. http://localhost:8081
+ *   carga.notificaciones  URL base de notification-service
+ *   carga.hgrm            archivo para la distribución de percentiles del total (formato HdrHistogram)
+ * </pre>
+ *
+ * Ejecutar desde order-service:
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -Dcarga.modelo=abierto -Dcarga.tasa=300 -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *        com.ecomarket.orderservice.benchmark.CargaEcomarket
+ */
+public class CargaEcomarket {
+
+    private static final String MEZCLA = "ver-pedido=30,listar-pedidos=15,crear-pedido=15,listar-productos=10," +
+            "ver-producto=15,consultar-stock=10,notificar-entrega=5";
+    // Productos que genera el DataLoader de product-service
+    private static final int PRODUCTOS = 50;
+    private static final String[] ESTADOS_ENTREGA = {"preparacion", "transito", "entregado"};
+
+    public static void main(String[] args) throws Exception {
+        // DevTools relanzaría este main con los argumentos de la aplicación
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        String modelo = System.getProperty("carga.modelo", "cerrado");
+        Duration duracion = Duration.ofSeconds(Integer.getInteger("carga.segundos", 30));
+        Duration calentamiento = Duration.ofSeconds(Integer.getInteger("carga.calentamiento", 5));
+
+        try (ConfigurableApplicationContext contexto = levantar()) {
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+            HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            CargaHttp carga = new CargaHttp(cliente, escenarios(contexto, base));
+
+            List<CargaHttp.Resultado> resultados;
+            String titulo;
+            if ("abierto".equals(modelo)) {
+                double tasa = Double.parseDouble(System.getProperty("carga.tasa", "200"));
+                int maxEnVuelo = Integer.getInteger("carga.max-en-vuelo", 2000);
+                carga.abierto(tasa, calentamiento, maxEnVuelo);
+                resultados = carga.abierto(tasa, duracion, maxEnVuelo);
+                titulo = String.format("Modelo abierto: %.0f llegadas/s durante %d s", tasa, duracion.toSeconds());
+            } else if ("cerrado".equals(modelo)) {
+                int clientes = Integer.getInteger("carga.clientes", 50);
+                carga.cerrado(clientes, calentamiento);
+                resultados = carga.cerrado(clientes, duracion);
+                titulo = String.format("Modelo cerrado: %d clientes durante %d s", clientes, duracion.toSeconds());
+            } else {
+                throw new IllegalArgumentException("carga.modelo debe ser cerrado o abierto: " + modelo);
+            }
+            CargaHttp.imprimir(System.out, titulo, resultados);
+
+            String hgrm = System.getProperty("carga.hgrm");
+            if (hgrm != null) {
+                try (PrintStream archivo = new PrintStream(new FileOutputStream(hgrm))) {
+                    resultados.get(resultados.size() - 1).latencias().outputPercentileDistribution(archivo, 1000.0);
+                }
+                System.out.println("Distribución de latencias (ms) en " + hgrm);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext levantar() {
+        // Como argumentos de línea de comandos para que ganen sobre application-dev.properties
+        return new SpringApplicationBuilder(OrderServiceApplication.class)
+                .run("--spring.profiles.active=test,dev", "--server.port=0",
+                     "--spring.datasource.url=jdbc:h2:mem:orderdb_carga;DB_CLOSE_DELAY=-1",
+                     "--spring.h2.console.enabled=false", "--spring.jpa.show-sql=false",
+                     "--logging.level.root=WARN", "--logging.level.org.hibernate.SQL=WARN",
+                     "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+    }
+
+    private static List<CargaHttp.Escenario> escenarios(ConfigurableApplicationContext contexto, String base) {
+        DataLoader dataLoader = contexto.getBean(DataLoader.class);
+        ObjectMapper objectMapper = contexto.getBean(ObjectMapper.class);
+        List<Integer> pedidos = contexto.getBean(JdbcTemplate.class).queryForList("SELECT pedido_id FROM pedido", Integer.class);
+        String productos = System.getProperty("carga.productos");
+        String notificaciones = System.getProperty("carga.notificaciones");
+        Faker faker = new Faker();
+
+        Map<String, Supplier<HttpRequest>> disponibles = new LinkedHashMap<>();
+        disponibles.put("ver-pedido", () -> get(base + "/api/v1/pedidos/" + pedidos.get(azar(pedidos.size()))));
+        disponibles.put("listar-pedidos", () -> get(base + "/api/v2/pedidos?size=20"));
+        disponibles.put("crear-pedido", () -> post(base + "/api/v1/pedidos", json(objectMapper, pedidoFalso(dataLoader))));
+        if (productos != null) {
+            disponibles.put("listar-productos", () -> get(productos + "/api/v2/productos"));
+            disponibles.put("ver-producto", () -> get(productos + "/api/v2/productos/" + (1 + azar(PRODUCTOS))));
+        }
+        if (notificaciones != null) {
+            disponibles.put("consultar-stock", () -> post(notificaciones + "/api/v2/notifications/stock-alert",
+                    json(objectMapper, Map.of("productId", String.valueOf(1 + azar(PRODUCTOS)),
+                            "productName", faker.commerce().productName(), "stock", azar(300)))));
+            disponibles.put("notificar-entrega", () -> post(notificaciones + "/api/v2/notifications/delivery",
+                    json(objectMapper, Map.of("productId", String.valueOf(1 + azar(PRODUCTOS)),
+                            "productName", faker.commerce().productName(),
+                            "status", ESTADOS_ENTREGA[azar(ESTADOS_ENTREGA.length)]))));
+        }
+
+        List<CargaHttp.Escenario> escenarios = new ArrayList<>();
+        for (String entrada : System.getProperty("carga.mezcla", MEZCLA).split(",")) {
+            String[] partes = entrada.trim().split("=");
+            Supplier<HttpRequest> solicitud = disponibles.get(partes[0]);
+            if (solicitud == null) {
+                System.out.printf("Se omite %s: falta la URL del servicio o el escenario no existe%n", partes[0]);
+                continue;
+            }
+            escenarios.add(new CargaHttp.Escenario(partes[0], Integer.parseInt(partes[1]), solicitud));
+        }
+        return escenarios;
+    }
+
+    // Mismos generadores que la carga inicial del perfil dev
+    private static CrearPedidoRequest pedidoFalso(DataLoader dataLoader) {
+        Pedido pedido = dataLoader.crearPedidoFalso();
+        int lineas = 1 + azar(5);
+        List<DetalleRequest> detalles = new ArrayList<>(lineas);
+        for (int i = 0; i < lineas; i++) {
+            DetallePedido detalle = dataLoader.crearDetallePedidoFalso(null);
+            detalles.add(new DetalleRequest(detalle.getProductoId(), detalle.getPrecioUnitario(), detalle.getCantidad()));
+        }
+        return new CrearPedidoRequest(pedido.getFechaDePedido(), pedido.getClienteId(), pedido.getEstado(),
+                pedido.getDescuento(), pedido.getMetodoPagoId(), pedido.getUsuarioId(), pedido.getDireccionEnvio(),
+                pedido.getCiudadEnvio(), pedido.getNotas(), detalles);
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(60)).build();
+    }
+
+    private static HttpRequest post(String url, String cuerpo) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build();
+    }
+
+    private static String json(ObjectMapper objectMapper, Object valor) {
+        try {
+            return objectMapper.writeValueAsString(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el cuerpo", e);
+        }
+    }
+
+    private static int azar(int limite) {
+        return ThreadLocalRandom.current().nextInt(limite);
+    }
+}
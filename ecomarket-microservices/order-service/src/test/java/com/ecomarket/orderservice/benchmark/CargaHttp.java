@@ -0,0 +1,231 @@
+package com.ecomarket.orderservice.benchmark;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Generador de carga HTTP con una mezcla de escenarios ponderados.
+ *
+ * Cada solicitud elige un escenario al azar según su peso. Dos modelos:
+ * <ul>
+ *   <li>cerrado: N clientes; cada uno envía una solicitud, espera la respuesta y envía la
+ *       siguiente. El throughput lo fija el servidor.</li>
+ *   <li>abierto: llegadas a tasa constante, respondan o no las anteriores. La latencia se mide
+ *       desde el instante en que la solicitud debía salir, así un servidor lento no esconde su
+ *       cola (omisión coordinada). Sobre maxEnVuelo pendientes la solicitud se descarta y cuenta
+ *       como error.</li>
+ * </ul>
+ * Las latencias van a un histograma HDR por escenario (microsegundos, 3 dígitos significativos).
+ * Es un error toda respuesta 4xx/5xx, excepción o descarte.
+ */
+public class CargaHttp {
+
+    private static final long LATENCIA_MAXIMA_US = TimeUnit.MINUTES.toMicros(2);
+
+    /**
+     * Escenario de la mezcla: solicitud() arma una solicitud nueva cada vez que se elige.
+     */
+    public record Escenario(String nombre, int peso, Supplier<HttpRequest> solicitud) {
+    }
+
+    /**
+     * Resultado de un escenario (o del total) en una corrida.
+     */
+    public record Resultado(String nombre, long solicitudes, long errores, double segundos, Histogram latencias) {
+
+        public double porSegundo() {
+            return solicitudes / segundos;
+        }
+
+        public double tasaError() {
+            return solicitudes == 0 ? 0 : (double) errores / solicitudes;
+        }
+
+        public double percentilMs(double percentil) {
+            return latencias.getTotalCount() == 0 ? Double.NaN : latencias.getValueAtPercentile(percentil) / 1000.0;
+        }
+    }
+
+    private final HttpClient cliente;
+    private final List<Escenario> escenarios;
+    private final int[] pesosAcumulados;
+
+    public CargaHttp(HttpClient cliente, List<Escenario> escenarios) {
+        this.escenarios = escenarios.stream().filter(escenario -> escenario.peso() > 0).toList();
+        if (this.escenarios.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no tiene escenarios con peso mayor que 0");
+        }
+        this.cliente = cliente;
+        this.pesosAcumulados = new int[this.escenarios.size()];
+        int acumulado = 0;
+        for (int i = 0; i < this.escenarios.size(); i++) {
+            acumulado += this.escenarios.get(i).peso();
+            pesosAcumulados[i] = acumulado;
+        }
+    }
+
+    /**
+     * Modelo cerrado: clientes concurrentes en lazo durante la duración indicada.
+     */
+    public List<Resultado> cerrado(int clientes, Duration duracion) throws InterruptedException {
+        Medicion medicion = new Medicion();
+        AtomicBoolean activo = new AtomicBoolean(true);
+        List<CompletableFuture<Void>> lazos = new ArrayList<>(clientes);
+        for (int i = 0; i < clientes; i++) {
+            CompletableFuture<Void> fin = new CompletableFuture<>();
+            lazos.add(fin);
+            enviarEnLazo(medicion, activo, fin);
+        }
+        Thread.sleep(duracion.toMillis());
+        activo.set(false);
+        CompletableFuture.allOf(lazos.toArray(CompletableFuture[]::new)).join();
+        return medicion.resultados();
+    }
+
+    /**
+     * Modelo abierto: porSegundo llegadas por segundo, con a lo más maxEnVuelo solicitudes pendientes.
+     */
+    public List<Resultado> abierto(double porSegundo, Duration duracion, int maxEnVuelo) {
+        Medicion medicion = new Medicion();
+        AtomicInteger enVuelo = new AtomicInteger();
+        List<CompletableFuture<?>> pendientes = new ArrayList<>();
+        long intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / porSegundo);
+        long fin = medicion.inicio + duracion.toNanos();
+        for (long programada = medicion.inicio; programada < fin; programada += intervalo) {
+            long espera = programada - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            Escenario escenario = elegir();
+            if (enVuelo.incrementAndGet() > maxEnVuelo) {
+                enVuelo.decrementAndGet();
+                medicion.error(escenario);
+                continue;
+            }
+            long desde = programada;
+            pendientes.add(enviar(escenario, medicion, desde).whenComplete((ok, error) -> enVuelo.decrementAndGet()));
+            if (pendientes.size() == 10_000) {
+                pendientes.removeIf(CompletableFuture::isDone);
+            }
+        }
+        CompletableFuture.allOf(pendientes.toArray(CompletableFuture[]::new)).join();
+        return medicion.resultados();
+    }
+
+    private void enviarEnLazo(Medicion medicion, AtomicBoolean activo, CompletableFuture<Void> fin) {
+        if (!activo.get()) {
+            fin.complete(null);
+            return;
+        }
+        enviar(elegir(), medicion, System.nanoTime()).whenComplete((ok, error) -> enviarEnLazo(medicion, activo, fin));
+    }
+
+    // Nunca completa con excepción: los fallos se cuentan como errores del escenario
+    private CompletableFuture<Void> enviar(Escenario escenario, Medicion medicion, long desde) {
+        HttpRequest solicitud;
+        try {
+            solicitud = escenario.solicitud().get();
+        } catch (RuntimeException e) {
+            medicion.error(escenario);
+            return CompletableFuture.completedFuture(null);
+        }
+        return cliente.sendAsync(solicitud, HttpResponse.BodyHandlers.discarding()).handle((respuesta, error) -> {
+            if (error != null || respuesta.statusCode() >= 400) {
+                medicion.error(escenario);
+            } else {
+                medicion.exito(escenario, System.nanoTime() - desde);
+            }
+            return null;
+        });
+    }
+
+    private Escenario elegir() {
+        int sorteo = ThreadLocalRandom.current().nextInt(pesosAcumulados[pesosAcumulados.length - 1]);
+        for (int i = 0; i < pesosAcumulados.length; i++) {
+            if (sorteo < pesosAcumulados[i]) {
+                return escenarios.get(i);
+            }
+        }
+        throw new IllegalStateException("Sorteo fuera de los pesos: " + sorteo);
+    }
+
+    /**
+     * Imprime una tabla con throughput, tasa de error y percentiles de latencia por escenario.
+     */
+    public static void imprimir(PrintStream salida, String titulo, List<Resultado> resultados) {
+        salida.printf("%n%s%n", titulo);
+        salida.printf("%-20s %11s %10s %8s %9s %9s %9s %9s %9s%n",
+                "escenario", "solicitudes", "sol/s", "error %", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Resultado resultado : resultados) {
+            salida.printf("%-20s %11d %10.1f %8.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", resultado.nombre(),
+                    resultado.solicitudes(), resultado.porSegundo(), resultado.tasaError() * 100,
+                    resultado.percentilMs(50), resultado.percentilMs(90), resultado.percentilMs(99),
+                    resultado.percentilMs(99.9), resultado.percentilMs(100));
+        }
+    }
+
+    // Contadores y grabadores HDR de una corrida; Recorder admite grabar desde varios hilos
+    private class Medicion {
+
+        private final long inicio = System.nanoTime();
+        private final Map<Escenario, Recorder> latencias = new LinkedHashMap<>();
+        private final Map<Escenario, LongAdder> solicitudes = new LinkedHashMap<>();
+        private final Map<Escenario, LongAdder> errores = new LinkedHashMap<>();
+
+        Medicion() {
+            for (Escenario escenario : escenarios) {
+                latencias.put(escenario, new Recorder(LATENCIA_MAXIMA_US, 3));
+                solicitudes.put(escenario, new LongAdder());
+                errores.put(escenario, new LongAdder());
+            }
+        }
+
+        void exito(Escenario escenario, long nanos) {
+            solicitudes.get(escenario).increment();
+            latencias.get(escenario).recordValue(Math.min(LATENCIA_MAXIMA_US, Math.max(1, nanos / 1000)));
+        }
+
+        void error(Escenario escenario) {
+            solicitudes.get(escenario).increment();
+            errores.get(escenario).increment();
+        }
+
+        // El total va al final de la lista
+        List<Resultado> resultados() {
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            List<Resultado> resultados = new ArrayList<>();
+            Histogram todas = new Histogram(LATENCIA_MAXIMA_US, 3);
+            long totalSolicitudes = 0;
+            long totalErrores = 0;
+            for (Escenario escenario : escenarios) {
+                Histogram propias = latencias.get(escenario).getIntervalHistogram();
+                todas.add(propias);
+                long cantidad = solicitudes.get(escenario).sum();
+                long fallidas = errores.get(escenario).sum();
+                totalSolicitudes += cantidad;
+                totalErrores += fallidas;
+                resultados.add(new Resultado(escenario.nombre(), cantidad, fallidas, segundos, propias));
+            }
+            resultados.add(new Resultado("total", totalSolicitudes, totalErrores, segundos, todas));
+            return resultados;
+        }
+    }
+}
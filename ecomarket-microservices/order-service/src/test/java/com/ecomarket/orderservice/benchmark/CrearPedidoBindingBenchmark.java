@@ -0,0 +1,139 @@
+package com.ecomarket.orderservice.benchmark;
+
+import com.ecomarket.orderservice.dto.CrearPedidoRequest;
+import com.ecomarket.orderservice.model.DetallePedido;
+import com.ecomarket.orderservice.model.Pedido;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el enlace del cuerpo de POST /api/v1/pedidos con Map&lt;String,Object&gt;
+ * (implementación anterior) contra el DTO CrearPedidoRequest.
+ *
+ * Cada operación representa una solicitud: bytes JSON → Pedido + detalles.
+ * Se reporta solicitudes/segundo y, con el perfilador GC, bytes asignados por
+ * solicitud (gc.alloc.rate.norm).
+ *
+ * Ejecutar desde order-service:
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *        com.ecomarket.orderservice.benchmark.CrearPedidoBindingBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CrearPedidoBindingBenchmark {
+
+    private static final TypeReference<Map<String, Object>> TIPO_MAPA = new TypeReference<>() {};
+
+    @Param({"2", "20"})
+    private int lineas;
+
+    private byte[] cuerpo;
+    private ObjectMapper objectMapper;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    @Setup
+    public void preparar() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        StringBuilder json = new StringBuilder()
+                .append("{\"fechaDePedido\":\"2025-06-23\",\"clienteId\":1,\"estado\":\"PENDIENTE\",")
+                .append("\"descuento\":10.0,\"metodoPagoId\":1,\"usuarioId\":1,")
+                .append("\"direccionEnvio\":\"Av. Las Condes 123\",\"ciudadEnvio\":\"Santiago\",")
+                .append("\"notas\":\"Entrega en horario de oficina\",\"detalles\":[");
+        for (int i = 0; i < lineas; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"productoId\":").append(i + 1)
+                .append(",\"precioUnitario\":5.99,\"cantidad\":2}");
+        }
+        cuerpo = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void cerrar() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public void mapa(Blackhole bh) throws Exception {
+        Map<String, Object> request = objectMapper.readValue(cuerpo, TIPO_MAPA);
+
+        // Misma conversión que hacía PedidoController.crear antes de usar el DTO
+        Pedido pedido = new Pedido();
+        pedido.setFechaDePedido(LocalDate.parse((String) request.get("fechaDePedido")));
+        pedido.setClienteId((Integer) request.get("clienteId"));
+        pedido.setEstado((String) request.get("estado"));
+        pedido.setDescuento(request.get("descuento") != null ?
+            Double.valueOf(request.get("descuento").toString()) : 0.0);
+        pedido.setMetodoPagoId((Integer) request.get("metodoPagoId"));
+        pedido.setUsuarioId((Integer) request.get("usuarioId"));
+        pedido.setDireccionEnvio((String) request.get("direccionEnvio"));
+        pedido.setCiudadEnvio((String) request.get("ciudadEnvio"));
+        pedido.setNotas((String) request.get("notas"));
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> detallesData = (List<Map<String, Object>>) request.get("detalles");
+        List<DetallePedido> detalles = detallesData.stream().map(detalleData -> {
+            DetallePedido detalle = new DetallePedido();
+            detalle.setProductoId((Integer) detalleData.get("productoId"));
+            detalle.setPrecioUnitario(Double.valueOf(detalleData.get("precioUnitario").toString()));
+            detalle.setCantidad((Integer) detalleData.get("cantidad"));
+            return detalle;
+        }).toList();
+
+        bh.consume(pedido);
+        bh.consume(detalles);
+    }
+
+    @Benchmark
+    public void dto(Blackhole bh) throws Exception {
+        CrearPedidoRequest request = objectMapper.readValue(cuerpo, CrearPedidoRequest.class);
+        bh.consume(request.toPedido());
+        bh.consume(request.toDetalles());
+    }
+
+    /**
+     * Igual que dto() más la validación que aplica @Valid en el controlador,
+     * que la ruta con Map no tenía.
+     */
+    @Benchmark
+    public void dtoValidado(Blackhole bh) throws Exception {
+        CrearPedidoRequest request = objectMapper.readValue(cuerpo, CrearPedidoRequest.class);
+        bh.consume(validator.validate(request));
+        bh.consume(request.toPedido());
+        bh.consume(request.toDetalles());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opciones = new OptionsBuilder()
+                .include(CrearPedidoBindingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,211 @@
+package com.ecomarket.orderservice.benchmark;
+
+import com.ecomarket.orderservice.OrderServiceApplication;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carga HTTP contra GET /api/v1/pedidos/{id} con hilos de plataforma y con hilos virtuales
+ * (spring.threads.virtual.enabled), a 50, 500 y 5000 clientes concurrentes.
+ *
+ * Cada modo levanta la aplicación en un puerto aleatorio. Para que el límite sea el modelo de
+ * hilos y no H2 en memoria, cada conexión obtenida espera latencia-ms antes de entregarse
+ * (simula la ida y vuelta a Oracle/MySQL) y el pool de Hikari se amplía para no ser el cuello.
+ * Cada cliente envía una solicitud, espera la respuesta y envía la siguiente; por nivel se
+ * reportan solicitudes por segundo, p50, p99 y errores.
+ *
+ * Los hilos virtuales requieren Java 21: en Java 17 el modo virtuales se omite (Spring Boot
+ * ignora la propiedad) y la comparación queda contra Tomcat con 1000 hilos de plataforma.
+ * Con un JDK 21+ compilar con el perfil java21 para medir los tres modos. Para detectar
+ * pinning en Java 21 agregar -Djdk.tracePinnedThreads=short a la JVM. La línea base medida
+ * en Java 17 está en ../hilos-virtuales.md.
+ *
+ * Ejecutar desde order-service (5000 clientes en el mismo proceso requieren ulimit -n alto):
+ *   mvn -q [-Pjava21] test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *        com.ecomarket.orderservice.benchmark.HilosVirtualesBenchmark [latencia-ms] [segundos]
+ */
+public class HilosVirtualesBenchmark {
+
+    private static final int[] CLIENTES = {50, 500, 5000};
+    private static final int PEDIDOS = 1000;
+
+    private static long latenciaMs = 20;
+
+    private record Modo(String nombre, String... propiedades) {
+    }
+
+    private record Medicion(long solicitudes, long errores, double porSegundo, double p50, double p99) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // DevTools relanzaría este main con los argumentos de la aplicación
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        latenciaMs = args.length > 0 ? Long.parseLong(args[0]) : latenciaMs;
+        int segundos = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+
+        List<Modo> modos = new ArrayList<>(List.of(
+                new Modo("plataforma-200", "--spring.threads.virtual.enabled=false"),
+                new Modo("plataforma-1000", "--spring.threads.virtual.enabled=false", "--server.tomcat.threads.max=1000")));
+        if (Runtime.version().feature() >= 21) {
+            modos.add(new Modo("virtuales", "--spring.threads.virtual.enabled=true"));
+        } else {
+            System.out.printf("Java %d: se omite el modo virtuales (requiere Java 21)%n", Runtime.version().feature());
+        }
+
+        System.out.printf("%nGET /api/v1/pedidos/{id}, latencia JDBC simulada %d ms, %d s por nivel%n", latenciaMs, segundos);
+        System.out.printf("%-16s %8s %12s %10s %10s %10s %8s%n", "modo", "clientes", "solicitudes", "sol/s", "p50 ms", "p99 ms", "errores");
+        for (Modo modo : modos) {
+            try (ConfigurableApplicationContext contexto = levantar(modo)) {
+                String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+                for (int clientes : CLIENTES) {
+                    medir(base, clientes, Duration.ofSeconds(Math.min(5, segundos)));
+                    Medicion medicion = medir(base, clientes, Duration.ofSeconds(segundos));
+                    System.out.printf("%-16s %8d %12d %10.0f %10.1f %10.1f %8d%n", modo.nombre(), clientes,
+                            medicion.solicitudes(), medicion.porSegundo(), medicion.p50(), medicion.p99(), medicion.errores());
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext levantar(Modo modo) {
+        List<String> argumentos = new ArrayList<>(List.of("--spring.profiles.active=test", "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:orderdb_hilos_bench;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=100",
+                "--spring.jpa.show-sql=false", "--logging.level.root=WARN"));
+        argumentos.addAll(Arrays.asList(modo.propiedades()));
+        // Como argumentos de línea de comandos para que ganen sobre application.properties
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(OrderServiceApplication.class, LatenciaJdbc.class)
+                .run(argumentos.toArray(String[]::new));
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM detalle_de_pedido");
+        jdbcTemplate.update("DELETE FROM pedido");
+        sembrar(jdbcTemplate);
+        return contexto;
+    }
+
+    // Clientes en lazo cerrado: cada uno encadena su próxima solicitud al completar la anterior
+    private static Medicion medir(String base, int clientes, Duration duracion) throws InterruptedException {
+        HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        AtomicBoolean activo = new AtomicBoolean(true);
+        AtomicLong errores = new AtomicLong();
+        List<long[]> latencias = new ArrayList<>(clientes);
+        int[] cantidades = new int[clientes];
+        List<CompletableFuture<Void>> lazos = new ArrayList<>(clientes);
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < clientes; i++) {
+            long[] propias = new long[1024];
+            latencias.add(propias);
+            CompletableFuture<Void> fin = new CompletableFuture<>();
+            lazos.add(fin);
+            enviar(cliente, base, i, latencias, cantidades, errores, activo, fin);
+        }
+        Thread.sleep(duracion.toMillis());
+        activo.set(false);
+        CompletableFuture.allOf(lazos.toArray(CompletableFuture[]::new)).join();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        long total = 0;
+        for (int cantidad : cantidades) {
+            total += cantidad;
+        }
+        long[] todas = new long[(int) total];
+        int posicion = 0;
+        for (int i = 0; i < clientes; i++) {
+            System.arraycopy(latencias.get(i), 0, todas, posicion, cantidades[i]);
+            posicion += cantidades[i];
+        }
+        Arrays.sort(todas);
+        return new Medicion(total, errores.get(), total / segundos, percentil(todas, 0.50), percentil(todas, 0.99));
+    }
+
+    private static void enviar(HttpClient cliente, String base, int indice, List<long[]> latencias, int[] cantidades,
+                               AtomicLong errores, AtomicBoolean activo, CompletableFuture<Void> fin) {
+        if (!activo.get()) {
+            fin.complete(null);
+            return;
+        }
+        int pedidoId = 1 + ThreadLocalRandom.current().nextInt(PEDIDOS);
+        HttpRequest solicitud = HttpRequest.newBuilder(URI.create(base + "/api/v1/pedidos/" + pedidoId))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        long enviada = System.nanoTime();
+        cliente.sendAsync(solicitud, HttpResponse.BodyHandlers.discarding()).whenComplete((respuesta, error) -> {
+            if (error != null || respuesta.statusCode() != 200) {
+                errores.incrementAndGet();
+            } else {
+                // Cada lazo escribe solo su propio arreglo: sin sincronización entre clientes
+                long[] propias = latencias.get(indice);
+                if (cantidades[indice] == propias.length) {
+                    propias = Arrays.copyOf(propias, propias.length * 2);
+                    latencias.set(indice, propias);
+                }
+                propias[cantidades[indice]++] = System.nanoTime() - enviada;
+            }
+            enviar(cliente, base, indice, latencias, cantidades, errores, activo, fin);
+        });
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return Double.NaN;
+        }
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e6;
+    }
+
+    private static void sembrar(JdbcTemplate jdbcTemplate) {
+        List<Object[]> pedidos = new ArrayList<>();
+        for (int i = 1; i <= PEDIDOS; i++) {
+            pedidos.add(new Object[] {i, LocalDate.of(2025, 1, 1).plusDays(i % 365), 1 + i % 50, "PENDIENTE",
+                    59.98, 53.98, "Av. Las Condes " + i, "Santiago"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pedido (pedido_id, fecha_de_pedido, cliente_id, estado, subtotal, total, " +
+                "direccion_envio, ciudad_envio) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", pedidos);
+    }
+
+    /**
+     * Envuelve el DataSource: cada getConnection() bloquea latencia-ms, como una base remota.
+     */
+    static class LatenciaJdbc implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    try {
+                        Thread.sleep(latenciaMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrumpido al simular latencia", e);
+                    }
+                    return super.getConnection();
+                }
+            };
+        }
+    }
+}
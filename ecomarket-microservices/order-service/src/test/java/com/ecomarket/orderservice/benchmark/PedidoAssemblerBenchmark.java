@@ -0,0 +1,122 @@
+package com.ecomarket.orderservice.benchmark;
+
+import com.ecomarket.orderservice.assembler.PedidoModelAssembler;
+import com.ecomarket.orderservice.controller.PedidoControllerV2;
+import com.ecomarket.orderservice.model.Pedido;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+/**
+ * Compara PedidoModelAssembler.toModel con linkTo(methodOn(...)) por enlace
+ * (implementación anterior) contra las plantillas de PlantillaEnlace.
+ *
+ * Cada operación arma una página de 100 pedidos dentro de una solicitud nueva, como
+ * GET /api/v2/pedidos: la base de la solicitud se calcula una vez por operación.
+ * Se reporta páginas/segundo y, con el perfilador GC, bytes asignados por página
+ * (gc.alloc.rate.norm).
+ *
+ * Ejecutar desde order-service:
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *        com.ecomarket.orderservice.benchmark.PedidoAssemblerBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PedidoAssemblerBenchmark {
+
+    private static final String[] ESTADOS = {"PENDIENTE", "EN_PROCESO", "COMPLETADO", "CANCELADO", "ENVIADO"};
+
+    @Param({"100"})
+    private int pedidos;
+
+    private List<Pedido> pagina;
+    private PedidoModelAssembler assembler;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void preparar() {
+        assembler = new PedidoModelAssembler();
+        request = new MockHttpServletRequest("GET", "/api/v2/pedidos");
+        request.setServerName("api.ecomarket.cl");
+        pagina = new ArrayList<>(pedidos);
+        for (int i = 1; i <= pedidos; i++) {
+            Pedido pedido = new Pedido();
+            pedido.setPedidoId(i);
+            pedido.setClienteId(1 + i % 50);
+            pedido.setEstado(ESTADOS[i % ESTADOS.length]);
+            pedido.setCiudadEnvio(i % 3 == 0 ? "Viña del Mar" : "Santiago");
+            pagina.add(pedido);
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public void linkToPorEnlace(Blackhole bh) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        for (Pedido pedido : pagina) {
+            bh.consume(toModelAnterior(pedido));
+        }
+    }
+
+    @Benchmark
+    public void plantillas(Blackhole bh) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        for (Pedido pedido : pagina) {
+            bh.consume(assembler.toModel(pedido));
+        }
+    }
+
+    // Misma construcción que hacía PedidoModelAssembler.toModel antes de PlantillaEnlace
+    private EntityModel<Pedido> toModelAnterior(Pedido pedido) {
+        EntityModel<Pedido> pedidoModel = EntityModel.of(pedido);
+        pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class).obtenerPorId(pedido.getPedidoId(), null, null)).withSelfRel());
+        pedidoModel.add(linkTo(PedidoControllerV2.class).withRel("pedidos"));
+        pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class).obtenerDetalles(pedido.getPedidoId())).withRel("detalles"));
+        if ("PENDIENTE".equals(pedido.getEstado())) {
+            pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class).actualizar(pedido.getPedidoId(), null, null)).withRel("actualizar"));
+            pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class).actualizarEstado(pedido.getPedidoId(), null, null)).withRel("cambiar-estado"));
+        }
+        if ("PENDIENTE".equals(pedido.getEstado()) || "EN_PROCESO".equals(pedido.getEstado())) {
+            pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class).eliminar(pedido.getPedidoId(), null)).withRel("cancelar"));
+        }
+        pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class).obtenerPorCliente(pedido.getClienteId())).withRel("pedidos-cliente"));
+        pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class).obtenerPorEstado(pedido.getEstado())).withRel("pedidos-mismo-estado"));
+        if (pedido.getCiudadEnvio() != null) {
+            pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class).obtenerPorCiudad(pedido.getCiudadEnvio())).withRel("pedidos-misma-ciudad"));
+        }
+        pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class).totalComprasPorCliente(pedido.getClienteId())).withRel("total-compras-cliente"));
+        pedidoModel.add(linkTo(methodOn(PedidoControllerV2.class).cantidadPedidosPorCliente(pedido.getClienteId())).withRel("cantidad-pedidos-cliente"));
+        return pedidoModel;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opciones = new OptionsBuilder()
+                .include(PedidoAssemblerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,141 @@
+package com.ecomarket.orderservice.benchmark;
+
+import com.ecomarket.orderservice.OrderServiceApplication;
+import com.ecomarket.orderservice.assembler.PedidoModelAssembler;
+import com.ecomarket.orderservice.service.PedidoService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara JSON HAL, CBOR y Smile en GET /api/v2/pedidos con páginas de 100 pedidos.
+ *
+ * serializacion mide solo la escritura de la página (ya armada, con sus enlaces) por el
+ * conversor que Spring MVC elige para cada Accept; latencia mide la solicitud completa por
+ * HTTP contra la aplicación levantada en un puerto aleatorio (consulta H2, enlaces,
+ * serialización y transporte). El tamaño de cada respuesta se imprime al preparar.
+ *
+ * Ejecutar desde order-service:
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *        com.ecomarket.orderservice.benchmark.PedidoFormatosBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PedidoFormatosBenchmark {
+
+    private static final String[] ESTADOS = {"PENDIENTE", "EN_PROCESO", "COMPLETADO", "CANCELADO", "ENVIADO"};
+
+    @Param({"application/hal+json", "application/cbor", "application/x-jackson-smile"})
+    private String formato;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private HttpRequest solicitud;
+    private CollectionModel<?> pagina;
+    private HttpMessageConverter<Object> conversor;
+    private MediaType tipo;
+
+    @Setup
+    public void preparar() throws Exception {
+        // Como argumentos de línea de comandos para que ganen sobre application.properties
+        contexto = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .run("--spring.profiles.active=test", "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:orderdb_formatos_bench;DB_CLOSE_DELAY=-1");
+        sembrar(contexto.getBean(JdbcTemplate.class));
+
+        // Misma página que arma PedidoControllerV2.obtenerTodos, dentro de una solicitud simulada
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/pedidos");
+        request.setServerName("api.ecomarket.cl");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            pagina = contexto.getBean(PedidoModelAssembler.class).toPaginaModel(
+                    contexto.getBean(PedidoService.class).obtenerPaginaPorFecha(null, null, null, 100),
+                    null, null, null, null);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        tipo = MediaType.valueOf(formato);
+        conversor = conversorPara(tipo);
+
+        String puerto = contexto.getEnvironment().getProperty("local.server.port");
+        cliente = HttpClient.newHttpClient();
+        solicitud = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/v2/pedidos?size=100"))
+                .header("Accept", formato)
+                .build();
+        HttpResponse<byte[]> respuesta = cliente.send(solicitud, HttpResponse.BodyHandlers.ofByteArray());
+        System.out.printf("%n%s: %d bytes por página de 100 pedidos (HTTP %d)%n",
+                formato, respuesta.body().length, respuesta.statusCode());
+    }
+
+    @TearDown
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public byte[] serializacion() throws Exception {
+        MockHttpOutputMessage salida = new MockHttpOutputMessage();
+        conversor.write(pagina, tipo, salida);
+        return salida.getBodyAsBytes();
+    }
+
+    @Benchmark
+    public byte[] latencia() throws Exception {
+        return cliente.send(solicitud, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    // Primer conversor de Spring MVC que escribe la colección en el formato, igual que al negociar
+    @SuppressWarnings("unchecked")
+    private HttpMessageConverter<Object> conversorPara(MediaType tipo) {
+        for (HttpMessageConverter<?> candidato : contexto.getBean(RequestMappingHandlerAdapter.class).getMessageConverters()) {
+            if (candidato.canWrite(pagina.getClass(), tipo)) {
+                return (HttpMessageConverter<Object>) candidato;
+            }
+        }
+        throw new IllegalStateException("Sin conversor para " + tipo);
+    }
+
+    private static void sembrar(JdbcTemplate jdbcTemplate) {
+        List<Object[]> pedidos = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            pedidos.add(new Object[] {i, LocalDate.of(2025, 1, 1).plusDays(i), 1 + i % 50, ESTADOS[i % ESTADOS.length],
+                    59.98, 53.98, "Av. Las Condes " + i, i % 3 == 0 ? "Viña del Mar" : "Santiago"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pedido (pedido_id, fecha_de_pedido, cliente_id, estado, subtotal, total, " +
+                "direccion_envio, ciudad_envio) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", pedidos);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opciones = new OptionsBuilder()
+                .include(PedidoFormatosBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opciones).run();
+    }
+}
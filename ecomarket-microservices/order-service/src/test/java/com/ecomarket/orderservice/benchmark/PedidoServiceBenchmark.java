@@ -0,0 +1,95 @@
+package com.ecomarket.orderservice.benchmark;
+
+import com.ecomarket.orderservice.OrderServiceApplication;
+import com.ecomarket.orderservice.model.DetallePedido;
+import com.ecomarket.orderservice.model.Pedido;
+import com.ecomarket.orderservice.service.PedidoService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide PedidoService.crearPedido sobre H2 en memoria: cálculo de totales, INSERT del pedido y
+ * de sus líneas en lote, actualización de cliente_resumen y del ranking de ventas.
+ *
+ * Cada operación crea un pedido nuevo con lineas detalles, como POST /api/v1/pedidos ya
+ * enlazado (el enlace del cuerpo lo mide CrearPedidoBindingBenchmark). Se reporta
+ * pedidos/segundo y, con el perfilador GC, bytes asignados por pedido (gc.alloc.rate.norm).
+ *
+ * Ejecutar desde order-service:
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *        com.ecomarket.orderservice.benchmark.PedidoServiceBenchmark
+ * o junto con los demás benchmarks, con resultados en JSON: mvn -Pbenchmark verify
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PedidoServiceBenchmark {
+
+    @Param({"2", "20"})
+    private int lineas;
+
+    private ConfigurableApplicationContext contexto;
+    private PedidoService pedidoService;
+    private int clienteId;
+
+    @Setup
+    public void preparar() {
+        // Como argumentos de línea de comandos para que ganen sobre application.properties
+        contexto = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--spring.datasource.url=jdbc:h2:mem:orderdb_servicio_bench;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        pedidoService = contexto.getBean(PedidoService.class);
+    }
+
+    @TearDown
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Pedido crearPedido() {
+        // Pedido y líneas nuevos en cada operación: crearPedido les asigna id y totales
+        clienteId = clienteId % 1000 + 1;
+        Pedido pedido = new Pedido();
+        pedido.setFechaDePedido(LocalDate.of(2025, 6, 23));
+        pedido.setClienteId(clienteId);
+        pedido.setEstado("PENDIENTE");
+        pedido.setDireccionEnvio("Av. Las Condes 123");
+        pedido.setCiudadEnvio("Santiago");
+        List<DetallePedido> detalles = new ArrayList<>(lineas);
+        for (int i = 0; i < lineas; i++) {
+            DetallePedido detalle = new DetallePedido();
+            detalle.setProductoId(i + 1);
+            detalle.setPrecioUnitario(5.99);
+            detalle.setCantidad(2);
+            detalles.add(detalle);
+        }
+        return pedidoService.crearPedido(pedido, detalles);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opciones = new OptionsBuilder()
+                .include(PedidoServiceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.ecomarket.orderservice.config;
+
+import com.ecomarket.orderservice.repository.DetallePedidoRepository;
+import com.ecomarket.orderservice.repository.PedidoRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testing de integración de las métricas por endpoint y por repositorio en /actuator/prometheus.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:orderdb_metricas;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+@DisplayName("MetricasConfig - Histogramas por endpoint, repositorio y SQL")
+class MetricasConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private DetallePedidoRepository detallePedidoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        detallePedidoRepository.deleteAllInBatch();
+        pedidoRepository.deleteAllInBatch();
+        for (int id = 1; id <= 3; id++) {
+            jdbcTemplate.update("INSERT INTO pedido (pedido_id, fecha_de_pedido, cliente_id, estado, subtotal, total) " +
+                    "VALUES (?, ?, 5, 'PENDIENTE', 20.0, 20.0)", id, LocalDate.of(2025, 6, 20 + id));
+        }
+    }
+
+    @Test
+    @DisplayName("Prometheus - Debe publicar histogramas etiquetados con la plantilla de la URI")
+    void testHistogramasEnPrometheus() throws Exception {
+        // Arrange
+        for (int id = 1; id <= 3; id++) {
+            mockMvc.perform(get("/api/v1/pedidos/" + id)).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/v2/pedidos")).andExpect(status().isOk());
+
+        // Act
+        String prometheus = mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        // Assert: buckets por plantilla, nunca por ruta con el id
+        assertTrue(prometheus.contains("http_server_requests_seconds_bucket{application=\"order-service\""));
+        assertTrue(prometheus.contains("uri=\"/api/v1/pedidos/{id}\""));
+        assertFalse(prometheus.contains("uri=\"/api/v1/pedidos/1\""));
+        assertTrue(prometheus.contains("spring_data_repository_invocations_seconds_bucket{"));
+        assertTrue(prometheus.contains("ecomarket_http_server_sql_statements_bucket{"));
+        assertTrue(prometheus.contains("ecomarket_repository_rows_bucket{"));
+    }
+
+    @Test
+    @DisplayName("SQL y filas - Debe contar sentencias por solicitud y filas por método de repositorio")
+    void testSentenciasYFilas() throws Exception {
+        // Arrange
+        DistributionSummary sentencias = meterRegistry.find(MetricasConfig.SENTENCIAS_POR_SOLICITUD)
+                .tags("method", "GET", "uri", "/api/v2/pedidos").summary();
+        long solicitudesAntes = sentencias != null ? sentencias.count() : 0;
+
+        // Act
+        mockMvc.perform(get("/api/v2/pedidos").param("size", "2")).andExpect(status().isOk());
+
+        // Assert: la página trae al menos una consulta y sus filas quedan en el método del repositorio
+        sentencias = meterRegistry.get(MetricasConfig.SENTENCIAS_POR_SOLICITUD)
+                .tags("method", "GET", "uri", "/api/v2/pedidos").summary();
+        assertEquals(solicitudesAntes + 1, sentencias.count());
+        assertTrue(sentencias.max() >= 1);
+        assertTrue(meterRegistry.get(MetricasConfig.FILAS_POR_METODO)
+                .tag("repository", "PedidoRepository").summaries().stream()
+                .anyMatch(filas -> filas.max() == 3 || filas.max() == 2));
+
+        // Una solicitud sin consultas registra 0
+        mockMvc.perform(get("/api/v2/pedidos").param("expand", "cliente")).andExpect(status().isBadRequest());
+        assertEquals(solicitudesAntes + 2, sentencias.count());
+    }
+}
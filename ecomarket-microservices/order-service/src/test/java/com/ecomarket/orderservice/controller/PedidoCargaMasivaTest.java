@@ -0,0 +1,176 @@
+package com.ecomarket.orderservice.controller;
+
+import com.ecomarket.orderservice.repository.DetallePedidoRepository;
+import com.ecomarket.orderservice.repository.PedidoRepository;
+import com.ecomarket.orderservice.service.PedidoCargaMasivaService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testing de integración para POST /api/v2/pedidos/bulk
+ * Usa la base H2 del perfil test para verificar la persistencia por lotes
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("PedidoControllerV2 - Carga masiva")
+class PedidoCargaMasivaTest {
+
+    private static final String PEDIDO_VALIDO =
+        "{\"clienteId\": 7, \"estado\": \"PENDIENTE\", \"descuento\": 10, " +
+        "\"detalles\": [{\"productoId\": 1, \"precioUnitario\": 10.0, \"cantidad\": 2}]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PedidoCargaMasivaService cargaMasivaService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private DetallePedidoRepository detallePedidoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        detallePedidoRepository.deleteAll();
+        pedidoRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Arreglo JSON - crea los válidos y reporta los rechazados por elemento")
+    void testCargaArregloJson() throws Exception {
+        String cuerpo = "[" + PEDIDO_VALIDO + "," +
+            "{\"clienteId\": 8, \"detalles\": []}," +
+            "{\"clienteId\": \"abc\", \"detalles\": [{\"productoId\": 1, \"precioUnitario\": 1.0, \"cantidad\": 1}]}," +
+            PEDIDO_VALIDO + "]";
+
+        mockMvc.perform(post("/api/v2/pedidos/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.resultados", hasSize(4)))
+            .andExpect(jsonPath("$.resultados[0].estado", is("CREADO")))
+            .andExpect(jsonPath("$.resultados[0].pedidoId", notNullValue()))
+            .andExpect(jsonPath("$.resultados[1].estado", is("RECHAZADO")))
+            .andExpect(jsonPath("$.resultados[1].error", containsString("detalles")))
+            .andExpect(jsonPath("$.resultados[2].estado", is("RECHAZADO")))
+            .andExpect(jsonPath("$.resultados[3].indice", is(3)))
+            .andExpect(jsonPath("$.creados", is(2)))
+            .andExpect(jsonPath("$.rechazados", is(2)));
+
+        assertEquals(2, pedidoRepository.count());
+        assertEquals(2, detallePedidoRepository.count());
+        assertEquals(18.0, pedidoRepository.findByClienteId(7).get(0).getTotal());
+    }
+
+    @Test
+    @DisplayName("NDJSON - un pedido por línea")
+    void testCargaNdjson() throws Exception {
+        String cuerpo = PEDIDO_VALIDO + "\n" + PEDIDO_VALIDO + "\n" + PEDIDO_VALIDO + "\n";
+
+        mockMvc.perform(post("/api/v2/pedidos/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(cuerpo))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.creados", is(3)))
+            .andExpect(jsonPath("$.total", is(3)));
+
+        assertEquals(3, pedidoRepository.count());
+    }
+
+    @Test
+    @DisplayName("JSON mal formado - conserva lo procesado e informa el error")
+    void testCargaJsonMalFormado() throws Exception {
+        String cuerpo = "[" + PEDIDO_VALIDO + ", {\"clienteId\": 1,,}]";
+
+        mockMvc.perform(post("/api/v2/pedidos/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.resultados", hasSize(2)))
+            .andExpect(jsonPath("$.resultados[0].estado", is("CREADO")))
+            .andExpect(jsonPath("$.resultados[1].estado", is("RECHAZADO")))
+            .andExpect(jsonPath("$.resultados[1].indice", is(1)))
+            .andExpect(jsonPath("$.resultados[1].error", startsWith("JSON mal formado")));
+
+        assertEquals(1, pedidoRepository.count());
+    }
+
+    @Test
+    @DisplayName("Fallo al persistir - informa un mensaje estable sin el texto de la excepción")
+    void testCargaErrorDeIntegridad() throws Exception {
+        // notas no tiene validación de largo, pero la columna es VARCHAR(255)
+        String notasLargas = "x".repeat(300);
+        String cuerpo = "[" + PEDIDO_VALIDO + ", {\"clienteId\": 7, \"notas\": \"" + notasLargas + "\", " +
+            "\"detalles\": [{\"productoId\": 1, \"precioUnitario\": 10.0, \"cantidad\": 2}]}]";
+
+        mockMvc.perform(post("/api/v2/pedidos/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.resultados[0].estado", is("CREADO")))
+            .andExpect(jsonPath("$.resultados[1].estado", is("ERROR")))
+            .andExpect(jsonPath("$.resultados[1].error", is(PedidoCargaMasivaService.ERROR_INTEGRIDAD)))
+            .andExpect(jsonPath("$.errores", is(1)));
+
+        assertEquals(1, pedidoRepository.count());
+    }
+
+    @Test
+    @DisplayName("Carga grande generada en streaming - se persiste en varios lotes")
+    void testCargaGrandeEnStreaming() throws Exception {
+        int cantidad = 5_000;
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // El cuerpo se genera a medida que se lee: nunca existe completo en memoria
+        cargaMasivaService.procesar(ndjsonGenerado(cantidad), salida);
+
+        JsonNode resumen = objectMapper.readTree(salida.toByteArray());
+        assertEquals(cantidad, resumen.get("creados").asInt());
+        assertEquals(cantidad, pedidoRepository.count());
+        assertEquals(cantidad, detallePedidoRepository.count());
+    }
+
+    private static InputStream ndjsonGenerado(int cantidad) {
+        byte[] linea = (PEDIDO_VALIDO + "\n").getBytes(StandardCharsets.UTF_8);
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+            private int emitidas;
+
+            @Override
+            public boolean hasMoreElements() {
+                return emitidas < cantidad;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                emitidas++;
+                return new java.io.ByteArrayInputStream(linea);
+            }
+        });
+    }
+}
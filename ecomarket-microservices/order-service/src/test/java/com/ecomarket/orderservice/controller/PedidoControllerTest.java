@@ -2,6 +2,9 @@ package com.ecomarket.orderservice.controller;
 
 import com.ecomarket.orderservice.model.Pedido;
 import com.ecomarket.orderservice.model.DetallePedido;
+import com.ecomarket.orderservice.model.PaginaPedidos;
+import com.ecomarket.orderservice.model.ProductoVendido;
+import com.ecomarket.orderservice.service.IdempotenciaPedidoService;
 import com.ecomarket.orderservice.service.PedidoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,10 +13,13 @@ import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -22,6 +28,8 @@ import java.util.Map;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,6 +49,9 @@ class PedidoControllerTest {
     @MockBean
     private PedidoService pedidoService;
 
+    @MockBean
+    private IdempotenciaPedidoService idempotenciaPedidoService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -53,7 +64,7 @@ class PedidoControllerTest {
         // Configurar datos de prueba
         pedidoEjemplo = new Pedido();
         pedidoEjemplo.setPedidoId(1);
-        pedidoEjemplo.setFechaDePedido("2025-06-23");
+        pedidoEjemplo.setFechaDePedido(LocalDate.of(2025, 6, 23));
         pedidoEjemplo.setClienteId(1);
         pedidoEjemplo.setEstado("PENDIENTE");
         pedidoEjemplo.setDescuento(10.0);
@@ -80,13 +91,133 @@ class PedidoControllerTest {
     @DisplayName("GET /api/v1/pedidos - Debe obtener todos los pedidos (V1)")
     void testObtenerTodos() throws Exception {
         // Arrange
-        when(pedidoService.obtenerTodos()).thenReturn(listaPedidos);
+        when(pedidoService.obtenerPagina(null, null))
+            .thenReturn(new PaginaPedidos(listaPedidos, null, null, 50));
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/pedidos"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$", hasSize(1)))
-            .andExpect(jsonPath("$[0].pedidoId", is(pedidoEjemplo.getPedidoId())));
+            .andExpect(jsonPath("$[0].pedidoId", is(pedidoEjemplo.getPedidoId())))
+            .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/pedidos - Debe informar la página siguiente en el header Link")
+    void testObtenerTodosConPaginaSiguiente() throws Exception {
+        // Arrange
+        when(pedidoService.obtenerPagina(null, 1))
+            .thenReturn(new PaginaPedidos(listaPedidos, "YTox", null, 1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/pedidos").param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(header().string("Link", containsString("cursor=YTox")))
+            .andExpect(header().string("Link", containsString("rel=\"next\"")));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/pedidos - Debe retornar 400 con un cursor inválido")
+    void testObtenerTodosCursorInvalido() throws Exception {
+        // Arrange
+        when(pedidoService.obtenerPagina("xx", null)).thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/pedidos").param("cursor", "xx"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/pedidos - Debe crear el pedido a partir del DTO")
+    void testCrear() throws Exception {
+        // Arrange
+        when(pedidoService.crearPedido(any(Pedido.class), anyList())).thenReturn(pedidoEjemplo);
+        Map<String, Object> request = new HashMap<>();
+        request.put("fechaDePedido", "2025-06-23");
+        request.put("clienteId", 1);
+        request.put("estado", "PENDIENTE");
+        request.put("descuento", 10);
+        request.put("detalles", List.of(Map.of("productoId", 1, "precioUnitario", 50, "cantidad", 2)));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/pedidos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.pedidoId", is(1)));
+
+        verify(pedidoService).crearPedido(
+            argThat(p -> p.getClienteId() == 1 && p.getDescuento() == 10.0),
+            argThat(d -> d.size() == 1 && d.get(0).getPrecioUnitario() == 50.0 && d.get(0).getCantidad() == 2));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/pedidos - Debe retornar 400 con datos inválidos sin llamar al servicio")
+    void testCrearDatosInvalidos() throws Exception {
+        // Act & Assert: sin detalles
+        mockMvc.perform(post("/api/v1/pedidos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"clienteId\":1,\"detalles\":[]}"))
+            .andExpect(status().isBadRequest());
+
+        // Tipo incorrecto
+        mockMvc.perform(post("/api/v1/pedidos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"clienteId\":\"abc\",\"detalles\":[{\"productoId\":1,\"precioUnitario\":1,\"cantidad\":1}]}"))
+            .andExpect(status().isBadRequest());
+
+        verify(pedidoService, never()).crearPedido(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/pedidos/productos-mas-vendidos - Debe retornar el ranking con el límite pedido")
+    void testObtenerProductosMasVendidos() throws Exception {
+        // Arrange
+        when(pedidoService.obtenerProductosMasVendidos(2))
+            .thenReturn(List.of(new ProductoVendido(7, 40L), new ProductoVendido(3, 25L)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/pedidos/productos-mas-vendidos").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].productoId", is(7)))
+            .andExpect(jsonPath("$[0].cantidadVendida", is(40)));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/pedidos/{id} - Debe responder 304 sin cargar el pedido si If-None-Match coincide")
+    void testObtenerPorIdNoModificado() throws Exception {
+        // Arrange
+        pedidoEjemplo.setVersion(3L);
+        when(pedidoService.obtenerVersion(1)).thenReturn(3L);
+        when(pedidoService.buscarPorId(1)).thenReturn(pedidoEjemplo);
+
+        // Act & Assert: sin If-None-Match no se consulta la versión aparte
+        mockMvc.perform(get("/api/v1/pedidos/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        verify(pedidoService, never()).obtenerVersion(1);
+
+        mockMvc.perform(get("/api/v1/pedidos/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        verify(pedidoService, times(1)).buscarPorId(1);
+    }
+
+    @Test
+    @DisplayName("DELETE /api/v1/pedidos/{id} - Debe responder 412 si el pedido cambió durante la eliminación")
+    void testEliminarConflicto() throws Exception {
+        // Arrange
+        when(pedidoService.obtenerVersion(1)).thenReturn(2L);
+        when(pedidoService.eliminar(1, 2L)).thenThrow(new ObjectOptimisticLockingFailureException(Pedido.class, 1));
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/v1/pedidos/1").header(HttpHeaders.IF_MATCH, "\"2\""))
+            .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/v1/pedidos/1").header(HttpHeaders.IF_MATCH, "\"1\""))
+            .andExpect(status().isPreconditionFailed());
+        verify(pedidoService, times(1)).eliminar(anyInt(), any());
     }
 
     // Puedes agregar más tests para los otros endpoints de PedidoController aquí
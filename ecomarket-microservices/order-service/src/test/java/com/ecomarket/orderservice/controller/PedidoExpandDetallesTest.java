@@ -0,0 +1,127 @@
+package com.ecomarket.orderservice.controller;
+
+import com.ecomarket.orderservice.repository.CapturaSql;
+import com.ecomarket.orderservice.repository.DetallePedidoRepository;
+import com.ecomarket.orderservice.repository.PedidoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testing de integración para ?expand=detalles en GET /api/v2/pedidos y /api/v2/pedidos/{id}.
+ * Cuenta las sentencias SQL de toda la solicitud (incluida la serialización JSON) con CapturaSql.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:orderdb_expand;DB_CLOSE_DELAY=-1",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ecomarket.orderservice.repository.CapturaSql"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("PedidoControllerV2 - Pedidos con sus líneas (expand=detalles)")
+class PedidoExpandDetallesTest {
+
+    private static final int PEDIDOS = 120;
+    private static final int DETALLES_POR_PEDIDO = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private DetallePedidoRepository detallePedidoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        detallePedidoRepository.deleteAllInBatch();
+        pedidoRepository.deleteAllInBatch();
+
+        List<Object[]> pedidos = new ArrayList<>();
+        List<Object[]> detalles = new ArrayList<>();
+        for (int id = 1; id <= PEDIDOS; id++) {
+            pedidos.add(new Object[] {id, LocalDate.of(2025, 6, 1 + id % 28), id % 10, "PENDIENTE", 30.0, 30.0});
+            for (int j = 0; j < DETALLES_POR_PEDIDO; j++) {
+                detalles.add(new Object[] {(id - 1) * DETALLES_POR_PEDIDO + j + 1, id, j + 1, 10.0, 1, 10.0});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pedido (pedido_id, fecha_de_pedido, cliente_id, estado, subtotal, total) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", pedidos);
+        jdbcTemplate.batchUpdate("INSERT INTO detalle_de_pedido (detalle_id, pedido_id, producto_id, precio_unitario, " +
+                "cantidad, sub_total) VALUES (?, ?, ?, ?, ?, ?)", detalles);
+    }
+
+    @Test
+    @DisplayName("GET /api/v2/pedidos?size=100&expand=detalles - Página de 100 pedidos con líneas en máximo 2 consultas")
+    void testPaginaConDetalles() throws Exception {
+        // Act
+        CapturaSql.limpiar();
+        mockMvc.perform(get("/api/v2/pedidos").param("size", "100").param("expand", "detalles"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded.pedidoList", hasSize(100)))
+            .andExpect(jsonPath("$._embedded.pedidoList[0].detalles", hasSize(DETALLES_POR_PEDIDO)))
+            .andExpect(jsonPath("$._embedded.pedidoList[99].detalles", hasSize(DETALLES_POR_PEDIDO)))
+            .andExpect(jsonPath("$._embedded.pedidoList[0].detalles[0].productoId", is(1)))
+            .andExpect(jsonPath("$._links.next.href", containsString("expand=detalles")));
+
+        // Assert
+        List<String> sentencias = CapturaSql.sentencias();
+        assertTrue(sentencias.size() <= 2, "Sentencias ejecutadas: " + sentencias);
+    }
+
+    @Test
+    @DisplayName("GET /api/v2/pedidos - Sin expand no incluye ni consulta las líneas")
+    void testPaginaSinDetalles() throws Exception {
+        // Act
+        CapturaSql.limpiar();
+        mockMvc.perform(get("/api/v2/pedidos").param("size", "100"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded.pedidoList", hasSize(100)))
+            .andExpect(jsonPath("$._embedded.pedidoList[0].detalles").doesNotExist());
+
+        // Assert
+        assertEquals(1, CapturaSql.sentencias().size(), "Sentencias ejecutadas: " + CapturaSql.sentencias());
+    }
+
+    @Test
+    @DisplayName("GET /api/v2/pedidos/{id}?expand=detalles - Pedido y líneas en una sola consulta")
+    void testPedidoConDetalles() throws Exception {
+        // Act
+        CapturaSql.limpiar();
+        mockMvc.perform(get("/api/v2/pedidos/7").param("expand", "detalles"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.pedidoId", is(7)))
+            .andExpect(jsonPath("$.detalles", hasSize(DETALLES_POR_PEDIDO)))
+            .andExpect(jsonPath("$._links.detalles.href", notNullValue()));
+
+        // Assert
+        assertEquals(1, CapturaSql.sentencias().size(), "Sentencias ejecutadas: " + CapturaSql.sentencias());
+    }
+
+    @Test
+    @DisplayName("GET /api/v2/pedidos?expand=cliente - Debe retornar 400 con un expand no soportado")
+    void testExpandNoSoportado() throws Exception {
+        mockMvc.perform(get("/api/v2/pedidos").param("expand", "cliente"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v2/pedidos/7").param("expand", "detalles,cliente"))
+            .andExpect(status().isBadRequest());
+    }
+}
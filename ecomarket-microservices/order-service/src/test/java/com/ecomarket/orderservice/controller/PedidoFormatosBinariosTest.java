@@ -0,0 +1,131 @@
+package com.ecomarket.orderservice.controller;
+
+import com.ecomarket.orderservice.config.FormatosBinariosConfig;
+import com.ecomarket.orderservice.repository.DetallePedidoRepository;
+import com.ecomarket.orderservice.repository.PedidoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testing de integración de la negociación de CBOR y Smile (FormatosBinariosConfig):
+ * mismo contenido HAL que JSON, en menos bytes, y JSON sigue siendo el formato por defecto.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:orderdb_formatos;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("PedidoController V1/V2 - Formatos binarios CBOR y Smile")
+class PedidoFormatosBinariosTest {
+
+    private static final MediaType APPLICATION_CBOR = MediaType.valueOf("application/cbor");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private DetallePedidoRepository detallePedidoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        detallePedidoRepository.deleteAllInBatch();
+        pedidoRepository.deleteAllInBatch();
+        // Ids fuera del rango de la secuencia para no chocar con los pedidos creados por POST
+        List<Object[]> pedidos = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            pedidos.add(new Object[] {1000 + i, LocalDate.of(2025, 6, i), i % 4, "PENDIENTE", 30.0, 27.0, "Santiago"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pedido (pedido_id, fecha_de_pedido, cliente_id, estado, subtotal, total, " +
+                "ciudad_envio) VALUES (?, ?, ?, ?, ?, ?, ?)", pedidos);
+    }
+
+    @Test
+    @DisplayName("GET /api/v2/pedidos - Debe responder la misma página HAL en JSON, CBOR y Smile")
+    void testPaginaEnLosTresFormatos() throws Exception {
+        // Act
+        byte[] json = mockMvc.perform(get("/api/v2/pedidos").param("size", "20"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsByteArray();
+        byte[] cbor = mockMvc.perform(get("/api/v2/pedidos").param("size", "20").accept(APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(APPLICATION_CBOR))
+            .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get("/api/v2/pedidos").param("size", "20").accept(FormatosBinariosConfig.APPLICATION_SMILE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(FormatosBinariosConfig.APPLICATION_SMILE))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert: mismo árbol (incluidos _embedded, _links y fechas ISO) en menos bytes
+        JsonNode esperado = objectMapper.readTree(json);
+        assertEquals(20, esperado.path("_embedded").path("pedidoList").size());
+        assertEquals("2025-06-01", esperado.path("_embedded").path("pedidoList").get(0).path("fechaDePedido").asText());
+        assertEquals(esperado, new CBORMapper().readTree(cbor));
+        assertEquals(esperado, new SmileMapper().readTree(smile));
+        assertTrue(cbor.length < json.length, "CBOR: " + cbor.length + " bytes, JSON: " + json.length);
+        assertTrue(smile.length < json.length, "Smile: " + smile.length + " bytes, JSON: " + json.length);
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/pedidos - Debe aceptar el cuerpo en CBOR y responder en el formato pedido")
+    void testCrearConCuerpoCbor() throws Exception {
+        // Arrange
+        byte[] cuerpo = new CBORMapper().writeValueAsBytes(Map.of(
+            "fechaDePedido", "2025-06-23",
+            "clienteId", 3,
+            "estado", "PENDIENTE",
+            "detalles", List.of(Map.of("productoId", 1, "precioUnitario", 5.0, "cantidad", 2))));
+
+        // Act
+        byte[] respuesta = mockMvc.perform(post("/api/v1/pedidos")
+                .contentType(APPLICATION_CBOR)
+                .accept(FormatosBinariosConfig.APPLICATION_SMILE)
+                .content(cuerpo))
+            .andExpect(status().isCreated())
+            .andExpect(content().contentTypeCompatibleWith(FormatosBinariosConfig.APPLICATION_SMILE))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        JsonNode pedido = new SmileMapper().readTree(respuesta);
+        assertEquals(3, pedido.path("clienteId").asInt());
+        assertEquals(10.0, pedido.path("total").asDouble());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/pedidos/{id} - Sin Accept o con */* debe seguir respondiendo JSON")
+    void testJsonPorDefecto() throws Exception {
+        mockMvc.perform(get("/api/v1/pedidos/1001"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/api/v1/pedidos/1001").accept(MediaType.ALL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
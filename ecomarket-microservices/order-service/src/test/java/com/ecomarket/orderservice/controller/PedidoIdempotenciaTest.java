@@ -0,0 +1,210 @@
+package com.ecomarket.orderservice.controller;
+
+import com.ecomarket.orderservice.dto.CrearPedidoRequest;
+import com.ecomarket.orderservice.repository.ClaveIdempotenciaRepository;
+import com.ecomarket.orderservice.repository.DetallePedidoRepository;
+import com.ecomarket.orderservice.repository.PedidoRepository;
+import com.ecomarket.orderservice.service.IdempotenciaPedidoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testing de integración de Idempotency-Key en POST /api/v1 y /api/v2/pedidos
+ * (IdempotenciaPedidoService): reintentos, cuerpo distinto, concurrencia y vencimiento.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:orderdb_idempotencia;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("PedidoController V1/V2 - Idempotency-Key")
+class PedidoIdempotenciaTest {
+
+    private static final String CUERPO = "{\"fechaDePedido\":\"2025-06-23\",\"clienteId\":3,\"estado\":\"PENDIENTE\"," +
+            "\"detalles\":[{\"productoId\":1,\"precioUnitario\":5.0,\"cantidad\":2}]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private DetallePedidoRepository detallePedidoRepository;
+
+    @Autowired
+    private ClaveIdempotenciaRepository claveIdempotenciaRepository;
+
+    @Autowired
+    private IdempotenciaPedidoService idempotenciaPedidoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        claveIdempotenciaRepository.deleteAllInBatch();
+        detallePedidoRepository.deleteAllInBatch();
+        pedidoRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("POST - Un reintento con la misma clave debe repetir la respuesta sin crear otro pedido")
+    void testReintentoRepiteLaRespuesta() throws Exception {
+        // Arrange
+        String clave = UUID.randomUUID().toString();
+
+        // Act
+        JsonNode primero = objectMapper.readTree(crear("/api/v1/pedidos", clave, CUERPO)
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist(IdempotenciaHttp.REPETIDA))
+            .andReturn().getResponse().getContentAsByteArray());
+        crear("/api/v1/pedidos", clave, CUERPO)
+            .andExpect(status().isCreated())
+            .andExpect(header().string(IdempotenciaHttp.REPETIDA, "true"))
+            .andExpect(jsonPath("$.pedidoId").value(primero.path("pedidoId").asInt()))
+            .andExpect(jsonPath("$.total").value(10.0));
+        // La misma clave por V2 repite el mismo pedido, con sus enlaces
+        crear("/api/v2/pedidos", clave, CUERPO)
+            .andExpect(status().isCreated())
+            .andExpect(header().string(IdempotenciaHttp.REPETIDA, "true"))
+            .andExpect(jsonPath("$.pedidoId").value(primero.path("pedidoId").asInt()))
+            .andExpect(jsonPath("$._links.self.href").exists());
+
+        // Assert: un pedido y una línea
+        assertEquals(1, pedidoRepository.count());
+        assertEquals(1, detallePedidoRepository.count());
+        assertEquals(1, claveIdempotenciaRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST - La misma clave con otro pedido debe responder 422 y una clave inválida 400")
+    void testClaveReutilizadaOInvalida() throws Exception {
+        // Arrange
+        String clave = UUID.randomUUID().toString();
+        crear("/api/v2/pedidos", clave, CUERPO).andExpect(status().isCreated());
+
+        // Act & Assert
+        crear("/api/v2/pedidos", clave, CUERPO.replace("\"cantidad\":2", "\"cantidad\":3"))
+            .andExpect(status().isUnprocessableEntity());
+        crear("/api/v1/pedidos", "x".repeat(256), CUERPO)
+            .andExpect(status().isBadRequest());
+        // Sin clave el POST sigue creando un pedido por solicitud
+        mockMvc.perform(post("/api/v1/pedidos").contentType(MediaType.APPLICATION_JSON).content(CUERPO))
+            .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/v1/pedidos").contentType(MediaType.APPLICATION_JSON).content(CUERPO))
+            .andExpect(status().isCreated());
+        assertEquals(3, pedidoRepository.count());
+    }
+
+    @Test
+    @DisplayName("Servicio - Solicitudes concurrentes con la misma clave deben ejecutar un solo pedido")
+    void testConcurrentesSeColapsan() throws Exception {
+        // Arrange
+        String clave = UUID.randomUUID().toString();
+        CrearPedidoRequest request = objectMapper.readValue(CUERPO, CrearPedidoRequest.class);
+        int hilos = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch largada = new CountDownLatch(1);
+
+        // Act
+        List<Future<IdempotenciaPedidoService.Resultado>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < hilos; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return idempotenciaPedidoService.crearPedido(clave, request);
+                }));
+            }
+            largada.countDown();
+
+            // Assert: todos reciben el mismo pedido y solo uno lo creó
+            Integer pedidoId = null;
+            int creados = 0;
+            for (Future<IdempotenciaPedidoService.Resultado> resultado : resultados) {
+                IdempotenciaPedidoService.Resultado r = resultado.get();
+                pedidoId = pedidoId == null ? r.pedido().getPedidoId() : pedidoId;
+                assertEquals(pedidoId, r.pedido().getPedidoId());
+                creados += r.repetido() ? 0 : 1;
+            }
+            assertEquals(1, creados);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, pedidoRepository.count());
+        assertEquals(1, detallePedidoRepository.count());
+    }
+
+    @Test
+    @DisplayName("TTL - Una clave vencida debe crear un pedido nuevo y la limpieza debe borrarla")
+    void testClaveVencida() throws Exception {
+        // Arrange: clave vencida que la limpieza todavía no borró
+        String vencida = UUID.randomUUID().toString();
+        LocalDateTime ayer = LocalDateTime.now().minusDays(2);
+        jdbcTemplate.update("INSERT INTO clave_idempotencia (clave, huella, respuesta, creada_en, expira_en) " +
+                "VALUES (?, ?, ?, ?, ?)", vencida, "0".repeat(64), "{\"pedidoId\":999}", ayer, ayer.plusDays(1));
+
+        // Act & Assert: no se repite la respuesta vencida (ni se compara su huella)
+        crear("/api/v1/pedidos", vencida, CUERPO)
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist(IdempotenciaHttp.REPETIDA))
+            .andExpect(jsonPath("$.pedidoId").value(not(999)));
+        assertEquals(1, pedidoRepository.count());
+
+        jdbcTemplate.update("INSERT INTO clave_idempotencia (clave, huella, respuesta, creada_en, expira_en) " +
+                "VALUES (?, ?, ?, ?, ?)", "otra-vencida", "0".repeat(64), "{}", ayer, ayer.plusDays(1));
+        assertEquals(1, idempotenciaPedidoService.limpiarVencidas());
+        assertTrue(claveIdempotenciaRepository.existsById(vencida));
+        assertFalse(claveIdempotenciaRepository.existsById("otra-vencida"));
+    }
+
+    @Test
+    @DisplayName("Caché - Los reintentos de una clave reciente no dependen de la base de datos")
+    void testReintentoDesdeCache() throws Exception {
+        // Arrange
+        String clave = UUID.randomUUID().toString();
+        crear("/api/v1/pedidos", clave, CUERPO).andExpect(status().isCreated());
+        jdbcTemplate.update("DELETE FROM clave_idempotencia WHERE clave = ?", clave);
+
+        // Act & Assert: la caché en memoria responde sin leer clave_idempotencia
+        crear("/api/v1/pedidos", clave, CUERPO)
+            .andExpect(status().isCreated())
+            .andExpect(header().string(IdempotenciaHttp.REPETIDA, "true"));
+        assertEquals(1, pedidoRepository.count());
+        assertEquals(LocalDate.of(2025, 6, 23), pedidoRepository.findAll().get(0).getFechaDePedido());
+    }
+
+    private ResultActions crear(String url, String clave, String cuerpo) throws Exception {
+        return mockMvc.perform(post(url)
+                .header(IdempotenciaHttp.CLAVE, clave)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo));
+    }
+}
@@ -0,0 +1,134 @@
+package com.ecomarket.orderservice.controller;
+
+import com.ecomarket.orderservice.repository.DetallePedidoRepository;
+import com.ecomarket.orderservice.repository.PedidoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testing de integración de ETag / If-None-Match / If-Match sobre la columna @Version de pedido.
+ * Los pedidos se insertan por JDBC sin la columna version: parten en 0 por su DEFAULT.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:orderdb_version;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("PedidoController V1/V2 - ETag y solicitudes condicionales")
+class PedidoVersionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private DetallePedidoRepository detallePedidoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        detallePedidoRepository.deleteAllInBatch();
+        pedidoRepository.deleteAllInBatch();
+        jdbcTemplate.update("INSERT INTO pedido (pedido_id, fecha_de_pedido, cliente_id, estado, subtotal, total) " +
+                "VALUES (1, ?, 5, 'PENDIENTE', 20.0, 20.0)", LocalDate.of(2025, 6, 23));
+        jdbcTemplate.update("INSERT INTO detalle_de_pedido (detalle_id, pedido_id, producto_id, precio_unitario, " +
+                "cantidad, sub_total) VALUES (1, 1, 3, 10.0, 2, 20.0)");
+    }
+
+    @Test
+    @DisplayName("GET - Debe responder con ETag y 304 sin cuerpo si If-None-Match coincide")
+    void testGetCondicional() throws Exception {
+        // Act & Assert: V1 y V2 (con y sin expand) comparten la versión del pedido
+        mockMvc.perform(get("/api/v1/pedidos/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andExpect(jsonPath("$.version").doesNotExist());
+        mockMvc.perform(get("/api/v2/pedidos/1").param("expand", "detalles"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        mockMvc.perform(get("/api/v1/pedidos/1").header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        mockMvc.perform(get("/api/v2/pedidos/1").header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Un expand inválido sigue respondiendo 400 aunque el ETag coincida
+        mockMvc.perform(get("/api/v2/pedidos/1").param("expand", "cliente").header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v2/pedidos/99").header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("PATCH/PUT - Debe aplicar el cambio solo con la versión actual en If-Match")
+    void testEscriturasConIfMatch() throws Exception {
+        // Act: primer cliente cambia el estado con la versión que leyó
+        mockMvc.perform(patch("/api/v2/pedidos/1/estado").header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"estado\":\"EN_PROCESO\"}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        // Assert: el segundo cliente, con la misma versión ya vieja, recibe 412 y no pisa el cambio
+        mockMvc.perform(patch("/api/v1/pedidos/1/estado").header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"estado\":\"CANCELADO\"}"))
+            .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/v1/pedidos/1").header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"clienteId\":5,\"estado\":\"CANCELADO\",\"subtotal\":20.0,\"total\":20.0}"))
+            .andExpect(status().isPreconditionFailed());
+        assertEquals("EN_PROCESO", pedidoRepository.findById(1).orElseThrow().getEstado());
+
+        // PUT con la versión actual, y luego sin If-Match (sigue funcionando como antes)
+        mockMvc.perform(put("/api/v1/pedidos/1").header(HttpHeaders.IF_MATCH, "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"clienteId\":5,\"estado\":\"COMPLETADO\",\"subtotal\":20.0,\"total\":20.0}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+            .andExpect(jsonPath("$.estado").value("COMPLETADO"));
+        mockMvc.perform(put("/api/v2/pedidos/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"clienteId\":5,\"estado\":\"COMPLETADO\",\"subtotal\":25.0,\"total\":25.0}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        assertEquals(1, pedidoRepository.count());
+    }
+
+    @Test
+    @DisplayName("DELETE - Debe eliminar el pedido y sus líneas solo si If-Match coincide")
+    void testEliminarConIfMatch() throws Exception {
+        // Act & Assert: versión vieja, nada se elimina
+        mockMvc.perform(delete("/api/v2/pedidos/1").header(HttpHeaders.IF_MATCH, "\"7\""))
+            .andExpect(status().isPreconditionFailed());
+        assertEquals(1, pedidoRepository.count());
+        assertEquals(1, detallePedidoRepository.count());
+
+        mockMvc.perform(delete("/api/v2/pedidos/1").header(HttpHeaders.IF_MATCH, "\"0\""))
+            .andExpect(status().isNoContent());
+        assertEquals(0, pedidoRepository.count());
+        assertEquals(0, detallePedidoRepository.count());
+
+        mockMvc.perform(delete("/api/v1/pedidos/1").header(HttpHeaders.IF_MATCH, "\"0\""))
+            .andExpect(status().isNotFound());
+    }
+}
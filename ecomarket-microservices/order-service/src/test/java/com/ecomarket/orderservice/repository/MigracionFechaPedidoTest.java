@@ -0,0 +1,89 @@
+package com.ecomarket.orderservice.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ejecuta db/migracion/fecha_de_pedido_a_date.sql sobre una base H2 con el esquema anterior
+ * (fecha_de_pedido y ultima_fecha_pedido como VARCHAR) y verifica el resultado.
+ */
+@DisplayName("Migración de fecha_de_pedido de VARCHAR a DATE")
+class MigracionFechaPedidoTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:migracion_fecha_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE pedido (pedido_id INTEGER PRIMARY KEY, fecha_de_pedido VARCHAR(255), " +
+                "cliente_id INTEGER, estado VARCHAR(255), total DOUBLE PRECISION)");
+        jdbcTemplate.execute("CREATE TABLE cliente_resumen (cliente_id INTEGER PRIMARY KEY, cantidad_pedidos BIGINT, " +
+                "total_completado DOUBLE PRECISION, ultima_fecha_pedido VARCHAR(255))");
+        jdbcTemplate.update("INSERT INTO pedido VALUES (1, '2025-06-01', 1, 'COMPLETADO', 10.0), " +
+                "(2, '2025-06-23', 1, 'PENDIENTE', 20.0), (3, '2025-06-05 10:30:00', 2, 'PENDIENTE', 5.0), " +
+                "(4, '23/06/2025', 2, 'PENDIENTE', 7.0), (5, NULL, 3, 'PENDIENTE', 1.0)");
+        jdbcTemplate.update("INSERT INTO cliente_resumen VALUES (1, 2, 10.0, '2025-06-23'), " +
+                "(2, 2, 0.0, '23/06/2025'), (3, 1, 0.0, NULL)");
+    }
+
+    @Test
+    @DisplayName("Debe convertir las fechas ISO, conservar el texto original y crear el índice")
+    void testMigrarFechas() {
+        // Act
+        new ResourceDatabasePopulator(new ClassPathResource("db/migracion/fecha_de_pedido_a_date.sql"))
+                .execute(jdbcTemplate.getDataSource());
+
+        // Assert: tipo de la columna nueva
+        assertEquals("DATE", tipoColumna("PEDIDO", "FECHA_DE_PEDIDO"));
+        assertEquals("DATE", tipoColumna("CLIENTE_RESUMEN", "ULTIMA_FECHA_PEDIDO"));
+
+        // Las fechas ISO se convierten (descartando la hora); el resto queda en NULL con su texto
+        assertEquals(LocalDate.of(2025, 6, 1), fechaPedido(1));
+        assertEquals(LocalDate.of(2025, 6, 23), fechaPedido(2));
+        assertEquals(LocalDate.of(2025, 6, 5), fechaPedido(3));
+        assertNull(fechaPedido(4));
+        assertNull(fechaPedido(5));
+        assertEquals("23/06/2025", jdbcTemplate.queryForObject(
+                "SELECT fecha_de_pedido_texto FROM pedido WHERE pedido_id = 4", String.class));
+
+        // cliente_resumen se recalcula desde pedido
+        assertEquals(LocalDate.of(2025, 6, 23), ultimaFecha(1));
+        assertEquals(LocalDate.of(2025, 6, 5), ultimaFecha(2));
+        assertNull(ultimaFecha(3));
+
+        Integer indices = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_PEDIDO_FECHA'", Integer.class);
+        assertEquals(1, indices);
+    }
+
+    private String tipoColumna(String tabla, String columna) {
+        Map<String, Object> fila = jdbcTemplate.queryForMap(
+                "SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = ? AND COLUMN_NAME = ?",
+                tabla, columna);
+        return (String) fila.get("DATA_TYPE");
+    }
+
+    private LocalDate fechaPedido(int pedidoId) {
+        Date fecha = jdbcTemplate.queryForObject(
+                "SELECT fecha_de_pedido FROM pedido WHERE pedido_id = ?", Date.class, pedidoId);
+        return fecha != null ? fecha.toLocalDate() : null;
+    }
+
+    private LocalDate ultimaFecha(int clienteId) {
+        Date fecha = jdbcTemplate.queryForObject(
+                "SELECT ultima_fecha_pedido FROM cliente_resumen WHERE cliente_id = ?", Date.class, clienteId);
+        return fecha != null ? fecha.toLocalDate() : null;
+    }
+}
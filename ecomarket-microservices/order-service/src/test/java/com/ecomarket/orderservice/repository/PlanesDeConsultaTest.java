@@ -0,0 +1,230 @@
+package com.ecomarket.orderservice.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regresión de planes de consulta: ejecuta cada método de los repositorios sobre un
+ * conjunto de datos grande en H2, captura el SQL generado por Hibernate y le aplica
+ * EXPLAIN. Falla si alguna consulta recorre la tabla completa (tableScan), salvo las
+ * que leen toda la tabla por diseño, listadas con su motivo en ESCANEO_PERMITIDO.
+ *
+ * También falla si un repositorio declara un método sin entrada en consultas(), para
+ * que los métodos nuevos entren al chequeo.
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:orderdb_planes;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ecomarket.orderservice.repository.CapturaSql"
+})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Repositorios - Planes de consulta sin escaneo completo")
+class PlanesDeConsultaTest {
+
+    private static final int PEDIDOS = 20_000;
+    private static final int DETALLES_POR_PEDIDO = 3;
+    private static final int CLIENTES = 500;
+    private static final int PRODUCTOS = 1_000;
+    private static final String[] ESTADOS = {"PENDIENTE", "EN_PROCESO", "COMPLETADO", "CANCELADO", "ENVIADO"};
+    private static final String[] CIUDADES = {"Santiago", "Valparaíso", "Concepción", "La Serena", "Antofagasta",
+                                              "Temuco", "Rancagua", "Talca", "Arica", "Iquique"};
+
+    // Consultas que agregan la tabla completa: no hay filtro que un índice pueda aprovechar
+    private static final Map<String, String> ESCANEO_PERMITIDO = Map.of(
+        "PedidoRepository.estadisticasPorCiudad()", "GROUP BY sobre todos los pedidos",
+        "PedidoRepository.estadisticasPorEstado()", "GROUP BY sobre todos los pedidos"
+    );
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private DetallePedidoRepository detallePedidoRepository;
+
+    @Autowired
+    private VentaProductoRepository ventaProductoRepository;
+
+    @Autowired
+    private ClienteResumenRepository clienteResumenRepository;
+
+    @Autowired
+    private ClaveIdempotenciaRepository claveIdempotenciaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    void poblar() {
+        Random random = new Random(42);
+        List<Object[]> pedidos = new ArrayList<>();
+        List<Object[]> detalles = new ArrayList<>();
+        for (int id = 1; id <= PEDIDOS; id++) {
+            double total = 1000 + random.nextInt(100_000);
+            pedidos.add(new Object[] {id, LocalDate.of(2025, 6, 1 + random.nextInt(28)),
+                    1 + random.nextInt(CLIENTES), ESTADOS[random.nextInt(ESTADOS.length)], 0.0,
+                    1 + random.nextInt(5), 1 + random.nextInt(200), total, total,
+                    "Av. Providencia " + id, CIUDADES[random.nextInt(CIUDADES.length)]});
+            for (int j = 0; j < DETALLES_POR_PEDIDO; j++) {
+                detalles.add(new Object[] {(id - 1) * DETALLES_POR_PEDIDO + j + 1, id,
+                        1 + random.nextInt(PRODUCTOS), 5990.0, 1 + random.nextInt(5), 5990.0});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pedido (pedido_id, fecha_de_pedido, cliente_id, estado, descuento, " +
+                "metodo_pago_id, usuario_id, subtotal, total, direccion_envio, ciudad_envio) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", pedidos);
+        jdbcTemplate.batchUpdate("INSERT INTO detalle_de_pedido (detalle_id, pedido_id, producto_id, " +
+                "precio_unitario, cantidad, sub_total) VALUES (?, ?, ?, ?, ?, ?)", detalles);
+        jdbcTemplate.update("INSERT INTO venta_producto (producto_id, cantidad_vendida) " +
+                "SELECT producto_id, SUM(cantidad) FROM detalle_de_pedido GROUP BY producto_id");
+        jdbcTemplate.update("INSERT INTO cliente_resumen (cliente_id, cantidad_pedidos, total_completado, ultima_fecha_pedido) " +
+                "SELECT cliente_id, COUNT(*), 0.0, MAX(fecha_de_pedido) FROM pedido GROUP BY cliente_id");
+        List<Object[]> claves = new ArrayList<>();
+        for (int i = 1; i <= PEDIDOS; i++) {
+            LocalDateTime creada = LocalDateTime.of(2025, 6, 1, 0, 0).plusMinutes(i);
+            claves.add(new Object[] {"clave-" + i, "0".repeat(64), "{}", creada, creada.plusDays(1)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO clave_idempotencia (clave, huella, respuesta, creada_en, expira_en) " +
+                "VALUES (?, ?, ?, ?, ?)", claves);
+        // Estadísticas de selectividad para el optimizador de H2
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // Una invocación representativa por método declarado en cada repositorio
+    private Map<String, Runnable> consultas() {
+        Map<String, Runnable> consultas = new LinkedHashMap<>();
+
+        consultas.put("PedidoRepository.findByClienteId(Integer)", () -> pedidoRepository.findByClienteId(7));
+        consultas.put("PedidoRepository.findByUsuarioId(Integer)", () -> pedidoRepository.findByUsuarioId(7));
+        consultas.put("PedidoRepository.findByEstado(String)", () -> pedidoRepository.findByEstado("CANCELADO"));
+        consultas.put("PedidoRepository.findByMetodoPagoId(Integer)", () -> pedidoRepository.findByMetodoPagoId(3));
+        consultas.put("PedidoRepository.findByCiudadEnvio(String)", () -> pedidoRepository.findByCiudadEnvio("Talca"));
+        consultas.put("PedidoRepository.findByTotalBetween(Double,Double)", () -> pedidoRepository.findByTotalBetween(5000.0, 5100.0));
+        consultas.put("PedidoRepository.countByEstado(String)", () -> pedidoRepository.countByEstado("PENDIENTE"));
+        consultas.put("PedidoRepository.countByClienteId(Integer)", () -> pedidoRepository.countByClienteId(7));
+        consultas.put("PedidoRepository.sumTotalByClienteId(Integer)", () -> pedidoRepository.sumTotalByClienteId(7));
+        consultas.put("PedidoRepository.promedioTotalPedidosCompletados()", () -> pedidoRepository.promedioTotalPedidosCompletados());
+        consultas.put("PedidoRepository.estadisticasPorCiudad()", () -> pedidoRepository.estadisticasPorCiudad());
+        consultas.put("PedidoRepository.estadisticasPorEstado()", () -> pedidoRepository.estadisticasPorEstado());
+        consultas.put("PedidoRepository.findPaginaSiguiente(Integer,Limit)", () -> pedidoRepository.findPaginaSiguiente(10_000, Limit.of(50)));
+        consultas.put("PedidoRepository.findPaginaAnterior(Integer,Limit)", () -> pedidoRepository.findPaginaAnterior(10_000, Limit.of(50)));
+        consultas.put("PedidoRepository.findClienteIdByPedidoId(Integer)", () -> pedidoRepository.findClienteIdByPedidoId(10));
+        consultas.put("PedidoRepository.findVersionById(Integer)", () -> pedidoRepository.findVersionById(10));
+        consultas.put("PedidoRepository.deleteByIdAndVersion(Integer,Long)", () -> pedidoRepository.deleteByIdAndVersion(10, 99L));
+        consultas.put("PedidoRepository.calcularResumenes(Collection)", () -> pedidoRepository.calcularResumenes(List.of(3, 7, 11)));
+        consultas.put("PedidoRepository.calcularResumenesEnRango(Integer,Integer)", () -> pedidoRepository.calcularResumenesEnRango(1, 10));
+        consultas.put("PedidoRepository.findClienteIds()", () -> pedidoRepository.findClienteIds());
+        consultas.put("PedidoRepository.findConDetalles(Collection)", () -> pedidoRepository.findConDetalles(List.of(3, 7, 11)));
+        consultas.put("PedidoRepository.findConDetallesById(Integer)", () -> pedidoRepository.findConDetallesById(10));
+        LocalDate desde = LocalDate.of(2025, 6, 10);
+        LocalDate hasta = LocalDate.of(2025, 6, 12);
+        consultas.put("PedidoRepository.findPaginaSiguienteEnRango(LocalDate,LocalDate,LocalDate,Integer,Limit)",
+                () -> pedidoRepository.findPaginaSiguienteEnRango(desde, hasta, desde, 0, Limit.of(50)));
+        consultas.put("PedidoRepository.findPaginaAnteriorEnRango(LocalDate,LocalDate,LocalDate,Integer,Limit)",
+                () -> pedidoRepository.findPaginaAnteriorEnRango(desde, hasta, hasta, 10_000, Limit.of(50)));
+        consultas.put("PedidoRepository.ingresosDiarios(LocalDate,LocalDate)", () -> pedidoRepository.ingresosDiarios(desde, hasta));
+        consultas.put("PedidoRepository.ingresosSemanales(LocalDate,LocalDate)", () -> pedidoRepository.ingresosSemanales(desde, hasta));
+        consultas.put("PedidoRepository.ingresosMensuales(LocalDate,LocalDate)", () -> pedidoRepository.ingresosMensuales(desde, hasta));
+
+        consultas.put("DetallePedidoRepository.findByPedidoId(Integer)", () -> detallePedidoRepository.findByPedidoId(10));
+        consultas.put("DetallePedidoRepository.findByProductoId(Integer)", () -> detallePedidoRepository.findByProductoId(10));
+        consultas.put("DetallePedidoRepository.getTotalCantidadByProducto(Integer)", () -> detallePedidoRepository.getTotalCantidadByProducto(10));
+
+        consultas.put("VentaProductoRepository.findParaActualizar(Collection)", () -> ventaProductoRepository.findParaActualizar(List.of(1, 2, 3)));
+        // INSERT ... SELECT del GROUP BY completo: se ejecuta solo al reconstruir
+        consultas.put("VentaProductoRepository.reconstruirDesdeDetalles()", null);
+
+        consultas.put("ClienteResumenRepository.findParaActualizar(Collection)", () -> clienteResumenRepository.findParaActualizar(List.of(1, 2, 3)));
+        consultas.put("ClienteResumenRepository.findRangoParaActualizar(Integer,Integer)", () -> clienteResumenRepository.findRangoParaActualizar(1, 10));
+        consultas.put("ClienteResumenRepository.findRango(Integer,Integer)", () -> clienteResumenRepository.findRango(1, 10));
+        consultas.put("ClienteResumenRepository.findClienteIds()", () -> clienteResumenRepository.findClienteIds());
+
+        consultas.put("ClaveIdempotenciaRepository.eliminarVencidas(LocalDateTime)",
+                () -> claveIdempotenciaRepository.eliminarVencidas(LocalDateTime.of(2025, 6, 1, 0, 0)));
+        return consultas;
+    }
+
+    @TestFactory
+    Stream<DynamicTest> ningunaConsultaRecorreLaTablaCompleta() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        return consultas().entrySet().stream()
+                .filter(consulta -> consulta.getValue() != null)
+                .map(consulta -> DynamicTest.dynamicTest(consulta.getKey(), () -> {
+                    CapturaSql.limpiar();
+                    transaccion.executeWithoutResult(status -> consulta.getValue().run());
+                    List<String> sentencias = CapturaSql.sentencias();
+                    assertFalse(sentencias.isEmpty(), "No se capturó SQL para " + consulta.getKey());
+
+                    for (String sql : sentencias) {
+                        String plan = explicar(sql);
+                        if (recorreTablaCompleta(plan) && !ESCANEO_PERMITIDO.containsKey(consulta.getKey())) {
+                            fail(consulta.getKey() + " recorre la tabla completa:\n" + plan);
+                        }
+                    }
+                }));
+    }
+
+    @Test
+    @DisplayName("Todos los métodos declarados en los repositorios tienen su chequeo de plan")
+    void todosLosMetodosEstanCubiertos() {
+        Set<String> declarados = new TreeSet<>();
+        for (Class<?> repositorio : List.of(PedidoRepository.class, DetallePedidoRepository.class,
+                VentaProductoRepository.class, ClienteResumenRepository.class, ClaveIdempotenciaRepository.class)) {
+            for (Method metodo : repositorio.getDeclaredMethods()) {
+                if (!metodo.isDefault() && !metodo.isSynthetic()) {
+                    declarados.add(firma(repositorio, metodo));
+                }
+            }
+        }
+        declarados.removeAll(consultas().keySet());
+        assertTrue(declarados.isEmpty(), "Métodos de repositorio sin chequeo de plan: " + declarados);
+    }
+
+    private String explicar(String sql) {
+        return jdbcTemplate.query(con -> con.prepareStatement("EXPLAIN " + sql),
+                rs -> rs.next() ? rs.getString(1) : "");
+    }
+
+    // MIN/MAX sin filtro sobre una columna indexada se resuelven sin leer filas ("direct lookup")
+    private static boolean recorreTablaCompleta(String plan) {
+        return plan.contains(".tableScan") && !plan.contains("/* direct lookup */");
+    }
+
+    private static String firma(Class<?> repositorio, Method metodo) {
+        return repositorio.getSimpleName() + "." + metodo.getName() + "(" +
+                Arrays.stream(metodo.getParameterTypes()).map(Class::getSimpleName).collect(Collectors.joining(",")) + ")";
+    }
+}
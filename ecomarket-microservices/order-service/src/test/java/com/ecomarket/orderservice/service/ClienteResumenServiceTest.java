@@ -0,0 +1,228 @@
+package com.ecomarket.orderservice.service;
+
+import com.ecomarket.orderservice.model.ClienteResumen;
+import com.ecomarket.orderservice.model.DetallePedido;
+import com.ecomarket.orderservice.model.Pedido;
+import com.ecomarket.orderservice.model.VerificacionResumen;
+import com.ecomarket.orderservice.repository.ClienteResumenRepository;
+import com.ecomarket.orderservice.repository.DetallePedidoRepository;
+import com.ecomarket.orderservice.repository.PedidoRepository;
+import com.ecomarket.orderservice.repository.VentaProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica el mantenimiento de cliente_resumen y el verificador por bloques.
+ * Sin la transacción de prueba de @DataJpaTest: el resumen se recalcula en el commit.
+ */
+@DataJpaTest(properties = "ecomarket.pedidos.resumen.tamanio-bloque=10")
+@ActiveProfiles("test")
+@Import({PedidoService.class, RankingVentasService.class, ClienteResumenService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("ClienteResumenService - Resumen de compras por cliente")
+class ClienteResumenServiceTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private DetallePedidoRepository detallePedidoRepository;
+
+    @Autowired
+    private VentaProductoRepository ventaProductoRepository;
+
+    @Autowired
+    private ClienteResumenRepository clienteResumenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        detallePedidoRepository.deleteAllInBatch();
+        pedidoRepository.deleteAllInBatch();
+        ventaProductoRepository.deleteAllInBatch();
+        clienteResumenRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Crear pedidos y completarlos debe actualizar cantidad, total y última fecha")
+    void testCrearYCompletarPedidos() {
+        // Act
+        Pedido primero = pedidoService.crearPedido(nuevoPedido(1, "2025-06-01"), List.of(detalle(100.0)));
+        pedidoService.crearPedido(nuevoPedido(1, "2025-06-15"), List.of(detalle(40.0)));
+        pedidoService.actualizarEstado(primero.getPedidoId(), "COMPLETADO");
+
+        // Assert
+        ClienteResumen resumen = pedidoService.obtenerResumenCliente(1);
+        assertEquals(2L, resumen.getCantidadPedidos());
+        assertEquals(100.0, resumen.getTotalCompletado());
+        assertEquals(LocalDate.of(2025, 6, 15), resumen.getUltimaFechaPedido());
+        assertEquals(100.0, pedidoService.totalComprasPorCliente(1));
+        assertEquals(2L, pedidoService.cantidadPedidosPorCliente(1));
+    }
+
+    @Test
+    @DisplayName("Eliminar y cambiar de cliente debe recalcular ambos resúmenes")
+    void testEliminarYCambiarCliente() {
+        // Arrange
+        Pedido movido = pedidoService.crearPedido(nuevoPedido(1, "2025-06-01"), List.of(detalle(10.0)));
+        Pedido eliminado = pedidoService.crearPedido(nuevoPedido(1, "2025-06-20"), List.of(detalle(20.0)));
+
+        // Act
+        pedidoService.eliminar(eliminado.getPedidoId());
+        Pedido cambio = pedidoRepository.findById(movido.getPedidoId()).orElseThrow();
+        cambio.setClienteId(2);
+        cambio.setEstado("COMPLETADO");
+        pedidoService.actualizar(cambio.getPedidoId(), cambio);
+
+        // Assert
+        assertFalse(clienteResumenRepository.existsById(1));
+        assertEquals(0L, pedidoService.cantidadPedidosPorCliente(1));
+        ClienteResumen resumen = pedidoService.obtenerResumenCliente(2);
+        assertEquals(1L, resumen.getCantidadPedidos());
+        assertEquals(10.0, resumen.getTotalCompletado());
+        assertEquals(LocalDate.of(2025, 6, 1), resumen.getUltimaFechaPedido());
+    }
+
+    @Test
+    @DisplayName("El verificador debe detectar y reparar diferencias en bloques paralelos")
+    void testVerificarYReparar() {
+        // Arrange - 35 clientes (4 bloques de 10), uno desalineado, uno faltante y uno sobrante
+        for (int cliente = 1; cliente <= 35; cliente++) {
+            pedidoService.crearPedido(nuevoPedido(cliente, "2025-06-01"), List.of(detalle(cliente)));
+        }
+        ClienteResumen alterado = clienteResumenRepository.findById(7).orElseThrow();
+        alterado.setCantidadPedidos(99L);
+        clienteResumenRepository.save(alterado);
+        clienteResumenRepository.deleteById(20);
+        clienteResumenRepository.save(new ClienteResumen(500, 3L, 0.0, LocalDate.of(2025, 1, 1)));
+
+        // Act
+        VerificacionResumen verificacion = pedidoService.verificarResumenClientes(false);
+        VerificacionResumen reparacion = pedidoService.verificarResumenClientes(true);
+        VerificacionResumen posterior = pedidoService.verificarResumenClientes(false);
+
+        // Assert
+        assertEquals(3, verificacion.diferencias());
+        assertEquals(36, verificacion.clientes());
+        // Bloques de clientes existentes (1..35 y 500), no de la numeración 0..500
+        assertEquals(4, verificacion.bloques());
+        assertTrue(reparacion.reparado());
+        assertEquals(3, reparacion.diferencias());
+        assertEquals(0, posterior.diferencias());
+        assertEquals(35, clienteResumenRepository.count());
+        assertEquals(1L, clienteResumenRepository.findById(7).orElseThrow().getCantidadPedidos());
+    }
+
+    @Test
+    @DisplayName("Verificar sin reparar no debe esperar los bloqueos de otras transacciones")
+    void testVerificarSinRepararNoBloquea() throws Exception {
+        // Arrange - otra transacción mantiene bloqueado el resumen del cliente 1
+        pedidoService.crearPedido(nuevoPedido(1, "2025-06-01"), List.of(detalle(10.0)));
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        CountDownLatch bloqueado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newSingleThreadExecutor();
+        Future<?> bloqueo = ejecutor.submit(() -> transaccion.executeWithoutResult(status -> {
+            clienteResumenRepository.findParaActualizar(List.of(1));
+            bloqueado.countDown();
+            try {
+                liberar.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        try {
+            assertTrue(bloqueado.await(30, TimeUnit.SECONDS));
+
+            // Act
+            VerificacionResumen verificacion = pedidoService.verificarResumenClientes(false);
+
+            // Assert
+            assertEquals(1, verificacion.clientes());
+            assertEquals(0, verificacion.diferencias());
+        } finally {
+            liberar.countDown();
+            bloqueo.get(30, TimeUnit.SECONDS);
+            ejecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Primeros pedidos concurrentes del mismo cliente deben crear un solo resumen")
+    void testPrimerosPedidosConcurrentes() throws Exception {
+        // Arrange - todas las transacciones llegan juntas al commit sin resumen del cliente 3
+        int transacciones = 4;
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        CyclicBarrier antesDelCommit = new CyclicBarrier(transacciones);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(transacciones);
+
+        // Act
+        List<Future<?>> resultados = new ArrayList<>();
+        for (int i = 0; i < transacciones; i++) {
+            resultados.add(ejecutor.submit(() -> transaccion.executeWithoutResult(status -> {
+                pedidoService.crearPedido(nuevoPedido(3, "2025-06-01"), List.of(detalle(10.0)));
+                try {
+                    antesDelCommit.await(30, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            })));
+        }
+        try {
+            for (Future<?> resultado : resultados) {
+                resultado.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(transacciones, pedidoRepository.count());
+        assertEquals((long) transacciones, clienteResumenRepository.findById(3).orElseThrow().getCantidadPedidos());
+        assertEquals(0, pedidoService.verificarResumenClientes(false).diferencias());
+    }
+
+    private Pedido nuevoPedido(int clienteId, String fecha) {
+        Pedido pedido = new Pedido();
+        pedido.setFechaDePedido(LocalDate.parse(fecha));
+        pedido.setClienteId(clienteId);
+        pedido.setEstado("PENDIENTE");
+        pedido.setDescuento(0.0);
+        return pedido;
+    }
+
+    private DetallePedido detalle(double precio) {
+        DetallePedido detalle = new DetallePedido();
+        detalle.setProductoId(1);
+        detalle.setPrecioUnitario(precio);
+        detalle.setCantidad(1);
+        return detalle;
+    }
+}
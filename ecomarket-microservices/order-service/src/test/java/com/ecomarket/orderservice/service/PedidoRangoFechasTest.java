@@ -0,0 +1,156 @@
+package com.ecomarket.orderservice.service;
+
+import com.ecomarket.orderservice.model.IngresoPeriodo;
+import com.ecomarket.orderservice.model.PaginaPedidos;
+import com.ecomarket.orderservice.model.Pedido;
+import com.ecomarket.orderservice.repository.PedidoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Listado por rango de fechas con paginación por cursor e ingresos por período,
+ * contra la base H2 real para ejercitar las consultas JPQL.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({PedidoService.class, RankingVentasService.class, ClienteResumenService.class})
+@DisplayName("PedidoService - Rango de fechas e ingresos por período")
+class PedidoRangoFechasTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    private List<Pedido> pedidos;
+
+    @BeforeEach
+    void setUp() {
+        // Del domingo 1 al lunes 30 de junio, más uno en mayo y otro en julio fuera del rango
+        pedidos = new ArrayList<>();
+        pedidos.add(nuevoPedido(LocalDate.of(2025, 5, 31), "COMPLETADO", 1000.0));
+        for (int dia = 1; dia <= 30; dia++) {
+            // Dos pedidos por día para que el cursor tenga que desempatar por pedidoId
+            pedidos.add(nuevoPedido(LocalDate.of(2025, 6, dia), "COMPLETADO", 10.0));
+            pedidos.add(nuevoPedido(LocalDate.of(2025, 6, dia), dia % 10 == 0 ? "CANCELADO" : "PENDIENTE", 5.0));
+        }
+        pedidos.add(nuevoPedido(LocalDate.of(2025, 7, 1), "COMPLETADO", 1000.0));
+        // Se guardan en otro orden para que el pedidoId no coincida con el orden por fecha
+        List<Pedido> desordenados = new ArrayList<>(pedidos);
+        desordenados.sort(Comparator.comparing(Pedido::getTotal).thenComparing(Pedido::getFechaDePedido).reversed());
+        pedidoRepository.saveAll(desordenados);
+    }
+
+    @Test
+    @DisplayName("Debe recorrer el rango hacia adelante y hacia atrás en orden (fecha, pedidoId)")
+    void testRecorrerRangoConCursor() {
+        LocalDate desde = LocalDate.of(2025, 6, 1);
+        LocalDate hasta = LocalDate.of(2025, 6, 30);
+        List<Integer> esperados = pedidos.stream()
+                .filter(p -> !p.getFechaDePedido().isBefore(desde) && !p.getFechaDePedido().isAfter(hasta))
+                .sorted(Comparator.comparing(Pedido::getFechaDePedido).thenComparing(Pedido::getPedidoId))
+                .map(Pedido::getPedidoId)
+                .toList();
+
+        // Act: hacia adelante, páginas de 7
+        List<Integer> recorridos = new ArrayList<>();
+        List<PaginaPedidos> paginas = new ArrayList<>();
+        PaginaPedidos pagina = pedidoService.obtenerPaginaPorFecha(desde, hasta, null, 7);
+        assertNull(pagina.getCursorAnterior());
+        while (true) {
+            paginas.add(pagina);
+            pagina.getPedidos().forEach(p -> recorridos.add(p.getPedidoId()));
+            if (pagina.getCursorSiguiente() == null) {
+                break;
+            }
+            pagina = pedidoService.obtenerPaginaPorFecha(desde, hasta, pagina.getCursorSiguiente(), 7);
+        }
+
+        // Assert
+        assertEquals(esperados, recorridos);
+        assertEquals(9, paginas.size());
+
+        // Act & Assert: hacia atrás desde la última página se obtienen las mismas páginas
+        for (int i = paginas.size() - 1; i > 0; i--) {
+            PaginaPedidos anterior = pedidoService.obtenerPaginaPorFecha(desde, hasta, paginas.get(i).getCursorAnterior(), 7);
+            assertEquals(ids(paginas.get(i - 1)), ids(anterior));
+        }
+    }
+
+    @Test
+    @DisplayName("Debe aceptar rangos abiertos y rechazar rangos o cursores inválidos")
+    void testRangoAbiertoYValidaciones() {
+        PaginaPedidos desdeJulio = pedidoService.obtenerPaginaPorFecha(LocalDate.of(2025, 7, 1), null, null, 50);
+        assertEquals(1, desdeJulio.getPedidos().size());
+
+        PaginaPedidos hastaMayo = pedidoService.obtenerPaginaPorFecha(null, LocalDate.of(2025, 5, 31), null, 50);
+        assertEquals(1, hastaMayo.getPedidos().size());
+
+        assertThrows(IllegalArgumentException.class, () ->
+                pedidoService.obtenerPaginaPorFecha(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 6, 1), null, 10));
+        // Un cursor del listado sin fechas no es válido en el listado por rango
+        String cursorPorId = Base64.getUrlEncoder().withoutPadding().encodeToString("a:10".getBytes());
+        assertThrows(IllegalArgumentException.class, () ->
+                pedidoService.obtenerPaginaPorFecha(LocalDate.of(2025, 6, 1), null, cursorPorId, 10));
+    }
+
+    @Test
+    @DisplayName("Debe agregar ingresos por día, semana y mes excluyendo los pedidos cancelados")
+    void testIngresosPorPeriodo() {
+        LocalDate desde = LocalDate.of(2025, 6, 1);
+        LocalDate hasta = LocalDate.of(2025, 6, 30);
+
+        // Act
+        List<IngresoPeriodo> diarios = pedidoService.obtenerIngresosDiarios(desde, hasta);
+        List<IngresoPeriodo> semanales = pedidoService.obtenerIngresosSemanales(desde, hasta);
+        List<IngresoPeriodo> mensuales = pedidoService.obtenerIngresosMensuales(LocalDate.of(2025, 5, 1), LocalDate.of(2025, 7, 31));
+
+        // Assert: días 10, 20 y 30 sin el pedido cancelado
+        assertEquals(30, diarios.size());
+        assertEquals(new IngresoPeriodo(LocalDate.of(2025, 6, 1), 2L, 15.0), diarios.get(0));
+        assertEquals(new IngresoPeriodo(LocalDate.of(2025, 6, 10), 1L, 10.0), diarios.get(9));
+
+        // El domingo 1 pertenece a la semana del lunes 26 de mayo; el lunes 30 abre otra semana
+        assertEquals(List.of(LocalDate.of(2025, 5, 26), LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 9),
+                        LocalDate.of(2025, 6, 16), LocalDate.of(2025, 6, 23), LocalDate.of(2025, 6, 30)),
+                semanales.stream().map(IngresoPeriodo::inicio).toList());
+        assertEquals(new IngresoPeriodo(LocalDate.of(2025, 5, 26), 2L, 15.0), semanales.get(0));
+        assertEquals(new IngresoPeriodo(LocalDate.of(2025, 6, 9), 13L, 100.0), semanales.get(2));
+
+        assertEquals(List.of(
+                new IngresoPeriodo(LocalDate.of(2025, 5, 1), 1L, 1000.0),
+                new IngresoPeriodo(LocalDate.of(2025, 6, 1), 57L, 435.0),
+                new IngresoPeriodo(LocalDate.of(2025, 7, 1), 1L, 1000.0)), mensuales);
+
+        assertThrows(IllegalArgumentException.class, () -> pedidoService.obtenerIngresosDiarios(hasta, desde));
+    }
+
+    private List<Integer> ids(PaginaPedidos pagina) {
+        return pagina.getPedidos().stream().map(Pedido::getPedidoId).toList();
+    }
+
+    private Pedido nuevoPedido(LocalDate fecha, String estado, double total) {
+        Pedido pedido = new Pedido();
+        pedido.setFechaDePedido(fecha);
+        pedido.setClienteId(1);
+        pedido.setEstado(estado);
+        pedido.setDescuento(0.0);
+        pedido.setSubtotal(total);
+        pedido.setTotal(total);
+        return pedido;
+    }
+}
@@ -0,0 +1,291 @@
+package com.ecomarket.orderservice.service;
+
+import com.ecomarket.orderservice.model.DetallePedido;
+import com.ecomarket.orderservice.model.Pedido;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mide los round trips a la base de datos de PedidoService.crearPedido contando lo que cruza
+ * el driver JDBC (H2 en memoria, perfil test): sentencias ejecutadas (un lote cuenta una vez)
+ * y savepoints. Cuenta en el DataSource y no con las estadísticas de Hibernate porque los
+ * INSERT de InsercionConcurrente van por JDBC directo.
+ *
+ * Cada medición confirma su transacción: el trabajo de antes del commit (venta_producto y
+ * cliente_resumen) es parte del costo de cada pedido. La referencia es el camino original,
+ * con IDs IDENTITY y un save por línea, sobre entidades de prueba con las mismas columnas.
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:orderdb_round_trips;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+@Import({PedidoService.class, RankingVentasService.class, ClienteResumenService.class,
+         PedidoServiceRoundTripsTest.ContadorJdbc.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("PedidoService - Round trips de crearPedido")
+class PedidoServiceRoundTripsTest {
+
+    private static final int LINEAS_POR_PEDIDO = 50;
+
+    private static final AtomicInteger SENTENCIAS = new AtomicInteger();
+    private static final AtomicInteger SAVEPOINTS = new AtomicInteger();
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate transaccion;
+
+    @BeforeEach
+    void setUp() {
+        transaccion = new TransactionTemplate(transactionManager);
+        for (String tabla : List.of("detalle_de_pedido", "pedido", "venta_producto", "cliente_resumen",
+                "detalle_referencia", "pedido_referencia")) {
+            jdbcTemplate.update("DELETE FROM " + tabla);
+        }
+        // Calentar: deja reservados los bloques de las secuencias y crea las filas de venta_producto
+        // (producto 1) y cliente_resumen (cliente 1), como en un servicio que ya tiene pedidos
+        transaccion.executeWithoutResult(status -> pedidoService.crearPedido(nuevoPedido(), nuevosDetalles(1)));
+        SENTENCIAS.set(0);
+        SAVEPOINTS.set(0);
+    }
+
+    @Test
+    @DisplayName("Referencia - Con IDENTITY y un save por línea, un pedido de 50 líneas son 51 INSERT")
+    void referenciaIdentityUnSavePorLinea() {
+        // Act - el PedidoService original: save del pedido y un save por cada detalle
+        transaccion.executeWithoutResult(status -> {
+            PedidoReferencia pedido = new PedidoReferencia();
+            pedido.clienteId = 1;
+            pedido.estado = "PENDIENTE";
+            pedido.fechaDePedido = LocalDate.of(2025, 6, 23);
+            entityManager.persist(pedido);
+            for (int i = 0; i < LINEAS_POR_PEDIDO; i++) {
+                DetalleReferencia detalle = new DetalleReferencia();
+                detalle.pedidoId = pedido.pedidoId;
+                detalle.productoId = i + 1;
+                detalle.precioUnitario = 10.0;
+                detalle.cantidad = 2;
+                detalle.subTotal = 20.0;
+                entityManager.persist(detalle);
+            }
+        });
+        int sentencias = SENTENCIAS.get();
+
+        // Assert - IDENTITY ejecuta cada INSERT en el persist para leer el ID generado: no hay lote
+        assertEquals(LINEAS_POR_PEDIDO + 1, sentencias);
+        assertEquals(LINEAS_POR_PEDIDO, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM detalle_referencia", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Un pedido de 50 líneas confirmado cuesta 9 sentencias y 2 savepoints, no 51 INSERT")
+    void crearPedidoAgrupaLosInsertsDeDetalles() {
+        // Act
+        Pedido creado = transaccion.execute(status ->
+                pedidoService.crearPedido(nuevoPedido(), nuevosDetalles(LINEAS_POR_PEDIDO)));
+        int sentencias = SENTENCIAS.get();
+        int savepoints = SAVEPOINTS.get();
+
+        // Assert
+        assertNotNull(creado.getPedidoId());
+        assertEquals(LINEAS_POR_PEDIDO + 1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM detalle_de_pedido", Integer.class));
+        // Reserva de un bloque de detalle_de_pedido_seq (el calentamiento usó 1 de los 50 IDs y este
+        // pedido necesita 50). Antes del commit: SELECT ... FOR UPDATE de venta_producto, lote de INSERT
+        // de los 49 productos nuevos (bajo un savepoint, ver InsercionConcurrente), SELECT ... FOR UPDATE
+        // de cliente_resumen, el flush con un lote de INSERT del pedido, otro de las 50 líneas y el
+        // UPDATE del producto 1, el agregado desde pedido y el UPDATE del resumen
+        assertEquals(9, sentencias);
+        assertEquals(2, savepoints);
+    }
+
+    @Test
+    @DisplayName("Diez pedidos en una transacción comparten los lotes y el trabajo de antes del commit")
+    void crearVariosPedidosReutilizaElBloqueDeIds() {
+        // Act
+        transaccion.executeWithoutResult(status -> {
+            for (int i = 0; i < 10; i++) {
+                pedidoService.crearPedido(nuevoPedido(), nuevosDetalles(3));
+            }
+        });
+        int sentencias = SENTENCIAS.get();
+        int savepoints = SAVEPOINTS.get();
+
+        // Assert - 10 pedidos y 30 detalles caben en los bloques ya reservados (allocationSize = 50):
+        // un lote de INSERT de pedidos y otro de detalles. venta_producto y cliente_resumen se
+        // actualizan una vez por transacción, igual que con un solo pedido (2 productos nuevos)
+        assertEquals(8, sentencias);
+        assertEquals(2, savepoints);
+        assertEquals(11, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pedido", Integer.class));
+    }
+
+    private Pedido nuevoPedido() {
+        Pedido pedido = new Pedido();
+        pedido.setFechaDePedido(LocalDate.of(2025, 6, 23));
+        pedido.setClienteId(1);
+        pedido.setEstado("PENDIENTE");
+        pedido.setDescuento(10.0);
+        pedido.setMetodoPagoId(1);
+        pedido.setUsuarioId(1);
+        pedido.setCiudadEnvio("Santiago");
+        return pedido;
+    }
+
+    private List<DetallePedido> nuevosDetalles(int cantidad) {
+        List<DetallePedido> detalles = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            DetallePedido detalle = new DetallePedido();
+            detalle.setProductoId(i + 1);
+            detalle.setPrecioUnitario(10.0);
+            detalle.setCantidad(2);
+            detalles.add(detalle);
+        }
+        return detalles;
+    }
+
+    // Pedido y detalle como eran antes de las secuencias: IDENTITY, sin lotes posibles
+    @Entity
+    @Table(name = "pedido_referencia")
+    static class PedidoReferencia {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @Column(name = "pedido_id")
+        Integer pedidoId;
+        @Column(name = "cliente_id")
+        Integer clienteId;
+        String estado;
+        @Column(name = "fecha_de_pedido")
+        LocalDate fechaDePedido;
+    }
+
+    @Entity
+    @Table(name = "detalle_referencia")
+    static class DetalleReferencia {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @Column(name = "detalle_id")
+        Integer detalleId;
+        @Column(name = "pedido_id")
+        Integer pedidoId;
+        @Column(name = "producto_id")
+        Integer productoId;
+        @Column(name = "precio_unitario")
+        Double precioUnitario;
+        Integer cantidad;
+        @Column(name = "sub_total")
+        Double subTotal;
+    }
+
+    /**
+     * Envuelve el DataSource para contar las sentencias que llegan al driver y los savepoints.
+     */
+    @TestConfiguration
+    static class ContadorJdbc {
+
+        private static final Set<String> EJECUCIONES = Set.of("execute", "executeQuery", "executeUpdate",
+                "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+        @Bean
+        static BeanPostProcessor contarRoundTrips() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return contar(super.getConnection());
+                        }
+                    };
+                }
+            };
+        }
+
+        private static Connection contar(Connection conexion) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, (proxy, metodo, argumentos) -> {
+                        if (metodo.getName().equals("setSavepoint") || metodo.getName().equals("releaseSavepoint")) {
+                            SAVEPOINTS.incrementAndGet();
+                        }
+                        Object resultado = invocar(conexion, metodo, argumentos);
+                        return resultado instanceof Statement sentencia ? contar(sentencia) : resultado;
+                    });
+        }
+
+        private static Statement contar(Statement sentencia) {
+            Set<Class<?>> interfaces = new LinkedHashSet<>(List.of(sentencia.getClass().getInterfaces()));
+            interfaces.add(Statement.class);
+            for (Class<?> tipo : List.of(PreparedStatement.class, CallableStatement.class)) {
+                if (tipo.isInstance(sentencia)) {
+                    interfaces.add(tipo);
+                }
+            }
+            return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                    interfaces.stream().filter(Class::isInterface).toArray(Class<?>[]::new),
+                    (proxy, metodo, argumentos) -> {
+                        if (EJECUCIONES.contains(metodo.getName())) {
+                            SENTENCIAS.incrementAndGet();
+                        }
+                        return invocar(sentencia, metodo, argumentos);
+                    });
+        }
+
+        private static Object invocar(Object destino, Method metodo, Object[] argumentos) throws Throwable {
+            try {
+                return metodo.invoke(destino, argumentos);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.ecomarket.orderservice.service;
 
+import com.ecomarket.orderservice.model.ClienteResumen;
 import com.ecomarket.orderservice.model.Pedido;
 import com.ecomarket.orderservice.model.DetallePedido;
+import com.ecomarket.orderservice.model.PaginaPedidos;
 import com.ecomarket.orderservice.repository.PedidoRepository;
 import com.ecomarket.orderservice.repository.DetallePedidoRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,8 +13,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +40,12 @@ class PedidoServiceTest {
     @Mock
     private DetallePedidoRepository detallePedidoRepository;
     
+    @Mock
+    private RankingVentasService rankingVentasService;
+    
+    @Mock
+    private ClienteResumenService clienteResumenService;
+    
     @InjectMocks
     private PedidoService pedidoService;
     
@@ -46,7 +58,7 @@ class PedidoServiceTest {
         // Configurar datos de prueba
         pedidoEjemplo = new Pedido();
         pedidoEjemplo.setPedidoId(1);
-        pedidoEjemplo.setFechaDePedido("2025-06-23");
+        pedidoEjemplo.setFechaDePedido(LocalDate.of(2025, 6, 23));
         pedidoEjemplo.setClienteId(1);
         pedidoEjemplo.setEstado("PENDIENTE");
         pedidoEjemplo.setDescuento(10.0);
@@ -89,6 +101,72 @@ class PedidoServiceTest {
         verify(pedidoRepository, times(1)).findAll();
     }
 
+    @Test
+    @DisplayName("Debe obtener la primera página por cursor con enlace a la siguiente")
+    void testObtenerPaginaPrimera() {
+        // Arrange - se piden tamaño + 1 filas para detectar la página siguiente
+        Pedido pedido2 = new Pedido();
+        pedido2.setPedidoId(2);
+        Pedido pedido3 = new Pedido();
+        pedido3.setPedidoId(3);
+        when(pedidoRepository.findPaginaSiguiente(0, Limit.of(3)))
+            .thenReturn(Arrays.asList(pedidoEjemplo, pedido2, pedido3));
+        
+        // Act
+        PaginaPedidos pagina = pedidoService.obtenerPagina(null, 2);
+        
+        // Assert
+        assertEquals(2, pagina.getPedidos().size());
+        assertEquals(2, pagina.getPedidos().get(1).getPedidoId());
+        assertNotNull(pagina.getCursorSiguiente());
+        assertNull(pagina.getCursorAnterior());
+        
+        // El cursor siguiente continúa después del último pedido de la página
+        when(pedidoRepository.findPaginaSiguiente(2, Limit.of(3))).thenReturn(List.of(pedido3));
+        PaginaPedidos siguiente = pedidoService.obtenerPagina(pagina.getCursorSiguiente(), 2);
+        assertEquals(1, siguiente.getPedidos().size());
+        assertNull(siguiente.getCursorSiguiente());
+        assertNotNull(siguiente.getCursorAnterior());
+    }
+
+    @Test
+    @DisplayName("Debe retroceder con el cursor anterior manteniendo el orden ascendente")
+    void testObtenerPaginaAnterior() {
+        // Arrange
+        Pedido pedido3 = new Pedido();
+        pedido3.setPedidoId(3);
+        when(pedidoRepository.findPaginaSiguiente(2, Limit.of(3))).thenReturn(List.of(pedido3));
+        Pedido pedido2 = new Pedido();
+        pedido2.setPedidoId(2);
+        when(pedidoRepository.findPaginaAnterior(3, Limit.of(3)))
+            .thenReturn(Arrays.asList(pedido2, pedidoEjemplo));
+        
+        // Act
+        PaginaPedidos actual = pedidoService.obtenerPagina(codificar("a:2"), 2);
+        PaginaPedidos anterior = pedidoService.obtenerPagina(actual.getCursorAnterior(), 2);
+        
+        // Assert
+        assertEquals(Arrays.asList(1, 2), anterior.getPedidos().stream().map(Pedido::getPedidoId).toList());
+        assertNull(anterior.getCursorAnterior());
+        assertNotNull(anterior.getCursorSiguiente());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un cursor inválido y limitar el tamaño de página")
+    void testObtenerPaginaValidaciones() {
+        assertThrows(IllegalArgumentException.class, () -> pedidoService.obtenerPagina("no-es-un-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> pedidoService.obtenerPagina(codificar("z:10"), 10));
+        
+        when(pedidoRepository.findPaginaSiguiente(0, Limit.of(501))).thenReturn(List.of());
+        PaginaPedidos pagina = pedidoService.obtenerPagina(null, 10_000);
+        assertEquals(500, pagina.getTamanio());
+        assertTrue(pagina.getPedidos().isEmpty());
+    }
+
+    private static String codificar(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes());
+    }
+
     @Test
     @DisplayName("Debe buscar pedido por ID correctamente")
     void testBuscarPorId() {
@@ -141,7 +219,6 @@ class PedidoServiceTest {
         
         // Configurar mocks
         when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedidoEjemplo);
-        when(detallePedidoRepository.save(any(DetallePedido.class))).thenReturn(detalleEjemplo);
         
         // Act
         Pedido pedidoCreado = pedidoService.crearPedido(pedidoNuevo, detalles);
@@ -152,14 +229,19 @@ class PedidoServiceTest {
         assertEquals(117.0, pedidoNuevo.getTotal()); // 130 - (130 * 10 / 100) = 117
         
         verify(pedidoRepository, times(1)).save(any(Pedido.class));
-        verify(detallePedidoRepository, times(2)).save(any(DetallePedido.class));
+        // Los detalles se guardan en una sola llamada (lote JDBC), no uno por uno
+        verify(detallePedidoRepository, times(1)).saveAll(detalles);
+        verify(detallePedidoRepository, never()).save(any(DetallePedido.class));
+        verify(rankingVentasService, times(1)).registrarVenta(detalles);
+        assertEquals(1, detalle1.getPedidoId());
+        assertEquals(100.0, detalle1.getSubTotal());
     }
 
     @Test
     @DisplayName("Debe actualizar pedido existente")
     void testActualizar() {
         // Arrange
-        when(pedidoRepository.existsById(1)).thenReturn(true);
+        when(pedidoRepository.findVersionById(1)).thenReturn(Optional.of(4L));
         when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedidoEjemplo);
         
         Pedido pedidoActualizado = new Pedido();
@@ -171,16 +253,32 @@ class PedidoServiceTest {
         // Assert
         assertNotNull(resultado);
         assertEquals(1, pedidoActualizado.getPedidoId());
+        // La versión se toma de la base, no del cuerpo de la solicitud
+        assertEquals(4L, pedidoActualizado.getVersion());
         
-        verify(pedidoRepository, times(1)).existsById(1);
+        verify(pedidoRepository, times(1)).findVersionById(1);
         verify(pedidoRepository, times(1)).save(pedidoActualizado);
     }
 
+    @Test
+    @DisplayName("Debe rechazar la actualización si la versión no coincide con If-Match")
+    void testActualizarVersionDistinta() {
+        // Arrange
+        when(pedidoRepository.findVersionById(1)).thenReturn(Optional.of(5L));
+        
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> pedidoService.actualizar(1, new Pedido(), 4L));
+        
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+        verifyNoInteractions(clienteResumenService);
+    }
+
     @Test
     @DisplayName("Debe retornar null al actualizar pedido inexistente")
     void testActualizarPedidoInexistente() {
         // Arrange
-        when(pedidoRepository.existsById(999)).thenReturn(false);
+        when(pedidoRepository.findVersionById(999)).thenReturn(Optional.empty());
         
         Pedido pedidoActualizado = new Pedido();
         
@@ -190,7 +288,7 @@ class PedidoServiceTest {
         // Assert
         assertNull(resultado);
         
-        verify(pedidoRepository, times(1)).existsById(999);
+        verify(pedidoRepository, times(1)).findVersionById(999);
         verify(pedidoRepository, never()).save(any(Pedido.class));
     }
 
@@ -216,10 +314,10 @@ class PedidoServiceTest {
     @DisplayName("Debe eliminar pedido con sus detalles")
     void testEliminar() {
         // Arrange
-        when(pedidoRepository.existsById(1)).thenReturn(true);
+        when(pedidoRepository.findVersionById(1)).thenReturn(Optional.of(2L));
         when(detallePedidoRepository.findByPedidoId(1)).thenReturn(detallesEjemplo);
         doNothing().when(detallePedidoRepository).deleteAll(detallesEjemplo);
-        doNothing().when(pedidoRepository).deleteById(1);
+        when(pedidoRepository.deleteByIdAndVersion(1, 2L)).thenReturn(1);
         
         // Act
         boolean resultado = pedidoService.eliminar(1);
@@ -227,10 +325,23 @@ class PedidoServiceTest {
         // Assert
         assertTrue(resultado);
         
-        verify(pedidoRepository, times(1)).existsById(1);
+        verify(pedidoRepository, times(1)).findVersionById(1);
         verify(detallePedidoRepository, times(1)).findByPedidoId(1);
         verify(detallePedidoRepository, times(1)).deleteAll(detallesEjemplo);
-        verify(pedidoRepository, times(1)).deleteById(1);
+        verify(rankingVentasService, times(1)).registrarEliminacion(detallesEjemplo);
+        verify(pedidoRepository, times(1)).deleteByIdAndVersion(1, 2L);
+    }
+
+    @Test
+    @DisplayName("Debe fallar al eliminar si otra transacción modificó el pedido entre medio")
+    void testEliminarModificadoConcurrentemente() {
+        // Arrange: la versión leída ya no está en la base al momento del DELETE
+        when(pedidoRepository.findVersionById(1)).thenReturn(Optional.of(2L));
+        when(detallePedidoRepository.findByPedidoId(1)).thenReturn(detallesEjemplo);
+        when(pedidoRepository.deleteByIdAndVersion(1, 2L)).thenReturn(0);
+        
+        // Act & Assert: la excepción revierte la transacción completa (detalles y ranking incluidos)
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> pedidoService.eliminar(1, null));
     }
 
     @Test
@@ -288,7 +399,7 @@ class PedidoServiceTest {
     @DisplayName("Debe calcular total de compras por cliente")
     void testTotalComprasPorCliente() {
         // Arrange
-        when(pedidoRepository.sumTotalByClienteId(1)).thenReturn(500.0);
+        when(clienteResumenService.obtener(1)).thenReturn(new ClienteResumen(1, 4L, 500.0, LocalDate.of(2025, 6, 23)));
         
         // Act
         Double total = pedidoService.totalComprasPorCliente(1);
@@ -296,14 +407,15 @@ class PedidoServiceTest {
         // Assert
         assertEquals(500.0, total);
         
-        verify(pedidoRepository, times(1)).sumTotalByClienteId(1);
+        verify(clienteResumenService, times(1)).obtener(1);
+        verify(pedidoRepository, never()).sumTotalByClienteId(anyInt());
     }
 
     @Test
     @DisplayName("Debe manejar total nulo para cliente sin compras")
     void testTotalComprasPorClienteSinCompras() {
         // Arrange
-        when(pedidoRepository.sumTotalByClienteId(999)).thenReturn(null);
+        when(clienteResumenService.obtener(999)).thenReturn(new ClienteResumen(999, 0L, 0.0, null));
         
         // Act
         Double total = pedidoService.totalComprasPorCliente(999);
@@ -311,7 +423,7 @@ class PedidoServiceTest {
         // Assert
         assertEquals(0.0, total);
         
-        verify(pedidoRepository, times(1)).sumTotalByClienteId(999);
+        verify(clienteResumenService, times(1)).obtener(999);
     }
 
     @Test
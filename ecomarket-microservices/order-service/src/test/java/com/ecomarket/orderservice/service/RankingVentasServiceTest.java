@@ -0,0 +1,302 @@
+package com.ecomarket.orderservice.service;
+
+import com.ecomarket.orderservice.dto.CrearPedidoRequest;
+import com.ecomarket.orderservice.dto.DetalleRequest;
+import com.ecomarket.orderservice.model.DetallePedido;
+import com.ecomarket.orderservice.model.Pedido;
+import com.ecomarket.orderservice.model.ProductoVendido;
+import com.ecomarket.orderservice.model.VentaProducto;
+import com.ecomarket.orderservice.repository.DetallePedidoRepository;
+import com.ecomarket.orderservice.repository.PedidoRepository;
+import com.ecomarket.orderservice.repository.VentaProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que el ranking de más vendidos se mantenga al crear y eliminar pedidos.
+ * Sin la transacción de prueba de @DataJpaTest: cada operación hace commit real,
+ * que es cuando se escribe venta_producto y se actualiza el ranking en memoria.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({PedidoService.class, RankingVentasService.class, ClienteResumenService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("RankingVentasService - Ranking incremental de más vendidos")
+class RankingVentasServiceTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private RankingVentasService rankingVentasService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private DetallePedidoRepository detallePedidoRepository;
+
+    @Autowired
+    private VentaProductoRepository ventaProductoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        detallePedidoRepository.deleteAllInBatch();
+        pedidoRepository.deleteAllInBatch();
+        ventaProductoRepository.deleteAllInBatch();
+        rankingVentasService.cargar();
+    }
+
+    @Test
+    @DisplayName("Crear pedidos debe sumar unidades en el contador y en el ranking")
+    void testCrearPedidosActualizaRanking() {
+        // Act
+        pedidoService.crearPedido(nuevoPedido(), List.of(detalle(1, 2), detalle(2, 5)));
+        pedidoService.crearPedido(nuevoPedido(), List.of(detalle(1, 4), detalle(3, 1), detalle(1, 1)));
+
+        // Assert
+        assertEquals(List.of(new ProductoVendido(1, 7L), new ProductoVendido(2, 5L), new ProductoVendido(3, 1L)),
+                pedidoService.obtenerProductosMasVendidos(10));
+        assertEquals(List.of(new ProductoVendido(1, 7L)), pedidoService.obtenerProductosMasVendidos(1));
+        assertEquals(7L, ventaProductoRepository.findById(1).map(VentaProducto::getCantidadVendida).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Eliminar un pedido debe restar sus unidades y quitar productos sin ventas")
+    void testEliminarPedidoActualizaRanking() {
+        // Arrange
+        pedidoService.crearPedido(nuevoPedido(), List.of(detalle(1, 3)));
+        Pedido eliminado = pedidoService.crearPedido(nuevoPedido(), List.of(detalle(1, 2), detalle(2, 8)));
+
+        // Act
+        assertTrue(pedidoService.eliminar(eliminado.getPedidoId()));
+
+        // Assert
+        assertEquals(List.of(new ProductoVendido(1, 3L)), pedidoService.obtenerProductosMasVendidos(null));
+        assertEquals(0L, ventaProductoRepository.findById(2).map(VentaProducto::getCantidadVendida).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Un rollback no debe modificar el contador ni el ranking")
+    void testRollbackNoActualizaRanking() {
+        // Arrange
+        pedidoService.crearPedido(nuevoPedido(), List.of(detalle(1, 3)));
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        // Act
+        transaccion.executeWithoutResult(status -> {
+            pedidoService.crearPedido(nuevoPedido(), List.of(detalle(2, 50)));
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertEquals(List.of(new ProductoVendido(1, 3L)), pedidoService.obtenerProductosMasVendidos(10));
+        assertFalse(ventaProductoRepository.existsById(2));
+    }
+
+    @Test
+    @DisplayName("Una carga masiva debe escribir el contador una vez por transacción")
+    void testCrearPedidosEnLoteAcumulaVariaciones() {
+        // Arrange
+        List<CrearPedidoRequest> solicitudes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            solicitudes.add(new CrearPedidoRequest(LocalDate.of(2025, 6, 23), 1, "PENDIENTE", 0.0, null, null, null, null, null,
+                    List.of(new DetalleRequest(1 + i % 3, 10.0, 1))));
+        }
+
+        // Act
+        pedidoService.crearPedidos(solicitudes);
+
+        // Assert - 7 pedidos del producto 1, 7 del 2 y 6 del 3
+        assertEquals(List.of(new ProductoVendido(1, 7L), new ProductoVendido(2, 7L), new ProductoVendido(3, 6L)),
+                pedidoService.obtenerProductosMasVendidos(10));
+        assertEquals(3, ventaProductoRepository.count());
+    }
+
+    @Test
+    @DisplayName("Reconstruir debe recalcular el ranking desde detalle_de_pedido")
+    void testReconstruir() {
+        // Arrange - detalles insertados sin pasar por PedidoService, como hace DataLoader
+        Pedido pedido = pedidoRepository.save(nuevoPedido());
+        DetallePedido suelto = detalle(9, 12);
+        suelto.setPedidoId(pedido.getPedidoId());
+        detallePedidoRepository.save(suelto);
+        pedidoService.crearPedido(nuevoPedido(), List.of(detalle(4, 2)));
+        assertEquals(List.of(new ProductoVendido(4, 2L)), pedidoService.obtenerProductosMasVendidos(10));
+
+        // Act
+        List<ProductoVendido> ranking = pedidoService.reconstruirProductosMasVendidos();
+
+        // Assert
+        List<ProductoVendido> esperado = List.of(new ProductoVendido(9, 12L), new ProductoVendido(4, 2L));
+        assertEquals(esperado, ranking);
+        assertEquals(esperado, pedidoService.obtenerProductosMasVendidos(10));
+        assertEquals(2, ventaProductoRepository.count());
+    }
+
+    @Test
+    @DisplayName("Primeras ventas concurrentes del mismo producto deben sumarse sin error de clave duplicada")
+    void testPrimerasVentasConcurrentes() throws Exception {
+        // Arrange - todas las transacciones registran la venta y llegan juntas al commit,
+        // cuando ninguna encontró todavía la fila de venta_producto del producto 5
+        int transacciones = 4;
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        CyclicBarrier antesDelCommit = new CyclicBarrier(transacciones);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(transacciones);
+
+        // Act
+        List<Future<?>> resultados = new ArrayList<>();
+        for (int i = 0; i < transacciones; i++) {
+            resultados.add(ejecutor.submit(() -> transaccion.executeWithoutResult(status -> {
+                pedidoService.crearPedido(nuevoPedido(), List.of(detalle(5, 3)));
+                try {
+                    antesDelCommit.await(30, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            })));
+        }
+        try {
+            for (Future<?> resultado : resultados) {
+                resultado.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(12L, ventaProductoRepository.findById(5).map(VentaProducto::getCantidadVendida).orElseThrow());
+        assertEquals(List.of(new ProductoVendido(5, 12L)), pedidoService.obtenerProductosMasVendidos(10));
+        assertEquals(transacciones, pedidoRepository.count());
+    }
+
+    @Test
+    @DisplayName("Reconstruir con rollback no debe cambiar el ranking en memoria")
+    void testReconstruirConRollback() {
+        // Arrange
+        pedidoService.crearPedido(nuevoPedido(), List.of(detalle(1, 3)));
+        ventaProductoRepository.deleteAllInBatch();
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        // Act
+        List<ProductoVendido> recalculado = transaccion.execute(status -> {
+            List<ProductoVendido> ranking = rankingVentasService.reconstruir();
+            status.setRollbackOnly();
+            return ranking;
+        });
+
+        // Assert - el resultado refleja el recálculo, pero solo un commit lo publica
+        assertEquals(List.of(new ProductoVendido(1, 3L)), recalculado);
+        assertEquals(List.of(new ProductoVendido(1, 3L)), pedidoService.obtenerProductosMasVendidos(10));
+        assertEquals(0, ventaProductoRepository.count());
+        rankingVentasService.cargar();
+        assertEquals(List.of(), pedidoService.obtenerProductosMasVendidos(10));
+    }
+
+    @Test
+    @DisplayName("Recargar debe incorporar las ventas que otra instancia escribió en venta_producto")
+    void testRecargarIncorporaVentasDeOtraInstancia() {
+        // Arrange - la fila del producto 8 la escribe otra instancia, este ranking no la vio
+        pedidoService.crearPedido(nuevoPedido(), List.of(detalle(1, 3)));
+        VentaProducto otraInstancia = new VentaProducto();
+        otraInstancia.setProductoId(8);
+        otraInstancia.setCantidadVendida(20L);
+        ventaProductoRepository.save(otraInstancia);
+        assertEquals(List.of(new ProductoVendido(1, 3L)), pedidoService.obtenerProductosMasVendidos(10));
+
+        // Act
+        rankingVentasService.recargar();
+
+        // Assert
+        assertEquals(List.of(new ProductoVendido(8, 20L), new ProductoVendido(1, 3L)),
+                pedidoService.obtenerProductosMasVendidos(10));
+    }
+
+    @Test
+    @DisplayName("Una recarga entre el commit y la aplicación de una venta no debe perderla ni contarla dos veces")
+    void testRecargarDuranteUnCommit() throws Exception {
+        // Arrange - la transacción se detiene después del commit, antes de aplicar sus variaciones
+        pedidoService.crearPedido(nuevoPedido(), List.of(detalle(1, 3)));
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        CountDownLatch confirmada = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            Future<?> venta = ejecutor.submit(() -> transaccion.executeWithoutResult(status -> {
+                // Registrada antes que la del ranking, así su afterCommit corre primero
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        confirmada.countDown();
+                        try {
+                            continuar.await(30, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+                pedidoService.crearPedido(nuevoPedido(), List.of(detalle(1, 4)));
+            }));
+            assertTrue(confirmada.await(30, TimeUnit.SECONDS));
+            Future<?> recarga = ejecutor.submit(rankingVentasService::recargar);
+            // La recarga espera a que la venta termine de aplicarse
+            Thread.sleep(200);
+            assertFalse(recarga.isDone());
+            continuar.countDown();
+            venta.get(30, TimeUnit.SECONDS);
+            recarga.get(30, TimeUnit.SECONDS);
+        } finally {
+            continuar.countDown();
+            ejecutor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(7L, ventaProductoRepository.findById(1).map(VentaProducto::getCantidadVendida).orElseThrow());
+        assertEquals(List.of(new ProductoVendido(1, 7L)), pedidoService.obtenerProductosMasVendidos(10));
+    }
+
+    private Pedido nuevoPedido() {
+        Pedido pedido = new Pedido();
+        pedido.setFechaDePedido(LocalDate.of(2025, 6, 23));
+        pedido.setClienteId(1);
+        pedido.setEstado("PENDIENTE");
+        pedido.setDescuento(0.0);
+        return pedido;
+    }
+
+    private DetallePedido detalle(int productoId, int cantidad) {
+        DetallePedido detalle = new DetallePedido();
+        detalle.setProductoId(productoId);
+        detalle.setPrecioUnitario(10.0);
+        detalle.setCantidad(cantidad);
+        return detalle;
+    }
+}
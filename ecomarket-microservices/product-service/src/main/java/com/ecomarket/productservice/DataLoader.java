@@ -28,6 +28,10 @@ public class DataLoader implements CommandLineRunner {
      */
     @Override
     public void run(String... args) throws Exception {
+        // El catálogo ya existe (p. ej. lo cargó GeneradorEscala)
+        if (productRepository.count() > 0) {
+            return;
+        }
         Faker faker = new Faker();
         Random random = new Random();
         // Estados posibles para los productos
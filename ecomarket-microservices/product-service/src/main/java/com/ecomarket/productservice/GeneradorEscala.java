@@ -0,0 +1,175 @@
+package com.ecomarket.productservice;
+
+// Generador determinista del catálogo para pruebas de rendimiento, por factor de escala:
+// SF=1 son 10k productos, los mismos que referencian los pedidos del GeneradorEscala de order-service.
+// Se activa con ecomarket.generador.escala (solo H2, tabla vacía) y corre antes que el DataLoader de dev.
+// Los IDs son explícitos (1..productos) y se insertan con lotes JDBC desde un pool de hilos;
+// cada bloque usa su propio Random derivado de la semilla, así el resultado no depende de los hilos.
+import net.datafaker.Faker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "ecomarket.generador.escala")
+public class GeneradorEscala implements CommandLineRunner {
+
+    static final int PRODUCTOS_POR_ESCALA = 10_000;
+    static final int CATEGORIAS = 20;
+    private static final int PRODUCTOS_POR_BLOQUE = 1_000;
+    private static final LocalDateTime FECHA_INICIAL = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] ESTADOS_NO_ACTIVOS = {"INACTIVE", "DISCONTINUED"};
+    // Mismas piezas que los nombres del DataLoader
+    private static final String[] ADJETIVOS = {"Orgánico", "Natural", "Ecológico", "Sustentable", "Biodegradable"};
+    private static final String[] TIPOS = {"Jabón", "Champú", "Acondicionador", "Gel de ducha", "Crema hidratante"};
+    private static final String[] AROMAS = {"lavanda", "eucalipto", "menta", "cítricos", "rosa mosqueta"};
+
+    private static final String INSERT_PRODUCTO = "INSERT INTO producto (producto_id, nombre_producto, codigo_sku, " +
+            "precio_unitario, precio_compra, margen_ganancia, descripcion, categoria_id, proveedor_principal_id, " +
+            "es_ecologico, fecha_registro, estado, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${ecomarket.generador.escala}")
+    private double escala;
+
+    @Value("${ecomarket.generador.semilla:42}")
+    private long semilla = 42;
+
+    // 0: un hilo por procesador
+    @Value("${ecomarket.generador.hilos:0}")
+    private int hilos;
+
+    @Value("${ecomarket.generador.tamanio-lote:1000}")
+    private int tamanioLote = 1000;
+
+    private record FilaProducto(int productoId, String nombre, double precioUnitario, double precioCompra,
+                                double margen, String descripcion, int categoriaId, int proveedorId,
+                                boolean esEcologico, String fechaRegistro, String estado) {
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        String baseDeDatos = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(baseDeDatos)) {
+            throw new IllegalStateException("El generador de escala solo admite H2, no " + baseDeDatos);
+        }
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM producto", Long.class) > 0) {
+            throw new IllegalStateException("El generador de escala requiere la tabla producto vacía");
+        }
+
+        long inicio = System.currentTimeMillis();
+        int productos = Math.max(1, (int) Math.round(PRODUCTOS_POR_ESCALA * escala));
+        int proveedores = Math.max(10, productos / 100);
+        String[] descripciones = descripciones();
+        int bloques = (productos + PRODUCTOS_POR_BLOQUE - 1) / PRODUCTOS_POR_BLOQUE;
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<?>> resultados = new ArrayList<>(bloques);
+            for (int bloque = 0; bloque < bloques; bloque++) {
+                int desde = bloque * PRODUCTOS_POR_BLOQUE + 1;
+                int hasta = Math.min(productos, desde + PRODUCTOS_POR_BLOQUE - 1);
+                SplittableRandom random = new SplittableRandom(mezclar(semilla, -1 - bloque));
+                resultados.add(ejecutor.submit(() -> insertarBloque(random, desde, hasta, proveedores, descripciones)));
+            }
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+
+        // IDs explícitos: la identidad debe continuar después de los generados
+        jdbcTemplate.execute("ALTER TABLE producto ALTER COLUMN producto_id RESTART WITH " + (productos + 1));
+        System.out.printf("🌱 Generador de escala %.2f: %d productos en %d ms%n",
+                escala, productos, System.currentTimeMillis() - inicio);
+    }
+
+    private void insertarBloque(SplittableRandom random, int desde, int hasta, int proveedores, String[] descripciones) {
+        List<FilaProducto> filas = new ArrayList<>(hasta - desde + 1);
+        for (int productoId = desde; productoId <= hasta; productoId++) {
+            // Precio y margen según el ID, como los calcula order-service para las líneas de pedido
+            long h = mezclar(semilla, productoId);
+            double precioCompra = 1 + Math.floorMod(h, 4900) / 100.0;
+            double margen = 0.3 + Math.floorMod(h >>> 20, 5000) / 10000.0;
+            filas.add(new FilaProducto(
+                    productoId,
+                    ADJETIVOS[random.nextInt(ADJETIVOS.length)] + " " + TIPOS[random.nextInt(TIPOS.length)] +
+                            " de " + AROMAS[random.nextInt(AROMAS.length)],
+                    precioProducto(semilla, productoId),
+                    precioCompra,
+                    margen,
+                    descripciones[random.nextInt(descripciones.length)],
+                    1 + random.nextInt(CATEGORIAS),
+                    1 + random.nextInt(proveedores),
+                    random.nextInt(100) < 80,
+                    FECHA_INICIAL.plusMinutes(random.nextInt(2 * 365 * 24 * 60)).format(FORMATO_FECHA),
+                    random.nextInt(100) < 90 ? "ACTIVE" : ESTADOS_NO_ACTIVOS[random.nextInt(ESTADOS_NO_ACTIVOS.length)]));
+        }
+        jdbcTemplate.batchUpdate(INSERT_PRODUCTO, filas, tamanioLote, (ps, fila) -> {
+            ps.setInt(1, fila.productoId());
+            ps.setString(2, fila.nombre());
+            ps.setString(3, String.format("ECO-%06d", fila.productoId()));
+            ps.setDouble(4, fila.precioUnitario());
+            ps.setDouble(5, fila.precioCompra());
+            ps.setDouble(6, fila.margen());
+            ps.setString(7, fila.descripcion());
+            ps.setInt(8, fila.categoriaId());
+            ps.setInt(9, fila.proveedorId());
+            ps.setBoolean(10, fila.esEcologico());
+            ps.setString(11, fila.fechaRegistro());
+            ps.setString(12, fila.estado());
+        });
+    }
+
+    // Datafaker es lento por fila: se arma un conjunto fijo de descripciones con la semilla y se sortea desde ahí
+    private String[] descripciones() {
+        Faker faker = new Faker(new Locale("es"), new Random(semilla));
+        String[] descripciones = new String[500];
+        for (int i = 0; i < descripciones.length; i++) {
+            descripciones[i] = "Este producto " + faker.lorem().word() + " está elaborado con ingredientes 100% " +
+                    faker.commerce().material() + " y aceites esenciales puros. Ideal para una vida más " +
+                    faker.lorem().word() + " y saludable.";
+        }
+        return descripciones;
+    }
+
+    /**
+     * Precio unitario del producto productoId. Misma fórmula que GeneradorEscala de
+     * order-service: con igual semilla, las líneas de pedido usan este precio.
+     */
+    static double precioProducto(long semilla, int productoId) {
+        long h = mezclar(semilla, productoId);
+        double precioCompra = 1 + Math.floorMod(h, 4900) / 100.0;
+        double margen = 0.3 + Math.floorMod(h >>> 20, 5000) / 10000.0;
+        return Math.round(precioCompra * (1 + margen) * 100.0) / 100.0;
+    }
+
+    // SplitMix64: valores bien repartidos para semillas e IDs consecutivos
+    static long mezclar(long semilla, long valor) {
+        long z = semilla * 0x9E3779B97F4A7C15L + valor;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
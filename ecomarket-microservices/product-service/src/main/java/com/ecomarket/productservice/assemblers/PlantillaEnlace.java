@@ -0,0 +1,216 @@
+package com.ecomarket.productservice.assemblers;
+
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.core.DummyInvocationUtils;
+import org.springframework.hateoas.server.core.MethodInvocation;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Enlace HATEOAS precalculado para un método de controlador.
+ *
+ * linkTo(methodOn(...)) crea un proxy, lee las anotaciones del método por reflexión y
+ * arma la URI desde la solicitud en cada llamada. PlantillaEnlace hace ese trabajo una
+ * sola vez por base de la solicitud (esquema, host, puerto y context path) y luego solo
+ * reemplaza las variables de la plantilla, con el mismo href que produciría linkTo.
+ *
+ * Se declara como constante invocando el método con argumentos cualquiera, y se expande
+ * con los argumentos reales en el mismo orden que los recibe el método:
+ * <pre>
+ *   PlantillaEnlace POR_ID = PlantillaEnlace.de(methodOn(ProductoControllerV2.class).obtenerPorId(null, null));
+ *   POR_ID.expandir(producto.getProductoId(), null).withSelfRel();
+ * </pre>
+ * Los valores se convierten con String.valueOf: sirve para los tipos que se usan en las
+ * variables de los controladores (números y texto).
+ */
+public final class PlantillaEnlace {
+
+    private static final String ATRIBUTO_BASE = PlantillaEnlace.class.getName() + ".base";
+
+    // Acota la memoria si llegan solicitudes con muchos Host distintos: el resto se resuelve sin guardar
+    private static final int MAXIMO_BASES = 16;
+
+    private final Class<?> controlador;
+    private final Method metodo;
+    private final List<String> parametros;
+    private final ConcurrentMap<String, Plantilla> porBase = new ConcurrentHashMap<>();
+
+    private PlantillaEnlace(Class<?> controlador, Method metodo) {
+        this.controlador = controlador;
+        this.metodo = metodo;
+        this.parametros = metodo != null ? nombresDeVariables(metodo) : List.of();
+    }
+
+    /**
+     * Plantilla para el método invocado sobre methodOn(...). Los argumentos de esa
+     * invocación se ignoran.
+     */
+    public static PlantillaEnlace de(Object invocacion) {
+        MethodInvocation ultima = DummyInvocationUtils.getLastInvocationAware(invocacion).getLastInvocation();
+        return new PlantillaEnlace(ultima.getTargetType(), ultima.getMethod());
+    }
+
+    /**
+     * Plantilla para el mapeo del controlador, equivalente a linkTo(Controlador.class).
+     */
+    public static PlantillaEnlace de(Class<?> controlador) {
+        return new PlantillaEnlace(controlador, null);
+    }
+
+    /**
+     * Arma el enlace (con rel self) reemplazando las variables por los argumentos. Un argumento
+     * null deja la variable en la plantilla, igual que linkTo.
+     */
+    public Link expandir(Object... argumentos) {
+        String base = baseActual();
+        Plantilla plantilla = porBase.get(base);
+        if (plantilla == null) {
+            plantilla = resolver();
+            if (porBase.size() < MAXIMO_BASES) {
+                porBase.putIfAbsent(base, plantilla);
+            }
+        }
+        return Link.of(plantilla.expandir(argumentos));
+    }
+
+    // linkTo con todos los argumentos en null deja cada variable como {nombre} o {?nombre,...}
+    private Plantilla resolver() {
+        String href = metodo != null
+                ? linkTo(controlador, metodo, new Object[metodo.getParameterCount()]).withSelfRel().getHref()
+                : linkTo(controlador).withSelfRel().getHref();
+        return new Plantilla(href, parametros);
+    }
+
+    // Base calculada una vez por solicitud, igual que la usa WebMvcLinkBuilder
+    private static String baseActual() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos == null) {
+            return "";
+        }
+        Object base = atributos.getAttribute(ATRIBUTO_BASE, RequestAttributes.SCOPE_REQUEST);
+        if (base == null) {
+            base = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+            atributos.setAttribute(ATRIBUTO_BASE, base, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (String) base;
+    }
+
+    // Nombre de la variable de plantilla de cada parámetro (null si no aparece en la URI, ej. @RequestBody)
+    private static List<String> nombresDeVariables(Method metodo) {
+        List<String> nombres = new ArrayList<>(metodo.getParameterCount());
+        for (int i = 0; i < metodo.getParameterCount(); i++) {
+            MethodParameter parametro = new MethodParameter(metodo, i);
+            parametro.initParameterNameDiscovery(new DefaultParameterNameDiscoverer());
+            PathVariable variable = parametro.getParameterAnnotation(PathVariable.class);
+            RequestParam solicitud = parametro.getParameterAnnotation(RequestParam.class);
+            String nombre = null;
+            if (variable != null) {
+                nombre = !variable.name().isEmpty() ? variable.name() : variable.value();
+            } else if (solicitud != null) {
+                nombre = !solicitud.name().isEmpty() ? solicitud.name() : solicitud.value();
+            }
+            if (nombre != null && nombre.isEmpty()) {
+                nombre = parametro.getParameterName();
+            }
+            nombres.add(nombre);
+        }
+        return nombres;
+    }
+
+    /**
+     * href de linkTo separado en texto fijo, variables de ruta ({id}) y variables de
+     * consulta ({?a,b}), con el índice del argumento que corresponde a cada variable.
+     */
+    private static final class Plantilla {
+
+        private final List<String> literales = new ArrayList<>();
+        private final List<Integer> variablesRuta = new ArrayList<>();
+        private final List<String> nombresRuta = new ArrayList<>();
+        private final List<String> nombresConsulta = new ArrayList<>();
+        private final List<Integer> variablesConsulta = new ArrayList<>();
+        private final boolean consultaEnLiteral;
+
+        Plantilla(String href, List<String> parametros) {
+            int desde = 0;
+            StringBuilder literal = new StringBuilder();
+            while (desde < href.length()) {
+                int abre = href.indexOf('{', desde);
+                if (abre < 0) {
+                    literal.append(href, desde, href.length());
+                    break;
+                }
+                int cierra = href.indexOf('}', abre);
+                literal.append(href, desde, abre);
+                String expresion = href.substring(abre + 1, cierra);
+                if (expresion.startsWith("?") || expresion.startsWith("&")) {
+                    for (String nombre : expresion.substring(1).split(",")) {
+                        nombresConsulta.add(nombre);
+                        variablesConsulta.add(parametros.indexOf(nombre));
+                    }
+                } else {
+                    literales.add(literal.toString());
+                    literal.setLength(0);
+                    nombresRuta.add(expresion);
+                    variablesRuta.add(parametros.indexOf(expresion));
+                }
+                desde = cierra + 1;
+            }
+            literales.add(literal.toString());
+            consultaEnLiteral = String.join("", literales).contains("?");
+        }
+
+        String expandir(Object[] argumentos) {
+            StringBuilder href = new StringBuilder(literales.get(0));
+            for (int i = 0; i < variablesRuta.size(); i++) {
+                Object valor = valor(argumentos, variablesRuta.get(i));
+                if (valor != null) {
+                    href.append(UriUtils.encode(String.valueOf(valor), StandardCharsets.UTF_8));
+                } else {
+                    href.append('{').append(nombresRuta.get(i)).append('}');
+                }
+                href.append(literales.get(i + 1));
+            }
+            if (nombresConsulta.isEmpty()) {
+                return href.toString();
+            }
+            boolean hayConsulta = consultaEnLiteral;
+            List<String> pendientes = null;
+            for (int i = 0; i < nombresConsulta.size(); i++) {
+                Object valor = valor(argumentos, variablesConsulta.get(i));
+                if (valor != null) {
+                    href.append(hayConsulta ? '&' : '?').append(nombresConsulta.get(i)).append('=')
+                        .append(UriUtils.encode(String.valueOf(valor), StandardCharsets.UTF_8));
+                    hayConsulta = true;
+                } else {
+                    if (pendientes == null) {
+                        pendientes = new ArrayList<>(nombresConsulta.size());
+                    }
+                    pendientes.add(nombresConsulta.get(i));
+                }
+            }
+            if (pendientes != null) {
+                href.append(hayConsulta ? "{&" : "{?").append(String.join(",", pendientes)).append('}');
+            }
+            return href.toString();
+        }
+
+        private static Object valor(Object[] argumentos, int indice) {
+            return indice >= 0 && indice < argumentos.length ? argumentos[indice] : null;
+        }
+    }
+}
@@ -6,30 +6,39 @@ import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.lang.NonNull;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Component
+@Lazy
 public class ProductoModelAssembler implements RepresentationModelAssembler<Producto, EntityModel<Producto>> {
 
+    // Plantillas de enlace resueltas una vez por base de la solicitud (ver PlantillaEnlace)
+    private static final PlantillaEnlace PRODUCTOS = PlantillaEnlace.de(ProductoControllerV2.class);
+    private static final PlantillaEnlace POR_ID = PlantillaEnlace.de(methodOn(ProductoControllerV2.class).obtenerPorId(null, null));
+    private static final PlantillaEnlace ACTUALIZAR = PlantillaEnlace.de(methodOn(ProductoControllerV2.class).actualizar(null, null, null));
+    private static final PlantillaEnlace ELIMINAR = PlantillaEnlace.de(methodOn(ProductoControllerV2.class).eliminar(null, null));
+    private static final PlantillaEnlace ECOLOGICOS = PlantillaEnlace.de(methodOn(ProductoControllerV2.class).obtenerProductosEcologicos());
+    private static final PlantillaEnlace POR_CATEGORIA = PlantillaEnlace.de(methodOn(ProductoControllerV2.class).obtenerPorCategoria(null));
+    private static final PlantillaEnlace POR_PROVEEDOR = PlantillaEnlace.de(methodOn(ProductoControllerV2.class).obtenerPorProveedor(null));
+    private static final PlantillaEnlace POR_RANGO_PRECIO = PlantillaEnlace.de(methodOn(ProductoControllerV2.class).obtenerPorRangoPrecio(null, null));
+
     @Override
     public @NonNull EntityModel<Producto> toModel(@NonNull Producto producto) {
         List<Link> links = new ArrayList<>();
         // Link a sí mismo (self)
-        links.add(linkTo(methodOn(ProductoControllerV2.class)
-                .obtenerPorId(producto.getProductoId())).withSelfRel());
+        links.add(POR_ID.expandir(producto.getProductoId()).withSelfRel());
         // Link a la colección de productos
-        links.add(linkTo(ProductoControllerV2.class).withRel("productos"));
+        links.add(PRODUCTOS.expandir().withRel("productos"));
         // Link para actualizar producto
-        links.add(linkTo(methodOn(ProductoControllerV2.class)
-                .actualizar(producto.getProductoId(), null)).withRel("update"));
+        links.add(ACTUALIZAR.expandir(producto.getProductoId(), null).withRel("update"));
         // Link para eliminar producto
-        links.add(linkTo(methodOn(ProductoControllerV2.class)
-                .eliminar(producto.getProductoId())).withRel("delete"));
+        links.add(ELIMINAR.expandir(producto.getProductoId()).withRel("delete"));
         // Links condicionales y relacionados
         links.addAll(buildConditionalLinks(producto));
         return EntityModel.of(producto, links);
@@ -42,35 +51,30 @@ public class ProductoModelAssembler implements RepresentationModelAssembler<Prod
         List<Link> links = new ArrayList<>();
         // Si es producto ecológico, link a productos ecológicos
         if (Boolean.TRUE.equals(producto.getEsEcologico())) {
-            links.add(linkTo(methodOn(ProductoControllerV2.class)
-                    .obtenerProductosEcologicos())
+            links.add(ECOLOGICOS.expandir()
                     .withRel("productos-ecologicos")
                     .withTitle("Ver todos los productos ecológicos"));
         }
         // Link a productos de la misma categoría
         if (producto.getCategoriaId() != null) {
-            links.add(linkTo(methodOn(ProductoControllerV2.class)
-                    .obtenerPorCategoria(producto.getCategoriaId()))
+            links.add(POR_CATEGORIA.expandir(producto.getCategoriaId())
                     .withRel("misma-categoria")
                     .withTitle("Productos de la misma categoría"));
         }
         // Link a productos del mismo proveedor
         if (producto.getProveedorPrincipalId() != null) {
-            links.add(linkTo(methodOn(ProductoControllerV2.class)
-                    .obtenerPorProveedor(producto.getProveedorPrincipalId()))
+            links.add(POR_PROVEEDOR.expandir(producto.getProveedorPrincipalId())
                     .withRel("mismo-proveedor")
                     .withTitle("Productos del mismo proveedor"));
         }
         // Links condicionales según el estado
         if ("ACTIVE".equalsIgnoreCase(producto.getEstado())) {
-            links.add(linkTo(methodOn(ProductoControllerV2.class)
-                    .actualizar(producto.getProductoId(), null))
+            links.add(ACTUALIZAR.expandir(producto.getProductoId(), null)
                     .withRel("deactivate")
                     .withTitle("Desactivar producto"));
         }
         if ("INACTIVE".equalsIgnoreCase(producto.getEstado())) {
-            links.add(linkTo(methodOn(ProductoControllerV2.class)
-                    .actualizar(producto.getProductoId(), null))
+            links.add(ACTUALIZAR.expandir(producto.getProductoId(), null)
                     .withRel("activate")
                     .withTitle("Activar producto"));
         }
@@ -79,8 +83,7 @@ public class ProductoModelAssembler implements RepresentationModelAssembler<Prod
             double precio = producto.getPrecioUnitario();
             double rangoMin = precio * 0.8; // 20% menos
             double rangoMax = precio * 1.2; // 20% más
-            links.add(linkTo(methodOn(ProductoControllerV2.class)
-                    .obtenerPorRangoPrecio(rangoMin, rangoMax))
+            links.add(POR_RANGO_PRECIO.expandir(rangoMin, rangoMax)
                     .withRel("precio-similar")
                     .withTitle("Productos con precio similar"));
         }
@@ -92,8 +95,7 @@ public class ProductoModelAssembler implements RepresentationModelAssembler<Prod
      */
     public EntityModel<Producto> toSimpleModel(Producto producto) {
         return EntityModel.of(producto,
-                linkTo(methodOn(ProductoControllerV2.class)
-                        .obtenerPorId(producto.getProductoId())).withSelfRel(),
-                linkTo(ProductoControllerV2.class).withRel("productos"));
+                POR_ID.expandir(producto.getProductoId()).withSelfRel(),
+                PRODUCTOS.expandir().withRel("productos"));
     }
 }
@@ -0,0 +1,23 @@
+package com.ecomarket.productservice.config;
+
+// Configuración de la caché en memoria del catálogo de productos.
+// Las lecturas por ID, SKU y categoría se sirven desde Caffeine (tamaño máximo + TTL) y
+// se invalidan en cada escritura desde ProductoService.
+// Tamaño, TTL y nombres de cachés se definen en application.properties (spring.cache.*);
+// las estadísticas quedan en /actuator/caches y /actuator/metrics/cache.gets.
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Producto por productoId
+    public static final String PRODUCTOS = "productos";
+
+    // Producto por codigoSKU
+    public static final String PRODUCTOS_POR_SKU = "productosPorSku";
+
+    // Lista de productos por categoriaId
+    public static final String PRODUCTOS_POR_CATEGORIA = "productosPorCategoria";
+}
@@ -8,10 +8,13 @@ import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.servers.Server;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 import java.util.List;
 
+// Perezosa: el OpenAPI se arma con la primera solicitud a /v3/api-docs, no al arrancar
 @Configuration
+@Lazy
 public class SwaggerConfig {
 
     /**
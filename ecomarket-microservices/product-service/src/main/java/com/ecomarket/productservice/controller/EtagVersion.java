@@ -0,0 +1,54 @@
+package com.ecomarket.productservice.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+// ETag fuerte a partir de la columna @Version de la entidad ("3" para la versión 3).
+//
+// Las condiciones las evalúa WebRequest.checkNotModified (orden de la RFC 9110):
+//   GET con If-None-Match igual a la versión actual -> 304 sin cuerpo
+//   PUT/DELETE con If-Match distinto de la versión actual -> 412
+// Cuando checkNotModified devuelve true el estado ya quedó en la respuesta y el controlador devuelve null
+// (en las escrituras, lo que entrega Precondicion.respuesta()).
+final class EtagVersion {
+
+    private EtagVersion() {
+    }
+
+    static String de(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    // GET: true si el cliente ya tiene la versión actual (respuesta 304). Solo consulta la
+    // versión cuando la solicitud trae If-None-Match, así el resto no paga la consulta extra.
+    static boolean noModificado(WebRequest request, Supplier<Long> versionActual) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(de(versionActual.get()));
+    }
+
+    // PUT/DELETE: evalúa If-Match contra la versión actual. Sin If-Match no consulta la versión
+    // y la escritura procede sin comparar; si el recurso no existe falla con 404.
+    static Precondicion precondicion(WebRequest request, Supplier<Long> versionActual) {
+        if (request.getHeader(HttpHeaders.IF_MATCH) == null) {
+            return new Precondicion(null, false, false);
+        }
+        Long version = versionActual.get();
+        if (version == null) {
+            return new Precondicion(null, true, true);
+        }
+        return new Precondicion(version, request.checkNotModified(de(version)), false);
+    }
+
+    // Resultado de If-Match: la versión que debe tener la fila al escribir (null sin If-Match)
+    // o, si la precondición falló, la respuesta con la que el controlador termina.
+    record Precondicion(Long versionEsperada, boolean fallida, boolean noEncontrado) {
+
+        // 404 si no existe; null cuando checkNotModified ya dejó el 412 en la respuesta
+        <T> ResponseEntity<T> respuesta() {
+            return noEncontrado ? ResponseEntity.notFound().build() : null;
+        }
+    }
+}
@@ -4,6 +4,7 @@ package com.ecomarket.productservice.controller;
 // Permite la navegación hipermedia, filtros, estadísticas y operaciones CRUD enriquecidas.
 // Se diseñó para cumplir con mejores prácticas REST y facilitar la exploración dinámica de la API.
 import com.ecomarket.productservice.assemblers.ProductoModelAssembler;
+import com.ecomarket.productservice.model.EstadisticasCatalogo;
 import com.ecomarket.productservice.model.Producto;
 import com.ecomarket.productservice.service.ProductoService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,12 +13,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -32,7 +36,9 @@ public class ProductoControllerV2 {
     @Autowired
     private ProductoService productoService;
 
+    // Perezoso (@Lazy): el assembler se crea con la primera solicitud que lo usa, no al arrancar
     @Autowired
+    @Lazy
     private ProductoModelAssembler assembler;
 
     // Endpoint que retorna todos los productos con enlaces HATEOAS.
@@ -59,21 +65,27 @@ public class ProductoControllerV2 {
 
     // Endpoint para obtener un producto por ID con enlaces HATEOAS.
     // Permite a los clientes descubrir acciones relacionadas con ese producto.
+    // Responde con ETag; si If-None-Match coincide devuelve 304 sin armar el modelo ni serializarlo.
     @Operation(
         summary = "Obtener producto por ID con HATEOAS",
         description = "Busca un producto específico y retorna todos sus enlaces relacionados"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Producto encontrado exitosamente"),
+        @ApiResponse(responseCode = "304", description = "El producto no cambió desde el ETag de If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Producto no encontrado")
     })
     @GetMapping("/{id}")
     public ResponseEntity<EntityModel<Producto>> obtenerPorId(
             @Parameter(description = "ID único del producto", example = "1")
-            @PathVariable Integer id) {
+            @PathVariable Integer id,
+            WebRequest request) {
+        if (EtagVersion.noModificado(request, () -> productoService.obtenerVersion(id))) {
+            return null;
+        }
         Producto producto = productoService.buscarPorId(id);
         if (producto != null) {
-            return ResponseEntity.ok(assembler.toModel(producto));
+            return ResponseEntity.ok().eTag(EtagVersion.de(producto.getVersion())).body(assembler.toModel(producto));
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -105,19 +117,30 @@ public class ProductoControllerV2 {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Producto actualizado exitosamente"),
         @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
-        @ApiResponse(responseCode = "400", description = "Datos de producto inválidos")
+        @ApiResponse(responseCode = "400", description = "Datos de producto inválidos"),
+        @ApiResponse(responseCode = "412", description = "If-Match no coincide con la versión actual")
     })
     @PutMapping("/{id}")
     public ResponseEntity<EntityModel<Producto>> actualizar(
             @Parameter(description = "ID del producto a actualizar", example = "1")
             @PathVariable Integer id,
             @Parameter(description = "Nuevos datos del producto", required = true)
-            @RequestBody Producto producto) {
-        Producto updatedProducto = productoService.actualizar(id, producto);
-        if (updatedProducto != null) {
-            return ResponseEntity.ok(assembler.toModel(updatedProducto));
-        } else {
-            return ResponseEntity.notFound().build();
+            @RequestBody Producto producto,
+            WebRequest request) {
+        EtagVersion.Precondicion precondicion = EtagVersion.precondicion(request, () -> productoService.obtenerVersion(id));
+        if (precondicion.fallida()) {
+            return precondicion.respuesta();
+        }
+        Long versionEsperada = precondicion.versionEsperada();
+        try {
+            Producto updatedProducto = productoService.actualizar(id, producto, versionEsperada);
+            if (updatedProducto != null) {
+                return ResponseEntity.ok().eTag(EtagVersion.de(updatedProducto.getVersion())).body(assembler.toModel(updatedProducto));
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
     }
 
@@ -127,16 +150,27 @@ public class ProductoControllerV2 {
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Producto eliminado exitosamente"),
-        @ApiResponse(responseCode = "404", description = "Producto no encontrado")
+        @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+        @ApiResponse(responseCode = "412", description = "If-Match no coincide con la versión actual")
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> eliminar(
             @Parameter(description = "ID del producto a eliminar", example = "1")
-            @PathVariable Integer id) {
-        if (productoService.eliminar(id)) {
-            return ResponseEntity.noContent().build();
-        } else {
-            return ResponseEntity.notFound().build();
+            @PathVariable Integer id,
+            WebRequest request) {
+        EtagVersion.Precondicion precondicion = EtagVersion.precondicion(request, () -> productoService.obtenerVersion(id));
+        if (precondicion.fallida()) {
+            return precondicion.respuesta();
+        }
+        Long versionEsperada = precondicion.versionEsperada();
+        try {
+            if (productoService.eliminar(id, versionEsperada)) {
+                return ResponseEntity.noContent().build();
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
     }
 
@@ -163,8 +197,7 @@ public class ProductoControllerV2 {
     )
     @GetMapping("/activos")
     public CollectionModel<EntityModel<Producto>> obtenerProductosActivos() {
-        List<EntityModel<Producto>> productosActivos = productoService.obtenerTodos().stream()
-                .filter(producto -> "ACTIVE".equals(producto.getEstado()))
+        List<EntityModel<Producto>> productosActivos = productoService.obtenerActivos().stream()
                 .map(assembler::toSimpleModel)
                 .collect(Collectors.toList());
         return CollectionModel.of(productosActivos)
@@ -198,8 +231,7 @@ public class ProductoControllerV2 {
     public CollectionModel<EntityModel<Producto>> obtenerPorProveedor(
             @Parameter(description = "ID del proveedor", example = "1")
             @PathVariable Integer proveedorId) {
-        List<EntityModel<Producto>> productosPorProveedor = productoService.obtenerTodos().stream()
-                .filter(producto -> proveedorId.equals(producto.getProveedorPrincipalId()))
+        List<EntityModel<Producto>> productosPorProveedor = productoService.obtenerPorProveedor(proveedorId).stream()
                 .map(assembler::toSimpleModel)
                 .collect(Collectors.toList());
         return CollectionModel.of(productosPorProveedor)
@@ -231,11 +263,11 @@ public class ProductoControllerV2 {
     )
     @GetMapping("/estadisticas")
     public ResponseEntity<EntityModel<EstadisticasProductos>> totalProductos() {
-        int total = productoService.totalProductos();
-        int ecologicos = productoService.obtenerProductosEcologicos().size();
-        int activos = (int) productoService.obtenerTodos().stream()
-                .filter(p -> "ACTIVE".equals(p.getEstado()))
-                .count();
+        // Una sola consulta agregada en vez de cargar la tabla para contar
+        EstadisticasCatalogo conteos = productoService.obtenerEstadisticas();
+        int total = conteos.total().intValue();
+        int ecologicos = conteos.ecologicos().intValue();
+        int activos = conteos.activos().intValue();
         EstadisticasProductos stats = new EstadisticasProductos(
                 total,
                 ecologicos,
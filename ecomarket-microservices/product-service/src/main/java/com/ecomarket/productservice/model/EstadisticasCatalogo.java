@@ -0,0 +1,6 @@
+package com.ecomarket.productservice.model;
+
+// Conteos del catálogo obtenidos en una sola consulta agregada (COUNT + SUM CASE).
+// Se usa en /api/v2/productos/estadisticas en lugar de cargar la tabla completa para contar.
+public record EstadisticasCatalogo(Long total, Long ecologicos, Long activos) {
+}
@@ -3,14 +3,24 @@ package com.ecomarket.productservice.model;
 // Modelo JPA que representa la entidad Producto en la base de datos.
 // Se agregaron anotaciones de Swagger/OpenAPI para documentar cada campo y facilitar la integración.
 // Se utiliza Lombok para reducir el código boilerplate (getters, setters, constructores).
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "producto")
+// Índices para los filtros de ProductRepository (ver PlanesDeConsultaTest)
+@Table(name = "producto", indexes = {
+    @Index(name = "idx_producto_estado", columnList = "estado"),
+    @Index(name = "idx_producto_proveedor", columnList = "proveedor_principal_id"),
+    @Index(name = "idx_producto_categoria", columnList = "categoria_id"),
+    @Index(name = "idx_producto_sku", columnList = "codigo_sku"),
+    @Index(name = "idx_producto_precio", columnList = "precio_unitario"),
+    @Index(name = "idx_producto_ecologico", columnList = "es_ecologico")
+})
 @Data // Lombok: genera getters/setters/toString/equals/hashCode automáticamente
 @AllArgsConstructor // Lombok: constructor con todos los campos
 @NoArgsConstructor  // Lombok: constructor vacío
@@ -75,4 +85,14 @@ public class Producto {
     // Estado del producto (ej: ACTIVE, INACTIVE, DISCONTINUED)
     @Schema(description = "Estado actual del producto", example = "ACTIVE", allowableValues = {"ACTIVE", "INACTIVE", "DISCONTINUED"})
     private String estado;
+
+    // Versión para control de concurrencia optimista: Hibernate la incrementa en cada UPDATE.
+    // No viaja en el JSON; los controladores la exponen como ETag y la comparan con If-Match.
+    // El valor por defecto cubre las filas insertadas por SQL sin esta columna.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonIgnore
+    @Schema(hidden = true)
+    private Long version;
 }
@@ -3,9 +3,14 @@ package com.ecomarket.productservice.repository;
 // Repositorio Spring Data JPA para la entidad Producto.
 // Permite realizar operaciones CRUD y consultas personalizadas sobre la tabla producto.
 // Se agregaron métodos específicos para cubrir los filtros y búsquedas requeridos por la lógica de negocio y la API.
+import com.ecomarket.productservice.model.EstadisticasCatalogo;
 import com.ecomarket.productservice.model.Producto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -52,4 +57,23 @@ public interface ProductRepository extends JpaRepository<Producto, Integer> {
 
     // Cuenta cuántos productos son (o no) ecológicos.
     Long countByEsEcologico(Boolean esEcologico);
+
+    // Total, ecológicos y activos en un solo recorrido de la tabla (una ida a la base de datos).
+    // COALESCE evita nulos en SUM cuando la tabla está vacía.
+    @Query("SELECT new com.ecomarket.productservice.model.EstadisticasCatalogo(" +
+           "COUNT(p), " +
+           "COALESCE(SUM(CASE WHEN p.esEcologico = true THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN p.estado = 'ACTIVE' THEN 1 ELSE 0 END), 0)) " +
+           "FROM Producto p")
+    EstadisticasCatalogo obtenerEstadisticas();
+
+    // Solo la versión del producto (para ETag / If-None-Match sin cargar la entidad completa).
+    @Query("SELECT p.version FROM Producto p WHERE p.productoId = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
+
+    // Borrado condicional para If-Match: 0 filas si el producto no existe o cambió de versión.
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Producto p WHERE p.productoId = :id AND p.version = :version")
+    int deleteByIdAndVersion(@Param("id") Integer id, @Param("version") Long version);
 }
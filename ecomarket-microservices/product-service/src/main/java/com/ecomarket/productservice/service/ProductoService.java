@@ -3,9 +3,15 @@ package com.ecomarket.productservice.service;
 // Servicio de negocio para la gestión de productos.
 // Centraliza la lógica de negocio, validaciones y operaciones sobre productos.
 // Separa la lógica de los controladores para mantener el código limpio y reutilizable.
+import com.ecomarket.productservice.config.CacheConfig;
+import com.ecomarket.productservice.model.EstadisticasCatalogo;
 import com.ecomarket.productservice.model.Producto;
 import com.ecomarket.productservice.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -25,6 +31,8 @@ public class ProductoService {
 
     // Busca un producto por su ID único.
     // Devuelve null si no existe (para control de errores en el controlador).
+    // Lectura cacheada: los productos inexistentes no se guardan en caché.
+    @Cacheable(cacheNames = CacheConfig.PRODUCTOS, unless = "#result == null")
     public Producto buscarPorId(Integer id) {
         Optional<Producto> producto = productRepository.findById(id);
         return producto.orElse(null);
@@ -32,29 +40,70 @@ public class ProductoService {
 
     // Busca un producto por su código SKU único.
     // Útil para validaciones de unicidad y búsquedas rápidas.
+    @Cacheable(cacheNames = CacheConfig.PRODUCTOS_POR_SKU, unless = "#result == null")
     public Producto buscarPorSKU(String sku) {
         Optional<Producto> producto = productRepository.findByCodigoSKU(sku);
         return producto.orElse(null);
     }
 
+    // Versión actual del producto (null si no existe), sin cargar la entidad.
+    // Los controladores la usan para responder 304 / 412 antes de armar la respuesta.
+    public Long obtenerVersion(Integer id) {
+        return productRepository.findVersionById(id).orElse(null);
+    }
+
     // Guarda un nuevo producto o actualiza uno existente.
     // Se usa tanto para crear como para actualizar productos.
+    // Cualquier escritura invalida las cachés: un cambio puede mover el producto de SKU o de categoría.
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS_POR_SKU, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS_POR_CATEGORIA, allEntries = true)
+    })
     public Producto guardar(Producto producto) {
         return productRepository.save(producto);
     }
 
     // Actualiza un producto existente por su ID.
     // Si el producto no existe, retorna null (control de errores en el controlador).
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS_POR_SKU, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS_POR_CATEGORIA, allEntries = true)
+    })
     public Producto actualizar(Integer id, Producto productoActualizado) {
-        if (productRepository.existsById(id)) {
-            productoActualizado.setProductoId(id); // Garantiza que se actualice el registro correcto
-            return productRepository.save(productoActualizado);
+        return actualizar(id, productoActualizado, null);
+    }
+
+    // Igual que actualizar(id, producto), pero solo si el producto sigue en versionEsperada (If-Match).
+    // Con versionEsperada null se toma la versión actual. En ambos casos el UPDATE lleva la versión
+    // en el WHERE, así que una escritura concurrente lanza ObjectOptimisticLockingFailureException
+    // en lugar de pisarse en silencio.
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS_POR_SKU, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS_POR_CATEGORIA, allEntries = true)
+    })
+    public Producto actualizar(Integer id, Producto productoActualizado, Long versionEsperada) {
+        Long versionActual = obtenerVersion(id);
+        if (versionActual == null) {
+            return null;
         }
-        return null;
+        if (versionEsperada != null && !versionEsperada.equals(versionActual)) {
+            throw new ObjectOptimisticLockingFailureException(Producto.class, id);
+        }
+        productoActualizado.setProductoId(id); // Garantiza que se actualice el registro correcto
+        productoActualizado.setVersion(versionActual);
+        return productRepository.save(productoActualizado);
     }
 
     // Elimina un producto por su ID.
     // Retorna true si se eliminó, false si no existía (para respuesta HTTP adecuada).
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS_POR_SKU, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS_POR_CATEGORIA, allEntries = true)
+    })
     public boolean eliminar(Integer id) {
         if (productRepository.existsById(id)) {
             productRepository.deleteById(id);
@@ -63,6 +112,25 @@ public class ProductoService {
         return false;
     }
 
+    // Elimina el producto solo si sigue en versionEsperada (If-Match); con null equivale a eliminar(id).
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS_POR_SKU, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTOS_POR_CATEGORIA, allEntries = true)
+    })
+    public boolean eliminar(Integer id, Long versionEsperada) {
+        if (versionEsperada == null) {
+            return eliminar(id);
+        }
+        if (productRepository.deleteByIdAndVersion(id, versionEsperada) == 1) {
+            return true;
+        }
+        if (productRepository.existsById(id)) {
+            throw new ObjectOptimisticLockingFailureException(Producto.class, id);
+        }
+        return false;
+    }
+
     // Devuelve el total de productos registrados.
     // Útil para estadísticas y reportes.
     public int totalProductos() {
@@ -75,11 +143,22 @@ public class ProductoService {
         return productRepository.findByEsEcologico(true);
     }
 
-    // Devuelve productos de una categoría específica.
+    // Devuelve productos de una categoría específica (cacheado por categoriaId).
+    @Cacheable(cacheNames = CacheConfig.PRODUCTOS_POR_CATEGORIA)
     public List<Producto> obtenerPorCategoria(Integer categoriaId) {
         return productRepository.findByCategoriaId(categoriaId);
     }
 
+    // Devuelve los productos con estado ACTIVE (filtrado en la base de datos, usa idx_producto_estado).
+    public List<Producto> obtenerActivos() {
+        return productRepository.findByEstado("ACTIVE");
+    }
+
+    // Devuelve productos de un proveedor (filtrado en la base de datos, usa idx_producto_proveedor).
+    public List<Producto> obtenerPorProveedor(Integer proveedorId) {
+        return productRepository.findByProveedorPrincipalId(proveedorId);
+    }
+
     // Devuelve productos de un proveedor y tipo ecológico específico.
     public List<Producto> obtenerPorProveedorYEcologico(Integer proveedorId, Boolean esEcologico) {
         return productRepository.findByProveedorPrincipalIdAndEsEcologico(proveedorId, esEcologico);
@@ -114,6 +193,11 @@ public class ProductoService {
     public Long contarProductosNoEcologicos() {
         return productRepository.countByEsEcologico(false);
     }
+
+    // Total, ecológicos y activos en una sola consulta agregada.
+    public EstadisticasCatalogo obtenerEstadisticas() {
+        return productRepository.obtenerEstadisticas();
+    }
 }
 
 
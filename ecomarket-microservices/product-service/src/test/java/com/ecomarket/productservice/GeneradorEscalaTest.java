@@ -0,0 +1,65 @@
+package com.ecomarket.productservice;
+
+import com.ecomarket.productservice.model.Producto;
+import com.ecomarket.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Verifica el catálogo del generador de escala: SF=0.01 son 100 productos con IDs 1..100.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ecomarketdb_generador;DB_CLOSE_DELAY=-1",
+        "ecomarket.generador.escala=0.01",
+        "ecomarket.generador.hilos=3",
+        "ecomarket.generador.tamanio-lote=30"
+})
+@ActiveProfiles("test")
+class GeneradorEscalaTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testProductosGenerados() {
+        // Act
+        List<Producto> productos = productRepository.findAll();
+
+        // Assert
+        assertEquals(100, productos.size());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT MIN(producto_id) FROM producto", Integer.class));
+        assertEquals(100, jdbcTemplate.queryForObject("SELECT MAX(producto_id) FROM producto", Integer.class));
+        assertEquals(100, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT codigo_sku) FROM producto", Integer.class));
+        for (Producto producto : productos) {
+            // El precio es el mismo que usa order-service en las líneas de pedido
+            assertEquals(GeneradorEscala.precioProducto(42, producto.getProductoId()), producto.getPrecioUnitario());
+            assertEquals(String.format("ECO-%06d", producto.getProductoId()), producto.getCodigoSKU());
+            assertTrue(producto.getCategoriaId() >= 1 && producto.getCategoriaId() <= GeneradorEscala.CATEGORIAS);
+            assertEquals(0L, producto.getVersion());
+        }
+    }
+
+    @Test
+    void testIdentidadContinuaDespuesDeLosGenerados() {
+        // Arrange
+        Producto producto = new Producto();
+        producto.setNombreProducto("Jabón de prueba");
+        producto.setCodigoSKU("ECO-NUEVO");
+        producto.setPrecioUnitario(5.99);
+
+        // Act
+        Producto guardado = productRepository.save(producto);
+
+        // Assert
+        assertEquals(101, guardado.getProductoId());
+        productRepository.delete(guardado);
+    }
+}
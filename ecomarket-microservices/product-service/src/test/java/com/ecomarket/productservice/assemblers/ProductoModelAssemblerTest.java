@@ -0,0 +1,115 @@
+package com.ecomarket.productservice.assemblers;
+
+import com.ecomarket.productservice.controller.ProductoControllerV2;
+import com.ecomarket.productservice.model.Producto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Links;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+// Los enlaces armados con PlantillaEnlace deben ser idénticos (rel, href, plantilla y título)
+// a los que generaba linkTo(methodOn(...)) en cada producto.
+class ProductoModelAssemblerTest {
+
+    private final ProductoModelAssembler assembler = new ProductoModelAssembler();
+
+    @AfterEach
+    void limpiar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testEnlacesIgualesALinkTo() {
+        Producto activo = producto(1, "ACTIVE", true, 12.50);
+        Producto inactivo = producto(2, "INACTIVE", false, 7.99);
+        Producto sinDatos = producto(3, "DISCONTINUED", null, null);
+        sinDatos.setCategoriaId(null);
+        sinDatos.setProveedorPrincipalId(null);
+
+        for (String host : List.of("localhost", "api.ecomarket.cl")) {
+            solicitud(host);
+            for (Producto producto : List.of(activo, inactivo, sinDatos)) {
+                assertEquals(resumen(esperados(producto)), resumen(assembler.toModel(producto).getLinks()));
+                assertEquals(resumen(Links.of(
+                                linkTo(methodOn(ProductoControllerV2.class).obtenerPorId(producto.getProductoId(), null)).withSelfRel(),
+                                linkTo(ProductoControllerV2.class).withRel("productos"))),
+                        resumen(assembler.toSimpleModel(producto).getLinks()));
+            }
+        }
+    }
+
+    @Test
+    void testSinSolicitudGeneraEnlacesRelativos() {
+        Producto producto = producto(4, "ACTIVE", true, 3.0);
+
+        assertEquals(resumen(esperados(producto)), resumen(assembler.toModel(producto).getLinks()));
+        assertEquals("/api/v2/productos/4", assembler.toModel(producto).getRequiredLink(IanaLinkRelations.SELF).getHref());
+    }
+
+    // Implementación anterior de ProductoModelAssembler.toModel
+    private Links esperados(Producto producto) {
+        Links links = Links.of(
+                linkTo(methodOn(ProductoControllerV2.class).obtenerPorId(producto.getProductoId(), null)).withSelfRel(),
+                linkTo(ProductoControllerV2.class).withRel("productos"),
+                linkTo(methodOn(ProductoControllerV2.class).actualizar(producto.getProductoId(), null, null)).withRel("update"),
+                linkTo(methodOn(ProductoControllerV2.class).eliminar(producto.getProductoId(), null)).withRel("delete"));
+        if (Boolean.TRUE.equals(producto.getEsEcologico())) {
+            links = links.and(linkTo(methodOn(ProductoControllerV2.class).obtenerProductosEcologicos())
+                    .withRel("productos-ecologicos").withTitle("Ver todos los productos ecológicos"));
+        }
+        if (producto.getCategoriaId() != null) {
+            links = links.and(linkTo(methodOn(ProductoControllerV2.class).obtenerPorCategoria(producto.getCategoriaId()))
+                    .withRel("misma-categoria").withTitle("Productos de la misma categoría"));
+        }
+        if (producto.getProveedorPrincipalId() != null) {
+            links = links.and(linkTo(methodOn(ProductoControllerV2.class).obtenerPorProveedor(producto.getProveedorPrincipalId()))
+                    .withRel("mismo-proveedor").withTitle("Productos del mismo proveedor"));
+        }
+        if ("ACTIVE".equalsIgnoreCase(producto.getEstado())) {
+            links = links.and(linkTo(methodOn(ProductoControllerV2.class).actualizar(producto.getProductoId(), null, null))
+                    .withRel("deactivate").withTitle("Desactivar producto"));
+        }
+        if ("INACTIVE".equalsIgnoreCase(producto.getEstado())) {
+            links = links.and(linkTo(methodOn(ProductoControllerV2.class).actualizar(producto.getProductoId(), null, null))
+                    .withRel("activate").withTitle("Activar producto"));
+        }
+        if (producto.getPrecioUnitario() != null) {
+            double precio = producto.getPrecioUnitario();
+            links = links.and(linkTo(methodOn(ProductoControllerV2.class).obtenerPorRangoPrecio(precio * 0.8, precio * 1.2))
+                    .withRel("precio-similar").withTitle("Productos con precio similar"));
+        }
+        return links;
+    }
+
+    // Las affordances de linkTo solo se publican con HAL-FORMS, que no está habilitado
+    private static List<String> resumen(Links links) {
+        return links.stream()
+                .map(l -> l.getRel().value() + " " + l.getHref() + " " + l.isTemplated() + " " + l.getTitle())
+                .toList();
+    }
+
+    private static void solicitud(String host) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/productos");
+        request.setServerName(host);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static Producto producto(int id, String estado, Boolean ecologico, Double precio) {
+        Producto producto = new Producto();
+        producto.setProductoId(id);
+        producto.setEstado(estado);
+        producto.setEsEcologico(ecologico);
+        producto.setPrecioUnitario(precio);
+        producto.setCategoriaId(id + 10);
+        producto.setProveedorPrincipalId(id + 20);
+        return producto;
+    }
+}
@@ -0,0 +1,141 @@
+package com.ecomarket.productservice.benchmark;
+
+import com.ecomarket.productservice.ProductServiceApplication;
+import com.ecomarket.productservice.model.Producto;
+import com.ecomarket.productservice.service.ProductoService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Benchmark de los filtros de ProductoControllerV2 sobre H2 con un catálogo grande (1M productos por defecto).
+// Compara la implementación anterior (obtenerTodos() + filtro en Java) con las consultas a la base de datos:
+//   /activos       -> findByEstado
+//   /proveedor/{id} -> findByProveedorPrincipalId
+//   /estadisticas  -> una consulta COUNT + SUM CASE
+//
+// Ejecutar desde product-service (necesita ~3 GB de heap para la variante en memoria):
+//   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+//   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+//        com.ecomarket.productservice.benchmark.FiltrosCatalogoBenchmark
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+@State(Scope.Benchmark)
+public class FiltrosCatalogoBenchmark {
+
+    private static final int PROVEEDORES = 1000;
+
+    @Param({"1000000"})
+    private int productos;
+
+    private ConfigurableApplicationContext contexto;
+    private ProductoService productoService;
+
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(ProductServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.profiles.active=test",
+                            "spring.datasource.url=jdbc:h2:mem:productos_benchmark;DB_CLOSE_DELAY=-1",
+                            "logging.level.root=WARN")
+                .run();
+        productoService = contexto.getBean(ProductoService.class);
+        poblar(contexto.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown
+    public void cerrar() {
+        contexto.close();
+    }
+
+    // Inserta el catálogo con lotes JDBC: ~90% ACTIVE y ~60% ecológicos, como el DataLoader de dev
+    private void poblar(JdbcTemplate jdbcTemplate) {
+        Random random = new Random(42);
+        String[] estados = {"INACTIVE", "DISCONTINUED"};
+        String sql = "INSERT INTO producto (nombre_producto, codigo_sku, precio_unitario, precio_compra, margen_ganancia, " +
+                     "descripcion, categoria_id, proveedor_principal_id, es_ecologico, fecha_registro, estado) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> lote = new ArrayList<>(5000);
+        for (int i = 0; i < productos; i++) {
+            double precio = 1 + random.nextInt(10000) / 100.0;
+            lote.add(new Object[] {
+                    "Producto " + i, "SKU-" + i, precio, precio / 2, 0.5, "Producto generado para benchmark",
+                    1 + random.nextInt(20), 1 + random.nextInt(PROVEEDORES), random.nextDouble() < 0.6,
+                    "2024-06-24 10:00:00", random.nextDouble() < 0.9 ? "ACTIVE" : estados[random.nextInt(estados.length)]
+            });
+            if (lote.size() == 5000) {
+                jdbcTemplate.batchUpdate(sql, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, lote);
+        }
+    }
+
+    // --- /activos ---
+
+    @Benchmark
+    public List<Producto> activosEnMemoria() {
+        return productoService.obtenerTodos().stream()
+                .filter(producto -> "ACTIVE".equals(producto.getEstado()))
+                .toList();
+    }
+
+    @Benchmark
+    public List<Producto> activosConsulta() {
+        return productoService.obtenerActivos();
+    }
+
+    // --- /proveedor/{id} ---
+
+    @Benchmark
+    public List<Producto> proveedorEnMemoria() {
+        Integer proveedorId = 7;
+        return productoService.obtenerTodos().stream()
+                .filter(producto -> proveedorId.equals(producto.getProveedorPrincipalId()))
+                .toList();
+    }
+
+    @Benchmark
+    public List<Producto> proveedorConsulta() {
+        return productoService.obtenerPorProveedor(7);
+    }
+
+    // --- /estadisticas ---
+
+    @Benchmark
+    public long[] estadisticasEnMemoria() {
+        int total = productoService.totalProductos();
+        int ecologicos = productoService.obtenerProductosEcologicos().size();
+        long activos = productoService.obtenerTodos().stream()
+                .filter(p -> "ACTIVE".equals(p.getEstado()))
+                .count();
+        return new long[] {total, ecologicos, activos};
+    }
+
+    @Benchmark
+    public Object estadisticasAgregadas() {
+        return productoService.obtenerEstadisticas();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opciones = new OptionsBuilder()
+                .include(FiltrosCatalogoBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecomarket.productservice.benchmark;
+
+import com.ecomarket.productservice.assemblers.ProductoModelAssembler;
+import com.ecomarket.productservice.model.Producto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Benchmark de ProductoModelAssembler.toModel sobre una página de 100 productos, como GET /api/v2/productos.
+// Cada operación arma la página dentro de una solicitud nueva: la base de la solicitud se calcula una vez
+// por operación. Se reporta páginas/segundo y, con el perfilador GC, bytes asignados por página.
+//
+// Ejecutar desde product-service:
+//   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+//   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+//        com.ecomarket.productservice.benchmark.ProductoAssemblerBenchmark
+// o junto con los demás benchmarks, con resultados en JSON: mvn -Pbenchmark verify
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductoAssemblerBenchmark {
+
+    @Param({"100"})
+    private int productos;
+
+    private List<Producto> pagina;
+    private ProductoModelAssembler assembler;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void preparar() {
+        assembler = new ProductoModelAssembler();
+        request = new MockHttpServletRequest("GET", "/api/v2/productos");
+        request.setServerName("api.ecomarket.cl");
+        pagina = new ArrayList<>(productos);
+        for (int i = 1; i <= productos; i++) {
+            Producto producto = new Producto();
+            producto.setProductoId(i);
+            producto.setNombreProducto("Producto " + i);
+            producto.setPrecioUnitario(1 + i % 100 / 10.0);
+            producto.setCategoriaId(1 + i % 20);
+            producto.setProveedorPrincipalId(1 + i % 50);
+            producto.setEsEcologico(i % 5 < 3);
+            producto.setEstado("ACTIVE");
+            pagina.add(producto);
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public void toModel(Blackhole bh) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        for (Producto producto : pagina) {
+            bh.consume(assembler.toModel(producto));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opciones = new OptionsBuilder()
+                .include(ProductoAssemblerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
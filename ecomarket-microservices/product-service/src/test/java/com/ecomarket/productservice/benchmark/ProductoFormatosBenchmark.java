@@ -0,0 +1,135 @@
+package com.ecomarket.productservice.benchmark;
+
+import com.ecomarket.productservice.ProductServiceApplication;
+import com.ecomarket.productservice.controller.ProductoControllerV2;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Benchmark de JSON HAL, CBOR y Smile en GET /api/v2/productos con un catálogo de 100 productos.
+//   serializacion -> solo la escritura de la colección ya armada por el conversor que elige Spring MVC
+//   latencia      -> la solicitud completa por HTTP contra la aplicación en un puerto aleatorio
+// El tamaño de cada respuesta se imprime al preparar.
+//
+// Ejecutar desde product-service:
+//   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+//   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+//        com.ecomarket.productservice.benchmark.ProductoFormatosBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductoFormatosBenchmark {
+
+    @Param({"application/hal+json", "application/cbor", "application/x-jackson-smile"})
+    private String formato;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private HttpRequest solicitud;
+    private CollectionModel<?> coleccion;
+    private HttpMessageConverter<Object> conversor;
+    private MediaType tipo;
+
+    @Setup
+    public void preparar() throws Exception {
+        // Como argumentos de línea de comandos para que ganen sobre application.properties
+        contexto = new SpringApplicationBuilder(ProductServiceApplication.class)
+                .run("--spring.profiles.active=test", "--server.port=0",
+                     "--spring.datasource.url=jdbc:h2:mem:productos_formatos_benchmark;DB_CLOSE_DELAY=-1",
+                     "--logging.level.root=WARN");
+        poblar(contexto.getBean(JdbcTemplate.class));
+
+        // Misma colección que responde el endpoint, armada dentro de una solicitud simulada
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/productos");
+        request.setServerName("api.ecomarket.cl");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            coleccion = contexto.getBean(ProductoControllerV2.class).obtenerTodos();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        tipo = MediaType.valueOf(formato);
+        conversor = conversorPara(tipo);
+
+        String puerto = contexto.getEnvironment().getProperty("local.server.port");
+        cliente = HttpClient.newHttpClient();
+        solicitud = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/v2/productos"))
+                .header("Accept", formato)
+                .build();
+        HttpResponse<byte[]> respuesta = cliente.send(solicitud, HttpResponse.BodyHandlers.ofByteArray());
+        System.out.printf("%n%s: %d bytes por catálogo de 100 productos (HTTP %d)%n",
+                formato, respuesta.body().length, respuesta.statusCode());
+    }
+
+    @TearDown
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public byte[] serializacion() throws Exception {
+        MockHttpOutputMessage salida = new MockHttpOutputMessage();
+        conversor.write(coleccion, tipo, salida);
+        return salida.getBodyAsBytes();
+    }
+
+    @Benchmark
+    public byte[] latencia() throws Exception {
+        return cliente.send(solicitud, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    // Primer conversor de Spring MVC que escribe la colección en el formato, igual que al negociar
+    @SuppressWarnings("unchecked")
+    private HttpMessageConverter<Object> conversorPara(MediaType tipo) {
+        for (HttpMessageConverter<?> candidato : contexto.getBean(RequestMappingHandlerAdapter.class).getMessageConverters()) {
+            if (candidato.canWrite(coleccion.getClass(), tipo)) {
+                return (HttpMessageConverter<Object>) candidato;
+            }
+        }
+        throw new IllegalStateException("Sin conversor para " + tipo);
+    }
+
+    private static void poblar(JdbcTemplate jdbcTemplate) {
+        List<Object[]> lote = new ArrayList<>(100);
+        for (int i = 1; i <= 100; i++) {
+            lote.add(new Object[] {
+                    "Producto ecológico " + i, "ECO-" + i, 12.99, 6.50, 0.5, "Producto generado para benchmark",
+                    1 + i % 20, 1 + i % 10, i % 5 != 0, "2024-06-24 10:00:00", "ACTIVE"
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO producto (nombre_producto, codigo_sku, precio_unitario, precio_compra, " +
+                "margen_ganancia, descripcion, categoria_id, proveedor_principal_id, es_ecologico, fecha_registro, estado) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", lote);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opciones = new OptionsBuilder()
+                .include(ProductoFormatosBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecomarket.productservice.config;
+
+import com.ecomarket.productservice.model.Producto;
+import com.ecomarket.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Histogramas por endpoint (plantilla de URI), por método de repositorio, sentencias SQL por
+// solicitud y filas retornadas, publicados en /actuator/prometheus.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:productos_metricas;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricasConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        producto = new Producto();
+        producto.setNombreProducto("Jabón de lavanda ecológico");
+        producto.setCodigoSKU("ECO-001");
+        producto.setPrecioUnitario(12.50);
+        producto.setEstado("ACTIVE");
+        producto = productRepository.save(producto);
+    }
+
+    @Test
+    void testHistogramasEnPrometheus() throws Exception {
+        mockMvc.perform(get("/api/v2/productos/" + producto.getProductoId())).andExpect(status().isOk());
+
+        String prometheus = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Buckets por plantilla, nunca por ruta con el id
+        assertTrue(prometheus.contains("http_server_requests_seconds_bucket{application=\"product-service\""));
+        assertTrue(prometheus.contains("uri=\"/api/v2/productos/{id}\""));
+        assertFalse(prometheus.contains("uri=\"/api/v2/productos/" + producto.getProductoId() + "\""));
+        assertTrue(prometheus.contains("spring_data_repository_invocations_seconds_bucket{"));
+        assertTrue(prometheus.contains("ecomarket_http_server_sql_statements_bucket{"));
+        assertTrue(prometheus.contains("ecomarket_repository_rows_bucket{"));
+
+        // La primera lectura no estaba en caché: al menos una consulta y una fila de findById
+        assertTrue(meterRegistry.get(MetricasConfig.SENTENCIAS_POR_SOLICITUD)
+                .tags("method", "GET", "uri", "/api/v2/productos/{id}").summary().max() >= 1);
+        assertEquals(1, meterRegistry.get(MetricasConfig.FILAS_POR_METODO)
+                .tags("repository", "ProductRepository", "method", "findById").summary().max());
+    }
+}
@@ -8,6 +8,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,6 +20,7 @@ import java.util.List;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -102,6 +105,33 @@ class ProductoControllerTest {
         verify(productoService, times(1)).buscarPorId(999);
     }
 
+    @Test
+    void testObtenerPorId_EtagYNoModificado() throws Exception {
+        // Arrange
+        productoEcologico.setVersion(3L);
+        when(productoService.buscarPorId(1)).thenReturn(productoEcologico);
+        when(productoService.obtenerVersion(1)).thenReturn(3L);
+
+        // Act & Assert: la primera respuesta trae el ETag de la versión
+        mockMvc.perform(get("/api/v1/productos/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        verify(productoService, never()).obtenerVersion(1);
+
+        // Con ese ETag en If-None-Match: 304 sin cuerpo y sin cargar el producto
+        mockMvc.perform(get("/api/v1/productos/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+        verify(productoService, times(1)).buscarPorId(1);
+
+        // Con un ETag viejo: 200 con la versión nueva
+        mockMvc.perform(get("/api/v1/productos/1").header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.codigoSKU", is("ECO-001")));
+        verify(productoService, times(2)).buscarPorId(1);
+    }
+
     @Test
     void testObtenerPorSKU_ProductoExistente() throws Exception {
         // Arrange
@@ -137,7 +167,7 @@ class ProductoControllerTest {
     @Test
     void testActualizarProducto_ProductoExistente() throws Exception {
         // Arrange
-        when(productoService.actualizar(eq(1), any(Producto.class))).thenReturn(productoEcologico);
+        when(productoService.actualizar(eq(1), any(Producto.class), isNull())).thenReturn(productoEcologico);
 
         // Act & Assert
         mockMvc.perform(put("/api/v1/productos/1")
@@ -147,13 +177,13 @@ class ProductoControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.nombreProducto", is("Jabón de lavanda ecológico")));
 
-        verify(productoService, times(1)).actualizar(eq(1), any(Producto.class));
+        verify(productoService, times(1)).actualizar(eq(1), any(Producto.class), isNull());
     }
 
     @Test
     void testActualizarProducto_ProductoNoExistente() throws Exception {
         // Arrange
-        when(productoService.actualizar(eq(999), any(Producto.class))).thenReturn(null);
+        when(productoService.actualizar(eq(999), any(Producto.class), isNull())).thenReturn(null);
 
         // Act & Assert
         mockMvc.perform(put("/api/v1/productos/999")
@@ -161,31 +191,85 @@ class ProductoControllerTest {
                         .content(objectMapper.writeValueAsString(productoEcologico)))
                 .andExpect(status().isNotFound());
 
-        verify(productoService, times(1)).actualizar(eq(999), any(Producto.class));
+        verify(productoService, times(1)).actualizar(eq(999), any(Producto.class), isNull());
+    }
+
+    @Test
+    void testActualizarProducto_IfMatch() throws Exception {
+        // Arrange
+        when(productoService.obtenerVersion(1)).thenReturn(3L);
+        when(productoService.actualizar(eq(1), any(Producto.class), eq(3L))).thenAnswer(inv -> {
+            productoEcologico.setVersion(4L);
+            return productoEcologico;
+        });
+
+        // Act & Assert: If-Match con otra versión -> 412 sin tocar el producto
+        mockMvc.perform(put("/api/v1/productos/1")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productoEcologico)))
+                .andExpect(status().isPreconditionFailed());
+        verify(productoService, never()).actualizar(any(), any(), any());
+
+        // If-Match con la versión actual -> 200 con el ETag de la versión nueva
+        mockMvc.perform(put("/api/v1/productos/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productoEcologico)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void testActualizarProducto_EscrituraConcurrente() throws Exception {
+        // Arrange: otra solicitud cambió la versión entre la comprobación y el UPDATE
+        when(productoService.actualizar(eq(1), any(Producto.class), isNull()))
+                .thenThrow(new OptimisticLockingFailureException("versión cambiada"));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/v1/productos/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productoEcologico)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testEliminarProducto_IfMatch() throws Exception {
+        // Arrange
+        when(productoService.obtenerVersion(1)).thenReturn(3L);
+        when(productoService.eliminar(1, 3L)).thenReturn(true);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/v1/productos/1").header(HttpHeaders.IF_MATCH, "\"2\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/v1/productos/1").header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andExpect(status().isNoContent());
+
+        verify(productoService, times(1)).eliminar(1, 3L);
     }
 
     @Test
     void testEliminarProducto_ProductoExistente() throws Exception {
         // Arrange
-        when(productoService.eliminar(1)).thenReturn(true);
+        when(productoService.eliminar(1, null)).thenReturn(true);
 
         // Act & Assert
         mockMvc.perform(delete("/api/v1/productos/1"))
                 .andExpect(status().isNoContent());
 
-        verify(productoService, times(1)).eliminar(1);
+        verify(productoService, times(1)).eliminar(1, null);
     }
 
     @Test
     void testEliminarProducto_ProductoNoExistente() throws Exception {
         // Arrange
-        when(productoService.eliminar(999)).thenReturn(false);
+        when(productoService.eliminar(999, null)).thenReturn(false);
 
         // Act & Assert
         mockMvc.perform(delete("/api/v1/productos/999"))
                 .andExpect(status().isNotFound());
 
-        verify(productoService, times(1)).eliminar(999);
+        verify(productoService, times(1)).eliminar(999, null);
     }
 
     @Test
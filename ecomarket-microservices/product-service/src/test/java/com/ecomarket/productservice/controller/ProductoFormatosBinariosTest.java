@@ -0,0 +1,117 @@
+package com.ecomarket.productservice.controller;
+
+import com.ecomarket.productservice.config.FormatosBinariosConfig;
+import com.ecomarket.productservice.model.Producto;
+import com.ecomarket.productservice.repository.ProductRepository;
+import com.ecomarket.productservice.service.ProductoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Negociación de CBOR y Smile (FormatosBinariosConfig) de punta a punta: mismo contenido HAL que
+// JSON en menos bytes, cuerpos binarios en las escrituras y JSON como formato por defecto.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:productos_formatos;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductoFormatosBinariosTest {
+
+    private static final MediaType APPLICATION_CBOR = MediaType.valueOf("application/cbor");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductoService productoService;
+
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        for (int i = 1; i <= 20; i++) {
+            Producto nuevo = new Producto();
+            nuevo.setNombreProducto("Jabón de lavanda ecológico " + i);
+            nuevo.setCodigoSKU("ECO-" + i);
+            nuevo.setPrecioUnitario(12.50);
+            nuevo.setEstado("ACTIVE");
+            nuevo.setFechaRegistro("2025-06-01");
+            producto = productoService.guardar(nuevo);
+        }
+    }
+
+    @Test
+    void testListaV2EnLosTresFormatos() throws Exception {
+        byte[] json = mockMvc.perform(get("/api/v2/productos"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] cbor = mockMvc.perform(get("/api/v2/productos").accept(APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get("/api/v2/productos").accept(FormatosBinariosConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(FormatosBinariosConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Mismo árbol (incluidos _embedded y _links) en menos bytes
+        JsonNode esperado = objectMapper.readTree(json);
+        assertEquals(20, esperado.path("_embedded").path("productoList").size());
+        assertEquals(esperado, new CBORMapper().readTree(cbor));
+        assertEquals(esperado, new SmileMapper().readTree(smile));
+        assertTrue(cbor.length < json.length, "CBOR: " + cbor.length + " bytes, JSON: " + json.length);
+        assertTrue(smile.length < json.length, "Smile: " + smile.length + " bytes, JSON: " + json.length);
+    }
+
+    @Test
+    void testCrearConCuerpoCbor() throws Exception {
+        byte[] cuerpo = new CBORMapper().writeValueAsBytes(Map.of(
+                "nombreProducto", "Cepillo de bambú",
+                "codigoSKU", "ECO-100",
+                "precioUnitario", 3.90,
+                "estado", "ACTIVE"));
+
+        byte[] respuesta = mockMvc.perform(post("/api/v1/productos")
+                        .contentType(APPLICATION_CBOR)
+                        .accept(FormatosBinariosConfig.APPLICATION_SMILE)
+                        .content(cuerpo))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(FormatosBinariosConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode creado = new SmileMapper().readTree(respuesta);
+        assertEquals("ECO-100", creado.path("codigoSKU").asText());
+        assertEquals(21, productRepository.count());
+    }
+
+    @Test
+    void testJsonPorDefecto() throws Exception {
+        String url = "/api/v1/productos/" + producto.getProductoId();
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get(url).accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,125 @@
+package com.ecomarket.productservice.controller;
+
+import com.ecomarket.productservice.model.Producto;
+import com.ecomarket.productservice.repository.ProductRepository;
+import com.ecomarket.productservice.service.ProductoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// ETag / If-None-Match / If-Match de punta a punta sobre H2: la versión la incrementa Hibernate
+// y los conflictos los detecta el UPDATE con la versión en el WHERE.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:productos_version;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductoVersionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductoService productoService;
+
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        producto = new Producto();
+        producto.setNombreProducto("Jabón de lavanda ecológico");
+        producto.setCodigoSKU("ECO-001");
+        producto.setPrecioUnitario(12.50);
+        producto.setEstado("ACTIVE");
+        producto = productoService.guardar(producto);
+    }
+
+    @Test
+    void testGetCondicionalYEscriturasConIfMatch() throws Exception {
+        String url = "/api/v2/productos/" + producto.getProductoId();
+
+        // Versión inicial 0
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // PUT con la versión actual: la versión pasa a 1 y el ETag anterior deja de valer
+        producto.setPrecioUnitario(13.00);
+        mockMvc.perform(put(url).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(producto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        // Segundo cliente con el ETag viejo: 412 y el precio no cambia
+        producto.setPrecioUnitario(1.00);
+        mockMvc.perform(put(url).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(producto)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete(url).header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+        assertEquals(13.00, productRepository.findById(producto.getProductoId()).orElseThrow().getPrecioUnitario());
+
+        // PUT sin If-Match sigue funcionando y actualiza la misma fila
+        mockMvc.perform(put(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(producto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+        assertEquals(1, productRepository.count());
+
+        mockMvc.perform(delete(url).header(HttpHeaders.IF_MATCH, "\"2\""))
+                .andExpect(status().isNoContent());
+        assertEquals(0, productRepository.count());
+    }
+
+    @Test
+    void testEscrituraConcurrenteNoSePisa() {
+        // Dos clientes leen la versión 0: el segundo intenta escribir sobre una versión que ya cambió
+        Long version = productoService.obtenerVersion(producto.getProductoId());
+        Producto primero = copia(producto, 20.0);
+        Producto segundo = copia(producto, 30.0);
+
+        productoService.actualizar(producto.getProductoId(), primero, version);
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> productoService.actualizar(producto.getProductoId(), segundo, version));
+
+        Producto guardado = productRepository.findById(producto.getProductoId()).orElseThrow();
+        assertEquals(20.0, guardado.getPrecioUnitario());
+        assertEquals(1L, guardado.getVersion());
+    }
+
+    private static Producto copia(Producto original, double precio) {
+        Producto copia = new Producto();
+        copia.setNombreProducto(original.getNombreProducto());
+        copia.setCodigoSKU(original.getCodigoSKU());
+        copia.setPrecioUnitario(precio);
+        copia.setEstado(original.getEstado());
+        return copia;
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecomarket.productservice.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Regresión de planes de consulta: ejecuta cada método de ProductRepository sobre un catálogo grande en H2,
+// captura el SQL generado por Hibernate y le aplica EXPLAIN. Falla si una consulta recorre la tabla completa
+// (tableScan), salvo las listadas en ESCANEO_PERMITIDO con su motivo, o si hay métodos sin chequeo.
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:productos_planes;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ecomarket.productservice.repository.CapturaSql"
+})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PlanesDeConsultaTest {
+
+    private static final int PRODUCTOS = 50_000;
+    private static final int PROVEEDORES = 1_000;
+
+    // Consultas que no pueden usar un índice B-tree
+    private static final Map<String, String> ESCANEO_PERMITIDO = Map.of(
+        "ProductRepository.findByNombreProductoContainingIgnoreCase(String)", "LIKE '%texto%' sobre LOWER(nombre)",
+        "ProductRepository.obtenerEstadisticas()", "agregado sobre todo el catálogo"
+    );
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    void poblar() {
+        Random random = new Random(42);
+        String[] estados = {"ACTIVE", "INACTIVE", "DISCONTINUED"};
+        List<Object[]> filas = new ArrayList<>(PRODUCTOS);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            double precio = 1 + random.nextInt(10000) / 100.0;
+            filas.add(new Object[] {
+                    "Producto " + i, "SKU-" + i, precio, precio / 2, 0.5, "Producto generado para EXPLAIN",
+                    1 + random.nextInt(20), 1 + random.nextInt(PROVEEDORES), random.nextDouble() < 0.6,
+                    "2024-06-24 10:00:00", estados[random.nextInt(estados.length)]
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO producto (nombre_producto, codigo_sku, precio_unitario, precio_compra, " +
+                "margen_ganancia, descripcion, categoria_id, proveedor_principal_id, es_ecologico, fecha_registro, estado) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", filas);
+        // Estadísticas de selectividad para el optimizador de H2
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // Una invocación representativa por método declarado en el repositorio
+    private Map<String, Runnable> consultas() {
+        Map<String, Runnable> consultas = new LinkedHashMap<>();
+        consultas.put("ProductRepository.findByCodigoSKU(String)", () -> productRepository.findByCodigoSKU("SKU-42"));
+        consultas.put("ProductRepository.findByEsEcologico(Boolean)", () -> productRepository.findByEsEcologico(false));
+        consultas.put("ProductRepository.findByCategoriaId(Integer)", () -> productRepository.findByCategoriaId(3));
+        consultas.put("ProductRepository.findByEstado(String)", () -> productRepository.findByEstado("DISCONTINUED"));
+        consultas.put("ProductRepository.findByProveedorPrincipalId(Integer)", () -> productRepository.findByProveedorPrincipalId(7));
+        consultas.put("ProductRepository.findByPrecioUnitarioBetween(Double,Double)", () -> productRepository.findByPrecioUnitarioBetween(10.0, 11.0));
+        consultas.put("ProductRepository.existsByCodigoSKU(String)", () -> productRepository.existsByCodigoSKU("SKU-42"));
+        consultas.put("ProductRepository.findByProveedorPrincipalIdAndEsEcologico(Integer,Boolean)", () -> productRepository.findByProveedorPrincipalIdAndEsEcologico(7, true));
+        consultas.put("ProductRepository.findByPrecioUnitarioGreaterThan(Double)", () -> productRepository.findByPrecioUnitarioGreaterThan(99.0));
+        consultas.put("ProductRepository.findByPrecioUnitarioLessThan(Double)", () -> productRepository.findByPrecioUnitarioLessThan(2.0));
+        consultas.put("ProductRepository.findByNombreProductoContainingIgnoreCase(String)", () -> productRepository.findByNombreProductoContainingIgnoreCase("producto 42"));
+        consultas.put("ProductRepository.countByEsEcologico(Boolean)", () -> productRepository.countByEsEcologico(true));
+        consultas.put("ProductRepository.obtenerEstadisticas()", () -> productRepository.obtenerEstadisticas());
+        consultas.put("ProductRepository.findVersionById(Integer)", () -> productRepository.findVersionById(42));
+        // Versión que no existe: el DELETE se planifica y ejecuta sin borrar filas
+        consultas.put("ProductRepository.deleteByIdAndVersion(Integer,Long)", () -> productRepository.deleteByIdAndVersion(42, 99L));
+        return consultas;
+    }
+
+    @TestFactory
+    Stream<DynamicTest> ningunaConsultaRecorreLaTablaCompleta() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        return consultas().entrySet().stream()
+                .map(consulta -> DynamicTest.dynamicTest(consulta.getKey(), () -> {
+                    CapturaSql.limpiar();
+                    transaccion.executeWithoutResult(status -> consulta.getValue().run());
+                    List<String> sentencias = CapturaSql.sentencias();
+                    assertFalse(sentencias.isEmpty(), "No se capturó SQL para " + consulta.getKey());
+
+                    for (String sql : sentencias) {
+                        String plan = explicar(sql);
+                        if (recorreTablaCompleta(plan) && !ESCANEO_PERMITIDO.containsKey(consulta.getKey())) {
+                            fail(consulta.getKey() + " recorre la tabla completa:\n" + plan);
+                        }
+                    }
+                }));
+    }
+
+    @Test
+    void todosLosMetodosEstanCubiertos() {
+        Set<String> declarados = new TreeSet<>();
+        for (Method metodo : ProductRepository.class.getDeclaredMethods()) {
+            if (!metodo.isDefault() && !metodo.isSynthetic()) {
+                declarados.add("ProductRepository." + metodo.getName() + "(" +
+                        Arrays.stream(metodo.getParameterTypes()).map(Class::getSimpleName).collect(Collectors.joining(",")) + ")");
+            }
+        }
+        declarados.removeAll(consultas().keySet());
+        assertTrue(declarados.isEmpty(), "Métodos de repositorio sin chequeo de plan: " + declarados);
+    }
+
+    private String explicar(String sql) {
+        return jdbcTemplate.query(con -> con.prepareStatement("EXPLAIN " + sql),
+                rs -> rs.next() ? rs.getString(1) : "");
+    }
+
+    // MIN/MAX sin filtro sobre una columna indexada se resuelven sin leer filas ("direct lookup")
+    private static boolean recorreTablaCompleta(String plan) {
+        return plan.contains(".tableScan") && !plan.contains("/* direct lookup */");
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecomarket.productservice.repository;
+
+import com.ecomarket.productservice.model.EstadisticasCatalogo;
+import com.ecomarket.productservice.model.Producto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ProductRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void testObtenerEstadisticasTablaVacia() {
+        // Act
+        EstadisticasCatalogo estadisticas = productRepository.obtenerEstadisticas();
+
+        // Assert
+        assertEquals(0L, estadisticas.total());
+        assertEquals(0L, estadisticas.ecologicos());
+        assertEquals(0L, estadisticas.activos());
+    }
+
+    @Test
+    void testObtenerEstadisticasYFiltros() {
+        // Arrange
+        productRepository.saveAll(List.of(
+                producto("ECO-001", true, "ACTIVE", 1),
+                producto("ECO-002", true, "INACTIVE", 1),
+                producto("CONV-001", false, "ACTIVE", 2),
+                producto("CONV-002", false, "DISCONTINUED", 2),
+                producto("ECO-003", true, "ACTIVE", 3)));
+
+        // Act
+        EstadisticasCatalogo estadisticas = productRepository.obtenerEstadisticas();
+
+        // Assert
+        assertEquals(5L, estadisticas.total());
+        assertEquals(3L, estadisticas.ecologicos());
+        assertEquals(3L, estadisticas.activos());
+        assertEquals(3, productRepository.findByEstado("ACTIVE").size());
+        assertEquals(2, productRepository.findByProveedorPrincipalId(2).size());
+    }
+
+    private Producto producto(String sku, boolean ecologico, String estado, Integer proveedorId) {
+        Producto producto = new Producto();
+        producto.setNombreProducto("Producto " + sku);
+        producto.setCodigoSKU(sku);
+        producto.setPrecioUnitario(10.0);
+        producto.setEsEcologico(ecologico);
+        producto.setEstado(estado);
+        producto.setProveedorPrincipalId(proveedorId);
+        producto.setCategoriaId(1);
+        return producto;
+    }
+}
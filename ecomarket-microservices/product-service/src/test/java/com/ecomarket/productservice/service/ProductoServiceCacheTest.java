@@ -0,0 +1,136 @@
+package com.ecomarket.productservice.service;
+
+import com.ecomarket.productservice.config.CacheConfig;
+import com.ecomarket.productservice.model.Producto;
+import com.ecomarket.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Verifica la caché de lectura de ProductoService sobre el contexto real (proxy de Spring + Caffeine),
+// con el repositorio simulado para contar los accesos a la base de datos.
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductoServiceCacheTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private ProductRepository productRepository;
+
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+
+        producto = new Producto();
+        producto.setProductoId(1);
+        producto.setNombreProducto("Jabón de lavanda ecológico");
+        producto.setCodigoSKU("ECO-001");
+        producto.setCategoriaId(1);
+        producto.setEsEcologico(true);
+        producto.setEstado("ACTIVE");
+    }
+
+    @Test
+    void testBuscarPorIdSeSirveDesdeCache() {
+        // Arrange
+        when(productRepository.findById(1)).thenReturn(Optional.of(producto));
+        double aciertosAntes = aciertos(CacheConfig.PRODUCTOS);
+
+        // Act
+        Producto primero = productoService.buscarPorId(1);
+        Producto segundo = productoService.buscarPorId(1);
+
+        // Assert
+        assertEquals("ECO-001", primero.getCodigoSKU());
+        assertSame(primero, segundo);
+        verify(productRepository, times(1)).findById(1);
+        assertEquals(aciertosAntes + 1, aciertos(CacheConfig.PRODUCTOS));
+    }
+
+    @Test
+    void testProductoInexistenteNoSeCachea() {
+        // Arrange
+        when(productRepository.findById(99)).thenReturn(Optional.empty());
+
+        // Act
+        assertNull(productoService.buscarPorId(99));
+        assertNull(productoService.buscarPorId(99));
+
+        // Assert
+        verify(productRepository, times(2)).findById(99);
+    }
+
+    @Test
+    void testBuscarPorSkuYCategoriaSeSirvenDesdeCache() {
+        // Arrange
+        when(productRepository.findByCodigoSKU("ECO-001")).thenReturn(Optional.of(producto));
+        when(productRepository.findByCategoriaId(1)).thenReturn(List.of(producto));
+
+        // Act
+        productoService.buscarPorSKU("ECO-001");
+        productoService.buscarPorSKU("ECO-001");
+        productoService.obtenerPorCategoria(1);
+        productoService.obtenerPorCategoria(1);
+
+        // Assert
+        verify(productRepository, times(1)).findByCodigoSKU("ECO-001");
+        verify(productRepository, times(1)).findByCategoriaId(1);
+    }
+
+    @Test
+    void testEscriturasInvalidanCache() {
+        // Arrange
+        when(productRepository.findById(1)).thenReturn(Optional.of(producto));
+        when(productRepository.findByCodigoSKU("ECO-001")).thenReturn(Optional.of(producto));
+        when(productRepository.findByCategoriaId(1)).thenReturn(List.of(producto));
+        when(productRepository.save(any(Producto.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(productRepository.existsById(1)).thenReturn(true);
+        when(productRepository.findVersionById(1)).thenReturn(Optional.of(0L));
+
+        // Act & Assert: cada escritura obliga a volver a leer de la base de datos
+        productoService.buscarPorId(1);
+        productoService.guardar(producto);
+        productoService.buscarPorId(1);
+        verify(productRepository, times(2)).findById(1);
+
+        productoService.actualizar(1, producto);
+        productoService.buscarPorId(1);
+        verify(productRepository, times(3)).findById(1);
+
+        productoService.buscarPorSKU("ECO-001");
+        productoService.obtenerPorCategoria(1);
+        productoService.eliminar(1);
+        productoService.buscarPorId(1);
+        productoService.buscarPorSKU("ECO-001");
+        productoService.obtenerPorCategoria(1);
+        verify(productRepository, times(4)).findById(1);
+        verify(productRepository, times(2)).findByCodigoSKU("ECO-001");
+        verify(productRepository, times(2)).findByCategoriaId(1);
+    }
+
+    private double aciertos(String cache) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", "hit")
+                .functionCounter().count();
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.util.Arrays;
 import java.util.List;
@@ -158,7 +159,7 @@ class ProductoServiceTest {
     @Test
     void testActualizar_ProductoExistente() {
         // Arrange
-        when(productRepository.existsById(1)).thenReturn(true);
+        when(productRepository.findVersionById(1)).thenReturn(Optional.of(3L));
         when(productRepository.save(any(Producto.class))).thenReturn(productoEcologico);
 
         // Act
@@ -167,15 +168,16 @@ class ProductoServiceTest {
         // Assert
         assertNotNull(productoActualizado);
         assertEquals(1, productoActualizado.getProductoId());
+        assertEquals(3L, productoActualizado.getVersion());
         
-        verify(productRepository, times(1)).existsById(1);
+        verify(productRepository, times(1)).findVersionById(1);
         verify(productRepository, times(1)).save(productoEcologico);
     }
 
     @Test
     void testActualizar_ProductoNoExistente() {
         // Arrange
-        when(productRepository.existsById(999)).thenReturn(false);
+        when(productRepository.findVersionById(999)).thenReturn(Optional.empty());
 
         // Act
         Producto resultado = productoService.actualizar(999, productoEcologico);
@@ -183,10 +185,37 @@ class ProductoServiceTest {
         // Assert
         assertNull(resultado);
         
-        verify(productRepository, times(1)).existsById(999);
+        verify(productRepository, times(1)).findVersionById(999);
         verify(productRepository, never()).save(any());
     }
 
+    @Test
+    void testActualizar_VersionDistintaAIfMatch() {
+        // Arrange
+        when(productRepository.findVersionById(1)).thenReturn(Optional.of(4L));
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> productoService.actualizar(1, productoEcologico, 3L));
+        verify(productRepository, never()).save(any());
+    }
+
+    @Test
+    void testEliminar_ConVersion() {
+        // Arrange
+        when(productRepository.deleteByIdAndVersion(1, 3L)).thenReturn(1);
+        when(productRepository.deleteByIdAndVersion(2, 3L)).thenReturn(0);
+        when(productRepository.existsById(2)).thenReturn(true);
+        when(productRepository.deleteByIdAndVersion(999, 3L)).thenReturn(0);
+        when(productRepository.existsById(999)).thenReturn(false);
+
+        // Act & Assert: borrado, versión distinta (412) e inexistente (404)
+        assertTrue(productoService.eliminar(1, 3L));
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> productoService.eliminar(2, 3L));
+        assertFalse(productoService.eliminar(999, 3L));
+        verify(productRepository, never()).deleteById(any());
+    }
+
     @Test
     void testEliminar_ProductoExistente() {
         // Arrange
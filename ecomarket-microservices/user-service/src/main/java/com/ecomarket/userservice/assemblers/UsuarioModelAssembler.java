@@ -6,30 +6,35 @@ import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.lang.NonNull;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Component
+@Lazy
 public class UsuarioModelAssembler implements RepresentationModelAssembler<Usuario, EntityModel<Usuario>> {
 
+    // Plantillas de enlace resueltas una vez por base de la solicitud (ver PlantillaEnlace)
+    private static final PlantillaEnlace USUARIOS = PlantillaEnlace.de(UsuarioControllerV2.class);
+    private static final PlantillaEnlace POR_ID = PlantillaEnlace.de(methodOn(UsuarioControllerV2.class).getUsuarioById(null, null));
+    private static final PlantillaEnlace ACTUALIZAR = PlantillaEnlace.de(methodOn(UsuarioControllerV2.class).updateUsuario(null, null, null));
+    private static final PlantillaEnlace ELIMINAR = PlantillaEnlace.de(methodOn(UsuarioControllerV2.class).deleteUsuario(null, null));
+
     @Override
     public @NonNull EntityModel<Usuario> toModel(@NonNull Usuario usuario) {
         List<Link> links = new ArrayList<>();
         // Link a sí mismo (self)
-        links.add(linkTo(methodOn(UsuarioControllerV2.class)
-                .getUsuarioById(usuario.getUsuarioId())).withSelfRel());
+        links.add(POR_ID.expandir(usuario.getUsuarioId()).withSelfRel());
         // Link a la colección de usuarios
-        links.add(linkTo(UsuarioControllerV2.class).withRel("usuarios"));
+        links.add(USUARIOS.expandir().withRel("usuarios"));
         // Link para actualizar usuario
-        links.add(linkTo(methodOn(UsuarioControllerV2.class)
-                .updateUsuario(usuario.getUsuarioId(), null)).withRel("update"));
+        links.add(ACTUALIZAR.expandir(usuario.getUsuarioId(), null).withRel("update"));
         // Link para eliminar usuario
-        links.add(linkTo(methodOn(UsuarioControllerV2.class)
-                .deleteUsuario(usuario.getUsuarioId())).withRel("delete"));
+        links.add(ELIMINAR.expandir(usuario.getUsuarioId()).withRel("delete"));
         // Links condicionales según el estado del usuario
         links.addAll(buildConditionalLinks(usuario));
         return EntityModel.of(usuario, links);
@@ -42,31 +47,25 @@ public class UsuarioModelAssembler implements RepresentationModelAssembler<Usuar
         List<Link> links = new ArrayList<>();
         // Si el usuario está activo, permitir desactivar
         if ("activo".equalsIgnoreCase(usuario.getEstado())) {
-            links.add(linkTo(methodOn(UsuarioControllerV2.class)
-                    .updateUsuario(usuario.getUsuarioId(), null))
+            links.add(ACTUALIZAR.expandir(usuario.getUsuarioId(), null)
                     .withRel("deactivate")
                     .withTitle("Desactivar usuario"));
         }
         // Si el usuario está inactivo, permitir activar
         if ("inactivo".equalsIgnoreCase(usuario.getEstado()) || "suspendido".equalsIgnoreCase(usuario.getEstado())) {
-            links.add(linkTo(methodOn(UsuarioControllerV2.class)
-                    .updateUsuario(usuario.getUsuarioId(), null))
+            links.add(ACTUALIZAR.expandir(usuario.getUsuarioId(), null)
                     .withRel("activate")
                     .withTitle("Activar usuario"));
         }
         // Link para ver usuarios del mismo rol
         if (usuario.getRolId() != null) {
-            links.add(linkTo(UsuarioControllerV2.class)
-                    .slash("rol")
-                    .slash(usuario.getRolId())
+            links.add(Link.of(USUARIOS.expandir().getHref() + "/rol/" + usuario.getRolId())
                     .withRel("same-role")
                     .withTitle("Usuarios del mismo rol"));
         }
         // Link para ver usuarios de la misma tienda
         if (usuario.getTiendaId() != null) {
-            links.add(linkTo(UsuarioControllerV2.class)
-                    .slash("tienda")
-                    .slash(usuario.getTiendaId())
+            links.add(Link.of(USUARIOS.expandir().getHref() + "/tienda/" + usuario.getTiendaId())
                     .withRel("same-store")
                     .withTitle("Usuarios de la misma tienda"));
         }
@@ -78,7 +77,6 @@ public class UsuarioModelAssembler implements RepresentationModelAssembler<Usuar
      */
     public EntityModel<Usuario> toSimpleModel(Usuario usuario) {
         return EntityModel.of(usuario,
-                linkTo(methodOn(UsuarioControllerV2.class)
-                        .getUsuarioById(usuario.getUsuarioId())).withSelfRel());
+                POR_ID.expandir(usuario.getUsuarioId()).withSelfRel());
     }
 }
@@ -0,0 +1,38 @@
+package com.ecomarket.userservice.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// StatementInspector que cuenta las sentencias SQL que Hibernate prepara en el hilo actual,
+// entre iniciar() y terminar() (una solicitud HTTP, ver MetricasConfig).
+// Si ya había otro inspector configurado (p. ej. CapturaSql en los tests) se le sigue
+// delegando. Las sentencias de JdbcTemplate no pasan por Hibernate y no se cuentan.
+public class ContadorSentencias implements StatementInspector {
+
+    private static final ThreadLocal<int[]> SENTENCIAS = new ThreadLocal<>();
+
+    private final StatementInspector siguiente;
+
+    public ContadorSentencias(StatementInspector siguiente) {
+        this.siguiente = siguiente;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] sentencias = SENTENCIAS.get();
+        if (sentencias != null) {
+            sentencias[0]++;
+        }
+        return siguiente != null ? siguiente.inspect(sql) : sql;
+    }
+
+    static void iniciar() {
+        SENTENCIAS.set(new int[1]);
+    }
+
+    // Sentencias contadas desde iniciar() en este hilo; deja de contar
+    static int terminar() {
+        int[] sentencias = SENTENCIAS.get();
+        SENTENCIAS.remove();
+        return sentencias != null ? sentencias[0] : 0;
+    }
+}
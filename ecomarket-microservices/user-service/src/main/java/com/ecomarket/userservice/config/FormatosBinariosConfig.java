@@ -0,0 +1,49 @@
+package com.ecomarket.userservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Formatos binarios para el tráfico entre servicios (consultas de otros servicios por usuario).
+// Además de JSON, los controladores responden y aceptan CBOR (application/cbor) y Smile
+// (application/x-jackson-smile) según Accept / Content-Type. Sin Accept, o con Accept: */*,
+// la respuesta sigue siendo JSON.
+// Los ObjectMapper salen del Jackson2ObjectMapperBuilder de Spring Boot (misma configuración
+// spring.jackson.* que JSON) y llevan el módulo HAL, así /api/v2 mantiene _links / _embedded
+// en los tres formatos. Estos beans reemplazan los conversores CBOR/Smile por defecto de Spring MVC.
+@Configuration
+public class FormatosBinariosConfig {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder, ObjectProvider<HalMediaTypeConfiguration> hal) {
+        return new MappingJackson2CborHttpMessageConverter(conHal(sinTimestamps(builder.cbor()).build(), hal));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder, ObjectProvider<HalMediaTypeConfiguration> hal) {
+        return new MappingJackson2SmileHttpMessageConverter(conHal(sinTimestamps(builder.smile()).build(), hal));
+    }
+
+    // Al cambiar la fábrica el builder vuelve a escribir fechas como arreglos: se repite lo que Boot aplica a JSON
+    private static Jackson2ObjectMapperBuilder sinTimestamps(Jackson2ObjectMapperBuilder builder) {
+        return builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+    }
+
+    // Mismo registro que hace Spring HATEOAS sobre el ObjectMapper de application/hal+json
+    private static ObjectMapper conHal(ObjectMapper mapper, ObjectProvider<HalMediaTypeConfiguration> hal) {
+        HalMediaTypeConfiguration configuracion = hal.getIfAvailable();
+        return configuracion != null ? configuracion.configureObjectMapper(mapper) : mapper;
+    }
+}
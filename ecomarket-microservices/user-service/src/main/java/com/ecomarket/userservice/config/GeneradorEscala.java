@@ -0,0 +1,182 @@
+package com.ecomarket.userservice.config;
+
+import net.datafaker.Faker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Generador determinista de usuarios para pruebas de rendimiento, por factor de escala:
+// SF=1 son 100k usuarios, los clientes (cliente_id) y vendedores (usuario_id) de los pedidos
+// que genera order-service con igual escala y semilla.
+// Se activa con ecomarket.generador.escala (solo H2, tabla vacía) y corre antes que el DataLoader de dev,
+// que entonces no carga nada. IDs explícitos, lotes JDBC desde un pool de hilos y un Random por bloque.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "ecomarket.generador.escala")
+public class GeneradorEscala implements CommandLineRunner {
+
+    static final int USUARIOS_POR_ESCALA = 100_000;
+    // Los primeros usuarios son los vendedores de los pedidos generados (rol 3)
+    static final int VENDEDORES = 10;
+    private static final int USUARIOS_POR_BLOQUE = 10_000;
+    private static final LocalDateTime FECHA_INICIAL = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] ESTADOS = {"activo", "inactivo", "suspendido", "pendiente"};
+    // 85% activos, el resto repartido entre los demás estados
+    private static final int[] PROBABILIDAD_ACUMULADA = {85, 92, 96, 100};
+
+    private static final String INSERT_USUARIO = "INSERT INTO usuario (usuario_id, nombre_usuario, apellido, " +
+            "correo_usuario, contraseña, rol_id, tienda_id, fecha_registro, estado, ultimo_acceso, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${ecomarket.generador.escala}")
+    private double escala;
+
+    @Value("${ecomarket.generador.semilla:42}")
+    private long semilla = 42;
+
+    // 0: un hilo por procesador
+    @Value("${ecomarket.generador.hilos:0}")
+    private int hilos;
+
+    @Value("${ecomarket.generador.tamanio-lote:1000}")
+    private int tamanioLote = 1000;
+
+    private record FilaUsuario(int usuarioId, String nombre, String apellido, String correo, String contraseña,
+                               int rolId, int tiendaId, String fechaRegistro, String estado, String ultimoAcceso) {
+    }
+
+    // Conjuntos fijos generados con la semilla: Datafaker es lento por fila
+    private record Nombres(String[] nombres, String[] apellidos, String[] contraseñas) {
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        String baseDeDatos = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(baseDeDatos)) {
+            throw new IllegalStateException("El generador de escala solo admite H2, no " + baseDeDatos);
+        }
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM usuario", Long.class) > 0) {
+            throw new IllegalStateException("El generador de escala requiere la tabla usuario vacía");
+        }
+
+        long inicio = System.currentTimeMillis();
+        int usuarios = Math.max(1, (int) Math.round(USUARIOS_POR_ESCALA * escala));
+        Nombres nombres = nombres();
+        int bloques = (usuarios + USUARIOS_POR_BLOQUE - 1) / USUARIOS_POR_BLOQUE;
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<?>> resultados = new ArrayList<>(bloques);
+            for (int bloque = 0; bloque < bloques; bloque++) {
+                int desde = bloque * USUARIOS_POR_BLOQUE + 1;
+                int hasta = Math.min(usuarios, desde + USUARIOS_POR_BLOQUE - 1);
+                SplittableRandom random = new SplittableRandom(mezclar(semilla, -1 - bloque));
+                resultados.add(ejecutor.submit(() -> insertarBloque(random, desde, hasta, nombres)));
+            }
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+
+        // IDs explícitos: la identidad debe continuar después de los generados
+        jdbcTemplate.execute("ALTER TABLE usuario ALTER COLUMN usuario_id RESTART WITH " + (usuarios + 1));
+        System.out.printf("👥 Generador de escala %.2f: %d usuarios en %d ms%n",
+                escala, usuarios, System.currentTimeMillis() - inicio);
+    }
+
+    private void insertarBloque(SplittableRandom random, int desde, int hasta, Nombres nombres) {
+        List<FilaUsuario> filas = new ArrayList<>(hasta - desde + 1);
+        for (int usuarioId = desde; usuarioId <= hasta; usuarioId++) {
+            String nombre = nombres.nombres()[random.nextInt(nombres.nombres().length)];
+            String apellido = nombres.apellidos()[random.nextInt(nombres.apellidos().length)];
+            LocalDateTime fechaRegistro = FECHA_INICIAL.plusMinutes(random.nextInt(2 * 365 * 24 * 60));
+            String ultimoAcceso = random.nextBoolean()
+                    ? fechaRegistro.plusDays(1 + random.nextInt(30)).format(FORMATO_FECHA)
+                    : null;
+            filas.add(new FilaUsuario(
+                    usuarioId,
+                    nombre,
+                    apellido,
+                    // El ID mantiene único el correo (columna unique)
+                    correo(nombre, apellido, usuarioId),
+                    nombres.contraseñas()[random.nextInt(nombres.contraseñas().length)],
+                    usuarioId <= VENDEDORES ? 3 : (random.nextInt(100) < 95 ? 2 : 1 + random.nextInt(4)),
+                    1 + random.nextInt(10),
+                    fechaRegistro.format(FORMATO_FECHA),
+                    estado(random),
+                    ultimoAcceso));
+        }
+        jdbcTemplate.batchUpdate(INSERT_USUARIO, filas, tamanioLote, (ps, fila) -> {
+            ps.setInt(1, fila.usuarioId());
+            ps.setString(2, fila.nombre());
+            ps.setString(3, fila.apellido());
+            ps.setString(4, fila.correo());
+            ps.setString(5, fila.contraseña());
+            ps.setInt(6, fila.rolId());
+            ps.setInt(7, fila.tiendaId());
+            ps.setString(8, fila.fechaRegistro());
+            ps.setString(9, fila.estado());
+            ps.setString(10, fila.ultimoAcceso());
+        });
+    }
+
+    private static String correo(String nombre, String apellido, int usuarioId) {
+        String local = (nombre + "." + apellido).toLowerCase(Locale.ROOT).replaceAll("[^a-z.]", "");
+        return local + "." + usuarioId + "@ecomarket.cl";
+    }
+
+    private static String estado(SplittableRandom random) {
+        int probabilidad = random.nextInt(100);
+        for (int i = 0; i < PROBABILIDAD_ACUMULADA.length; i++) {
+            if (probabilidad < PROBABILIDAD_ACUMULADA[i]) {
+                return ESTADOS[i];
+            }
+        }
+        return ESTADOS[ESTADOS.length - 1];
+    }
+
+    private Nombres nombres() {
+        Faker faker = new Faker(new Locale("es"), new Random(semilla));
+        String[] nombres = new String[500];
+        String[] apellidos = new String[500];
+        String[] contraseñas = new String[100];
+        for (int i = 0; i < nombres.length; i++) {
+            nombres[i] = faker.name().firstName();
+            apellidos[i] = faker.name().lastName();
+        }
+        for (int i = 0; i < contraseñas.length; i++) {
+            contraseñas[i] = faker.internet().password(8, 16);
+        }
+        return new Nombres(nombres, apellidos, contraseñas);
+    }
+
+    // SplitMix64, igual que en order-service y product-service
+    static long mezclar(long semilla, long valor) {
+        long z = semilla * 0x9E3779B97F4A7C15L + valor;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
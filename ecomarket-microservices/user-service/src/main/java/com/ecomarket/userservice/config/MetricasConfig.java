@@ -0,0 +1,159 @@
+package com.ecomarket.userservice.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.BaseStream;
+
+// Métricas de rendimiento por endpoint y por método de repositorio, publicadas en
+// /actuator/prometheus.
+// Spring Boot ya registra los tiempos de cada endpoint (http.server.requests) y de cada
+// método de repositorio (spring.data.repository.invocations); application.properties les
+// activa el histograma de percentiles. Esta clase agrega:
+// - ecomarket.http.server.sql.statements: sentencias SQL por solicitud (ContadorSentencias).
+// - ecomarket.repository.rows: filas que retorna cada método de repositorio.
+// Las etiquetas son la plantilla de la URI (/api/v2/usuarios/{id}, nunca la ruta con el id),
+// el método HTTP y la interfaz/método del repositorio: su cantidad no crece con el tráfico.
+@Configuration
+public class MetricasConfig implements WebMvcConfigurer {
+
+    public static final String SENTENCIAS_POR_SOLICITUD = "ecomarket.http.server.sql.statements";
+    public static final String FILAS_POR_METODO = "ecomarket.repository.rows";
+
+    // Opcional: los tests @WebMvcTest cargan esta clase sin registro de métricas
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorSentencias() {
+        return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new ContadorSentencias(inspectorConfigurado(propiedades)));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        MeterRegistry registro = meterRegistry.getIfAvailable();
+        if (registro == null) {
+            return;
+        }
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                ContadorSentencias.iniciar();
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                        Object handler, Exception ex) {
+                Object plantilla = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                DistributionSummary.builder(SENTENCIAS_POR_SOLICITUD)
+                        .description("Sentencias SQL de Hibernate por solicitud HTTP")
+                        .tag("method", request.getMethod())
+                        .tag("uri", plantilla != null ? plantilla.toString() : "UNKNOWN")
+                        .register(registro)
+                        .record(ContadorSentencias.terminar());
+            }
+        });
+    }
+
+    // static: el post-procesador debe existir antes que los repositorios
+    @Bean
+    public static BeanPostProcessor filasPorMetodoRepositorio(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> fabrica) {
+                    fabrica.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxy, repositorio) -> proxy.addAdvice(
+                                    filasRetornadas(meterRegistry, repositorio.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor filasRetornadas(ObjectProvider<MeterRegistry> meterRegistry, Class<?> repositorio) {
+        Map<Method, DistributionSummary> porMetodo = new ConcurrentHashMap<>();
+        return invocacion -> {
+            Object resultado = invocacion.proceed();
+            Method metodo = invocacion.getMethod();
+            int filas = metodo.getReturnType() == void.class ? -1 : filas(resultado);
+            MeterRegistry registro = meterRegistry.getIfAvailable();
+            if (filas >= 0 && registro != null) {
+                porMetodo.computeIfAbsent(metodo, m -> DistributionSummary.builder(FILAS_POR_METODO)
+                        .description("Filas retornadas por método de repositorio")
+                        .tag("repository", repositorio.getSimpleName())
+                        .tag("method", m.getName())
+                        .register(registro))
+                        .record(filas);
+            }
+            return resultado;
+        };
+    }
+
+    // -1 cuando el resultado no son filas: conteos, sumas, booleanos o un Stream sin consumir
+    private static int filas(Object resultado) {
+        if (resultado == null) {
+            return 0;
+        }
+        if (resultado instanceof Number || resultado instanceof Boolean || resultado instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        if (resultado instanceof Slice<?> pagina) {
+            return pagina.getNumberOfElements();
+        }
+        if (resultado instanceof Collection<?> lista) {
+            return lista.size();
+        }
+        if (resultado instanceof Optional<?> opcional) {
+            return opcional.isPresent() ? 1 : 0;
+        }
+        if (resultado instanceof Iterable<?> iterable) {
+            int filas = 0;
+            for (Object ignorada : iterable) {
+                filas++;
+            }
+            return filas;
+        }
+        return 1;
+    }
+
+    private static StatementInspector inspectorConfigurado(Map<String, Object> propiedades) {
+        Object configurado = propiedades.get(AvailableSettings.STATEMENT_INSPECTOR);
+        if (configurado instanceof StatementInspector inspector) {
+            return inspector;
+        }
+        if (configurado instanceof Class<?> clase) {
+            return (StatementInspector) BeanUtils.instantiateClass(clase);
+        }
+        if (configurado instanceof String nombre && !nombre.isBlank()) {
+            return (StatementInspector) BeanUtils.instantiateClass(ClassUtils.resolveClassName(nombre.trim(), null));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.ecomarket.userservice.config;
+
+import com.ecomarket.userservice.reporistory.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Al arrancar normaliza el estado de las filas que ya existían antes de @PrePersist/@PreUpdate
+// (o que se insertaron por SQL), para que los filtros por igualdad de /activos e /inactivos
+// cuenten lo mismo que el LOWER() de /stats y sigan usando idx_usuario_estado.
+// Corre antes que el DataLoader; si no hay nada que normalizar es un solo UPDATE sin filas.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class NormalizadorEstados implements CommandLineRunner {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Override
+    public void run(String... args) {
+        int normalizados = usuarioRepository.normalizarEstados();
+        if (normalizados > 0) {
+            System.out.println("🔤 Se normalizó el estado de " + normalizados + " usuarios");
+        }
+    }
+}
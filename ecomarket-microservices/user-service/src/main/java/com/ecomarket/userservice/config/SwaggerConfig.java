@@ -9,10 +9,13 @@ import io.swagger.v3.oas.models.tags.Tag;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 import java.util.List;
 
+// Perezosa: el OpenAPI se arma con la primera solicitud a /v3/api-docs, no al arrancar
 @Configuration
+@Lazy
 public class SwaggerConfig {
 
     @Value("${server.port:8091}")
@@ -1,6 +1,7 @@
 package com.ecomarket.userservice.controller;
 
 import com.ecomarket.userservice.assemblers.UsuarioModelAssembler;
+import com.ecomarket.userservice.model.EstadisticasUsuarios;
 import com.ecomarket.userservice.model.Usuario;
 import com.ecomarket.userservice.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,14 +10,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
@@ -29,7 +35,9 @@ public class UsuarioControllerV2 {
     @Autowired
     private UsuarioService usuarioService;
 
+    // Perezoso (@Lazy): el assembler se crea con la primera solicitud que lo usa, no al arrancar
     @Autowired
+    @Lazy
     private UsuarioModelAssembler assembler;
 
     @Operation(
@@ -55,18 +63,24 @@ public class UsuarioControllerV2 {
 
     @Operation(
         summary = "Obtener usuario por ID",
-        description = "Retorna un usuario específico con todos sus enlaces HATEOAS disponibles"
+        description = "Retorna un usuario específico con todos sus enlaces HATEOAS disponibles. " +
+                      "Responde con ETag; con If-None-Match igual a la versión actual responde 304 sin armar el modelo"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Usuario encontrado exitosamente"),
+        @ApiResponse(responseCode = "304", description = "El usuario no cambió desde el ETag de If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Usuario no encontrado")
     })
     @GetMapping("/{id}")
     public ResponseEntity<EntityModel<Usuario>> getUsuarioById(
             @Parameter(description = "ID del usuario", required = true, example = "1")
-            @PathVariable Integer id) {
+            @PathVariable Integer id,
+            WebRequest request) {
+        if (EtagVersion.noModificado(request, () -> usuarioService.obtenerVersion(id))) {
+            return null;
+        }
         return usuarioService.findById(id)
-                .map(usuario -> ResponseEntity.ok(assembler.toModel(usuario)))
+                .map(usuario -> ResponseEntity.ok().eTag(EtagVersion.de(usuario.getVersion())).body(assembler.toModel(usuario)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -96,17 +110,28 @@ public class UsuarioControllerV2 {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Usuario actualizado exitosamente"),
         @ApiResponse(responseCode = "404", description = "Usuario no encontrado"),
-        @ApiResponse(responseCode = "400", description = "Datos de usuario inválidos")
+        @ApiResponse(responseCode = "400", description = "Datos de usuario inválidos"),
+        @ApiResponse(responseCode = "412", description = "If-Match no coincide con la versión actual")
     })
     @PutMapping("/{id}")
     public ResponseEntity<EntityModel<Usuario>> updateUsuario(
             @Parameter(description = "ID del usuario a actualizar", required = true, example = "1")
             @PathVariable Integer id,
             @Parameter(description = "Nuevos datos del usuario", required = true)
-            @RequestBody Usuario usuario) {
-        return usuarioService.update(id, usuario)
-                .map(updatedUsuario -> ResponseEntity.ok(assembler.toModel(updatedUsuario)))
-                .orElse(ResponseEntity.notFound().build());
+            @RequestBody Usuario usuario,
+            WebRequest request) {
+        EtagVersion.Precondicion precondicion = EtagVersion.precondicion(request, () -> usuarioService.obtenerVersion(id));
+        if (precondicion.fallida()) {
+            return precondicion.respuesta();
+        }
+        Long versionEsperada = precondicion.versionEsperada();
+        try {
+            return usuarioService.update(id, usuario, versionEsperada)
+                    .map(updatedUsuario -> ResponseEntity.ok().eTag(EtagVersion.de(updatedUsuario.getVersion())).body(assembler.toModel(updatedUsuario)))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
     }
 
     @Operation(
@@ -115,16 +140,27 @@ public class UsuarioControllerV2 {
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Usuario eliminado exitosamente"),
-        @ApiResponse(responseCode = "404", description = "Usuario no encontrado")
+        @ApiResponse(responseCode = "404", description = "Usuario no encontrado"),
+        @ApiResponse(responseCode = "412", description = "If-Match no coincide con la versión actual")
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUsuario(
             @Parameter(description = "ID del usuario a eliminar", required = true, example = "1")
-            @PathVariable Integer id) {
-        if (usuarioService.delete(id)) {
-            return ResponseEntity.noContent().build();
-        } else {
-            return ResponseEntity.notFound().build();
+            @PathVariable Integer id,
+            WebRequest request) {
+        EtagVersion.Precondicion precondicion = EtagVersion.precondicion(request, () -> usuarioService.obtenerVersion(id));
+        if (precondicion.fallida()) {
+            return precondicion.respuesta();
+        }
+        Long versionEsperada = precondicion.versionEsperada();
+        try {
+            if (usuarioService.delete(id, versionEsperada)) {
+                return ResponseEntity.noContent().build();
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
     }
 
@@ -132,85 +168,127 @@ public class UsuarioControllerV2 {
 
     // Alias para compatibilidad con el assembler y HATEOAS avanzado
     @GetMapping("/alias/{id}")
-    public ResponseEntity<EntityModel<Usuario>> obtenerPorId(@PathVariable Integer id) {
-        return getUsuarioById(id);
+    public ResponseEntity<EntityModel<Usuario>> obtenerPorId(@PathVariable Integer id, WebRequest request) {
+        return getUsuarioById(id, request);
     }
 
     @PutMapping("/alias/{id}")
-    public ResponseEntity<EntityModel<Usuario>> actualizar(@PathVariable Integer id, @RequestBody Usuario usuario) {
-        return updateUsuario(id, usuario);
+    public ResponseEntity<EntityModel<Usuario>> actualizar(@PathVariable Integer id, @RequestBody Usuario usuario, WebRequest request) {
+        return updateUsuario(id, usuario, request);
     }
 
     @DeleteMapping("/alias/{id}")
-    public ResponseEntity<Void> eliminar(@PathVariable Integer id) {
-        return deleteUsuario(id);
+    public ResponseEntity<Void> eliminar(@PathVariable Integer id, WebRequest request) {
+        return deleteUsuario(id, request);
     }
 
     // Métodos para usuarios activos/inactivos y estadísticas
     @Operation(
         summary = "Obtener usuarios activos",
-        description = "Retorna solo los usuarios con estado 'activo'"
+        description = "Retorna una página de usuarios con estado 'activo' ordenada por ID, con enlaces next/prev"
     )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de usuarios activos"),
+        @ApiResponse(responseCode = "400", description = "Parámetros de paginación inválidos")
+    })
     @GetMapping("/activos")
-    public CollectionModel<EntityModel<Usuario>> getUsuariosActivos() {
-        List<EntityModel<Usuario>> usuariosActivos = usuarioService.findAll().stream()
-                .filter(usuario -> "activo".equalsIgnoreCase(usuario.getEstado()))
-                .map(assembler::toSimpleModel)
-                .collect(Collectors.toList());
-        return CollectionModel.of(usuariosActivos)
-                .add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosActivos()).withSelfRel())
+    public ResponseEntity<CollectionModel<EntityModel<Usuario>>> getUsuariosActivos(
+            @Parameter(description = "Número de página (desde 0)", example = "0")
+            @RequestParam(required = false) Integer page,
+            @Parameter(description = "Tamaño de página (por defecto 50, máximo 500)", example = "50")
+            @RequestParam(required = false) Integer size) {
+        Page<Usuario> pagina;
+        try {
+            pagina = usuarioService.obtenerUsuariosActivos(page, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        CollectionModel<EntityModel<Usuario>> model = toPaginaModel(pagina)
+                .add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosActivos(page, size)).withSelfRel())
                 .add(linkTo(methodOn(UsuarioControllerV2.class).getAllUsuarios()).withRel("all-users"))
-                .add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosInactivos()).withRel("inactive-users"));
+                .add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosInactivos(null, null)).withRel("inactive-users"));
+        if (pagina.hasNext()) {
+            model.add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosActivos(pagina.getNumber() + 1, pagina.getSize())).withRel(IanaLinkRelations.NEXT));
+        }
+        if (pagina.hasPrevious()) {
+            model.add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosActivos(pagina.getNumber() - 1, pagina.getSize())).withRel(IanaLinkRelations.PREV));
+        }
+        return ResponseEntity.ok(model);
     }
 
     @Operation(
         summary = "Obtener usuarios inactivos",
-        description = "Retorna solo los usuarios con estado 'inactivo' o 'suspendido'"
+        description = "Retorna una página de usuarios con estado 'inactivo' o 'suspendido' ordenada por ID, con enlaces next/prev"
     )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de usuarios inactivos"),
+        @ApiResponse(responseCode = "400", description = "Parámetros de paginación inválidos")
+    })
     @GetMapping("/inactivos")
-    public CollectionModel<EntityModel<Usuario>> getUsuariosInactivos() {
-        List<EntityModel<Usuario>> usuariosInactivos = usuarioService.findAll().stream()
-                .filter(usuario -> "inactivo".equalsIgnoreCase(usuario.getEstado()) || 
-                                  "suspendido".equalsIgnoreCase(usuario.getEstado()))
-                .map(assembler::toSimpleModel)
-                .collect(Collectors.toList());
-        return CollectionModel.of(usuariosInactivos)
-                .add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosInactivos()).withSelfRel())
+    public ResponseEntity<CollectionModel<EntityModel<Usuario>>> getUsuariosInactivos(
+            @Parameter(description = "Número de página (desde 0)", example = "0")
+            @RequestParam(required = false) Integer page,
+            @Parameter(description = "Tamaño de página (por defecto 50, máximo 500)", example = "50")
+            @RequestParam(required = false) Integer size) {
+        Page<Usuario> pagina;
+        try {
+            pagina = usuarioService.obtenerUsuariosInactivos(page, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        CollectionModel<EntityModel<Usuario>> model = toPaginaModel(pagina)
+                .add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosInactivos(page, size)).withSelfRel())
                 .add(linkTo(methodOn(UsuarioControllerV2.class).getAllUsuarios()).withRel("all-users"))
-                .add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosActivos()).withRel("active-users"));
+                .add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosActivos(null, null)).withRel("active-users"));
+        if (pagina.hasNext()) {
+            model.add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosInactivos(pagina.getNumber() + 1, pagina.getSize())).withRel(IanaLinkRelations.NEXT));
+        }
+        if (pagina.hasPrevious()) {
+            model.add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosInactivos(pagina.getNumber() - 1, pagina.getSize())).withRel(IanaLinkRelations.PREV));
+        }
+        return ResponseEntity.ok(model);
     }
 
     @Operation(
         summary = "Obtener estadísticas de usuarios",
-        description = "Retorna información estadística sobre los usuarios con enlaces relacionados"
+        description = "Retorna el total y la cantidad de usuarios por estado, calculados en una sola consulta agregada"
     )
     @GetMapping("/stats")
     public ResponseEntity<EntityModel<UsuarioStats>> getUsuarioStats() {
-        long totalUsuarios = usuarioService.findAll().size();
-        long usuariosActivos = usuarioService.findAll().stream()
-                .filter(u -> "activo".equalsIgnoreCase(u.getEstado()))
-                .count();
+        EstadisticasUsuarios estadisticas = usuarioService.obtenerEstadisticas();
+        long totalUsuarios = estadisticas.total();
+        long usuariosActivos = estadisticas.cantidad(UsuarioService.ESTADO_ACTIVO);
         long usuariosInactivos = totalUsuarios - usuariosActivos;
-        UsuarioStats stats = new UsuarioStats(totalUsuarios, usuariosActivos, usuariosInactivos);
+        UsuarioStats stats = new UsuarioStats(totalUsuarios, usuariosActivos, usuariosInactivos, estadisticas.porEstado());
         EntityModel<UsuarioStats> statsModel = EntityModel.of(stats)
                 .add(linkTo(methodOn(UsuarioControllerV2.class).getUsuarioStats()).withSelfRel())
                 .add(linkTo(methodOn(UsuarioControllerV2.class).getAllUsuarios()).withRel("all-users"))
-                .add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosActivos()).withRel("active-users"))
-                .add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosInactivos()).withRel("inactive-users"));
+                .add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosActivos(null, null)).withRel("active-users"))
+                .add(linkTo(methodOn(UsuarioControllerV2.class).getUsuariosInactivos(null, null)).withRel("inactive-users"));
         return ResponseEntity.ok(statsModel);
     }
 
+    private CollectionModel<EntityModel<Usuario>> toPaginaModel(Page<Usuario> pagina) {
+        List<EntityModel<Usuario>> usuarios = pagina.getContent().stream()
+                .map(assembler::toSimpleModel)
+                .collect(Collectors.toList());
+        return CollectionModel.of(usuarios);
+    }
+
     // Clase interna para estadísticas de usuario
     public static class UsuarioStats {
         public final long total;
         public final long activos;
+        // Todos los que no están activos (inactivo, suspendido, pendiente)
         public final long inactivos;
         public final double porcentajeActivos;
-        public UsuarioStats(long total, long activos, long inactivos) {
+        public final Map<String, Long> porEstado;
+        public UsuarioStats(long total, long activos, long inactivos, Map<String, Long> porEstado) {
             this.total = total;
             this.activos = activos;
             this.inactivos = inactivos;
             this.porcentajeActivos = total > 0 ? ((double) activos / total) * 100 : 0;
+            this.porEstado = porEstado;
         }
     }
 }
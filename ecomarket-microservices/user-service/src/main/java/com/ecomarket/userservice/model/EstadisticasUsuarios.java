@@ -0,0 +1,13 @@
+package com.ecomarket.userservice.model;
+
+import java.util.Map;
+
+/**
+ * Conteo de usuarios por estado normalizado (activo, inactivo, suspendido, pendiente...)
+ */
+public record EstadisticasUsuarios(long total, Map<String, Long> porEstado) {
+
+    public long cantidad(String estado) {
+        return porEstado.getOrDefault(estado, 0L);
+    }
+}
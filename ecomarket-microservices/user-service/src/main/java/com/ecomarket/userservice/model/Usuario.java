@@ -1,13 +1,22 @@
 package com.ecomarket.userservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.util.Locale;
 
 @Entity
-@Table(name = "usuario")
+// correo_usuario ya tiene índice por su restricción unique; el resto cubre los filtros de UsuarioRepository
+@Table(name = "usuario", indexes = {
+    @Index(name = "idx_usuario_estado", columnList = "estado"),
+    @Index(name = "idx_usuario_rol", columnList = "rol_id"),
+    @Index(name = "idx_usuario_tienda", columnList = "tienda_id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -103,4 +112,22 @@ public class Usuario {
         accessMode = Schema.AccessMode.READ_ONLY
     )
     private String ultimoAcceso;
+
+    // Control de concurrencia optimista: Hibernate la incrementa en cada UPDATE y la incluye en el WHERE.
+    // La API la expone como ETag (no en el cuerpo); el DEFAULT cubre las filas insertadas sin la columna.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonIgnore
+    @Schema(hidden = true)
+    private Long version;
+
+    // El estado se guarda siempre en minúsculas para que los filtros por igualdad usen idx_usuario_estado
+    @PrePersist
+    @PreUpdate
+    void normalizarEstado() {
+        if (estado != null) {
+            estado = estado.trim().toLowerCase(Locale.ROOT);
+        }
+    }
 }
@@ -1,25 +1,63 @@
-package com.ecomarket.userservice.reporistory;
-
-import com.ecomarket.userservice.model.Usuario;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
-import java.util.List;
-import java.util.Optional;
-
-@Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
-    
-    Optional<Usuario> findByCorreoUsuario(String correoUsuario);
-    
-    List<Usuario> findByRolId(Integer rolId);
-    
-    List<Usuario> findByTiendaId(Integer tiendaId);
-    
-    List<Usuario> findByEstado(String estado);
-    
-    boolean existsByCorreoUsuario(String correoUsuario);
-    
-    List<Usuario> findByNombreUsuarioContainingIgnoreCase(String nombreUsuario);
-}
-
+package com.ecomarket.userservice.reporistory;
+
+import com.ecomarket.userservice.model.Usuario;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
+    
+    Optional<Usuario> findByCorreoUsuario(String correoUsuario);
+    
+    List<Usuario> findByRolId(Integer rolId);
+    
+    List<Usuario> findByTiendaId(Integer tiendaId);
+    
+    List<Usuario> findByEstado(String estado);
+
+    // Filtros paginados por estado (usan idx_usuario_estado)
+    Page<Usuario> findByEstado(String estado, Pageable pageable);
+
+    Page<Usuario> findByEstadoIn(Collection<String> estados, Pageable pageable);
+
+    // Cantidad de usuarios por estado normalizado, en una sola consulta
+    @Query("SELECT LOWER(u.estado) AS estado, COUNT(u) AS cantidad FROM Usuario u GROUP BY LOWER(u.estado)")
+    List<ConteoPorEstado> contarPorEstado();
+
+    // Backfill de las filas escritas sin pasar por @PrePersist/@PreUpdate (SQL directo, datos previos):
+    // deja el estado en minúsculas para que /activos y /stats coincidan; sube la versión de las filas tocadas
+    @Modifying
+    @Transactional
+    @Query("UPDATE Usuario u SET u.estado = LOWER(TRIM(u.estado)), u.version = u.version + 1 " +
+           "WHERE u.estado <> LOWER(TRIM(u.estado))")
+    int normalizarEstados();
+    
+    boolean existsByCorreoUsuario(String correoUsuario);
+    
+    List<Usuario> findByNombreUsuarioContainingIgnoreCase(String nombreUsuario);
+
+    // Versión (@Version) para ETag / If-Match, sin cargar la entidad
+    @Query("SELECT u.version FROM Usuario u WHERE u.usuarioId = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Usuario u WHERE u.usuarioId = :id AND u.version = :version")
+    int deleteByIdAndVersion(@Param("id") Integer id, @Param("version") Long version);
+
+    interface ConteoPorEstado {
+        String getEstado();
+        Long getCantidad();
+    }
+}
+
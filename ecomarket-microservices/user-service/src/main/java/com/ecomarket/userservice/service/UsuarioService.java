@@ -1,19 +1,39 @@
 package com.ecomarket.userservice.service;
 
+import com.ecomarket.userservice.model.EstadisticasUsuarios;
 import com.ecomarket.userservice.model.Usuario;
 import com.ecomarket.userservice.reporistory.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class UsuarioService {
 
+    public static final String ESTADO_ACTIVO = "activo";
+    public static final String ESTADO_INACTIVO = "inactivo";
+    public static final String ESTADO_SUSPENDIDO = "suspendido";
+    public static final String ESTADO_PENDIENTE = "pendiente";
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Value("${ecomarket.usuarios.pagina.tamanio-por-defecto:50}")
+    private int tamanioPaginaPorDefecto = 50;
+
+    @Value("${ecomarket.usuarios.pagina.tamanio-maximo:500}")
+    private int tamanioPaginaMaximo = 500;
+
     // Obtener todos los usuarios
     public List<Usuario> obtenerTodos() {
         return usuarioRepository.findAll();
@@ -25,6 +45,12 @@ public class UsuarioService {
         return usuario.orElse(null);
     }
 
+    // Versión actual del usuario (null si no existe), sin cargar la entidad.
+    // Los controladores la usan para responder 304 / 412 antes de armar la respuesta.
+    public Long obtenerVersion(Integer id) {
+        return usuarioRepository.findVersionById(id).orElse(null);
+    }
+
     // Buscar usuario por correo
     public Usuario buscarPorCorreo(String correo) {
         Optional<Usuario> usuario = usuarioRepository.findByCorreoUsuario(correo);
@@ -38,11 +64,7 @@ public class UsuarioService {
 
     // Actualizar usuario
     public Usuario actualizar(Integer id, Usuario usuarioActualizado) {
-        if (usuarioRepository.existsById(id)) {
-            usuarioActualizado.setUsuarioId(id);
-            return usuarioRepository.save(usuarioActualizado);
-        }
-        return null;
+        return update(id, usuarioActualizado, null).orElse(null);
     }
 
     // Eliminar usuario
@@ -71,7 +93,46 @@ public class UsuarioService {
 
     // Usuarios activos
     public List<Usuario> obtenerUsuariosActivos() {
-        return usuarioRepository.findByEstado("ACTIVO");
+        return usuarioRepository.findByEstado(ESTADO_ACTIVO);
+    }
+
+    // Usuarios activos paginados
+    public Page<Usuario> obtenerUsuariosActivos(Integer pagina, Integer tamanio) {
+        return usuarioRepository.findByEstado(ESTADO_ACTIVO, paginacion(pagina, tamanio));
+    }
+
+    // Usuarios inactivos o suspendidos paginados
+    public Page<Usuario> obtenerUsuariosInactivos(Integer pagina, Integer tamanio) {
+        return usuarioRepository.findByEstadoIn(List.of(ESTADO_INACTIVO, ESTADO_SUSPENDIDO), paginacion(pagina, tamanio));
+    }
+
+    // Total y cantidad por estado en una sola consulta agregada
+    public EstadisticasUsuarios obtenerEstadisticas() {
+        Map<String, Long> porEstado = new LinkedHashMap<>();
+        for (String estado : List.of(ESTADO_ACTIVO, ESTADO_INACTIVO, ESTADO_SUSPENDIDO, ESTADO_PENDIENTE)) {
+            porEstado.put(estado, 0L);
+        }
+        long total = 0;
+        for (UsuarioRepository.ConteoPorEstado conteo : usuarioRepository.contarPorEstado()) {
+            // Los usuarios sin estado se cuentan en el total pero no en el detalle
+            if (conteo.getEstado() != null) {
+                porEstado.merge(conteo.getEstado().trim(), conteo.getCantidad(), Long::sum);
+            }
+            total += conteo.getCantidad();
+        }
+        return new EstadisticasUsuarios(total, porEstado);
+    }
+
+    // Página solicitada ordenada por ID (orden estable entre páginas), con tamaño acotado
+    private Pageable paginacion(Integer pagina, Integer tamanio) {
+        if (pagina != null && pagina < 0) {
+            throw new IllegalArgumentException("La página no puede ser negativa");
+        }
+        if (tamanio != null && tamanio <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor que 0");
+        }
+        int tamanioEfectivo = tamanio == null ? tamanioPaginaPorDefecto : Math.min(tamanio, tamanioPaginaMaximo);
+        return PageRequest.of(pagina == null ? 0 : pagina, tamanioEfectivo, Sort.by("usuarioId"));
     }
 
     // Buscar usuarios por nombre
@@ -92,10 +153,23 @@ public class UsuarioService {
     }
 
     public Optional<Usuario> update(Integer id, Usuario usuario) {
-        if (!usuarioRepository.existsById(id)) {
+        return update(id, usuario, null);
+    }
+
+    // Igual que update(id, usuario), pero solo si el usuario sigue en versionEsperada (If-Match).
+    // Con versionEsperada null se toma la versión actual. En ambos casos el UPDATE lleva la versión
+    // en el WHERE, así que una escritura concurrente lanza ObjectOptimisticLockingFailureException
+    // en lugar de pisarse en silencio.
+    public Optional<Usuario> update(Integer id, Usuario usuario, Long versionEsperada) {
+        Long versionActual = obtenerVersion(id);
+        if (versionActual == null) {
             return Optional.empty();
         }
+        if (versionEsperada != null && !versionEsperada.equals(versionActual)) {
+            throw new ObjectOptimisticLockingFailureException(Usuario.class, id);
+        }
         usuario.setUsuarioId(id);
+        usuario.setVersion(versionActual);
         return Optional.of(usuarioRepository.save(usuario));
     }
 
@@ -106,5 +180,19 @@ public class UsuarioService {
         usuarioRepository.deleteById(id);
         return true;
     }
+
+    // Elimina el usuario solo si sigue en versionEsperada (If-Match); con null equivale a delete(id).
+    public boolean delete(Integer id, Long versionEsperada) {
+        if (versionEsperada == null) {
+            return delete(id);
+        }
+        if (usuarioRepository.deleteByIdAndVersion(id, versionEsperada) == 1) {
+            return true;
+        }
+        if (usuarioRepository.existsById(id)) {
+            throw new ObjectOptimisticLockingFailureException(Usuario.class, id);
+        }
+        return false;
+    }
 }
 
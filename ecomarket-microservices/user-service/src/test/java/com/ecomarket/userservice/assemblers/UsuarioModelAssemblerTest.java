@@ -0,0 +1,106 @@
+package com.ecomarket.userservice.assemblers;
+
+import com.ecomarket.userservice.controller.UsuarioControllerV2;
+import com.ecomarket.userservice.model.Usuario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Links;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+@DisplayName("Tests para UsuarioModelAssembler")
+class UsuarioModelAssemblerTest {
+
+    private final UsuarioModelAssembler assembler = new UsuarioModelAssembler();
+
+    @AfterEach
+    void limpiar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Debería generar los mismos enlaces que linkTo para distintas bases de solicitud")
+    void deberiaGenerarLosMismosEnlacesQueLinkTo() {
+        // Given
+        Usuario activo = usuario(1, "activo", 2, 3);
+        Usuario suspendido = usuario(2, "suspendido", null, 4);
+        Usuario otro = usuario(3, "pendiente", 5, null);
+
+        for (String host : List.of("localhost", "api.ecomarket.cl")) {
+            solicitud(host);
+            for (Usuario usuario : List.of(activo, suspendido, otro)) {
+                // When / Then
+                assertThat(resumen(assembler.toModel(usuario).getLinks())).isEqualTo(resumen(esperados(usuario)));
+                assertThat(resumen(assembler.toSimpleModel(usuario).getLinks())).isEqualTo(resumen(Links.of(
+                        linkTo(methodOn(UsuarioControllerV2.class).getUsuarioById(usuario.getUsuarioId(), null)).withSelfRel())));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Debería generar enlaces relativos fuera de una solicitud HTTP")
+    void deberiaGenerarEnlacesRelativosSinSolicitud() {
+        // Given
+        Usuario usuario = usuario(4, "activo", 1, 1);
+
+        // When / Then
+        assertThat(resumen(assembler.toModel(usuario).getLinks())).isEqualTo(resumen(esperados(usuario)));
+        assertThat(assembler.toModel(usuario).getRequiredLink(IanaLinkRelations.SELF).getHref()).isEqualTo("/api/v2/usuarios/4");
+    }
+
+    // Implementación anterior de UsuarioModelAssembler.toModel
+    private Links esperados(Usuario usuario) {
+        Links links = Links.of(
+                linkTo(methodOn(UsuarioControllerV2.class).getUsuarioById(usuario.getUsuarioId(), null)).withSelfRel(),
+                linkTo(UsuarioControllerV2.class).withRel("usuarios"),
+                linkTo(methodOn(UsuarioControllerV2.class).updateUsuario(usuario.getUsuarioId(), null, null)).withRel("update"),
+                linkTo(methodOn(UsuarioControllerV2.class).deleteUsuario(usuario.getUsuarioId(), null)).withRel("delete"));
+        if ("activo".equalsIgnoreCase(usuario.getEstado())) {
+            links = links.and(linkTo(methodOn(UsuarioControllerV2.class).updateUsuario(usuario.getUsuarioId(), null, null))
+                    .withRel("deactivate").withTitle("Desactivar usuario"));
+        }
+        if ("inactivo".equalsIgnoreCase(usuario.getEstado()) || "suspendido".equalsIgnoreCase(usuario.getEstado())) {
+            links = links.and(linkTo(methodOn(UsuarioControllerV2.class).updateUsuario(usuario.getUsuarioId(), null, null))
+                    .withRel("activate").withTitle("Activar usuario"));
+        }
+        if (usuario.getRolId() != null) {
+            links = links.and(linkTo(UsuarioControllerV2.class).slash("rol").slash(usuario.getRolId())
+                    .withRel("same-role").withTitle("Usuarios del mismo rol"));
+        }
+        if (usuario.getTiendaId() != null) {
+            links = links.and(linkTo(UsuarioControllerV2.class).slash("tienda").slash(usuario.getTiendaId())
+                    .withRel("same-store").withTitle("Usuarios de la misma tienda"));
+        }
+        return links;
+    }
+
+    // Las affordances de linkTo solo se publican con HAL-FORMS, que no está habilitado
+    private static List<String> resumen(Links links) {
+        return links.stream()
+                .map(l -> l.getRel().value() + " " + l.getHref() + " " + l.isTemplated() + " " + l.getTitle())
+                .toList();
+    }
+
+    private static void solicitud(String host) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/usuarios");
+        request.setServerName(host);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static Usuario usuario(int id, String estado, Integer rolId, Integer tiendaId) {
+        Usuario usuario = new Usuario();
+        usuario.setUsuarioId(id);
+        usuario.setEstado(estado);
+        usuario.setRolId(rolId);
+        usuario.setTiendaId(tiendaId);
+        return usuario;
+    }
+}
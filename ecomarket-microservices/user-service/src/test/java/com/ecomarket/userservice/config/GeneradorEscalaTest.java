@@ -0,0 +1,64 @@
+package com.ecomarket.userservice.config;
+
+import com.ecomarket.userservice.model.Usuario;
+import com.ecomarket.userservice.reporistory.UsuarioRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:userdb_generador;DB_CLOSE_DELAY=-1",
+        "ecomarket.generador.escala=0.01",
+        "ecomarket.generador.hilos=3",
+        "ecomarket.generador.tamanio-lote=100"
+})
+@ActiveProfiles("test")
+@DisplayName("Tests para GeneradorEscala")
+class GeneradorEscalaTest {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Debe generar los usuarios de la escala con IDs consecutivos y correos únicos")
+    void debeGenerarUsuariosDeLaEscala() {
+        // When
+        long total = usuarioRepository.count();
+
+        // Then
+        assertThat(total).isEqualTo(1000);
+        assertThat(jdbcTemplate.queryForObject("SELECT MIN(usuario_id) FROM usuario", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT MAX(usuario_id) FROM usuario", Integer.class)).isEqualTo(1000);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT correo_usuario) FROM usuario", Integer.class))
+                .isEqualTo(1000);
+        // Los vendedores de los pedidos generados
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM usuario WHERE usuario_id <= ? AND rol_id = 3",
+                Integer.class, GeneradorEscala.VENDEDORES)).isEqualTo(GeneradorEscala.VENDEDORES);
+    }
+
+    @Test
+    @DisplayName("Los usuarios nuevos deben continuar después de los generados")
+    void debeContinuarIdentidadDespuesDeLosGenerados() {
+        // Given
+        Usuario usuario = new Usuario();
+        usuario.setNombreUsuario("Ana");
+        usuario.setApellido("Pérez");
+        usuario.setCorreoUsuario("ana.perez.nueva@ecomarket.cl");
+        usuario.setContraseña("secreta123");
+
+        // When
+        Usuario guardado = usuarioRepository.save(usuario);
+
+        // Then
+        assertThat(guardado.getUsuarioId()).isEqualTo(1001);
+        usuarioRepository.delete(guardado);
+    }
+}
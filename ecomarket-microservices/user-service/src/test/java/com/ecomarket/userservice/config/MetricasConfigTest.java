@@ -0,0 +1,72 @@
+package com.ecomarket.userservice.config;
+
+import com.ecomarket.userservice.model.Usuario;
+import com.ecomarket.userservice.reporistory.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:usuarios_metricas;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+@DisplayName("Tests de métricas por endpoint y repositorio en /actuator/prometheus")
+class MetricasConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository.deleteAll();
+        usuario = new Usuario();
+        usuario.setNombreUsuario("Ana");
+        usuario.setCorreoUsuario("ana@test.com");
+        usuario.setEstado("activo");
+        usuario = usuarioRepository.save(usuario);
+    }
+
+    @Test
+    @DisplayName("Debería publicar histogramas etiquetados con la plantilla de la URI, sentencias SQL y filas")
+    void deberiaPublicarHistogramas() throws Exception {
+        // Given
+        mockMvc.perform(get("/api/v2/usuarios/" + usuario.getUsuarioId())).andExpect(status().isOk());
+
+        // When
+        String prometheus = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertThat(prometheus)
+                .contains("http_server_requests_seconds_bucket{application=\"user-service\"")
+                .contains("uri=\"/api/v2/usuarios/{id}\"")
+                .doesNotContain("uri=\"/api/v2/usuarios/" + usuario.getUsuarioId() + "\"")
+                .contains("spring_data_repository_invocations_seconds_bucket{")
+                .contains("ecomarket_http_server_sql_statements_bucket{")
+                .contains("ecomarket_repository_rows_bucket{");
+        assertThat(meterRegistry.get(MetricasConfig.SENTENCIAS_POR_SOLICITUD)
+                .tags("method", "GET", "uri", "/api/v2/usuarios/{id}").summary().max()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get(MetricasConfig.FILAS_POR_METODO)
+                .tags("repository", "UsuarioRepository", "method", "findById").summary().max()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecomarket.userservice.controller;
+
+import com.ecomarket.userservice.config.FormatosBinariosConfig;
+import com.ecomarket.userservice.model.Usuario;
+import com.ecomarket.userservice.reporistory.UsuarioRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:usuarios_formatos;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Tests de negociación de CBOR y Smile en /api/v1 y /api/v2/usuarios")
+class UsuarioFormatosBinariosTest {
+
+    private static final MediaType APPLICATION_CBOR = MediaType.valueOf("application/cbor");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository.deleteAll();
+        for (int i = 1; i <= 20; i++) {
+            Usuario nuevo = new Usuario();
+            nuevo.setNombreUsuario("Usuario " + i);
+            nuevo.setCorreoUsuario("usuario" + i + "@test.com");
+            nuevo.setEstado("activo");
+            nuevo.setFechaRegistro("2025-06-01");
+            usuario = usuarioRepository.save(nuevo);
+        }
+    }
+
+    @Test
+    @DisplayName("Debería responder la misma colección HAL en JSON, CBOR y Smile")
+    void deberiaResponderLaMismaColeccionEnLosTresFormatos() throws Exception {
+        // When
+        byte[] json = mockMvc.perform(get("/api/v2/usuarios"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] cbor = mockMvc.perform(get("/api/v2/usuarios").accept(APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get("/api/v2/usuarios").accept(FormatosBinariosConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(FormatosBinariosConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then: mismo árbol (incluidos _embedded y _links) en menos bytes
+        JsonNode esperado = objectMapper.readTree(json);
+        assertThat(esperado.path("_embedded").path("usuarioList")).hasSize(20);
+        assertThat(new CBORMapper().readTree(cbor)).isEqualTo(esperado);
+        assertThat(new SmileMapper().readTree(smile)).isEqualTo(esperado);
+        assertThat(cbor.length).isLessThan(json.length);
+        assertThat(smile.length).isLessThan(json.length);
+    }
+
+    @Test
+    @DisplayName("Debería crear un usuario con cuerpo CBOR y responder en Smile")
+    void deberiaCrearConCuerpoCbor() throws Exception {
+        // Given
+        byte[] cuerpo = new CBORMapper().writeValueAsBytes(Map.of(
+                "nombreUsuario", "Ana",
+                "correoUsuario", "ana@test.com",
+                "estado", "activo"));
+
+        // When
+        byte[] respuesta = mockMvc.perform(post("/api/v1/usuarios")
+                        .contentType(APPLICATION_CBOR)
+                        .accept(FormatosBinariosConfig.APPLICATION_SMILE)
+                        .content(cuerpo))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(FormatosBinariosConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        assertThat(new SmileMapper().readTree(respuesta).path("correoUsuario").asText()).isEqualTo("ana@test.com");
+        assertThat(usuarioRepository.count()).isEqualTo(21);
+    }
+
+    @Test
+    @DisplayName("Debería seguir respondiendo JSON sin Accept o con Accept */*")
+    void deberiaResponderJsonPorDefecto() throws Exception {
+        // Given
+        String url = "/api/v1/usuarios/" + usuario.getUsuarioId();
+
+        // When / Then
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get(url).accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecomarket.userservice.controller;
+
+import com.ecomarket.userservice.model.Usuario;
+import com.ecomarket.userservice.reporistory.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:usuarios_version;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Tests de ETag y solicitudes condicionales en /api/v1 y /api/v2/usuarios")
+class UsuarioVersionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository.deleteAll();
+        usuario = new Usuario();
+        usuario.setNombreUsuario("Ana");
+        usuario.setCorreoUsuario("ana@test.com");
+        usuario.setEstado("activo");
+        usuario = usuarioRepository.save(usuario);
+    }
+
+    @Test
+    @DisplayName("Debería responder 304 con el ETag vigente y 412 al escribir con uno viejo")
+    void deberiaAplicarSolicitudesCondicionales() throws Exception {
+        // Given
+        String v1 = "/api/v1/usuarios/" + usuario.getUsuarioId();
+        String v2 = "/api/v2/usuarios/" + usuario.getUsuarioId();
+
+        // When / Then: GET con ETag y 304 sin cuerpo
+        mockMvc.perform(get(v2))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+        mockMvc.perform(get(v1).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // PUT con la versión vigente: pasa a 1
+        usuario.setEstado("suspendido");
+        mockMvc.perform(put(v2).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(usuario)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        // Otro cliente con el ETag viejo no pisa el cambio ni elimina
+        usuario.setEstado("activo");
+        mockMvc.perform(put(v1).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(usuario)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete(v1).header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(usuarioRepository.findById(usuario.getUsuarioId()).orElseThrow().getEstado()).isEqualTo("suspendido");
+
+        // DELETE con la versión vigente
+        mockMvc.perform(delete(v2).header(HttpHeaders.IF_MATCH, "\"1\""))
+                .andExpect(status().isNoContent());
+        assertThat(usuarioRepository.count()).isZero();
+    }
+}
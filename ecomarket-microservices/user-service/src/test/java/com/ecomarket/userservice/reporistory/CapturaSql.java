@@ -0,0 +1,35 @@
+package com.ecomarket.userservice.reporistory;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StatementInspector de prueba: guarda el SQL que Hibernate envía a la base de datos
+ * para poder ejecutarle EXPLAIN (ver PlanesDeConsultaTest).
+ */
+public class CapturaSql implements StatementInspector {
+
+    private static final List<String> SENTENCIAS = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (SENTENCIAS) {
+            SENTENCIAS.add(sql);
+        }
+        return sql;
+    }
+
+    public static void limpiar() {
+        synchronized (SENTENCIAS) {
+            SENTENCIAS.clear();
+        }
+    }
+
+    public static List<String> sentencias() {
+        synchronized (SENTENCIAS) {
+            return new ArrayList<>(SENTENCIAS);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.ecomarket.userservice.reporistory;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regresión de planes de consulta: ejecuta cada método de UsuarioRepository sobre una
+ * tabla grande en H2, captura el SQL generado por Hibernate y le aplica EXPLAIN.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ecomarket.userservice.reporistory.CapturaSql"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Planes de consulta de UsuarioRepository")
+class PlanesDeConsultaTest {
+
+    private static final int USUARIOS = 30_000;
+
+    // Consultas que no pueden usar un índice B-tree
+    private static final Map<String, String> ESCANEO_PERMITIDO = Map.of(
+        "UsuarioRepository.findByNombreUsuarioContainingIgnoreCase(String)", "LIKE '%texto%' sobre LOWER(nombre)",
+        "UsuarioRepository.contarPorEstado()", "GROUP BY LOWER(estado) sobre todos los usuarios",
+        "UsuarioRepository.normalizarEstados()", "backfill de una sola vez al arrancar, compara LOWER(TRIM(estado))"
+    );
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    void poblar() {
+        // Given - estados ya normalizados, como los deja Usuario.normalizarEstado
+        Random random = new Random(42);
+        String[] estados = {"activo", "inactivo", "suspendido"};
+        List<Object[]> filas = new ArrayList<>(USUARIOS);
+        for (int i = 0; i < USUARIOS; i++) {
+            filas.add(new Object[] {"Usuario" + i, "Apellido" + i, "usuario" + i + "@ecomarket.com", "secreto123",
+                    1 + random.nextInt(4), 1 + random.nextInt(300), "2024-01-01", estados[random.nextInt(estados.length)]});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO usuario (nombre_usuario, apellido, correo_usuario, contraseña, rol_id, " +
+                "tienda_id, fecha_registro, estado) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", filas);
+        // Estadísticas de selectividad para el optimizador de H2
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // Una invocación representativa por método declarado en el repositorio
+    private Map<String, Runnable> consultas() {
+        PageRequest pagina = PageRequest.of(3, 50, Sort.by("usuarioId"));
+        Map<String, Runnable> consultas = new LinkedHashMap<>();
+        consultas.put("UsuarioRepository.findByCorreoUsuario(String)", () -> usuarioRepository.findByCorreoUsuario("usuario42@ecomarket.com"));
+        consultas.put("UsuarioRepository.findByRolId(Integer)", () -> usuarioRepository.findByRolId(2));
+        consultas.put("UsuarioRepository.findByTiendaId(Integer)", () -> usuarioRepository.findByTiendaId(7));
+        consultas.put("UsuarioRepository.findByEstado(String)", () -> usuarioRepository.findByEstado("suspendido"));
+        consultas.put("UsuarioRepository.findByEstado(String,Pageable)", () -> usuarioRepository.findByEstado("activo", pagina));
+        consultas.put("UsuarioRepository.findByEstadoIn(Collection,Pageable)", () -> usuarioRepository.findByEstadoIn(List.of("inactivo", "suspendido"), pagina));
+        consultas.put("UsuarioRepository.contarPorEstado()", () -> usuarioRepository.contarPorEstado());
+        consultas.put("UsuarioRepository.normalizarEstados()", () -> usuarioRepository.normalizarEstados());
+        consultas.put("UsuarioRepository.existsByCorreoUsuario(String)", () -> usuarioRepository.existsByCorreoUsuario("usuario42@ecomarket.com"));
+        consultas.put("UsuarioRepository.findByNombreUsuarioContainingIgnoreCase(String)", () -> usuarioRepository.findByNombreUsuarioContainingIgnoreCase("usuario42"));
+        consultas.put("UsuarioRepository.findVersionById(Integer)", () -> usuarioRepository.findVersionById(42));
+        consultas.put("UsuarioRepository.deleteByIdAndVersion(Integer,Long)", () -> usuarioRepository.deleteByIdAndVersion(42, 99L));
+        return consultas;
+    }
+
+    @TestFactory
+    Stream<DynamicTest> ningunaConsultaRecorreLaTablaCompleta() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        return consultas().entrySet().stream()
+                .map(consulta -> DynamicTest.dynamicTest(consulta.getKey(), () -> {
+                    // When
+                    CapturaSql.limpiar();
+                    transaccion.executeWithoutResult(status -> consulta.getValue().run());
+                    List<String> sentencias = CapturaSql.sentencias();
+
+                    // Then
+                    assertThat(sentencias).as("SQL capturado para %s", consulta.getKey()).isNotEmpty();
+                    if (!ESCANEO_PERMITIDO.containsKey(consulta.getKey())) {
+                        for (String sql : sentencias) {
+                            assertThat(recorreTablaCompleta(explicar(sql)))
+                                    .as("%s recorre la tabla completa:%n%s", consulta.getKey(), explicar(sql))
+                                    .isFalse();
+                        }
+                    }
+                }));
+    }
+
+    @Test
+    @DisplayName("Todos los métodos de UsuarioRepository tienen su chequeo de plan")
+    void todosLosMetodosEstanCubiertos() {
+        // Given
+        Set<String> declarados = new TreeSet<>();
+        for (Method metodo : UsuarioRepository.class.getDeclaredMethods()) {
+            if (!metodo.isDefault() && !metodo.isSynthetic()) {
+                declarados.add("UsuarioRepository." + metodo.getName() + "(" +
+                        Arrays.stream(metodo.getParameterTypes()).map(Class::getSimpleName).collect(Collectors.joining(",")) + ")");
+            }
+        }
+
+        // When
+        declarados.removeAll(consultas().keySet());
+
+        // Then
+        assertThat(declarados).as("Métodos de repositorio sin chequeo de plan").isEmpty();
+    }
+
+    private String explicar(String sql) {
+        return jdbcTemplate.query(con -> con.prepareStatement("EXPLAIN " + sql),
+                rs -> rs.next() ? rs.getString(1) : "");
+    }
+
+    // MIN/MAX sin filtro sobre una columna indexada se resuelven sin leer filas ("direct lookup")
+    private static boolean recorreTablaCompleta(String plan) {
+        return plan.contains(".tableScan") && !plan.contains("/* direct lookup */");
+    }
+}
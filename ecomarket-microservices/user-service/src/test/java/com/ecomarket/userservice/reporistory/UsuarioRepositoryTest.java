@@ -7,9 +7,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -160,4 +165,113 @@ class UsuarioRepositoryTest {
         assertThat(resultado).hasSize(1);
         assertThat(resultado.get(0).getNombreUsuario()).isEqualTo("Carlos");
     }
+
+    @Test
+    @DisplayName("Debería guardar el estado normalizado en minúsculas")
+    void deberiaGuardarEstadoNormalizado() {
+        // Given
+        Usuario usuario3 = new Usuario();
+        usuario3.setNombreUsuario("Pedro");
+        usuario3.setCorreoUsuario("pedro@test.com");
+        usuario3.setEstado(" ACTIVO ");
+        entityManager.persistAndFlush(usuario3);
+
+        // When
+        List<Usuario> usuariosActivos = usuarioRepository.findByEstado("activo");
+
+        // Then
+        assertThat(usuariosActivos).extracting(Usuario::getNombreUsuario)
+                .containsExactlyInAnyOrder("Ana", "Pedro");
+    }
+
+    @Test
+    @DisplayName("Debería normalizar el estado de filas escritas sin pasar por la entidad")
+    void deberiaNormalizarEstadosExistentes() {
+        // Given: filas previas a la normalización, escritas por SQL
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE usuario SET estado = ' Activo ' WHERE usuario_id = " + usuario1.getUsuarioId())
+                .executeUpdate();
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE usuario SET estado = 'INACTIVO' WHERE usuario_id = " + usuario2.getUsuarioId())
+                .executeUpdate();
+        entityManager.clear();
+
+        // When
+        int normalizados = usuarioRepository.normalizarEstados();
+        int repetido = usuarioRepository.normalizarEstados();
+
+        // Then
+        assertThat(normalizados).isEqualTo(2);
+        assertThat(repetido).isZero();
+        assertThat(usuarioRepository.findByEstado("activo")).extracting(Usuario::getNombreUsuario).containsExactly("Ana");
+        assertThat(usuarioRepository.findByEstado("inactivo")).extracting(Usuario::getNombreUsuario).containsExactly("Carlos");
+        assertThat(usuarioRepository.findVersionById(usuario1.getUsuarioId())).contains(1L);
+        assertThat(usuarioRepository.contarPorEstado()).extracting(UsuarioRepository.ConteoPorEstado::getEstado)
+                .containsExactlyInAnyOrder("activo", "inactivo");
+    }
+
+    @Test
+    @DisplayName("Debería contar usuarios por estado en una sola consulta")
+    void deberiaContarUsuariosPorEstado() {
+        // Given
+        Usuario usuario3 = new Usuario();
+        usuario3.setNombreUsuario("Pedro");
+        usuario3.setCorreoUsuario("pedro@test.com");
+        usuario3.setEstado("suspendido");
+        entityManager.persistAndFlush(usuario3);
+
+        // When
+        Map<String, Long> conteos = usuarioRepository.contarPorEstado().stream()
+                .collect(Collectors.toMap(UsuarioRepository.ConteoPorEstado::getEstado,
+                                          UsuarioRepository.ConteoPorEstado::getCantidad));
+
+        // Then
+        assertThat(conteos).containsExactlyInAnyOrderEntriesOf(
+                Map.of("activo", 1L, "inactivo", 1L, "suspendido", 1L));
+    }
+
+    @Test
+    @DisplayName("Debería paginar usuarios filtrados por estado")
+    void deberiaPaginarUsuariosPorEstado() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            Usuario usuario = new Usuario();
+            usuario.setNombreUsuario("Activo" + i);
+            usuario.setCorreoUsuario("activo" + i + "@test.com");
+            usuario.setEstado("activo");
+            entityManager.persistAndFlush(usuario);
+        }
+
+        // When
+        Page<Usuario> primera = usuarioRepository.findByEstado("activo", PageRequest.of(0, 3, Sort.by("usuarioId")));
+        Page<Usuario> segunda = usuarioRepository.findByEstado("activo", PageRequest.of(1, 3, Sort.by("usuarioId")));
+        Page<Usuario> inactivos = usuarioRepository.findByEstadoIn(List.of("inactivo", "suspendido"), PageRequest.of(0, 10));
+
+        // Then
+        assertThat(primera.getTotalElements()).isEqualTo(4);
+        assertThat(primera.getContent()).extracting(Usuario::getNombreUsuario)
+                .containsExactly("Ana", "Activo0", "Activo1");
+        assertThat(primera.hasNext()).isTrue();
+        assertThat(segunda.getContent()).extracting(Usuario::getNombreUsuario).containsExactly("Activo2");
+        assertThat(inactivos.getContent()).extracting(Usuario::getNombreUsuario).containsExactly("Carlos");
+    }
+
+    @Test
+    @DisplayName("Debería incrementar la versión en cada actualización y eliminar solo con la versión actual")
+    void deberiaUsarLaVersionParaEscriturasCondicionales() {
+        // Given
+        assertThat(usuarioRepository.findVersionById(usuario1.getUsuarioId())).contains(0L);
+        usuario1.setEstado("suspendido");
+        entityManager.persistAndFlush(usuario1);
+
+        // When
+        int conVersionVieja = usuarioRepository.deleteByIdAndVersion(usuario1.getUsuarioId(), 0L);
+        int conVersionActual = usuarioRepository.deleteByIdAndVersion(usuario1.getUsuarioId(), 1L);
+
+        // Then
+        assertThat(conVersionVieja).isZero();
+        assertThat(conVersionActual).isEqualTo(1);
+        assertThat(usuarioRepository.findVersionById(usuario1.getUsuarioId())).isEmpty();
+        assertThat(usuarioRepository.findVersionById(999)).isEmpty();
+    }
 }
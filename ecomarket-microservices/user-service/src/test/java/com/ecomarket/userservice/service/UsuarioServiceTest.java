@@ -1,5 +1,6 @@
 package com.ecomarket.userservice.service;
 
+import com.ecomarket.userservice.model.EstadisticasUsuarios;
 import com.ecomarket.userservice.model.Usuario;
 import com.ecomarket.userservice.reporistory.UsuarioRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +11,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -17,6 +22,9 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -125,7 +133,7 @@ class UsuarioServiceTest {
         usuarioActualizado.setApellido("Pérez López");
         usuarioActualizado.setCorreoUsuario("juancarlos@test.com");
 
-        when(usuarioRepository.existsById(1)).thenReturn(true);
+        when(usuarioRepository.findVersionById(1)).thenReturn(Optional.of(2L));
         when(usuarioRepository.save(any(Usuario.class))).thenReturn(usuarioActualizado);
 
         // When
@@ -135,22 +143,53 @@ class UsuarioServiceTest {
         assertThat(resultado).isPresent();
         assertThat(resultado.get().getNombreUsuario()).isEqualTo("Juan Carlos");
         assertThat(resultado.get().getCorreoUsuario()).isEqualTo("juancarlos@test.com");
-        verify(usuarioRepository, times(1)).existsById(1);
+        // La versión se toma de la base, no del cuerpo de la solicitud
+        assertThat(usuarioActualizado.getVersion()).isEqualTo(2L);
+        verify(usuarioRepository, times(1)).findVersionById(1);
         verify(usuarioRepository, times(1)).save(usuarioActualizado);
     }
 
+    @Test
+    @DisplayName("Debería rechazar la actualización si la versión no coincide con If-Match")
+    void deberiaRechazarActualizacionConVersionDistinta() {
+        // Given
+        when(usuarioRepository.findVersionById(1)).thenReturn(Optional.of(3L));
+
+        // When / Then
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> usuarioService.update(1, usuarioTest, 2L));
+        verify(usuarioRepository, never()).save(any(Usuario.class));
+    }
+
+    @Test
+    @DisplayName("Debería eliminar con If-Match solo si la versión coincide")
+    void deberiaEliminarConVersion() {
+        // Given
+        when(usuarioRepository.deleteByIdAndVersion(1, 3L)).thenReturn(1);
+        when(usuarioRepository.deleteByIdAndVersion(1, 2L)).thenReturn(0);
+        when(usuarioRepository.existsById(1)).thenReturn(true);
+        when(usuarioRepository.deleteByIdAndVersion(999, 2L)).thenReturn(0);
+        when(usuarioRepository.existsById(999)).thenReturn(false);
+
+        // When / Then
+        assertThat(usuarioService.delete(1, 3L)).isTrue();
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> usuarioService.delete(1, 2L));
+        assertThat(usuarioService.delete(999, 2L)).isFalse();
+        verify(usuarioRepository, never()).deleteById(anyInt());
+    }
+
     @Test
     @DisplayName("Debería retornar Optional vacío al actualizar usuario inexistente")
     void deberiaRetornarOptionalVacioAlActualizarUsuarioInexistente() {
         // Given
-        when(usuarioRepository.existsById(999)).thenReturn(false);
+        when(usuarioRepository.findVersionById(999)).thenReturn(Optional.empty());
 
         // When
         Optional<Usuario> resultado = usuarioService.update(999, usuarioTest);
 
         // Then
         assertThat(resultado).isEmpty();
-        verify(usuarioRepository, times(1)).existsById(999);
+        verify(usuarioRepository, times(1)).findVersionById(999);
         verify(usuarioRepository, never()).save(any(Usuario.class));
     }
 
@@ -183,4 +222,68 @@ class UsuarioServiceTest {
         verify(usuarioRepository, times(1)).existsById(999);
         verify(usuarioRepository, never()).deleteById(anyInt());
     }
+
+    @Test
+    @DisplayName("Debería buscar usuarios activos con el estado en minúsculas")
+    void deberiaBuscarUsuariosActivosConEstadoNormalizado() {
+        // Given
+        when(usuarioRepository.findByEstado("activo")).thenReturn(List.of(usuarioTest));
+
+        // When
+        List<Usuario> resultado = usuarioService.obtenerUsuariosActivos();
+
+        // Then
+        assertThat(resultado).containsExactly(usuarioTest);
+        verify(usuarioRepository, never()).findByEstado("ACTIVO");
+    }
+
+    @Test
+    @DisplayName("Debería acotar el tamaño de página y rechazar parámetros inválidos")
+    void deberiaAcotarTamanioDePagina() {
+        // Given
+        when(usuarioRepository.findByEstado(eq("activo"), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(usuarioTest)));
+
+        // When
+        usuarioService.obtenerUsuariosActivos(null, 10_000);
+
+        // Then
+        verify(usuarioRepository).findByEstado(eq("activo"), argThat((Pageable p) -> p.getPageSize() == 500 && p.getPageNumber() == 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> usuarioService.obtenerUsuariosInactivos(-1, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> usuarioService.obtenerUsuariosInactivos(0, 0));
+    }
+
+    @Test
+    @DisplayName("Debería armar las estadísticas a partir del conteo agregado")
+    void deberiaArmarEstadisticasDesdeConteoAgregado() {
+        // Given
+        when(usuarioRepository.contarPorEstado()).thenReturn(List.of(
+                conteo("activo", 7L), conteo("inactivo", 2L), conteo(null, 1L)));
+
+        // When
+        EstadisticasUsuarios estadisticas = usuarioService.obtenerEstadisticas();
+
+        // Then
+        assertThat(estadisticas.total()).isEqualTo(10);
+        assertThat(estadisticas.cantidad("activo")).isEqualTo(7);
+        assertThat(estadisticas.cantidad("inactivo")).isEqualTo(2);
+        assertThat(estadisticas.cantidad("suspendido")).isZero();
+        assertThat(estadisticas.porEstado()).containsKeys("activo", "inactivo", "suspendido", "pendiente");
+        verify(usuarioRepository, never()).findAll();
+    }
+
+    private UsuarioRepository.ConteoPorEstado conteo(String estado, Long cantidad) {
+        return new UsuarioRepository.ConteoPorEstado() {
+            @Override
+            public String getEstado() {
+                return estado;
+            }
+
+            @Override
+            public Long getCantidad() {
+                return cantidad;
+            }
+        };
+    }
 }